@@ -0,0 +1,14 @@
+package phonetics;
+
+
+/**
+ * Our phonetics interface
+ */
+public interface Phonetics {
+
+    /**
+     * encode implementation
+     */
+    public String encode(String name);
+
+}
\ No newline at end of file
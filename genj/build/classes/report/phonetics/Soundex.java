@@ -0,0 +1,19 @@
+package phonetics;
+
+/**
+ * The soundex implementation shared with GenJ's phonetic index
+ * @see genj.util.Soundex
+ */
+public class Soundex extends genj.util.Soundex implements Phonetics {
+
+    /** constructor */
+    public Soundex() {
+        super();
+    }
+
+    /** constructor */
+    public Soundex(char[] mapping) {
+        super(mapping);
+    }
+
+}
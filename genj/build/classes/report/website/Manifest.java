@@ -0,0 +1,107 @@
+package website;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content hashes of the pages in a site. A page that is generated again 
+ * with the same content doesn't have to be written again.
+ */
+public class Manifest {
+	protected static final String FILE_NAME = "manifest.txt";
+	
+	private File dir;
+	private Map<String, String> hashes = new HashMap<String, String>();
+	private Map<String, String> seen = new TreeMap<String, String>();
+	private int written = 0;
+
+	/**
+	 * Constructor - reads the manifest of a previous run in dir if there is one
+	 */
+	public Manifest(File dir) throws IOException {
+		this.dir = dir;
+		File file = new File(dir, FILE_NAME);
+		if (!file.exists()) return;
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+		try {
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				int space = line.indexOf(' ');
+				if (space > 0) hashes.put(line.substring(space + 1), line.substring(0, space));
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Remember the content of a page
+	 * @return whether the page has to be written since its content is new 
+	 */
+	public boolean update(File file, byte[] content) {
+		String path = getPath(file);
+		String hash = hash(content);
+		seen.put(path, hash);
+		if (hash.equals(hashes.get(path)) && file.exists()) return false;
+		written++;
+		return true;
+	}
+
+	/**
+	 * Number of pages that had to be written
+	 */
+	public int getWritten() {
+		return written;
+	}
+
+	/**
+	 * Number of pages that were seen
+	 */
+	public int getSize() {
+		return seen.size();
+	}
+
+	/**
+	 * Save the hashes of pages seen in this run
+	 */
+	public void save() throws IOException {
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, FILE_NAME)), "UTF-8"));
+		try {
+			for (Map.Entry<String, String> entry : seen.entrySet()) 
+				out.println(entry.getValue() + " " + entry.getKey());
+		} finally {
+			out.close();
+		}
+	}
+
+	private String getPath(File file) {
+		String path = file.getAbsolutePath();
+		String root = dir.getAbsolutePath() + File.separator;
+		if (path.startsWith(root)) path = path.substring(root.length());
+		return path.replace(File.separatorChar, '/');
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(content);
+			StringBuffer result = new StringBuffer(digest.length * 2);
+			for (byte b : digest) {
+				result.append(Character.forDigit((b >> 4) & 0xf, 16));
+				result.append(Character.forDigit(b & 0xf, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -34,6 +34,7 @@ import genj.io.GedcomReader;
 import genj.io.GedcomReaderContext;
 import genj.io.GedcomReaderFactory;
 import genj.io.GedcomWriter;
+import genj.renderer.BlueprintRenderer;
 import genj.util.EnvironmentChecker;
 import genj.util.Origin;
 import genj.util.Registry;
@@ -600,6 +601,7 @@ public class Workbench extends JPanel implements SelectionSink {
     // tell 
     for (WorkbenchListener listener: listeners)
       listener.gedcomClosed(this, context.getGedcom());
+    BlueprintRenderer.close(context.getGedcom());
     
     // remember context
     REGISTRY.put(context.getGedcom().getName(), context.toString());
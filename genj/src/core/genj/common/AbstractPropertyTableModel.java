@@ -22,9 +22,16 @@ package genj.common;
 import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
 import genj.gedcom.GedcomListener;
+import genj.gedcom.GedcomException;
 import genj.gedcom.Property;
+import genj.gedcom.PropertyAge;
+import genj.gedcom.PropertyChange;
 import genj.gedcom.PropertyDate;
+import genj.gedcom.PropertyName;
 import genj.gedcom.PropertySex;
+import genj.gedcom.PropertyXRef;
+import genj.gedcom.time.Delta;
+import genj.gedcom.time.PointInTime;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -176,4 +183,66 @@ public abstract class AbstractPropertyTableModel implements PropertyTableModel,
   /*package*/ static int defaultCompare(Property valueA, Property valueB, int col) {
     return valueA.compareTo(valueB);
   }
+
+  /**
+   * A cell's sort key - a Number, a String or a String[] with parts ordered one after 
+   * the other. Rows are sorted by keys while all cells of a column have one, otherwise
+   * with compare(). A model overriding compare() has to return null where keys would 
+   * order differently.
+   */
+  public Object getSortKey(Property property, int row, int col) {
+    return getDefaultSortKey(property, row, col);
+  }
+  
+  @SuppressWarnings("deprecation")
+  /*package*/ static Object getDefaultSortKey(Property property, int row, int col) {
+    
+    // ids by number
+    if (property instanceof Entity) {
+      String id = ((Entity)property).getId();
+      int start = 0, end = id.length()-1;
+      while (start<=end&&!Character.isDigit(id.charAt(start))) start++;
+      while (end>=start&&!Character.isDigit(id.charAt(end))) end--;
+      try {
+        return Integer.valueOf(id.substring(start, end+1));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    
+    // dates - invalid before valid ones
+    if (property instanceof PropertyDate) {
+      PointInTime start = ((PropertyDate)property).getStart();
+      try {
+        return start.isValid() ? start.getJulianDay() : -Double.MAX_VALUE;
+      } catch (GedcomException e) {
+        return -Double.MAX_VALUE;
+      }
+    }
+    
+    // times
+    if (property instanceof PropertyChange) 
+      return ((PropertyChange)property).getTime();
+    
+    // ages - years, months and days
+    if (property instanceof PropertyAge) {
+      Delta age = ((PropertyAge)property).getAge();
+      if (age==null||age.getMonths()>=100||age.getDays()>=100)
+        return null;
+      return age.getYears()*10000D + age.getMonths()*100 + age.getDays();
+    }
+    
+    // names - last name then first name
+    if (property instanceof PropertyName) {
+      PropertyName name = (PropertyName)property;
+      return new String[]{ name.getLastName(), name.getFirstName() };
+    }
+    
+    // references show targets that change without them, numbers don't expose their value
+    if (property instanceof PropertyXRef || property instanceof genj.gedcom.PropertyNumericValue)
+      return null;
+    
+    // everything else by display value
+    return property.getDisplayValue();
+  }
 }
@@ -50,6 +50,7 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.StringTokenizer;
@@ -718,13 +719,16 @@ public class PropertyTableWidget extends JPanel  {
     /**
      * The logical model
      */
-    private class Model extends AbstractTableModel implements PropertyTableModelListener, SortableTableModel.RowComparator {
+    private class Model extends AbstractTableModel implements PropertyTableModelListener, SortableTableModel.RowComparator, SortableTableModel.RowIndexComparator {
       
       /** our model */
       private PropertyTableModel model;
       
       /** cached table content */
-      private Property cells[][];
+      private List<Property[]> cells;
+      
+      /** cached sort keys per column */
+      private Keys[] keys;
       
       /** constructor */
       private Model(PropertyTableModel set) {
@@ -735,22 +739,38 @@ public class PropertyTableWidget extends JPanel  {
       
       public void handleRowsAdded(PropertyTableModel model, int rowStart, int rowEnd) {
         
-        // flush cell state
-        int 
-          rows = model.getNumRows(), 
-          cols = model.getNumCols();
-        cells = new Property[rows][cols];
+        // make room in cell state
+        if (cells!=null) {
+          int cols = model.getNumCols();
+          for (int i=rowStart; i<=rowEnd; i++)
+            cells.add(i, new Property[cols]);
+        }
+        
+        // and in keys
+        if (keys!=null) {
+          for (int col=0; col<keys.length; col++) {
+            if (keys[col]!=null) 
+              keys[col].insert(col, rowStart, rowEnd);
+          }
+        }
         
         // tell about it
         fireTableRowsInserted(rowStart, rowEnd);
       }
       
       public void handleRowsDeleted(PropertyTableModel model, int rowStart, int rowEnd) {
-        // flush cell state
-        int 
-          rows = model.getNumRows(), 
-          cols = model.getNumCols();
-        cells = new Property[rows][cols];
+        
+        // drop cell state
+        if (cells!=null)
+          cells.subList(rowStart, rowEnd+1).clear();
+        
+        // and keys
+        if (keys!=null) {
+          for (int col=0; col<keys.length; col++) {
+            if (keys[col]!=null) 
+              keys[col].delete(rowStart, rowEnd);
+          }
+        }
         
         // tell about it
         fireTableRowsDeleted(rowStart, rowEnd);
@@ -758,8 +778,15 @@ public class PropertyTableWidget extends JPanel  {
       
       public void handleRowsChanged(PropertyTableModel model, int rowStart, int rowEnd, int col) {
         // flush cell state
-        for (int i=rowStart; i<=rowEnd; i++) 
-          cells[i][col] = null;
+        if (cells!=null) {
+          for (int i=rowStart; i<=rowEnd; i++) 
+            cells.get(i)[col] = null;
+        }
+        // recalculate keys
+        if (keys!=null&&keys[col]!=null) {
+          for (int i=rowStart; i<=rowEnd; i++) 
+            keys[col].set(i, col);
+        }
         // tell about it
         fireTableChanged(new TableModelEvent(this, rowStart, rowEnd, col));
       }
@@ -787,6 +814,33 @@ public class PropertyTableWidget extends JPanel  {
         return AbstractPropertyTableModel.defaultCompare((Property)valueA,(Property)valueB, col);
       }
       
+      @Override
+      public int compareRows(int rowA, int rowB, int col) {
+        
+        // keys for column
+        if (keys==null) 
+          keys = new Keys[model.getNumCols()];
+        Keys column = keys[col];
+        if (column==null) {
+          column = new Keys(model.getNumRows());
+          for (int row=0; row<column.size; row++) {
+            if (!column.set(row, col))
+              break;
+          }
+          keys[col] = column;
+        }
+        
+        // compare keys
+        if (column.isKeyed())
+          return column.compare(rowA, rowB);
+        
+        // compare values - null less than everything
+        Property a = getPropertyAt(rowA, col), b = getPropertyAt(rowB, col);
+        if (a==null||b==null)
+          return a==b ? 0 : (a==null ? -1 : 1);
+        return compare(a, b, col);
+      }
+      
       /**
        *  patched column name
        */
@@ -808,13 +862,18 @@ public class PropertyTableWidget extends JPanel  {
       private Property getPropertyAt(int row, int col) {
         
         // is cache setup?
-        if (cells==null) 
-          cells = new Property[model.getNumRows()][model.getNumCols()];
+        if (cells==null) {
+          int rows = model.getNumRows(), cols = model.getNumCols();
+          cells = new ArrayList<Property[]>(rows);
+          for (int i=0;i<rows;i++)
+            cells.add(new Property[cols]);
+        }
         
-        Property prop = cells[row][col];
+        Property[] props = cells.get(row);
+        Property prop = props[col];
         if (prop==null) {
           prop = model.getRowRoot(row).getProperty(model.getColPath(col));
-          cells[row][col] = prop;
+          props[col] = prop;
         }
         return prop;
       }
@@ -824,6 +883,135 @@ public class PropertyTableWidget extends JPanel  {
         return getPropertyAt(row, col);
       }
       
+      /**
+       * Sort keys of a column - numbers or collation keys for text as provided by the
+       * model. A column that contains a property without a key isn't keyed.
+       */
+      private class Keys {
+        
+        private int size;
+        private double[] numbers;
+        private byte[][] texts;
+        private boolean keyed;
+        private Collator collator = propertyModel.getGedcom().getCollator();
+        
+        private Keys(int size) {
+          this.size = size;
+          this.keyed = true;
+          numbers = new double[size];
+          texts = new byte[size][];
+        }
+        
+        private boolean isKeyed() {
+          return keyed;
+        }
+        
+        /** make room for rows */
+        private void insert(int col, int rowStart, int rowEnd) {
+          if (!keyed)
+            return;
+          int n = rowEnd-rowStart+1;
+          double[] ns = new double[size+n];
+          byte[][] ts = new byte[size+n][];
+          System.arraycopy(numbers, 0, ns, 0, rowStart);
+          System.arraycopy(numbers, rowStart, ns, rowEnd+1, size-rowStart);
+          System.arraycopy(texts, 0, ts, 0, rowStart);
+          System.arraycopy(texts, rowStart, ts, rowEnd+1, size-rowStart);
+          numbers = ns;
+          texts = ts;
+          size += n;
+          for (int i=rowStart; i<=rowEnd && keyed; i++)
+            set(i, col);
+        }
+        
+        /** drop rows */
+        private void delete(int rowStart, int rowEnd) {
+          if (!keyed)
+            return;
+          int n = rowEnd-rowStart+1;
+          System.arraycopy(numbers, rowEnd+1, numbers, rowStart, size-rowEnd-1);
+          System.arraycopy(texts, rowEnd+1, texts, rowStart, size-rowEnd-1);
+          size -= n;
+          Arrays.fill(texts, size, size+n, null);
+        }
+        
+        /** calculate a row's key */
+        private boolean set(int row, int col) {
+          
+          if (!keyed)
+            return false;
+          
+          Property prop = getPropertyAt(row, col);
+          numbers[row] = Double.NaN;
+          texts[row] = null;
+          
+          // null
+          if (prop==null) {
+            numbers[row] = Double.NEGATIVE_INFINITY;
+            return true;
+          }
+          
+          // key from model
+          Object key;
+          if (propertyModel instanceof AbstractPropertyTableModel)
+            key = ((AbstractPropertyTableModel)propertyModel).getSortKey(prop, row, col);
+          else
+            key = AbstractPropertyTableModel.getDefaultSortKey(prop, row, col);
+          
+          // numbers
+          if (key instanceof Number) {
+            numbers[row] = ((Number)key).doubleValue();
+            return true;
+          }
+          
+          // text
+          if (key instanceof String) {
+            texts[row] = key((String)key);
+            return true;
+          }
+          
+          // parts of text - separated by zeros so that shorter parts come first
+          if (key instanceof String[]) {
+            String[] parts = (String[])key;
+            byte[] text = new byte[0];
+            for (int i=0; i<parts.length; i++) {
+              byte[] k = key(parts[i]);
+              int start = i==0 ? 0 : text.length+2;
+              text = Arrays.copyOf(text, start+k.length);
+              System.arraycopy(k, 0, text, start, k.length);
+            }
+            texts[row] = text;
+            return true;
+          }
+          
+          // compare instead
+          return keyed = false;
+        }
+        
+        /** compare two rows' keys - null first, numbers before texts */
+        private int compare(int rowA, int rowB) {
+          double a = numbers[rowA], b = numbers[rowB];
+          if (a==Double.NEGATIVE_INFINITY||b==Double.NEGATIVE_INFINITY||(!Double.isNaN(a)&&!Double.isNaN(b)))
+            return Double.compare(a, b);
+          if (!Double.isNaN(a))
+            return -1;
+          if (!Double.isNaN(b))
+            return 1;
+          byte[] ta = texts[rowA], tb = texts[rowB];
+          for (int i=0, j=Math.min(ta.length, tb.length); i<j; i++) {
+            int d = (ta[i]&0xff) - (tb[i]&0xff);
+            if (d!=0)
+              return d;
+          }
+          return ta.length - tb.length;
+        }
+        
+        /** collation key */
+        private byte[] key(String text) {
+          return collator.getCollationKey(text).toByteArray();
+        }
+      } //Keys
+      
     } //Model
     
     /**
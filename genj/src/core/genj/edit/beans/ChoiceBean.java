@@ -29,6 +29,7 @@ import genj.util.swing.DialogHelper;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.text.Collator;
 import java.util.Collections;
 import java.util.List;
 
@@ -64,7 +65,12 @@ public class ChoiceBean extends PropertyBean {
   public ChoiceBean() {
     
     // prepare a choice for the user
-    choices = new ChoiceWidget();
+    choices = new ChoiceWidget() {
+      @Override
+      protected Object getFirstValue(String prefix) {
+        return getFirstChoice(prefix);
+      }
+    };
     choices.addChangeListener(changeSupport);
     choices.setIgnoreCase(true);
 
@@ -127,6 +133,30 @@ public class ChoiceBean extends PropertyBean {
     // Done
   }
   
+  /**
+   * The first choice shown starting with given prefix - asks the index of choices instead 
+   * of looking through all
+   */
+  private String getFirstChoice(String prefix) {
+    
+    PropertyChoiceValue property = (PropertyChoiceValue)getProperty();
+    Gedcom gedcom = property!=null ? property.getGedcom() : getRoot().getGedcom();
+    String tag = property!=null ? property.getTag() : getPath().getLast();
+    Collator collator = gedcom.getCollator();
+    
+    List<String> vals = PropertyChoiceValue.getChoices(gedcom, tag, prefix);
+    String result = vals.isEmpty() ? null : vals.get(0);
+    
+    // defaults are shown, too
+    for (String def : PropertyChoiceValue.getDefaults(tag)) {
+      if (def.length()>=prefix.length() && collator.compare(def.substring(0, prefix.length()), prefix)==0
+        && (result==null || collator.compare(def, result)<0))
+        result = def;
+    }
+    
+    return result;
+  }
+  
   private List<String> getChoicesToShow(PropertyChoiceValue property) {
 
     Gedcom gedcom;
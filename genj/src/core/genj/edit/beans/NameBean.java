@@ -31,6 +31,7 @@ import genj.util.swing.TextFieldWidget;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.List;
 
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
@@ -75,7 +76,14 @@ public class NameBean extends PropertyBean {
     
     setLayout(LAYOUT.copy());
 
-    cLast  = new ChoiceWidget();
+    cLast  = new ChoiceWidget() {
+      @Override
+      protected Object getFirstValue(String prefix) {
+        // ask the index of names instead of looking through all
+        List<String> names = PropertyName.getLastNames(getRoot().getGedcom(), prefix);
+        return names.isEmpty() ? null : names.get(0);
+      }
+    };
     cLast.addChangeListener(changeSupport);
     cLast.addChangeListener(new ChangeListener() {
       public void stateChanged(ChangeEvent e) {
@@ -87,7 +95,13 @@ public class NameBean extends PropertyBean {
       }
     });
     cLast.setIgnoreCase(true);
-    cFirst = new ChoiceWidget();
+    cFirst = new ChoiceWidget() {
+      @Override
+      protected Object getFirstValue(String prefix) {
+        List<String> names = PropertyName.getFirstNames(getRoot().getGedcom(), prefix);
+        return names.isEmpty() ? null : names.get(0);
+      }
+    };
     cFirst.addChangeListener(changeSupport);
     cFirst.setIgnoreCase(true);
     tSuff  = new TextFieldWidget("", 10); 
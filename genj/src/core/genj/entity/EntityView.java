@@ -152,6 +152,7 @@ public class EntityView extends View implements ContextProvider {
       if (e==null) blueprint = BLUEPRINT_SELECT;
       else blueprint = getBlueprint(e.getTag()); 
       renderer = new BlueprintRenderer(blueprint);
+      renderer.setCached(true);
       
     }
     
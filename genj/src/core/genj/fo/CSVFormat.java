@@ -19,11 +19,20 @@
  */
 package genj.fo;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamResult;
 
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
 /** 
  * Format for CSV 
  */
@@ -48,13 +57,104 @@ public class CSVFormat extends Format {
    */
   protected void formatImpl(Document doc, OutputStream out) throws Throwable {
     
+    // write streamed documents directly
+    if (doc.isStreaming()) {
+      TransformerFactory.newInstance().newTransformer().transform(doc.getSource(), new SAXResult(new CSVWriter(out)));
+      return;
+    }
+    
     // grab xsl transformer
     Transformer transformer = getTemplates("./contrib/xslt/fo2csv.xsl").newTransformer();
     
     // do the transformation
-    transformer.transform(doc.getDOMSource(), new StreamResult(out));
+    transformer.transform(doc.getSource(), new StreamResult(out));
 
     // done
   }
   
+  /**
+   * Writing csv for SAX events - what fo2csv.xsl does without keeping the document around 
+   */
+  private static class CSVWriter extends DefaultHandler {
+    
+    private final static String NS_GENJ = "http://genj.sourceforge.net/XSL/Format";
+    
+    private Writer out;
+    
+    /** nesting of tables */
+    private int tables = 0;
+    
+    /** state in outermost csv table */
+    private boolean csv, row, cell;
+    private String prefix;
+    private int cells;
+    
+    private CSVWriter(OutputStream out) throws IOException {
+      this.out = new OutputStreamWriter(out, "UTF-8");
+    }
+    
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+      try {
+        if (localName.equals("table")) {
+          if (tables++==0) {
+            csv = "true".equals(atts.getValue(NS_GENJ, "csv"));
+            prefix = atts.getValue(NS_GENJ, "csvprefix");
+          }
+        } else if (csv&&tables==1) {
+          if (localName.equals("table-row")) {
+            row = true;
+            cells = 0;
+            if (prefix!=null) 
+              out.write(prefix+";");
+          } else if (row&&!cell&&localName.equals("table-cell")) {
+            cell = true;
+            if (cells++>0)
+              out.write(';');
+          }
+        }
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      try {
+        if (localName.equals("table")) {
+          if (--tables==0)
+            csv = false;
+        } else if (csv&&tables==1) {
+          if (localName.equals("table-row")) {
+            row = false;
+            out.write('\n');
+          } else if (localName.equals("table-cell")) {
+            cell = false;
+          }
+        }
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+      try {
+        if (cell)
+          out.write(ch, start, length);
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void endDocument() throws SAXException {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+  }
+  
 }
\ No newline at end of file
@@ -37,6 +37,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 
 import org.w3c.dom.Element;
@@ -101,17 +102,32 @@ public class Document {
   };
   private int minSectionFontSize;
   private int maxSectionFontSize;
-  private Map index2primary2secondary2elements = new TreeMap();
+  private Map index2primary2secondary2ids = new TreeMap();
   private int idSequence = 0;
   private boolean containsCSV = false;
+  private Spool spool;
   
   /**
    * Constructor
    */
   public Document(String title) {
+    this(title, false);
+  }
+  
+  /**
+   * Constructor
+   * @param title the title of the document
+   * @param streaming whether completed sections, list items and table rows should be
+   *  written to temporary files instead of being kept in memory (for large documents)
+   */
+  public Document(String title, boolean streaming) {
     
     // remember title
     this.title = title;
+    
+    // spool completed content?
+    if (streaming)
+      spool = new Spool(NS_XSLFO, NS_GENJ);
 
     // section size range
     setSectionSizes(FONT_MEDIUM, FONT_XX_LARGE);
@@ -263,6 +279,15 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
     cursor = null;
   }
   
+  /**
+   * Release temporary files of a streaming document - it can't be formatted
+   * anymore afterwards
+   */
+  public void dispose() {
+    if (spool!=null)
+      spool.close();
+  }
+  
   /**
    * Title access
    */
@@ -271,10 +296,17 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
   }
   
   /**
-   * Access to DOM source
+   * Whether completed content is spooled to temporary files
    */
-  /*package*/ DOMSource getDOMSource() {
-    return new DOMSource(doc);
+  /*package*/ boolean isStreaming() {
+    return spool!=null;
+  }
+  
+  /**
+   * Access to document source - DOM or SAX events for spooled content
+   */
+  /*package*/ Source getSource() {
+    return spool!=null ? spool.getSource(doc) : new DOMSource(doc);
   }
   
   /**
@@ -414,20 +446,20 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
     secondary = trimIndexTerm(secondary);
     
     // remember
-    Map primary2secondary2elements = (Map)index2primary2secondary2elements.get(index);
-    if (primary2secondary2elements==null) {
-      primary2secondary2elements = new TreeMap();
-      index2primary2secondary2elements.put(index, primary2secondary2elements);
+    Map primary2secondary2ids = (Map)index2primary2secondary2ids.get(index);
+    if (primary2secondary2ids==null) {
+      primary2secondary2ids = new TreeMap();
+      index2primary2secondary2ids.put(index, primary2secondary2ids);
     }
-    Map secondary2elements = (Map)primary2secondary2elements.get(primary);
-    if (secondary2elements==null) {
-      secondary2elements = new TreeMap();
-      primary2secondary2elements.put(primary, secondary2elements);
+    Map secondary2ids = (Map)primary2secondary2ids.get(primary);
+    if (secondary2ids==null) {
+      secondary2ids = new TreeMap();
+      primary2secondary2ids.put(primary, secondary2ids);
     }
-    List elements = (List)secondary2elements.get(secondary);
-    if (elements==null) {
-      elements = new ArrayList();
-      secondary2elements.put(secondary, elements);
+    List ids = (List)secondary2ids.get(secondary);
+    if (ids==null) {
+      ids = new ArrayList();
+      secondary2ids.put(secondary, ids);
     }
     
     // add anchor - normally that would be a fo:inline 
@@ -440,9 +472,9 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
       cursor.setAttribute("id", id);
     }
     
-    // remember the element for primary+secondary if the element isn't in there already
-    if (!elements.contains(cursor))
-        elements.add(cursor);
+    // remember the element's id for primary+secondary if it isn't in there already
+    if (!ids.contains(id))
+        ids.add(id);
     
     return this;
   }
@@ -509,7 +541,8 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
       elements = new ArrayList(3);
       file2elements.put(file, elements);
     }
-    elements.add(cursor);
+    if (spool==null)
+      elements.add(cursor);
     
     // back to enclosing block
     pop();
@@ -539,6 +572,9 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
       Element external = (Element)nodes.get(i);
       external.setAttribute("src", value);
     }
+    // spooled elements are patched when replayed
+    if (spool!=null)
+      spool.setSource(file.getAbsolutePath(), value);
   }
   
   /**
@@ -606,7 +642,7 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
     Element list = peek("list-block", "nextListItem() is not applicable outside list block");
     
     // a list with only one item containing an empty block?
-    if (list.getChildNodes().getLength()==1&&cursor.getFirstChild()==null&&cursor.getPreviousSibling()==null&&cursor.getParentNode().getLocalName().equals("list-item-body")) {
+    if (list.getChildNodes().getLength()==1&&!isSpooled(list)&&cursor.getFirstChild()==null&&cursor.getPreviousSibling()==null&&cursor.getParentNode().getLocalName().equals("list-item-body")) {
       // delete list-item and start over
       list.removeChild(list.getFirstChild());
     } 
@@ -913,42 +949,40 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
   private Document indexes() {
     
     // loop over indexes
-    for (Iterator indexes = index2primary2secondary2elements.keySet().iterator(); indexes.hasNext(); ) {
+    for (Iterator indexes = index2primary2secondary2ids.keySet().iterator(); indexes.hasNext(); ) {
       
       String index = (String)indexes.next();
-      Map primary2secondary2elements = (Map)index2primary2secondary2elements.get(index);
+      Map primary2secondary2ids = (Map)index2primary2secondary2ids.get(index);
       
       // add section
       nextPage();
       startSection(index);
-      push("block", "start-indent=1cm");
       
       // loop over primaries
-      for (Iterator primaries = primary2secondary2elements.keySet().iterator(); primaries.hasNext(); ) {
+      for (Iterator primaries = primary2secondary2ids.keySet().iterator(); primaries.hasNext(); ) {
         
         String primary = (String)primaries.next();
-        Map secondary2elements = (Map)primary2secondary2elements.get(primary);
+        Map secondary2ids = (Map)primary2secondary2ids.get(primary);
         
-        // add block and primary
-        push("block", "");
+        // add block and primary - each a block in flow by itself
+        nextParagraph("start-indent=1cm");
         text(primary+" ", "");
 
         // loop over secondaries
-        for (Iterator secondaries = secondary2elements.keySet().iterator(); secondaries.hasNext(); ) {
+        for (Iterator secondaries = secondary2ids.keySet().iterator(); secondaries.hasNext(); ) {
           
           String secondary = (String)secondaries.next();
-          List elements = (List)secondary2elements.get(secondary);
+          List ids = (List)secondary2ids.get(secondary);
           
           if (secondary.length()>0) {
             push("block", "start-indent=2cm"); //start-indent?
             text(secondary+" ", "");
           }
           
-          // loop over elements
-          for (int e=0;e<elements.size();e++) {
+          // loop over ids
+          for (int e=0;e<ids.size();e++) {
             if (e>0) text(", ", "");
-            Element element = (Element)elements.get(e);
-            String id = element.getAttribute("id");
+            String id = (String)ids.get(e);
             
             push("basic-link", "internal-destination="+id);
             push("page-number-citation", "ref-id="+id);
@@ -963,11 +997,9 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
         }
         
         // next
-        pop();
       }
 
       // next
-      pop();
     }
 
     
@@ -987,9 +1019,12 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
     
     // pop back to flow
     pop("flow", "can't create TOC without enclosing flow");
+    Element flow = cursor;
     
-    // add block for toc AS FIRST child
+    // add block for toc AS FIRST child (in front of spooled content)
     push("block", "", cursor.getFirstChild());
+    if (spool!=null)
+      spool.setHead(flow, cursor);
     
     //<block>
     //  Table of Contents
@@ -1040,10 +1075,14 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
   private Document push(String name, String attributes, Node before) {
     // create it, set attributes and hook it up
     Element elem = doc.createElementNS(NS_XSLFO, name);
-    if (before!=null)
+    if (before!=null) {
       cursor.insertBefore(elem, before);
-    else
+    } else {
+      // previous siblings are complete now
+      if (spool!=null)
+        spool.spool(cursor);
       cursor.appendChild(elem);
+    }
     cursor =  elem;
     // attribute it and done
     return attributes(elem, attributes);
@@ -1102,6 +1141,13 @@ select="$header-width * 0.3333"/><xsl:text>pc</xsl:text>
     return this;
   }
 
+  /**
+   * Check for spooled children of element
+   */
+  private boolean isSpooled(Element elem) {
+    return spool!=null&&spool.isSpooled(elem);
+  }
+
   /**
    * pop element from stack
    */
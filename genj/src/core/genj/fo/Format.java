@@ -178,7 +178,7 @@ public abstract class Format {
   }
   
   /**
-   * Format a document
+   * Format a document (releasing temporary files of a streaming document afterwards)
    */
   public void format(Document doc, OutputStream out) throws IOException {
     
@@ -195,6 +195,7 @@ public abstract class Format {
       throw new IOException(t.getMessage());
     } finally {
       try { out.close(); } catch (Throwable t) {}
+      doc.dispose();
     }
     
     // done
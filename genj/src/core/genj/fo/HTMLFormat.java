@@ -19,16 +19,35 @@
  */
 package genj.fo;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
-/** 
- * Format for HTML 
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Format for HTML
  */
 public class HTMLFormat extends Format {
-  
+
   /**
    * Constructor
    */
@@ -37,17 +56,167 @@ public class HTMLFormat extends Format {
   }
 
   /**
-   * Formatting logic 
+   * Formatting logic
    */
   protected void formatImpl(Document doc, OutputStream out) throws Throwable {
-    
+
     // grab xsl transformer
-    Transformer transformer = getTemplates("./contrib/xslt/fo2html.xsl").newTransformer();
-    
+    Templates templates = getTemplates("./contrib/xslt/fo2html.xsl");
+
+    // transform streamed documents one block in flow at a time
+    if (doc.isStreaming()) {
+      TransformerFactory.newInstance().newTransformer().transform(doc.getSource(), new SAXResult(new FlowSplitter(templates, out)));
+      return;
+    }
+
     // do the transformation
-    transformer.transform(doc.getDOMSource(), new StreamResult(out));
+    templates.newTransformer().transform(doc.getSource(), new StreamResult(out));
 
     // done
   }
-  
-}
\ No newline at end of file
+
+  /**
+   * Transforming the document without its flow, then each child of the flow by itself
+   */
+  private static class FlowSplitter extends DefaultHandler {
+
+    private final static String MARKER = "genj:flow";
+
+    private SAXTransformerFactory factory = (SAXTransformerFactory)TransformerFactory.newInstance();
+    private Transformer transformer;
+    private Writer out;
+
+    /** open elements above flow */
+    private List<String[]> path = new ArrayList<String[]>();
+
+    /** the current document (part) */
+    private TransformerHandler part;
+    private DOMResult result;
+    private int depth = 0, flow = -1;
+    private String tail;
+
+    private FlowSplitter(Templates templates, OutputStream out) throws Exception {
+      transformer = templates.newTransformer();
+      this.out = new OutputStreamWriter(out, transformer.getOutputProperty(OutputKeys.ENCODING));
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+      part = start();
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+
+      // a child of flow starts a new part
+      if (depth==flow+1&&flow>=0)
+        part = start();
+
+      if (part!=null)
+        part.startElement(uri, localName, qName, atts);
+
+      if (flow<0) {
+        path.add(new String[]{ uri, localName, qName });
+        if (localName.equals("flow")) {
+          // finish the document with a marker in flow - everything in front of it is written now
+          flow = depth;
+          char[] marker = MARKER.toCharArray();
+          part.characters(marker, 0, marker.length);
+          String html = end(path);
+          int i = html.indexOf(MARKER);
+          write(html.substring(0, i));
+          tail = html.substring(i+MARKER.length());
+        }
+      }
+
+      depth++;
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+
+      depth--;
+
+      if (flow<0)
+        path.remove(path.size()-1);
+
+      if (part!=null) {
+        part.endElement(uri, localName, qName);
+        // a finished child of flow
+        if (depth==flow+1)
+          write(strip(end(new ArrayList<String[]>())));
+      }
+
+      // flow is done - write what follows it
+      if (depth==flow) {
+        write(tail);
+        flow = Integer.MAX_VALUE;
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+      // text directly in flow isn't generated by Document
+      if (part!=null)
+        part.characters(ch, start, length);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+
+    /** start a new part */
+    private TransformerHandler start() throws SAXException {
+      try {
+        TransformerHandler result = factory.newTransformerHandler();
+        this.result = new DOMResult();
+        result.setResult(this.result);
+        result.startDocument();
+        return result;
+      } catch (TransformerException e) {
+        throw new SAXException(e);
+      }
+    }
+
+    /** end current part and transform it */
+    private String end(List<String[]> open) throws SAXException {
+      for (int i=open.size()-1;i>=0;i--)
+        part.endElement(open.get(i)[0], open.get(i)[1], open.get(i)[2]);
+      part.endDocument();
+      part = null;
+      try {
+        StringWriter html = new StringWriter();
+        transformer.transform(new DOMSource(result.getNode()), new StreamResult(html));
+        result = null;
+        return html.toString();
+      } catch (TransformerException e) {
+        throw new SAXException(e);
+      }
+    }
+
+    /** strip doctype off a part */
+    private String strip(String html) {
+      if (html.startsWith("<!DOCTYPE")) {
+        int i = html.indexOf('>')+1;
+        while (i<html.length()&&Character.isWhitespace(html.charAt(i)))
+          i++;
+        html = html.substring(i);
+      }
+      return html;
+    }
+
+    private void write(String html) throws SAXException {
+      try {
+        out.write(html);
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+  }
+
+}
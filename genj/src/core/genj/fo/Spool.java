@@ -0,0 +1,522 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.fo;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.Source;
+import javax.xml.transform.sax.SAXSource;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * A spool for completed parts of a document - children of containers that won't be
+ * touched anymore are written to temporary files (one per depth) and removed from the DOM.
+ * Since only the element receiving new children spools at a time the spooled children of an
+ * element are always one contiguous range in the file for their depth. Replaying the document
+ * as SAX events merges the DOM with those ranges.
+ */
+/*package*/ class Spool {
+
+  private final static Charset UTF8 = Charset.forName("UTF-8");
+
+  /** elements whose children are spooled */
+  private final static List<String> CONTAINERS = Arrays.asList("flow", "list-block", "table-body");
+
+  private final String nsFO, nsGenj;
+  private final byte[] open, close;
+
+  /** files by depth */
+  private List<Level> levels = new ArrayList<Level>();
+
+  /** spooled children by (unspooled) parent */
+  private Map<Node, Range> ranges = new HashMap<Node, Range>();
+
+  /** replacements for external-graphic sources */
+  private Map<String, String> sources = new HashMap<String, String>();
+
+  /**
+   * Constructor
+   */
+  /*package*/ Spool(String nsFO, String nsGenj) {
+    this.nsFO = nsFO;
+    this.nsGenj = nsGenj;
+    open = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><genj:chunk xmlns=\""+nsFO+"\" xmlns:genj=\""+nsGenj+"\">").getBytes(UTF8);
+    close = "</genj:chunk>".getBytes(UTF8);
+  }
+
+  /**
+   * Spool all but the last child of a container
+   */
+  /*package*/ void spool(Element parent) {
+
+    if (!CONTAINERS.contains(parent.getLocalName()))
+      return;
+    Node last = parent.getLastChild();
+    if (last==null||last.getPreviousSibling()==null)
+      return;
+
+    Range range = ranges.get(parent);
+    try {
+      int depth = getDepth(parent)+1;
+      Level level = getLevel(depth);
+
+      // children are only appended to the end of the parent's range
+      if (range!=null&&range.to!=level.position)
+        return;
+
+      StringBuilder xml = new StringBuilder(1024);
+      List<Node> spooled = new ArrayList<Node>();
+      for (Node child=parent.getFirstChild(); child!=last; child=child.getNextSibling()) {
+        if (range!=null&&child==range.head)
+          continue;
+        write(child, xml);
+        spooled.add(child);
+      }
+
+      byte[] bytes = xml.toString().getBytes(UTF8);
+      level.out.write(bytes);
+
+      if (range==null) {
+        range = new Range(depth, level.position);
+        ranges.put(parent, range);
+      }
+      level.position += bytes.length;
+      range.to = level.position;
+
+      for (Node child : spooled)
+        parent.removeChild(child);
+
+    } catch (IOException e) {
+      throw new RuntimeException("can't spool document", e);
+    }
+  }
+
+  /**
+   * Check whether an element has spooled children
+   */
+  /*package*/ boolean isSpooled(Element parent) {
+    return ranges.containsKey(parent);
+  }
+
+  /**
+   * Keep a child in front of spooled children
+   */
+  /*package*/ void setHead(Element parent, Node head) {
+    Range range = ranges.get(parent);
+    if (range!=null)
+      range.head = head;
+  }
+
+  /**
+   * Replace the source of spooled external graphics
+   */
+  /*package*/ void setSource(String src, String value) {
+    sources.put(src, value);
+  }
+
+  /**
+   * A SAX source for given document merging DOM and spooled ranges
+   */
+  /*package*/ Source getSource(org.w3c.dom.Document doc) {
+    return new SAXSource(new Replay(doc), new InputSource());
+  }
+
+  /**
+   * Close and delete all spool files - spooled content is lost afterwards
+   */
+  /*package*/ void close() {
+    for (Level level : levels) {
+      if (level!=null)
+        level.delete();
+    }
+    levels.clear();
+    ranges.clear();
+  }
+
+  private int getDepth(Node node) {
+    int result = 0;
+    for (Node parent=node.getParentNode(); parent!=null; parent=parent.getParentNode())
+      result++;
+    return result;
+  }
+
+  private Level getLevel(int depth) throws IOException {
+    while (levels.size()<=depth)
+      levels.add(null);
+    Level result = levels.get(depth);
+    if (result==null) {
+      result = new Level();
+      levels.set(depth, result);
+    }
+    return result;
+  }
+
+  /**
+   * Write xml for a node
+   */
+  private void write(Node node, StringBuilder xml) {
+
+    if (node.getNodeType()==Node.TEXT_NODE) {
+      escape(node.getNodeValue(), xml);
+      return;
+    }
+    if (node.getNodeType()!=Node.ELEMENT_NODE)
+      return;
+
+    String name = node.getNodeName();
+    xml.append('<').append(name);
+    NamedNodeMap atts = node.getAttributes();
+    for (int i=0;i<atts.getLength();i++) {
+      Attr att = (Attr)atts.item(i);
+      if (att.getName().equals("xmlns")||att.getName().startsWith("xmlns:"))
+        continue;
+      xml.append(' ').append(att.getName()).append("=\"");
+      escape(att.getValue(), xml);
+      xml.append('"');
+    }
+
+    Range range = ranges.remove(node);
+    if (range==null&&!node.hasChildNodes()) {
+      xml.append("/>");
+      return;
+    }
+    xml.append('>');
+
+    // head, spooled children, remaining children
+    if (range!=null) {
+      if (range.head!=null)
+        write(range.head, xml);
+      xml.append("<genj:spool depth=\"").append(range.depth).append("\" from=\"").append(range.from).append("\" to=\"").append(range.to).append("\"/>");
+    }
+    for (Node child=node.getFirstChild(); child!=null; child=child.getNextSibling()) {
+      if (range==null||child!=range.head)
+        write(child, xml);
+    }
+
+    xml.append("</").append(name).append('>');
+  }
+
+  private void escape(String text, StringBuilder xml) {
+    for (int i=0;i<text.length();i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '&': xml.append("&amp;"); break;
+        case '<': xml.append("&lt;"); break;
+        case '>': xml.append("&gt;"); break;
+        case '"': xml.append("&quot;"); break;
+        case '\t': xml.append("&#9;"); break;
+        case '\n': xml.append("&#10;"); break;
+        case '\r': xml.append("&#13;"); break;
+        default:
+          // characters not allowed in xml are dropped
+          if (c>=0x20)
+            xml.append(c);
+      }
+    }
+  }
+
+  /**
+   * A spool file
+   */
+  private class Level {
+
+    private File file;
+    private OutputStream out;
+    private long position = 0;
+
+    private Level() throws IOException {
+      file = File.createTempFile("genj", ".fo");
+      file.deleteOnExit();
+      out = new BufferedOutputStream(new FileOutputStream(file), 64*1024);
+    }
+
+    /** close and delete file */
+    private void delete() {
+      try {
+        out.close();
+      } catch (IOException e) {
+        // ignored
+      }
+      file.delete();
+    }
+
+    /** stream for a range */
+    private InputStream getInputStream(long from, long to) throws IOException {
+      out.flush();
+      final long length = to-from;
+      InputStream in = new FileInputStream(file);
+      long skipped = 0;
+      while (skipped<from)
+        skipped += in.skip(from-skipped);
+      return new FilterInputStream(in) {
+        long left = length;
+        @Override
+        public int read() throws IOException {
+          if (left<=0)
+            return -1;
+          left--;
+          return super.read();
+        }
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          if (left<=0)
+            return -1;
+          int result = super.read(b, off, (int)Math.min(len, left));
+          if (result>0)
+            left -= result;
+          return result;
+        }
+      };
+    }
+  }
+
+  /**
+   * Spooled children of an element
+   */
+  private class Range {
+    private int depth;
+    private long from, to;
+    private Node head;
+    private Range(int depth, long from) {
+      this.depth = depth;
+      this.from = from;
+      this.to = from;
+    }
+  }
+
+  /**
+   * A reader producing SAX events for a document and its spooled parts
+   */
+  private class Replay implements XMLReader {
+
+    private org.w3c.dom.Document doc;
+    private ContentHandler handler = new DefaultHandler();
+    private DTDHandler dtdHandler;
+    private EntityResolver entityResolver;
+    private ErrorHandler errorHandler;
+
+    private Replay(org.w3c.dom.Document doc) {
+      this.doc = doc;
+    }
+
+    public void parse(InputSource input) throws IOException, SAXException {
+      handler.startDocument();
+      handler.startPrefixMapping("", nsFO);
+      handler.startPrefixMapping("genj", nsGenj);
+      replay(doc.getDocumentElement());
+      handler.endPrefixMapping("genj");
+      handler.endPrefixMapping("");
+      handler.endDocument();
+    }
+
+    public void parse(String systemId) throws IOException, SAXException {
+      parse(new InputSource(systemId));
+    }
+
+    /** events for dom node */
+    private void replay(Node node) throws IOException, SAXException {
+
+      if (node.getNodeType()==Node.TEXT_NODE) {
+        char[] chars = node.getNodeValue().toCharArray();
+        handler.characters(chars, 0, chars.length);
+        return;
+      }
+      if (node.getNodeType()!=Node.ELEMENT_NODE)
+        return;
+
+      AttributesImpl atts = new AttributesImpl();
+      NamedNodeMap map = node.getAttributes();
+      for (int i=0;i<map.getLength();i++) {
+        Attr att = (Attr)map.item(i);
+        String name = att.getName();
+        if (name.equals("xmlns")||name.startsWith("xmlns:"))
+          continue;
+        String uri = att.getNamespaceURI();
+        String local = att.getLocalName();
+        atts.addAttribute(uri!=null ? uri : "", local!=null ? local : name, name, "CDATA", att.getValue());
+      }
+
+      String uri = node.getNamespaceURI()!=null ? node.getNamespaceURI() : "";
+      String local = node.getLocalName()!=null ? node.getLocalName() : node.getNodeName();
+      handler.startElement(uri, local, node.getNodeName(), source(local, atts));
+
+      Range range = ranges.get(node);
+      if (range!=null) {
+        if (range.head!=null)
+          replay(range.head);
+        replay(levels.get(range.depth), range.from, range.to);
+      }
+      for (Node child=node.getFirstChild(); child!=null; child=child.getNextSibling()) {
+        if (range==null||child!=range.head)
+          replay(child);
+      }
+
+      handler.endElement(uri, local, node.getNodeName());
+    }
+
+    /** events for spooled range */
+    private void replay(Level level, long from, long to) throws IOException, SAXException {
+      if (from==to)
+        return;
+      InputStream in = new SequenceInputStream(Collections.enumeration(Arrays.asList(
+        new ByteArrayInputStream(open), level.getInputStream(from, to), new ByteArrayInputStream(close)
+      )));
+      try {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        XMLReader reader = factory.newSAXParser().getXMLReader();
+        reader.setContentHandler(new Chunk());
+        reader.parse(new InputSource(in));
+      } catch (javax.xml.parsers.ParserConfigurationException e) {
+        throw new SAXException(e);
+      } finally {
+        in.close();
+      }
+    }
+
+    /** patch source of external graphic */
+    private Attributes source(String local, AttributesImpl atts) {
+      if (!sources.isEmpty()&&local.equals("external-graphic")) {
+        int i = atts.getIndex("src");
+        if (i>=0) {
+          String value = sources.get(atts.getValue(i));
+          if (value!=null)
+            atts.setValue(i, value);
+        }
+      }
+      return atts;
+    }
+
+    /**
+     * Passing on events of a spooled chunk
+     */
+    private class Chunk extends DefaultHandler {
+
+      @Override
+      public void startElement(String uri, String local, String qName, Attributes atts) throws SAXException {
+        if (nsGenj.equals(uri)) {
+          if (local.equals("spool")) try {
+            replay(levels.get(Integer.parseInt(atts.getValue("depth"))), Long.parseLong(atts.getValue("from")), Long.parseLong(atts.getValue("to")));
+          } catch (IOException e) {
+            throw new SAXException(e);
+          }
+          return;
+        }
+        handler.startElement(uri, local, qName, source(local, new AttributesImpl(atts)));
+      }
+
+      @Override
+      public void endElement(String uri, String local, String qName) throws SAXException {
+        if (!nsGenj.equals(uri))
+          handler.endElement(uri, local, qName);
+      }
+
+      @Override
+      public void characters(char[] ch, int start, int length) throws SAXException {
+        handler.characters(ch, start, length);
+      }
+
+      @Override
+      public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        handler.characters(ch, start, length);
+      }
+    }
+
+    public ContentHandler getContentHandler() {
+      return handler;
+    }
+
+    public void setContentHandler(ContentHandler handler) {
+      this.handler = handler;
+    }
+
+    public DTDHandler getDTDHandler() {
+      return dtdHandler;
+    }
+
+    public void setDTDHandler(DTDHandler handler) {
+      this.dtdHandler = handler;
+    }
+
+    public EntityResolver getEntityResolver() {
+      return entityResolver;
+    }
+
+    public void setEntityResolver(EntityResolver resolver) {
+      this.entityResolver = resolver;
+    }
+
+    public ErrorHandler getErrorHandler() {
+      return errorHandler;
+    }
+
+    public void setErrorHandler(ErrorHandler handler) {
+      this.errorHandler = handler;
+    }
+
+    public boolean getFeature(String name) {
+      return name.endsWith("/namespaces");
+    }
+
+    public void setFeature(String name, boolean value) {
+      // we always report namespaces without prefix attributes
+    }
+
+    public Object getProperty(String name) {
+      return null;
+    }
+
+    public void setProperty(String name, Object value) {
+      // no lexical or declaration events
+    }
+  }
+
+}
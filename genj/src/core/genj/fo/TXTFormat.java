@@ -19,11 +19,22 @@
  */
 package genj.fo;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamResult;
 
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
 /**
  * Format  for text - using FOP
  */
@@ -46,13 +57,98 @@ public class TXTFormat extends Format {
 //    Transformer transformer = TransformerFactory.newInstance().newTransformer();
 //    transformer.transform(doc.getDOMSource(), new SAXResult(handler));
 
+    // write streamed documents directly
+    if (doc.isStreaming()) {
+      TransformerFactory.newInstance().newTransformer().transform(doc.getSource(), new SAXResult(new TextWriter(out)));
+      return;
+    }
+
     // grab xsl transformer
     Transformer transformer = getTemplates("./contrib/xslt/fo2txt.xsl").newTransformer();
     
     // do the transformation
-    transformer.transform(doc.getDOMSource(), new StreamResult(out));
+    transformer.transform(doc.getSource(), new StreamResult(out));
 
     // done
   }
   
+  /**
+   * Writing text for SAX events - what fo2txt.xsl does without keeping the document around 
+   */
+  private static class TextWriter extends DefaultHandler {
+    
+    private Writer out;
+    
+    /** open blocks (true if not empty) */
+    private List<Boolean> blocks = new ArrayList<Boolean>();
+    
+    /** nesting of elements whose text isn't copied (tables, list item labels) */
+    private int ignore = 0;
+    
+    private TextWriter(OutputStream out) throws IOException {
+      this.out = new OutputStreamWriter(out, "UTF-8");
+    }
+    
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+      try {
+        if (localName.equals("block")) {
+          if (ignore==0&&atts.getIndex("start-indent")>=0)
+            out.write(' ');
+          blocks.add(Boolean.FALSE);
+        } else if (localName.equals("table")) {
+          ignore++;
+        } else if (localName.equals("list-item-label")) {
+          if (ignore==0)
+            out.write('+');
+          ignore++;
+        }
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      try {
+        if (localName.equals("block")) {
+          boolean text = blocks.remove(blocks.size()-1);
+          if (text) {
+            if (ignore==0)
+              out.write('\n');
+            if (!blocks.isEmpty())
+              blocks.set(blocks.size()-1, Boolean.TRUE);
+          }
+        } else if (localName.equals("table")||localName.equals("list-item-label")) {
+          ignore--;
+        }
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+      if (length==0)
+        return;
+      if (!blocks.isEmpty())
+        blocks.set(blocks.size()-1, Boolean.TRUE);
+      try {
+        if (ignore==0)
+          out.write(ch, start, length);
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+    
+    @Override
+    public void endDocument() throws SAXException {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        throw new SAXException(e);
+      }
+    }
+  }
+  
 }
@@ -47,7 +47,7 @@ public class XSLFOFormat extends Format {
     Transformer transformer = TransformerFactory.newInstance().newTransformer();
     
     // transformation to xslfo
-    transformer.transform(doc.getDOMSource(), new StreamResult(out));
+    transformer.transform(doc.getSource(), new StreamResult(out));
     
     // done
   }
@@ -0,0 +1,146 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.gedcom;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The changes of one unit of work - deduplicated and coalesced so that
+ * e.g. a property added and deleted again doesn't show up at all and
+ * a property added and changed shows up as added only
+ */
+public class ChangeSet {
+  
+  private Set<Entity> 
+    addedEntities = new LinkedHashSet<Entity>(),
+    deletedEntities = new LinkedHashSet<Entity>(),
+    changedEntities = new LinkedHashSet<Entity>();
+  
+  private Set<Property> 
+    addedProperties = new LinkedHashSet<Property>(),
+    deletedProperties = new LinkedHashSet<Property>(),
+    changedProperties = new LinkedHashSet<Property>();
+  
+  /**
+   * Entities that were added
+   */
+  public Set<Entity> getAddedEntities() {
+    return Collections.unmodifiableSet(addedEntities);
+  }
+  
+  /**
+   * Entities that were deleted
+   */
+  public Set<Entity> getDeletedEntities() {
+    return Collections.unmodifiableSet(deletedEntities);
+  }
+  
+  /**
+   * Entities that were neither added nor deleted but have added, deleted or changed properties 
+   */
+  public Set<Entity> getChangedEntities() {
+    return Collections.unmodifiableSet(changedEntities);
+  }
+  
+  /**
+   * Properties that were added
+   */
+  public Set<Property> getAddedProperties() {
+    return Collections.unmodifiableSet(addedProperties);
+  }
+  
+  /**
+   * Properties that were deleted
+   */
+  public Set<Property> getDeletedProperties() {
+    return Collections.unmodifiableSet(deletedProperties);
+  }
+  
+  /**
+   * Properties that were changed (this includes entities with a changed id and properties that were moved)
+   */
+  public Set<Property> getChangedProperties() {
+    return Collections.unmodifiableSet(changedProperties);
+  }
+  
+  /**
+   * Test for no changes
+   */
+  public boolean isEmpty() {
+    return addedEntities.isEmpty() && deletedEntities.isEmpty() && changedEntities.isEmpty()
+      && addedProperties.isEmpty() && deletedProperties.isEmpty() && changedProperties.isEmpty();
+  }
+  
+  /*package*/ void entityAdded(Entity entity) {
+    // deleted and added again counts as changed
+    if (deletedEntities.remove(entity))
+      changedEntities.add(entity);
+    else
+      addedEntities.add(entity);
+  }
+  
+  /*package*/ void entityDeleted(Entity entity) {
+    // added and deleted again is no change at all
+    changedEntities.remove(entity);
+    if (!addedEntities.remove(entity))
+      deletedEntities.add(entity);
+  }
+  
+  /*package*/ void propertyAdded(Entity entity, Property added) {
+    // deleted and added again (a move) counts as changed
+    if (deletedProperties.remove(added))
+      changedProperties.add(added);
+    else
+      addedProperties.add(added);
+    changed(entity);
+  }
+  
+  /*package*/ void propertyDeleted(Entity entity, Property deleted) {
+    // added and deleted again is no change at all
+    changedProperties.remove(deleted);
+    if (!addedProperties.remove(deleted))
+      deletedProperties.add(deleted);
+    changed(entity);
+  }
+  
+  /*package*/ void propertyChanged(Entity entity, Property property) {
+    // a change of an added property is covered by the add
+    if (!addedProperties.contains(property))
+      changedProperties.add(property);
+    changed(entity);
+  }
+  
+  private void changed(Entity entity) {
+    if (entity!=null&&!addedEntities.contains(entity)&&!deletedEntities.contains(entity))
+      changedEntities.add(entity);
+  }
+  
+  /**
+   * String representation
+   */
+  @Override
+  public String toString() {
+    return "+"+addedEntities.size()+"/-"+deletedEntities.size()+"/*"+changedEntities.size()+" entities, "
+      +"+"+addedProperties.size()+"/-"+deletedProperties.size()+"/*"+changedProperties.size()+" properties";
+  }
+
+} //ChangeSet
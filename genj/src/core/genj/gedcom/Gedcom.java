@@ -40,6 +40,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -157,12 +158,23 @@ public class Gedcom {
   /** entities */
   private LinkedList<Entity> allEntities = new LinkedList<Entity>();
   private Map<String, Map<String,Entity>> tag2id2entity = new HashMap<String, Map<String,Entity>>();
+  private Map<String, Entity> globalId2entity = new HashMap<String, Entity>();
+  private ConcurrentHashMap<String, EntityView> tag2view = new ConcurrentHashMap<String, EntityView>();
+  
+  /** number of changes made so far (invalidates sorted views) */
+  private volatile int modCount = 0;
+  
+  /** index of relationships (kept up to date on all changes once created) */
+  private Kinship kinship;
+  
+  /** index of names and places by sound (kept up to date on all changes once created) */
+  private PhoneticIndex phonetics;
   
   /** currently collected undos and redos */
   private boolean isDirty = false;
-  private List<List<Undo>> 
-    undoHistory = new ArrayList<List<Undo>>(),
-    redoHistory = new ArrayList<List<Undo>>();
+  private List<UndoJournal> 
+    undoHistory = new ArrayList<UndoJournal>(),
+    redoHistory = new ArrayList<UndoJournal>();
 
   /** a semaphore we're using for syncing */
   private Object writeSemaphore = new Object();
@@ -172,6 +184,7 @@ public class Gedcom {
   
   /** listeners */
   private List<GedcomListener> listeners = new CopyOnWriteArrayList<GedcomListener>();
+  private List<GedcomChangeSetListener> changeSetListeners = new CopyOnWriteArrayList<GedcomChangeSetListener>();
   
   /** mapping tags refence sets */
   private Map<String, ReferenceSet<String,Property>> tags2refsets = new HashMap<String, ReferenceSet<String, Property>>();
@@ -265,11 +278,7 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-      void undo() {
-          setSubmitter(old);
-      }
-    });
+    lock.undos.submitterChanged(old);
     
     // let listeners know
     for (GedcomListener listener : listeners) {
@@ -310,11 +319,34 @@ public class Gedcom {
     LOG.log(Level.FINER, "removeGedcomListener() from "+new Throwable().getStackTrace()[1]+" (now "+listeners.size()+")");
   }
   
+  /**
+   * Adds a Listener which will be notified once per unit of work with all changes
+   */
+  public void addChangeSetListener(GedcomChangeSetListener listener) {
+    if (listener==null)
+      throw new IllegalArgumentException("listener can't be null");
+    if (!changeSetListeners.add(SafeProxy.harden(listener)))
+      throw new IllegalArgumentException("can't add change set listener "+listener+"twice");
+  }
+  
+  /**
+   * Removes a Listener from receiving change sets
+   */
+  public void removeChangeSetListener(GedcomChangeSetListener listener) {
+    changeSetListeners.remove(SafeProxy.harden(listener));
+  }
+  
   /**
    * Final destination for a change propagation
    */
   protected void propagateXRefLinked(final PropertyXRef property1, final PropertyXRef property2) {
     
+    modCount++;
+    if (kinship!=null) {
+      kinship.gedcomPropertyChanged(this, property1);
+      kinship.gedcomPropertyChanged(this, property2);
+    }
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+property1.getTag()+" and "+property2.getTag()+" linked");
     
@@ -323,13 +355,13 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-      void undo() {
-        property1.unlink();
-      }
-    });
+    lock.undos.xrefLinked(property1);
     
     // let listeners know
+    if (lock.changes!=null) {
+      lock.changes.propertyChanged(property1.getEntity(), property1);
+      lock.changes.propertyChanged(property2.getEntity(), property2);
+    }
     for (GedcomListener listener : listeners) {
       listener.gedcomPropertyChanged(this, property1);
       listener.gedcomPropertyChanged(this, property2);
@@ -343,6 +375,12 @@ public class Gedcom {
    */
   protected void propagateXRefUnlinked(final PropertyXRef property1, final PropertyXRef property2) {
     
+    modCount++;
+    if (kinship!=null) {
+      kinship.gedcomPropertyChanged(this, property1);
+      kinship.gedcomPropertyChanged(this, property2);
+    }
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+property1.getTag()+" and "+property2.getTag()+" unlinked");
     
@@ -351,13 +389,13 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() {
-          property1.link(property2);
-        }
-      });
+    lock.undos.xrefUnlinked(property1, property2);
     
     // let listeners know
+    if (lock.changes!=null) {
+      lock.changes.propertyChanged(property1.getEntity(), property1);
+      lock.changes.propertyChanged(property2.getEntity(), property2);
+    }
     for (GedcomListener listener : listeners) {
       listener.gedcomPropertyChanged(this, property1);
       listener.gedcomPropertyChanged(this, property2);
@@ -371,6 +409,12 @@ public class Gedcom {
    */
   protected void propagateEntityAdded(final Entity entity) {
     
+    modCount++;
+    if (kinship!=null)
+      kinship.gedcomEntityAdded(this, entity);
+    if (phonetics!=null)
+      phonetics.gedcomEntityAdded(this, entity);
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Entity "+entity.getId()+" added");
     
@@ -379,13 +423,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-      void undo() {
-        deleteEntity(entity);
-      }
-    });
+    lock.undos.entityAdded(entity);
     
     // let listeners know
+    if (lock.changes!=null)
+      lock.changes.entityAdded(entity);
     for (GedcomListener listener : listeners) 
       listener.gedcomEntityAdded(this, entity);
 
@@ -397,6 +439,12 @@ public class Gedcom {
    */
   protected void propagateEntityDeleted(final Entity entity) {
     
+    modCount++;
+    if (kinship!=null)
+      kinship.gedcomEntityDeleted(this, entity);
+    if (phonetics!=null)
+      phonetics.gedcomEntityDeleted(this, entity);
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Entity "+entity.getId()+" deleted");
     
@@ -405,13 +453,11 @@ public class Gedcom {
       return;
     
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() throws GedcomException  {
-          addEntity(entity);
-        }
-      });
+    lock.undos.entityDeleted(entity);
     
     // let listeners know
+    if (lock.changes!=null)
+      lock.changes.entityDeleted(entity);
     for (GedcomListener listener : listeners) 
       listener.gedcomEntityDeleted(this, entity);
 
@@ -423,6 +469,12 @@ public class Gedcom {
    */
   protected void propagatePropertyAdded(Entity entity, final Property container, final int pos, Property added) {
     
+    modCount++;
+    if (kinship!=null)
+      kinship.gedcomPropertyAdded(this, container, pos, added);
+    if (phonetics!=null)
+      phonetics.gedcomPropertyAdded(this, container, pos, added);
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+added.getTag()+" added to "+container.getTag()+" at position "+pos+" (entity "+entity.getId()+")");
     
@@ -437,13 +489,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() {
-          container.delProperty(pos);
-        }
-      });
+    lock.undos.propertyAdded(container, pos);
     
     // let listeners know
+    if (lock.changes!=null)
+      lock.changes.propertyAdded(entity, added);
     for (GedcomListener listener : listeners) 
       listener.gedcomPropertyAdded(this, container, pos, added);
 
@@ -455,6 +505,12 @@ public class Gedcom {
    */
   protected void propagatePropertyDeleted(Entity entity, final Property container, final int pos, final Property deleted) {
     
+    modCount++;
+    if (kinship!=null)
+      kinship.gedcomPropertyDeleted(this, container, pos, deleted);
+    if (phonetics!=null)
+      phonetics.gedcomPropertyDeleted(this, container, pos, deleted);
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+deleted.getTag()+" deleted from "+container.getTag()+" at position "+pos+" (entity "+entity.getId()+")");
     
@@ -468,13 +524,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() {
-          container.addProperty(deleted, pos);
-        }
-      });
+    lock.undos.propertyDeleted(container, pos, deleted);
     
     // let listeners know
+    if (lock.changes!=null)
+      lock.changes.propertyDeleted(entity, deleted);
     for (GedcomListener listener : listeners) 
       listener.gedcomPropertyDeleted(this, container, pos, deleted);
     
@@ -486,6 +540,12 @@ public class Gedcom {
    */
   protected void propagatePropertyChanged(Entity entity, final Property property, final String oldValue) {
     
+    modCount++;
+    if (kinship!=null)
+      kinship.gedcomPropertyChanged(this, property);
+    if (phonetics!=null)
+      phonetics.gedcomPropertyChanged(this, property);
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+property.getTag()+" changed in (entity "+entity.getId()+")");
     
@@ -494,13 +554,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() {
-          property.setValue(oldValue);
-        }
-      });
+    lock.undos.propertyChanged(property, oldValue);
     
     // notify
+    if (lock.changes!=null)
+      lock.changes.propertyChanged(entity, property);
     for (GedcomListener listener : listeners) 
       listener.gedcomPropertyChanged(this, property);
 
@@ -512,6 +570,8 @@ public class Gedcom {
    */
   protected void propagatePropertyMoved(final Property property, final Property moved, final int from, final int to) {
     
+    modCount++;
+    
     if (LOG.isLoggable(Level.FINER))
       LOG.finer("Property "+property.getTag()+" moved from "+from+" to "+to+" (entity "+property.getEntity().getId()+")");
     
@@ -520,13 +580,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() {
-          property.moveProperty(moved, from<to ? from : from+1);
-        }
-      });
+    lock.undos.propertyMoved(property, moved, from, to);
     
     // notify
+    if (lock.changes!=null)
+      lock.changes.propertyChanged(property.getEntity(), moved);
     for (GedcomListener listener : listeners) {
       listener.gedcomPropertyDeleted(this, property, from, moved);
       listener.gedcomPropertyAdded(this, property, to, moved);
@@ -570,6 +628,12 @@ public class Gedcom {
    */
   protected void propagateWriteLockReleased() {
     
+    // one set of changes for the unit of work
+    if (lock.changes!=null&&!lock.changes.isEmpty()) {
+      for (GedcomChangeSetListener listener : changeSetListeners)
+        listener.gedcomChanged(this, lock.changes);
+    }
+    
     for (GedcomListener listener : listeners) {
       if (listener instanceof GedcomMetaListener) 
         ((GedcomMetaListener)listener).gedcomWriteLockReleased(this);
@@ -599,6 +663,11 @@ public class Gedcom {
     // do the housekeeping
     id2entity.remove(old);
     id2entity.put(entity.getId(), entity);
+    unindex(old, entity);
+    if (!globalId2entity.containsKey(id))
+      globalId2entity.put(id, entity);
+    tag2view.remove(entity.getTag());
+    modCount++;
     
     // remember maximum ID length
     maxIDLength = Math.max(id.length(), maxIDLength);
@@ -612,13 +681,11 @@ public class Gedcom {
       return;
       
     // keep undo
-    lock.addChange(new Undo() {
-        void undo() throws GedcomException {
-          entity.setId(old);
-        }
-      });
+    lock.undos.entityIDChanged(entity, old);
     
     // notify
+    if (lock.changes!=null)
+      lock.changes.propertyChanged(entity, entity);
     for (GedcomListener listener : listeners) 
       listener.gedcomPropertyChanged(this, entity);
 
@@ -628,7 +695,7 @@ public class Gedcom {
   /**
    * Add entity 
    */
-  private void addEntity(Entity entity) throws GedcomException {
+  /*package*/ void addEntity(Entity entity) throws GedcomException {
     
     String id = entity.getId();
     
@@ -641,6 +708,9 @@ public class Gedcom {
       
       // remember id2entity
       id2entity.put(id, entity);
+      if (!globalId2entity.containsKey(id))
+        globalId2entity.put(id, entity);
+      tag2view.remove(entity.getTag());
     }
     
     // remember entity
@@ -731,6 +801,8 @@ public class Gedcom {
 
       // forget id
       id2entity.remove(id);
+      unindex(id, which);
+      tag2view.remove(which.getTag());
     }
     
     // Tell it first
@@ -745,6 +817,31 @@ public class Gedcom {
     // Done
   }
 
+  /**
+   * Remove entity from global id index - another one of different type with 
+   * the same id takes its place
+   */
+  private void unindex(String id, Entity entity) {
+    if (globalId2entity.get(id)!=entity)
+      return;
+    globalId2entity.remove(id);
+    for (Map<String,Entity> ents : tag2id2entity.values()) {
+      Entity other = ents.get(id);
+      if (other!=null) {
+        globalId2entity.put(id, other);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Internal entity lookup (read only - doesn't create a map for an unknown tag)
+   */
+  private Map<String,Entity> getEntityMapIfExists(String tag) {
+    Map<String,Entity> id2entity = tag2id2entity.get(tag);
+    return id2entity!=null ? id2entity : Collections.<String,Entity>emptyMap();
+  }
+
   /**
    * Internal entity lookup
    */
@@ -790,7 +887,7 @@ public class Gedcom {
    * Returns entities of given type
    */
   public Collection<? extends Entity> getEntities(String tag) {
-    return Collections.unmodifiableCollection(getEntityMap(tag).values());
+    return Collections.unmodifiableCollection(getEntityMapIfExists(tag).values());
   }
 
   /**
@@ -820,30 +917,63 @@ public class Gedcom {
    * Returns entities of given type sorted by comparator (can be null)
    */
   public Entity[] getEntities(String tag, Comparator<Property> comparator) {
-    Collection<Entity> ents = getEntityMap(tag).values();
-    Entity[] result = (Entity[])ents.toArray(new Entity[ents.size()]);
-    // sort by comparator or entity
-    if (comparator!=null) 
-      Arrays.sort(result, comparator);
-    else
-      Arrays.sort(result);
+    
+    // readers can come from several threads - views are only ever replaced as a whole
+    EntityView view = tag2view.get(tag);
+    if (view==null) {
+      view = new EntityView();
+      EntityView other = tag2view.putIfAbsent(tag, view);
+      if (other!=null)
+        view = other;
+    }
+    
+    // sort by entity unless still known
+    Entity[] byId = view.byId;
+    if (byId==null) {
+      Collection<Entity> ents = getEntityMapIfExists(tag).values();
+      byId = ents.toArray(new Entity[ents.size()]);
+      Arrays.sort(byId);
+      view.byId = byId;
+    }
+    if (comparator==null)
+      return byId.clone();
+    
+    // sort by comparator unless nothing changed since last time (a change while sorting makes the next call sort again)
+    int at = modCount;
+    Sorted sorted = view.sorted;
+    if (sorted==null||sorted.at!=at||!comparator.equals(sorted.comparator)) {
+      sorted = new Sorted(comparator, at, byId.clone());
+      Arrays.sort(sorted.entities, comparator);
+      view.sorted = sorted;
+    }
+    
     // done
-    return result;
+    return sorted.entities.clone();
+  }
+
+  /**
+   * Returns the index of relationships between individuals
+   */
+  public synchronized Kinship getKinship() {
+    if (kinship==null)
+      kinship = new Kinship(this);
+    return kinship;
+  }
+
+  /**
+   * Returns the index of names and places by sound
+   */
+  public synchronized PhoneticIndex getPhoneticIndex() {
+    if (phonetics==null)
+      phonetics = new PhoneticIndex(this);
+    return phonetics;
   }
 
   /**
    * Returns the entity with given id (or null)
    */
   public Entity getEntity(String id) {
-    // loop all types
-    for (Map<String,Entity> ents : tag2id2entity.values()) {
-      Entity result = ents.get(id);
-      if (result!=null)
-        return result;
-    }
-    
-    // not found
-    return null;
+    return globalId2entity.get(id);
   }
 
   /**
@@ -939,7 +1069,7 @@ public class Gedcom {
       return;
     
     // do it
-    undoHistory.clear();
+    discard(undoHistory, 0);
     isDirty = false;
     
     // no lock? we're done
@@ -992,7 +1122,7 @@ public class Gedcom {
       addGedcomListener(updater);
 
       // reset redos
-      redoHistory.clear();
+      discard(redoHistory, 0);
       
     }
 
@@ -1011,12 +1141,13 @@ public class Gedcom {
 
       // keep undos (within limits)
       if (!lock.undos.isEmpty()) {
-        undoHistory.add(lock.undos);
+        undoHistory.add(lock.undos.close());
         
-        while (undoHistory.size()>Options.getInstance().getNumberOfUndos()) {
-          undoHistory.remove(0);
-          isDirty = true;
-        }
+        int drop = undoHistory.size()-Options.getInstance().getNumberOfUndos();
+        if (drop>0) 
+          discard(undoHistory, drop);
+        
+        budget(undoHistory);
       }
       
       // let listeners know
@@ -1075,21 +1206,15 @@ public class Gedcom {
     propagateWriteLockAqcuired();
     
     // run through undos
-    List<Undo> todo = undoHistory.remove(undoHistory.size()-1);
-    for (int i=todo.size()-1;i>=0;i--) {
-      Undo undo = (Undo)todo.remove(i);
-      try {
-        undo.undo();
-      } catch (Throwable t) {
-        LOG.log(Level.SEVERE, "Unexpected throwable during undo()", t);
-      }
-    }
+    undoHistory.remove(undoHistory.size()-1).undo();
     
     synchronized (writeSemaphore) {
 
       // keep redos
-      if (keepRedo)
-        redoHistory.add(lock.undos);
+      if (keepRedo) {
+        redoHistory.add(lock.undos.close());
+        budget(redoHistory);
+      }
       
       // let listeners know
       propagateWriteLockReleased();
@@ -1129,21 +1254,14 @@ public class Gedcom {
     propagateWriteLockAqcuired();
     
     // run the redos
-    List<Undo> todo = redoHistory.remove(redoHistory.size()-1);
-    for (int i=todo.size()-1;i>=0;i--) {
-      Undo undo = (Undo)todo.remove(i);
-      try {
-        undo.undo();
-      } catch (Throwable t) {
-        LOG.log(Level.SEVERE, "Unexpected throwable during undo()", t);
-      }
-    }
+    redoHistory.remove(redoHistory.size()-1).undo();
     
     // release
     synchronized (writeSemaphore) {
       
       // keep undos
-      undoHistory.add(lock.undos);
+      undoHistory.add(lock.undos.close());
+      budget(undoHistory);
 
       // let listeners know
       propagateWriteLockReleased();
@@ -1156,6 +1274,44 @@ public class Gedcom {
     
   }
   
+  /**
+   * Keep undo journals within memory budget - spill first then forget oldest
+   */
+  private void budget(List<UndoJournal> history) {
+    
+    long budget = Options.getInstance().getUndoMemoryKB()*1024L;
+    long memory = 0;
+    for (UndoJournal journal : history)
+      memory += journal.getMemory();
+    
+    if (Options.getInstance().isSpillUndos) {
+      for (int i=0; memory>budget && i<history.size(); i++)
+        memory -= history.get(i).spill();
+    }
+    
+    int drop = 0;
+    while (memory>budget && drop<history.size()-1) 
+      memory -= history.get(drop++).getMemory();
+    if (drop>0) {
+      LOG.fine("Forgetting "+drop+" undos beyond memory budget of "+budget+" bytes");
+      discard(history, drop);
+    }
+    
+  }
+  
+  /**
+   * Forget oldest undo journals (all for n<=0)
+   */
+  private void discard(List<UndoJournal> history, int n) {
+    if (n<=0)
+      n = history.size();
+    for (int i=0;i<n;i++) 
+      history.remove(0).discard();
+    // without all undos we can't get back to the unchanged state
+    if (history==undoHistory && n>0)
+      isDirty = true;
+  }
+  
   /**
    * Get a reference set for given tag
    */
@@ -1164,7 +1320,7 @@ public class Gedcom {
     ReferenceSet<String,Property> result = tags2refsets.get(tag);
     if (result==null) {
       // .. instantiate if necessary
-      result = new ReferenceSet<String, Property>();
+      result = new ReferenceSet<String, Property>(getCollator());
       tags2refsets.put(tag, result);
     }
     // done
@@ -1179,7 +1335,8 @@ public class Gedcom {
   }
 
   /**
-   * Returns a readable name for the given tag   */
+   * Returns a readable name for the given tag
+   */
   public static String getName(String tag) {
     return getName(tag, false);
   }
@@ -1335,22 +1492,34 @@ public class Gedcom {
   }
   
   /**
-   * Undo
+   * Entities of one type in order - kept until entities of that type are 
+   * added or removed, the last sort by comparator until anything changes
+   */
+  private static class EntityView {
+    volatile Entity[] byId;
+    volatile Sorted sorted;
+  }
+  
+  /**
+   * Entities sorted by a comparator at a modification count
    */
-  private abstract class Undo {
-    abstract void undo() throws GedcomException;
+  private static class Sorted {
+    final Comparator<Property> comparator;
+    final int at;
+    final Entity[] entities;
+    Sorted(Comparator<Property> comparator, int at, Entity[] entities) {
+      this.comparator = comparator;
+      this.at = at;
+      this.entities = entities;
+    }
   }
   
   /**
    * Our locking mechanism is based on one writer at a time
    */
   private class Lock {
-    List<Undo> undos = new ArrayList<Undo>();
-    
-    void addChange(Undo run) {
-      undos.add(run);
-    }
-    
+    UndoJournal undos = new UndoJournal(Gedcom.this);
+    ChangeSet changes = changeSetListeners.isEmpty() ? null : new ChangeSet();
   }
   
 } //Gedcom
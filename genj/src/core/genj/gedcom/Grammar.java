@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -57,8 +58,8 @@ public class Grammar {
   /** gedcom version */
   private String version;
   
-  /** meta roots */
-  private Map<String, MetaProperty> tag2root = new HashMap<String, MetaProperty>();
+  /** meta roots - concurrent since lookups happen on multiple threads during a parallel load */
+  private Map<String, MetaProperty> tag2root = new ConcurrentHashMap<String, MetaProperty>();
   
   /**
    * Singleton Constructor
@@ -165,12 +166,17 @@ public class Grammar {
     
     String tag = path.get(0);
     
-    MetaProperty root = (MetaProperty)tag2root.get(tag);
+    MetaProperty root = tag2root.get(tag);
     
     // something we didn't know about yet?
     if (root==null) {
-      root = new MetaProperty(this, tag, new HashMap<String, String>(), false);
-      tag2root.put(tag, root);
+      synchronized (tag2root) {
+        root = tag2root.get(tag);
+        if (root==null) {
+          root = new MetaProperty(this, tag, new HashMap<String, String>(), false);
+          tag2root.put(tag, root);
+        }
+      }
     }
     
     // recurse into      
@@ -217,7 +223,7 @@ public class Grammar {
         meta.isInstantiated = true;
         tag2root.put(qName, meta);
       } else
-        ((MetaProperty)stack.peek()).addNested(meta);
+        stack.peek().addNested(meta);
         
       // push on stack
       stack.push(meta);
@@ -241,7 +247,7 @@ public class Grammar {
   public boolean isValid(TagPath path) {
     
     String tag = path.get(0);
-    MetaProperty root = (MetaProperty)tag2root.get(tag);
+    MetaProperty root = tag2root.get(tag);
     if (root==null)
       return false;
     
@@ -47,6 +47,9 @@ public class Indi extends Entity {
     IMG_MALE    = Grammar.V55.getMeta(PATH_INDI).getImage("male"),
     IMG_FEMALE  = Grammar.V55.getMeta(PATH_INDI).getImage("female"),
     IMG_UNKNOWN = Grammar.V55.getMeta(PATH_INDI).getImage();
+  
+  /** id in gedcom's kinship index */
+  /*package*/ int kinship = -1;
     
   public Indi() {
     super(Gedcom.INDI, "?");
@@ -441,6 +444,10 @@ public class Indi extends Entity {
    * Check whether this person is ancestor of given person
    */
   public boolean isAncestorOf(Indi indi) {
+    // ask the kinship index of our gedcom
+    Gedcom gedcom = getGedcom();
+    if (gedcom!=null && gedcom==indi.getGedcom())
+      return gedcom.getKinship().isAncestor(this, indi);
     // 20070115 while we make sure that no circle exists in our gedcom data (invariants) there are cases where sub-trees of a tree occur multiple times
     // (e.g. cousin marrying cousin, ancestor marrying descendant, cloned families pointing to identical ancestors, ...)
     // So we're carrying a set of visited indis to abbreviate the ancestor check by looking for revisits.
@@ -0,0 +1,495 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.gedcom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * An index of biological parent/child relationships between individuals of a gedcom file. 
+ * 
+ * Individuals get a compact int id and parents/children are kept as arrays of ids. Each individual 
+ * also carries two labels that hold for every parent/child pair:
+ * <pre>
+ *   depth(parent) &lt; depth(child)    (generations below the oldest known ancestor)
+ *   height(parent) &gt; height(child)  (generations above the youngest known descendant)
+ * </pre>
+ * so an ancestor has to have a smaller depth and a bigger height than its descendant. Checks
+ * bail out early or walk up only the part of the tree that can still contain the ancestor in 
+ * question - regardless of how often a sub-tree occurs (pedigree collapse). The ancestors of 
+ * the individual asked about repeatedly are kept as a bit set for constant time answers.
+ * 
+ * The gedcom file keeps this index up to date as a listener for all changes (not only the ones 
+ * in a unit of work). Links add relationships (raising labels as necessary), unlinks remove them
+ * (labels stay valid then).
+ */
+public class Kinship implements GedcomListener {
+  
+  private final static int[] NONE = new int[0];
+
+  /** individuals by id and ids of deleted individuals to reuse */
+  private Indi[] indis = new Indi[0];
+  private int size = 0;
+  private int[] free = NONE;
+  private int frees = 0;
+  
+  /** relationships and labels by id */
+  private int[][] parents = new int[0][], children = new int[0][];
+  private int[] depth = NONE, height = NONE;
+  
+  /** whether there's a circle in the relationships (labels can't be trusted then) */
+  private boolean circle = false;
+  
+  /** changes of relationships */
+  private int version = 0;
+  
+  /** visited marks for searches */
+  private int[] marks = NONE;
+  private int mark = 0;
+  
+  /** buffers for walking up from two individuals */
+  private Walk first = new Walk(), second = new Walk();
+  
+  /** cached ancestors */
+  private int cachedId = -1, cachedVersion = -1;
+  private BitSet cachedAncestors;
+  private int lastId = -1;
+  
+  /**
+   * Constructor
+   */
+  /*package*/ Kinship(Gedcom gedcom) {
+    for (Entity indi : gedcom.getEntities(Gedcom.INDI))
+      update((Indi)indi);
+  }
+  
+  /**
+   * Check whether one individual is ancestor of another 
+   */
+  public synchronized boolean isAncestor(Indi ancestor, Indi descendant) {
+    
+    int a = id(ancestor), d = id(descendant);
+    
+    // labels rule it out?
+    if (!circle && !(depth[a]<depth[d] && height[a]>height[d]))
+      return false;
+    
+    // cached?
+    if (cachedId==d && cachedVersion==version)
+      return cachedAncestors.get(a);
+    
+    // same question again? keep all ancestors 
+    if (lastId==d) {
+      cachedAncestors = getAncestors(d);
+      cachedId = d;
+      cachedVersion = version;
+      return cachedAncestors.get(a);
+    }
+    lastId = d;
+    
+    // walk up parents where it can be found
+    int[] stack = new int[16];
+    int top = 0;
+    stack[top++] = d;
+    int m = nextMark();
+    while (top>0) {
+      for (int p : parents[stack[--top]]) {
+        if (p==a)
+          return true;
+        if (marks[p]==m || (!circle && !(depth[p]>depth[a] && height[p]<height[a])))
+          continue;
+        marks[p] = m;
+        if (top==stack.length)
+          stack = Arrays.copyOf(stack, top*2);
+        stack[top++] = p;
+      }
+    }
+    
+    return false;
+  }
+  
+  /**
+   * The closest common ancestor of two individuals (fewest generations in between)
+   * @return ancestor or null
+   */
+  public synchronized Indi getCommonAncestor(Indi first, Indi second) {
+    try {
+      int i = closest(up(id(first), this.first), up(id(second), this.second), false);
+      return i<0 ? null : indis[i];
+    } finally {
+      this.first.reset();
+      this.second.reset();
+    }
+  }
+  
+  /**
+   * The relationship path from one individual to another going up to their closest common 
+   * ancestor and down again (which is one of them for direct ancestors/descendants)
+   * @return individuals from first to second or an empty list if they're not related
+   */
+  public synchronized List<Indi> getPath(Indi first, Indi second) {
+    
+    try {
+      Walk f = up(id(first), this.first), s = up(id(second), this.second);
+      int i = closest(f, s, true);
+      if (i<0)
+        return Collections.emptyList();
+      
+      // up from first then down to second
+      LinkedList<Indi> result = new LinkedList<Indi>();
+      for (int j=i; j!=f.from[j]; j=f.from[j])
+        result.addFirst(indis[f.from[j]]);
+      result.add(indis[i]);
+      for (int j=i; j!=s.from[j]; j=s.from[j])
+        result.add(indis[s.from[j]]);
+      
+      return new ArrayList<Indi>(result);
+    } finally {
+      this.first.reset();
+      this.second.reset();
+    }
+  }
+  
+  /**
+   * Find ancestor closest to two individuals given generations up from them
+   */
+  private int closest(Walk first, Walk second, boolean orSelf) {
+    int result = -1, best = 0;
+    for (int k=0;k<first.count;k++) {
+      int i = first.queue[k];
+      int f = first.generations[i], s = second.generations[i];
+      if (s<0)
+        continue;
+      if (!orSelf && (f==0 || s==0))
+        continue;
+      if (result<0 || f+s<best || (f+s==best && i<result)) {
+        result = i;
+        best = f+s;
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Walk up breadth first from an individual
+   * @return the walk with the individual each ancestor was reached from and the generations between them
+   */
+  private Walk up(int start, Walk walk) {
+    
+    walk.ensure(size);
+    
+    int[] from = walk.from, generations = walk.generations, queue = walk.queue;
+    int head = 0, tail = 0;
+    from[start] = start;
+    generations[start] = 0;
+    queue[tail++] = start;
+    while (head<tail) {
+      int i = queue[head++];
+      for (int p : parents[i]) {
+        if (generations[p]>=0)
+          continue;
+        from[p] = i;
+        generations[p] = generations[i]+1;
+        queue[tail++] = p;
+      }
+    }
+    walk.count = tail;
+    
+    return walk;
+  }
+  
+  /**
+   * All ancestors of an individual 
+   */
+  private BitSet getAncestors(int d) {
+    BitSet result = new BitSet(size);
+    int[] stack = new int[16];
+    int top = 0;
+    stack[top++] = d;
+    while (top>0) {
+      for (int p : parents[stack[--top]]) {
+        if (result.get(p))
+          continue;
+        result.set(p);
+        if (top==stack.length)
+          stack = Arrays.copyOf(stack, top*2);
+        stack[top++] = p;
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Update relationships of an individual to its biological parents 
+   */
+  private void update(Indi indi) {
+    
+    int c = id(indi);
+    
+    // current parents
+    int[] now = NONE;
+    if (indi.getGedcom()!=null) {
+      for (PropertyFamilyChild famc : indi.getProperties(PropertyFamilyChild.class)) {
+        if (!famc.isValid()||Boolean.FALSE.equals(famc.isBiological())) 
+          continue;
+        Fam fam = famc.getFamily();
+        now = add(now, fam.getHusband());
+        now = add(now, fam.getWife());
+      }
+    }
+    
+    // unchanged?
+    int[] old = parents[c];
+    if (old.length==now.length) {
+      boolean same = true;
+      for (int p : now) 
+        same &= indexOf(old, p)>=0;
+      if (same)
+        return;
+    }
+    
+    // forget old
+    for (int p : old) {
+      if (indexOf(now, p)<0) 
+        children[p] = remove(children[p], c);
+    }
+    
+    // add new
+    parents[c] = now;
+    for (int p : now) {
+      if (indexOf(old, p)<0) {
+        children[p] = add(children[p], c);
+        raise(p, c);
+      }
+    }
+    
+    version++;
+  }
+  
+  /**
+   * Raise labels for new parent/child pair
+   */
+  private void raise(int parent, int child) {
+    
+    if (circle)
+      return;
+    
+    // depth of child and its descendants
+    int[] stack = new int[16];
+    int top = 0;
+    if (depth[child]<=depth[parent]) {
+      depth[child] = depth[parent]+1;
+      stack[top++] = child;
+    }
+    while (top>0) {
+      int i = stack[--top];
+      for (int c : children[i]) {
+        if (depth[c]>depth[i])
+          continue;
+        depth[c] = depth[i]+1;
+        // more generations than individuals?
+        if (depth[c]>size) {
+          circle = true;
+          return;
+        }
+        if (top==stack.length)
+          stack = Arrays.copyOf(stack, top*2);
+        stack[top++] = c;
+      }
+    }
+    
+    // height of parent and its ancestors
+    if (height[parent]<=height[child]) {
+      height[parent] = height[child]+1;
+      stack[top++] = parent;
+    }
+    while (top>0) {
+      int i = stack[--top];
+      for (int p : parents[i]) {
+        if (height[p]>height[i])
+          continue;
+        height[p] = height[i]+1;
+        if (height[p]>size) {
+          circle = true;
+          return;
+        }
+        if (top==stack.length)
+          stack = Arrays.copyOf(stack, top*2);
+        stack[top++] = p;
+      }
+    }
+    
+    // done
+  }
+  
+  /**
+   * id of individual
+   */
+  private int id(Indi indi) {
+    
+    if (indi.kinship>=0 && indi.kinship<size && indis[indi.kinship]==indi)
+      return indi.kinship;
+    
+    if (frees==0 && size==indis.length) {
+      int grow = Math.max(64, size*2);
+      indis = Arrays.copyOf(indis, grow);
+      parents = Arrays.copyOf(parents, grow);
+      children = Arrays.copyOf(children, grow);
+      depth = Arrays.copyOf(depth, grow);
+      height = Arrays.copyOf(height, grow);
+      marks = Arrays.copyOf(marks, grow);
+    }
+    
+    int id = frees>0 ? free[--frees] : size++;
+    indis[id] = indi;
+    parents[id] = NONE;
+    children[id] = NONE;
+    indi.kinship = id;
+    return id;
+  }
+  
+  private int nextMark() {
+    if (++mark==Integer.MAX_VALUE) {
+      Arrays.fill(marks, 0);
+      mark = 1;
+    }
+    return mark;
+  }
+  
+  private int[] add(int[] ids, Indi indi) {
+    return indi==null ? ids : add(ids, id(indi));
+  }
+  
+  private static int[] add(int[] ids, int id) {
+    if (indexOf(ids, id)>=0)
+      return ids;
+    int[] result = Arrays.copyOf(ids, ids.length+1);
+    result[ids.length] = id;
+    return result;
+  }
+  
+  private static int[] remove(int[] ids, int id) {
+    int i = indexOf(ids, id);
+    if (i<0)
+      return ids;
+    int[] result = new int[ids.length-1];
+    System.arraycopy(ids, 0, result, 0, i);
+    System.arraycopy(ids, i+1, result, i, result.length-i);
+    return result;
+  }
+  
+  private static int indexOf(int[] ids, int id) {
+    for (int i=0;i<ids.length;i++) {
+      if (ids[i]==id) return i;
+    }
+    return -1;
+  }
+  
+  /**
+   * Update individuals affected by a change to given property 
+   */
+  private void update(Property property) {
+    Entity entity = property.getEntity();
+    if (entity instanceof Indi) {
+      update((Indi)entity);
+    } else if (entity instanceof Fam && property instanceof PropertyXRef) {
+      for (PropertyChild chil : entity.getProperties(PropertyChild.class)) {
+        if (chil.isValid())
+          update(chil.getChild());
+      }
+    }
+  }
+  
+  private boolean isRelevant(Property property) {
+    return property instanceof PropertyXRef || "PEDI".equals(property.getTag()) || property.getProperties(PropertyFamilyChild.class).size()>0;
+  }
+
+  public synchronized void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
+    if (entity instanceof Indi)
+      update((Indi)entity);
+  }
+
+  public synchronized void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
+    if (!(entity instanceof Indi))
+      return;
+    // forget all relationships
+    int i = id((Indi)entity);
+    for (int p : parents[i])
+      children[p] = remove(children[p], i);
+    for (int c : children[i])
+      parents[c] = remove(parents[c], i);
+    parents[i] = NONE;
+    children[i] = NONE;
+    // free its id for reuse
+    indis[i] = null;
+    depth[i] = 0;
+    height[i] = 0;
+    ((Indi)entity).kinship = -1;
+    if (frees==free.length)
+      free = Arrays.copyOf(free, Math.max(16, frees*2));
+    free[frees++] = i;
+    if (lastId==i)
+      lastId = -1;
+    version++;
+  }
+
+  public synchronized void gedcomPropertyChanged(Gedcom gedcom, Property property) {
+    if (isRelevant(property))
+      update(property);
+  }
+
+  public synchronized void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
+    if (isRelevant(added))
+      update(property);
+  }
+
+  public synchronized void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
+    if (isRelevant(deleted))
+      update(property);
+  }
+
+  /**
+   * Buffers of a breadth first walk up - reused between queries with generations reset to -1
+   */
+  private static class Walk {
+    private int[] from = NONE, generations = NONE, queue = NONE;
+    private int count = 0;
+    private void ensure(int size) {
+      if (generations.length>=size)
+        return;
+      int grow = Math.max(size, generations.length*2);
+      from = Arrays.copyOf(from, grow);
+      queue = Arrays.copyOf(queue, grow);
+      int old = generations.length;
+      generations = Arrays.copyOf(generations, grow);
+      Arrays.fill(generations, old, grow, -1);
+    }
+    private void reset() {
+      for (int k=0;k<count;k++)
+        generations[queue[k]] = -1;
+      count = 0;
+    }
+  }
+
+} //Kinship
@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 /**
@@ -63,7 +65,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
   private String name, names;
   
   /** cached - type */
-  private Class<? extends Property>[] types;
+  private volatile Class<? extends Property>[] types;
 
   /** cached - info */
   private String info;
@@ -77,9 +79,9 @@ public class MetaProperty implements Comparable<MetaProperty> {
   /** properties */
   private Map<String,String> attrs;
   
-  /** subs */
-  private Map<String,MetaProperty> tag2nested = new HashMap<String,MetaProperty>();
-  List<MetaProperty> nested = new ArrayList<MetaProperty>();
+  /** subs - concurrent since lookups happen on multiple threads during a parallel load */
+  private Map<String,MetaProperty> tag2nested = new ConcurrentHashMap<String,MetaProperty>();
+  List<MetaProperty> nested = new CopyOnWriteArrayList<MetaProperty>();
 
   /**
    * Constructor
@@ -119,7 +121,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
    * Super 
    */
   public MetaProperty getSuper() {
-    String path = (String)attrs.get("super");
+    String path = attrs.get("super");
     return path == null  ? null : grammar.getMetaRecursively(new TagPath(path), false);
   }
   
@@ -134,7 +136,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
     tag2nested.put(sub.tag, sub);
     // keep list (replace existing!)
     for (int i=0; i<nested.size(); i++) {
-      MetaProperty other = (MetaProperty)nested.get(i);
+      MetaProperty other = nested.get(i);
       if (other.tag.equals(sub.tag)) {
         sub.copyAttributesFrom(other);
         nested.set(i, sub);
@@ -157,7 +159,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
     for (int s=0;s<nested.size();s++) {
       
       // .. next sub
-      MetaProperty sub = (MetaProperty)nested.get(s);
+      MetaProperty sub = nested.get(s);
 
       // default only?
       if ((filter&WHERE_DEFAULT)!=0) {
@@ -181,14 +183,14 @@ public class MetaProperty implements Comparable<MetaProperty> {
       result.add(sub);
     }
     // done
-    return (MetaProperty[])result.toArray(new MetaProperty[result.size()]);
+    return result.toArray(new MetaProperty[result.size()]);
   }
   
   /**
    * Lookup an attribute
    */
   /*package*/ String getAttribute(String key) {
-    return (String)attrs.get(key);
+    return attrs.get(key);
   }
   
   /**
@@ -239,7 +241,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
    */
   public boolean allows(String sub) {
     // has to be defined as sub with isGrammar==true
-    MetaProperty meta = (MetaProperty)tag2nested.get(sub);
+    MetaProperty meta = tag2nested.get(sub);
     return meta==null ? false : meta.isGrammar;
   }
   
@@ -248,7 +250,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
    */
   public boolean allows(String sub, Class<? extends Property> type) {
     // has to be defined as sub with isGrammar==true
-    MetaProperty meta = (MetaProperty)tag2nested.get(sub);
+    MetaProperty meta = tag2nested.get(sub);
     return meta!=null && type.isAssignableFrom(meta.getType());
   }
   
@@ -353,21 +355,24 @@ public class MetaProperty implements Comparable<MetaProperty> {
     // check cached type
     if (types==null) {
       
+      // resolve into a local first so that concurrent callers never see a partially filled array
+      Class<? extends Property>[] resolved;
       String attrType = getAttribute("type");
       if (attrType==null)
-        types = new Class[]{ PropertySimpleValue.class };
+        resolved = new Class[]{ PropertySimpleValue.class };
       else try {
         
         String[] attrTypes = attrType.split("\\|");
-        types = new Class[attrTypes.length];
+        resolved = new Class[attrTypes.length];
         
         for (int i=0;i<attrTypes.length;i++)
-          types[i] = (Class<? extends Property>)Class.forName("genj.gedcom."+attrTypes[i]);
+          resolved[i] = (Class<? extends Property>)Class.forName("genj.gedcom."+attrTypes[i]);
         
       } catch (Throwable t) {
         Gedcom.LOG.log(Level.WARNING, "Property type(s) genj.gedcom."+attrType+" couldn't be instantiated", t);    
-        types = new Class[]{ PropertySimpleValue.class };
+        resolved = new Class[]{ PropertySimpleValue.class };
       }
+      types = resolved;
     }
     
     // resolved
@@ -385,7 +390,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
    * Accessor - cardinality
    */
   public String getCardinality() {
-    return (String)attrs.get("cardinality");
+    return attrs.get("cardinality");
   }
   
   /**
@@ -456,10 +461,18 @@ public class MetaProperty implements Comparable<MetaProperty> {
     if (tag==null||tag.length()==0)
       throw new IllegalArgumentException("tag can't be empty");
     // current tag in map?
-    MetaProperty result = (MetaProperty)tag2nested.get(tag);
+    MetaProperty result = tag2nested.get(tag);
     if (result==null) {
-      result = new MetaProperty(grammar, tag, new HashMap<String,String>(), false);
-      if (persist) addNested(result);
+      if (!persist)
+        return new MetaProperty(grammar, tag, new HashMap<String,String>(), false);
+      // check again while sync'd so concurrent callers end up with the same instance
+      synchronized (this) {
+        result = tag2nested.get(tag);
+        if (result==null) {
+          result = new MetaProperty(grammar, tag, new HashMap<String,String>(), false);
+          addNested(result);
+        }
+      }
     }
     // done
     return result;
@@ -475,7 +488,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
       return Integer.MAX_VALUE;
     // look through grammar defined subs
     for (int i=0;i<nested.size();i++) {
-      if (((MetaProperty)nested.get(i)).getTag().equals(subtag))
+      if ((nested.get(i)).getTag().equals(subtag))
         return i;
     }
     //20040518 make the index of an unknown subtag as large as possible
@@ -487,7 +500,7 @@ public class MetaProperty implements Comparable<MetaProperty> {
    */
   private static ImageIcon loadImage(String name) {
     // look up
-    ImageIcon result = (ImageIcon)name2images.get(name);
+    ImageIcon result = name2images.get(name);
     if (result==null) {
       try {
         // this could potentially be interrupted - we'll have to try again in that case
@@ -76,6 +76,12 @@ public class Options extends OptionProvider {
   /** option - number of undos */
   protected int numberOfUndos = 10;
   
+  /** option - memory for undos in KB */
+  private int undoMemoryKB = 4096;
+  
+  /** option - whether undos beyond memory are kept in a temporary file */
+  public boolean isSpillUndos = true;
+  
   /** option - place hierarchy keys for city NOT EDITABLE ATM */
   protected Set<String> placeHierarchyCityKeys = new HashSet<String>(Arrays.asList(new String[]{ "city", "commune", "ville", "stadt"}));
   
@@ -155,6 +161,20 @@ public class Options extends OptionProvider {
     numberOfUndos = Math.max(10,i);
   }
 
+  /**
+   * accessor - memory for undos
+   */
+  public int getUndoMemoryKB() {
+    return undoMemoryKB;
+  }
+
+  /**
+   * accessor - memory for undos
+   */
+  public void setUndoMemoryKB(int set) {
+    undoMemoryKB = Math.max(256,set);
+  }
+
   /** 
    * Provider callback 
    */
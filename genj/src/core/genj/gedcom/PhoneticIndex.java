@@ -0,0 +1,295 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.gedcom;
+
+import genj.util.Soundex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A phonetic index of a gedcom's names and places. Every word of a last or 
+ * first name and of a place's jurisdictions is kept under its soundex key so
+ * 'sounds like' lookups and duplicate candidates are a hash lookup away. There's
+ * one per gedcom (see Gedcom.getPhoneticIndex()) that is told about all changes -
+ * the affected entities are re-indexed on the next lookup.
+ */
+public class PhoneticIndex implements GedcomListener {
+  
+  private final static Soundex SOUNDEX = new Soundex();
+  
+  /** the gedcom we're indexing */
+  private Gedcom gedcom;
+  private boolean built = false;
+  
+  /** keys to names, places and individuals */
+  private Map<String, Set<PropertyName>> names = new HashMap<String, Set<PropertyName>>();
+  private Map<String, Set<PropertyPlace>> places = new HashMap<String, Set<PropertyPlace>>();
+  private Map<String, Set<Indi>> indis = new HashMap<String, Set<Indi>>();
+  
+  /** what's kept for an entity */
+  private Map<Entity, List<Entry>> entity2entries = new HashMap<Entity, List<Entry>>();
+  
+  /** changed entities (sync on itself) */
+  private Set<Entity> changed = new HashSet<Entity>();
+  
+  /**
+   * Constructor
+   */
+  /*package*/ PhoneticIndex(Gedcom gedcom) {
+    this.gedcom = gedcom;
+  }
+  
+  /**
+   * Accessor - gedcom
+   */
+  public Gedcom getGedcom() {
+    return gedcom;
+  }
+  
+  /**
+   * The phonetic key of a word (null if it has no letters)
+   */
+  public static String encode(String word) {
+    return SOUNDEX.encode(word);
+  }
+  
+  /**
+   * The words (runs of letters) in a value
+   */
+  public static List<String> getWords(String value) {
+    List<String> result = new ArrayList<String>();
+    int start = -1;
+    for (int i=0, j=value.length(); i<=j; i++) {
+      boolean letter = i<j && Character.isLetter(value.charAt(i));
+      if (letter && start<0)
+        start = i;
+      if (!letter && start>=0) {
+        result.add(value.substring(start, i));
+        start = -1;
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Names with a last or first name sounding like given word
+   */
+  public synchronized Set<PropertyName> getNames(String word) {
+    update();
+    return copy(names, encode(word));
+  }
+  
+  /**
+   * Places with a jurisdiction sounding like given word
+   */
+  public synchronized Set<PropertyPlace> getPlaces(String word) {
+    update();
+    return copy(places, encode(word));
+  }
+  
+  /**
+   * Names and places that have a word sounding like each of the words in given value
+   */
+  public synchronized Set<Property> lookup(String value) {
+    
+    update();
+    
+    Set<Property> result = null;
+    for (String word : getWords(value)) {
+      String key = encode(word);
+      Set<Property> matches = new HashSet<Property>();
+      matches.addAll(copy(names, key));
+      matches.addAll(copy(places, key));
+      if (result==null)
+        result = matches;
+      else
+        result.retainAll(matches);
+      if (result.isEmpty())
+        break;
+    }
+    
+    return result!=null ? result : Collections.<Property>emptySet();
+  }
+  
+  /**
+   * Other individuals with a name sounding like one of given individual's names
+   */
+  public synchronized Set<Indi> getDuplicates(Indi indi) {
+    
+    update();
+    
+    Set<Indi> result = new HashSet<Indi>();
+    for (PropertyName name : indi.getProperties(PropertyName.class)) {
+      String key = getKey(name);
+      Set<Indi> bucket = key!=null ? indis.get(key) : null;
+      if (bucket!=null)
+        result.addAll(bucket);
+    }
+    result.remove(indi);
+    
+    return result;
+  }
+  
+  private static <T> Set<T> copy(Map<String, Set<T>> buckets, String key) {
+    Set<T> bucket = key!=null ? buckets.get(key) : null;
+    return bucket!=null ? new HashSet<T>(bucket) : new HashSet<T>();
+  }
+  
+  /**
+   * Duplicate key of a name - last name and first given name (null without last name)
+   */
+  private String getKey(PropertyName name) {
+    String last = encode(name.getLastName());
+    if (last==null)
+      return null;
+    List<String> first = getWords(name.getFirstName());
+    return first.isEmpty() ? last : last + encode(first.get(0));
+  }
+  
+  /**
+   * Build or catch up with changed entities
+   */
+  private void update() {
+    
+    if (!built) {
+      for (Entity entity : new ArrayList<Entity>(gedcom.getEntities()))
+        index(entity);
+      built = true;
+    }
+    
+    Collection<Entity> todo;
+    synchronized (changed) {
+      if (changed.isEmpty())
+        return;
+      todo = new ArrayList<Entity>(changed);
+      changed.clear();
+    }
+    
+    for (Entity entity : todo)
+      index(entity);
+  }
+  
+  /**
+   * (Re-)index an entity
+   */
+  private void index(Entity entity) {
+    
+    // forget what we had
+    List<Entry> old = entity2entries.remove(entity);
+    if (old!=null) {
+      for (Entry entry : old)
+        entry.remove();
+    }
+    
+    // gone?
+    if (entity.getGedcom()!=gedcom)
+      return;
+    
+    // keep names, places and individuals under their keys
+    List<Entry> entries = new ArrayList<Entry>();
+    for (PropertyName name : entity.getProperties(PropertyName.class)) {
+      for (String word : getWords(name.getLastName()))
+        add(names, encode(word), name, entries);
+      for (String word : getWords(name.getFirstName()))
+        add(names, encode(word), name, entries);
+      if (entity instanceof Indi && getKey(name)!=null)
+        add(indis, getKey(name), (Indi)entity, entries);
+    }
+    for (PropertyPlace place : entity.getProperties(PropertyPlace.class)) {
+      for (String jurisdiction : place.getJurisdictions()) {
+        for (String word : getWords(jurisdiction))
+          add(places, encode(word), place, entries);
+      }
+    }
+    if (!entries.isEmpty())
+      entity2entries.put(entity, entries);
+    
+    // done
+  }
+  
+  private <T> void add(Map<String, Set<T>> buckets, String key, T value, List<Entry> entries) {
+    Set<T> bucket = buckets.get(key);
+    if (bucket==null) {
+      bucket = new HashSet<T>(4);
+      buckets.put(key, bucket);
+    }
+    if (bucket.add(value))
+      entries.add(new Entry(buckets, key, value));
+  }
+  
+  private void changed(Property prop) {
+    Entity entity = prop.getEntity();
+    if (entity!=null) {
+      synchronized (changed) {
+        changed.add(entity);
+      }
+    }
+  }
+  
+  public void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
+    changed(property);
+  }
+
+  public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
+    changed(property);
+  }
+
+  public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
+    changed(property);
+  }
+  
+  /**
+   * A value kept in a bucket
+   */
+  private static class Entry {
+    private Map<String, ? extends Set<?>> buckets;
+    private String key;
+    private Object value;
+    private Entry(Map<String, ? extends Set<?>> buckets, String key, Object value) {
+      this.buckets = buckets;
+      this.key = key;
+      this.value = value;
+    }
+    private void remove() {
+      Set<?> bucket = buckets.get(key);
+      if (bucket!=null) {
+        bucket.remove(value);
+        if (bucket.isEmpty())
+          buckets.remove(key);
+      }
+    }
+  }
+
+} //PhoneticIndex
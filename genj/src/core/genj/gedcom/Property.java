@@ -48,10 +48,8 @@ public abstract class Property implements Comparable<Property> {
   
   /** children of this property */
   // 20070128 made this a lazy list so we're not wasting the space for all those leaf nodes out there
-  private List<Property> children = null;
-  
-  /** images */
-  protected ImageIcon image, imageErr;
+  // right-sized array without a list wrapper - there are millions of these in a big file
+  private Property[] children = null;
   
   /** whether we're transient or not */
   protected boolean isTransient = false;
@@ -248,11 +246,12 @@ public abstract class Property implements Comparable<Property> {
   }
 
   /**
-   * Adds another property to this property
+   * Adds another property to this property - this can be used to add a detached property
+   * that was instantiated through MetaProperty.create() before (e.g. on a different thread)
    * @param child the property to add
    * @param pos, 0-n for position, -1 for placement
    */
-  /*package*/ Property addProperty(Property child, int pos) {
+  public Property addProperty(Property child, int pos) {
     
     // check child
     if (child.getParent()!=null||child.getNoOfProperties()>0)
@@ -274,9 +273,15 @@ public abstract class Property implements Comparable<Property> {
     }
     
     // keep child now
-    if (children==null)
-      children = new ArrayList<Property>();
-    children.add(pos, child);
+    if (children==null) {
+      children = new Property[]{ child };
+    } else {
+      Property[] grown = new Property[children.length+1];
+      System.arraycopy(children, 0, grown, 0, pos);
+      grown[pos] = child;
+      System.arraycopy(children, pos, grown, pos+1, children.length-pos);
+      children = grown;
+    }
     
     if (isTransient) child.isTransient = true;
     
@@ -298,10 +303,9 @@ public abstract class Property implements Comparable<Property> {
   public void delProperties() {
     if (children!=null) {
       // grab list of children once - subsequent dels might lead to changes to the array
-      Property[] cs = (Property[])children.toArray(new Property[children.size()]);
+      Property[] cs = children;
       for (int c = cs.length-1; c>=0; c--) 
         delProperty(cs[c]);
-      if (children.isEmpty()) children = null;
     }
   }
   
@@ -310,12 +314,11 @@ public abstract class Property implements Comparable<Property> {
    */
   public void delProperties(String tag) {
     if (children!=null) {
-      Property[] cs = (Property[])children.toArray(new Property[children.size()]);
+      Property[] cs = children;
       for (int c = 0; c < cs.length; c++) {
         if (cs[c].getTag().equals(tag))
           delProperty(cs[c]);
       }
-      if (children.isEmpty()) children = null;
     }
   }
   
@@ -333,7 +336,7 @@ public abstract class Property implements Comparable<Property> {
     // find position (throw outofbounds if n/a)
     int pos = 0;
     for (;;pos++) {
-      if (children.get(pos)==deletee)
+      if (children[pos]==deletee)
         break;
     }
 
@@ -348,15 +351,22 @@ public abstract class Property implements Comparable<Property> {
   public void delProperty(int pos) {
 
     // range check
-    if (children==null||pos<0||pos>=children.size())
+    if (children==null||pos<0||pos>=children.length)
       throw new IndexOutOfBoundsException("No property "+pos);
-    Property removed = (Property)children.get(pos);
+    Property removed = children[pos];
 
     // tell to removed first so it has some chance for cleanup
     removed.beforeDelNotify(); 
 
     // remove it now
-    children.remove(pos);
+    if (children.length==1) {
+      children = null;
+    } else {
+      Property[] shrunk = new Property[children.length-1];
+      System.arraycopy(children, 0, shrunk, 0, pos);
+      System.arraycopy(children, pos+1, shrunk, pos, shrunk.length-pos);
+      children = shrunk;
+    }
     removed.parent = null;
 
     // propagate change (see addNotify() for motivation why propagate is here)
@@ -382,16 +392,21 @@ public abstract class Property implements Comparable<Property> {
    * Move a property
    */
   public int moveProperty(Property prop, int to) {
-    return moveProperty(children.indexOf(prop), to);
+    return moveProperty(indexOf(prop), to);
   }
   
   /**
    * Move a property
    */
   public int moveProperty(int from, int to) {
-    Property prop = (Property)children.remove(from);
-    if (from<to) to--;
-    children.add(to, prop);
+    Property prop = children[from];
+    if (from<to) {
+      to--;
+      System.arraycopy(children, from+1, children, from, to-from);
+    } else {
+      System.arraycopy(children, to, children, to+1, from-to);
+    }
+    children[to] = prop;
     // propagate moved
     propagatePropertyMoved(this, prop, from, to);
     // return next position
@@ -433,25 +448,19 @@ public abstract class Property implements Comparable<Property> {
    */
   public ImageIcon getImage(boolean checkValid) {
     
-    // valid or not ?
-    if (!checkValid||isValid()) {
-      if (image==null) 
-        image = getGedcom()!=null ? getMetaProperty().getImage() : MetaProperty.IMG_CUSTOM; 
-      return image;
-    }
+    // valid or not ? (images are cached by meta properties)
+    if (!checkValid||isValid()) 
+      return getGedcom()!=null ? getMetaProperty().getImage() : MetaProperty.IMG_CUSTOM; 
     
     // not valid
-    if (imageErr==null) 
-      imageErr = getMetaProperty().getImage("err"); 
-      
-    return imageErr;
+    return getMetaProperty().getImage("err"); 
   }
 
   /**
    * Calculates the number of properties this property has.
    */
   public int getNoOfProperties() {
-    return children==null?0:children.size();
+    return children==null?0:children.length;
   }
 
   /**
@@ -531,8 +540,8 @@ public abstract class Property implements Comparable<Property> {
   public boolean contains(Property prop) {
     if (children==null)
       return false;
-    for (int c = 0; c < children.size(); c++) {
-      Property child = (Property)children.get(c);
+    for (int c = 0; c < children.length; c++) {
+      Property child = children[c];
       if (child==prop||child.contains(prop))
         return true;
     }
@@ -552,14 +561,20 @@ public abstract class Property implements Comparable<Property> {
    * Test properties
    */
   public boolean hasProperties(List<Property> props) {
-    return children==null ? false : children.containsAll(props);
+    if (children==null)
+      return false;
+    for (Property prop : props) {
+      if (indexOf(prop)<0)
+        return false;
+    }
+    return true;
   }
   
   /**
    * Returns this property's properties (all children)
    */
   public Property[] getProperties() {
-    return children==null ? new Property[0] : toArray(children);
+    return children==null ? new Property[0] : children.clone();
   }
   
   /**
@@ -638,13 +653,23 @@ public abstract class Property implements Comparable<Property> {
    * Returns a sub-property position
    */
   public int getPropertyPosition(Property prop) {
-    if (children==null)
+    int pos = indexOf(prop);
+    if (pos<0)
       throw new IllegalArgumentException("no such property");
-    for (int i=0;i<children.size();i++) {
-      if (children.get(i)==prop)
-        return i;
+    return pos;
+  }
+  
+  /**
+   * Position of a sub-property or -1
+   */
+  private int indexOf(Property prop) {
+    if (children!=null) {
+      for (int i=0;i<children.length;i++) {
+        if (children[i]==prop)
+          return i;
+      }
     }
-    throw new IllegalArgumentException("no such property");
+    return -1;
   }
 
   /**
@@ -659,7 +684,7 @@ public abstract class Property implements Comparable<Property> {
   public Property getProperty(int n) {
     if (children==null)
       throw new IndexOutOfBoundsException("no property "+n);
-    return (Property)children.get(n);
+    return children[n];
   }
 
   /**
@@ -679,8 +704,8 @@ public abstract class Property implements Comparable<Property> {
     // loop children
     // NM 20070128 use direct field access - it's less expensive
     if (children!=null) {
-      for (int i=0, j=children.size();i<j;i++) {
-        Property child = (Property)children.get(i);
+      for (int i=0, j=children.length;i<j;i++) {
+        Property child = children[i];
         if (!child.getTag().equals(tag)) continue;
         if (validOnly&&!child.isValid()) continue;
         return child;
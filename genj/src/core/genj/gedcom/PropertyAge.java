@@ -128,6 +128,13 @@ public class PropertyAge extends Property {
     // Done
   }
   
+  /**
+   * Accessor age - null if value isn't an age
+   */
+  public Delta getAge() {
+    return ageAsString!=null ? null : age;
+  }
+  
   public void setValue(Delta age) {
     String old = getValue();
     this.age.setValue(age);
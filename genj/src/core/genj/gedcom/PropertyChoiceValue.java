@@ -78,6 +78,13 @@ public class PropertyChoiceValue extends PropertySimpleValue {
 	return new ArrayList<String>(gedcom.getReferenceSet(tag).getKeys(sort ? gedcom.getCollator() : null));
   }
   
+  /**
+   * Returns choices for given property tag starting with given prefix sorted by value
+   */
+  public static List<String> getChoices(Gedcom gedcom, String tag, String prefix) {
+    return gedcom.getReferenceSet(tag).getKeys(prefix, gedcom.getCollator());
+  }
+  
   /**
    * Returns the default vals for the given tag
    */
@@ -78,5 +78,24 @@ public class PropertyComparator implements Comparator<Property> {
     return p1.compareTo(p2) * reversed;
     
   }
+  
+  /**
+   * Comparators for the same path and direction are equal (subclasses
+   * might compare differently so they're only equal to themselves)
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj==this)
+      return true;
+    if (obj==null||obj.getClass()!=PropertyComparator.class||getClass()!=PropertyComparator.class)
+      return false;
+    PropertyComparator other = (PropertyComparator)obj;
+    return other.reversed==reversed && other.path.equals(path);
+  }
+  
+  @Override
+  public int hashCode() {
+    return path.hashCode()*reversed;
+  }
 
 } //PropertyComparator
\ No newline at end of file
@@ -422,6 +422,20 @@ public class PropertyName extends Property {
     return gedcom.getReferenceSet(KEY_FIRSTNAME).getKeys(sortByName ? gedcom.getCollator() : null);
   }
 
+  /**
+   * Return last names starting with given prefix sorted by name
+   */
+  public static List<String> getLastNames(Gedcom gedcom, String prefix) {
+    return gedcom.getReferenceSet(KEY_LASTNAME).getKeys(prefix, gedcom.getCollator());
+  }
+
+  /**
+   * Return first names starting with given prefix sorted by name
+   */
+  public static List<String> getFirstNames(Gedcom gedcom, String prefix) {
+    return gedcom.getReferenceSet(KEY_FIRSTNAME).getKeys(prefix, gedcom.getCollator());
+  }
+
   /**
    * Returns all PropertyNames that contain the same name 
    */
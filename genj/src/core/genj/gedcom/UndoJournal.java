@@ -0,0 +1,456 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.gedcom;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A journal of the changes of one unit of work that can be undone. Changes are
+ * kept as compact records addressing properties by entity id and positions - only
+ * deleted properties and entities are kept as references so they can be restored 
+ * as they were. The records can be spilled to a temporary file.
+ */
+/*package*/ class UndoJournal {
+  
+  private final static String UTF8 = "UTF-8";
+
+  /** operations */
+  private final static int
+    SUBMITTER = 0,
+    XREF_LINKED = 1,
+    XREF_UNLINKED = 2,
+    ENTITY_ADDED = 3,
+    ENTITY_DELETED = 4,
+    ENTITY_ID_CHANGED = 5,
+    PROPERTY_ADDED = 6,
+    PROPERTY_DELETED = 7,
+    PROPERTY_CHANGED = 8,
+    PROPERTY_MOVED = 9;
+  
+  /** estimated size of a referenced object */
+  private final static int REFERENCE_SIZE = 64;
+
+  private Gedcom gedcom;
+  
+  /** records while journaling, then as bytes */
+  private Records records = new Records();
+  private byte[] bytes;
+  private File spill;
+  
+  /** offsets of records */
+  private int[] offsets = new int[8];
+  private int size = 0;
+  
+  /** referenced objects */
+  private List<Object> references = new ArrayList<Object>();
+  private int referencesSize = 0;
+  
+  /**
+   * Constructor
+   */
+  /*package*/ UndoJournal(Gedcom gedcom) {
+    this.gedcom = gedcom;
+  }
+  
+  /**
+   * Test for no changes
+   */
+  /*package*/ boolean isEmpty() {
+    return size==0;
+  }
+  
+  /**
+   * Estimated memory used
+   */
+  /*package*/ int getMemory() {
+    int result = size*4 + referencesSize;
+    if (records!=null)
+      result += records.size();
+    if (bytes!=null)
+      result += bytes.length;
+    return result;
+  }
+  
+  /**
+   * Stop journaling 
+   */
+  /*package*/ UndoJournal close() {
+    if (records!=null) {
+      bytes = records.toByteArray();
+      records = null;
+      if (offsets.length>size) {
+        int[] trimmed = new int[size];
+        System.arraycopy(offsets, 0, trimmed, 0, size);
+        offsets = trimmed;
+      }
+    }
+    return this;
+  }
+  
+  /**
+   * Move records to a temporary file
+   * @return memory freed
+   */
+  /*package*/ int spill() {
+    close();
+    if (bytes==null||bytes.length==0)
+      return 0;
+    try {
+      File file = File.createTempFile("genj", ".undo");
+      file.deleteOnExit();
+      OutputStream out = new FileOutputStream(file);
+      try {
+        out.write(bytes);
+      } finally {
+        out.close();
+      }
+      spill = file;
+      int freed = bytes.length;
+      bytes = null;
+      return freed;
+    } catch (IOException e) {
+      Gedcom.LOG.log(Level.WARNING, "can't spill undos to temporary file", e);
+      return 0;
+    }
+  }
+  
+  /**
+   * Forget about this journal 
+   * @return memory freed
+   */
+  /*package*/ int discard() {
+    int freed = getMemory();
+    if (spill!=null)
+      spill.delete();
+    spill = null;
+    bytes = null;
+    references.clear();
+    return freed;
+  }
+  
+  /**
+   * Undo all changes in reverse order
+   */
+  /*package*/ void undo() {
+    
+    // load records
+    close();
+    byte[] data = bytes;
+    if (spill!=null) try {
+      data = new byte[(int)spill.length()];
+      DataInputStream in = new DataInputStream(new FileInputStream(spill));
+      try {
+        in.readFully(data);
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      Gedcom.LOG.log(Level.SEVERE, "can't read undos from temporary file", e);
+      return;
+    }
+    
+    // undo from last to first
+    for (int i=size-1;i>=0;i--) {
+      try {
+        undo(new Records(data, offsets[i]));
+      } catch (Throwable t) {
+        Gedcom.LOG.log(Level.SEVERE, "Unexpected throwable during undo()", t);
+      }
+    }
+    
+    // done
+    discard();
+  }
+  
+  private void undo(Records in) throws GedcomException, IOException {
+    
+    switch (in.readInt()) {
+      case SUBMITTER:
+        gedcom.setSubmitter((Submitter)in.readEntity());
+        break;
+      case XREF_LINKED:
+        ((PropertyXRef)in.readProperty()).unlink();
+        break;
+      case XREF_UNLINKED:
+        ((PropertyXRef)in.readProperty()).link((PropertyXRef)in.readProperty());
+        break;
+      case ENTITY_ADDED:
+        gedcom.deleteEntity(in.readEntity());
+        break;
+      case ENTITY_DELETED:
+        gedcom.addEntity((Entity)in.readReference());
+        break;
+      case ENTITY_ID_CHANGED:
+        in.readEntity().setId(in.readString());
+        break;
+      case PROPERTY_ADDED:
+        in.readProperty().delProperty(in.readInt());
+        break;
+      case PROPERTY_DELETED:
+        in.readProperty().addProperty((Property)in.readReference(), in.readInt());
+        break;
+      case PROPERTY_CHANGED:
+        in.readProperty().setValue(in.readString());
+        break;
+      case PROPERTY_MOVED:
+        Property property = in.readProperty();
+        Property moved = in.readProperty();
+        int from = in.readInt(), to = in.readInt();
+        property.moveProperty(moved, from<to ? from : from+1);
+        break;
+      default:
+        throw new IOException("unknown undo record");
+    }
+  }
+  
+  /*package*/ void submitterChanged(Submitter old) {
+    start(SUBMITTER);
+    records.writeEntity(old);
+  }
+  
+  /*package*/ void xrefLinked(PropertyXRef property1) {
+    start(XREF_LINKED);
+    records.writeProperty(property1);
+  }
+  
+  /*package*/ void xrefUnlinked(PropertyXRef property1, PropertyXRef property2) {
+    start(XREF_UNLINKED);
+    records.writeProperty(property1);
+    records.writeProperty(property2);
+  }
+  
+  /*package*/ void entityAdded(Entity entity) {
+    start(ENTITY_ADDED);
+    records.writeEntity(entity);
+  }
+  
+  /*package*/ void entityDeleted(Entity entity) {
+    // keep the entity itself so it can be added again
+    start(ENTITY_DELETED);
+    records.writeReference(entity);
+  }
+  
+  /*package*/ void entityIDChanged(Entity entity, String old) {
+    start(ENTITY_ID_CHANGED);
+    records.writeEntity(entity);
+    records.writeString(old);
+  }
+  
+  /*package*/ void propertyAdded(Property container, int pos) {
+    start(PROPERTY_ADDED);
+    records.writeProperty(container);
+    records.writeInt(pos);
+  }
+  
+  /*package*/ void propertyDeleted(Property container, int pos, Property deleted) {
+    // keep the (by now childless) property itself so it can be added again
+    start(PROPERTY_DELETED);
+    records.writeProperty(container);
+    records.writeReference(deleted);
+    records.writeInt(pos);
+  }
+  
+  /*package*/ void propertyChanged(Property property, String oldValue) {
+    start(PROPERTY_CHANGED);
+    records.writeProperty(property);
+    records.writeString(oldValue);
+  }
+  
+  /*package*/ void propertyMoved(Property property, Property moved, int from, int to) {
+    start(PROPERTY_MOVED);
+    records.writeProperty(property);
+    records.writeProperty(moved);
+    records.writeInt(from);
+    records.writeInt(to);
+  }
+  
+  /** start a record */
+  private void start(int op) {
+    if (records==null)
+      throw new IllegalStateException("journal is closed");
+    if (size==offsets.length) {
+      int[] grown = new int[size*2];
+      System.arraycopy(offsets, 0, grown, 0, size);
+      offsets = grown;
+    }
+    offsets[size++] = records.size();
+    records.writeInt(op);
+  }
+  
+  /**
+   * Records of changes - ints are written with variable length, entities by tag and id 
+   * and properties by their entity and positions
+   */
+  private class Records extends ByteArrayOutputStream {
+    
+    private InputStream in;
+    
+    /** records for writing */
+    Records() {
+      super(64);
+    }
+    
+    /** records for reading */
+    Records(byte[] data, int offset) {
+      in = new ByteArrayInputStream(data, offset, data.length-offset);
+    }
+    
+    void writeInt(int i) {
+      // zig-zag for the occasional negative
+      i = (i << 1) ^ (i >> 31);
+      while ((i & ~0x7f)!=0) {
+        write((i & 0x7f) | 0x80);
+        i >>>= 7;
+      }
+      write(i);
+    }
+    
+    int readInt() throws IOException {
+      int i = 0;
+      for (int shift=0;;shift+=7) {
+        int b = in.read();
+        if (b<0)
+          throw new IOException("unexpected end of undo records");
+        i |= (b & 0x7f) << shift;
+        if ((b & 0x80)==0)
+          break;
+      }
+      return (i >>> 1) ^ -(i & 1);
+    }
+    
+    void writeString(String s) {
+      if (s==null) {
+        writeInt(-1);
+        return;
+      }
+      try {
+        byte[] b = s.getBytes(UTF8);
+        writeInt(b.length);
+        write(b, 0, b.length);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    
+    String readString() throws IOException {
+      int len = readInt();
+      if (len<0)
+        return null;
+      byte[] b = new byte[len];
+      if (len>0&&in.read(b, 0, len)!=len)
+        throw new IOException("unexpected end of undo records");
+      return new String(b, UTF8);
+    }
+    
+    void writeReference(Object object) {
+      writeInt(references.size());
+      references.add(object);
+      referencesSize += REFERENCE_SIZE;
+      if (object instanceof Property) {
+        String value = ((Property)object).getValue();
+        if (value!=null)
+          referencesSize += value.length()*2;
+      }
+    }
+    
+    Object readReference() throws IOException {
+      return references.get(readInt());
+    }
+    
+    /** entity by id (positive) or reference (negative) */
+    void writeEntity(Entity entity) {
+      if (entity==null) {
+        writeInt(0);
+      } else if (entity.getId().length()==0) {
+        writeInt(-1);
+        writeReference(entity);
+      } else {
+        writeInt(1);
+        writeString(entity.getTag());
+        writeString(entity.getId());
+      }
+    }
+    
+    Entity readEntity() throws IOException, GedcomException {
+      switch (readInt()) {
+        case 0:
+          return null;
+        case -1:
+          return (Entity)readReference();
+        default:
+          String tag = readString(), id = readString();
+          Entity result = gedcom.getEntity(tag, id);
+          if (result==null)
+            throw new GedcomException("can't find entity "+tag+" "+id+" for undo");
+          return result;
+      }
+    }
+    
+    /** property by entity and positions top-down or reference for properties not in an entity */
+    void writeProperty(Property property) {
+      
+      int[] positions = new int[8];
+      int depth = 0;
+      Property child = property;
+      while (!(child instanceof Entity)) {
+        Property parent = child.getParent();
+        if (parent==null) {
+          writeInt(-1);
+          writeReference(property);
+          return;
+        }
+        if (depth==positions.length) {
+          int[] grown = new int[depth*2];
+          System.arraycopy(positions, 0, grown, 0, depth);
+          positions = grown;
+        }
+        positions[depth++] = parent.getPropertyPosition(child);
+        child = parent;
+      }
+      
+      writeInt(depth);
+      writeEntity((Entity)child);
+      for (int i=depth-1;i>=0;i--)
+        writeInt(positions[i]);
+    }
+    
+    Property readProperty() throws IOException, GedcomException {
+      int depth = readInt();
+      if (depth<0)
+        return (Property)readReference();
+      Property result = readEntity();
+      for (int i=0;i<depth;i++)
+        result = result.getProperty(readInt());
+      return result;
+    }
+  }
+  
+} //UndoJournal
@@ -0,0 +1,153 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A reader decoding characters straight from a byte buffer (e.g. a memory mapped
+ * file) into the caller's character array - no intermediate stream or byte copies.
+ * Malformed and unmappable input is replaced the same way InputStreamReader does.
+ */
+class ByteBufferReader extends Reader {
+
+  private ByteBuffer in, tail;
+  private int offset;
+  private CharsetDecoder decoder;
+  private boolean flushed = false;
+  private char leftover;
+  private boolean hasLeftover = false;
+
+  /**
+   * Constructor - decodes from buffer's current position to its limit
+   */
+  ByteBufferReader(ByteBuffer in, Charset charset) {
+    this.in = in;
+    this.offset = in.position();
+    this.decoder = charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+
+  /**
+   * number of bytes decoded so far
+   */
+  long getCount() {
+    ByteBuffer buffer = in;
+    return buffer!=null ? buffer.position()-offset : 0;
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+
+    if (in==null)
+      throw new IOException("closed");
+    if (len==0)
+      return 0;
+
+    // hand out what's left from last time
+    int read = 0;
+    if (hasLeftover) {
+      cbuf[off] = leftover;
+      hasLeftover = false;
+      if (len==1)
+        return 1;
+      off++;
+      len--;
+      read++;
+    }
+
+    // a single char might not fit a surrogate pair - decode two and keep one
+    if (len==1) {
+      char[] two = new char[2];
+      int n = decode(two, 0, 2);
+      if (n<=0)
+        return read>0 ? read : n;
+      cbuf[off] = two[0];
+      if (n>1) {
+        leftover = two[1];
+        hasLeftover = true;
+      }
+      return read+1;
+    }
+
+    int n = decode(cbuf, off, len);
+    if (n<0)
+      return read>0 ? read : -1;
+    return read+n;
+  }
+
+  /**
+   * decode into array
+   * @return number of chars or -1 for end of input
+   */
+  private int decode(char[] cbuf, int off, int len) throws IOException {
+
+    if (flushed)
+      return -1;
+
+    CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+    // decode what's there - whatever the decoder leaves is the tail of the input
+    // and handed over in a buffer of its own like a stream decoder would see it
+    CoderResult result;
+    if (tail==null) {
+      result = decoder.decode(in, out, false);
+      if (result.isError())
+        result.throwException();
+      if (result.isOverflow())
+        return out.position()-off;
+      tail = ByteBuffer.allocate(in.remaining());
+      tail.put(in);
+      tail.flip();
+    }
+
+    // decode the tail
+    result = decoder.decode(tail, out, true);
+    if (result.isError())
+      result.throwException();
+
+    // all consumed? flush what the decoder is still holding on to
+    if (result.isUnderflow()) {
+      result = decoder.flush(out);
+      if (result.isError())
+        result.throwException();
+      if (result.isUnderflow())
+        flushed = true;
+    }
+
+    int n = out.position()-off;
+    return n==0&&flushed ? -1 : n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    // let go of the buffer - a mapping is released when collected
+    in = null;
+  }
+
+} //ByteBufferReader
@@ -20,6 +20,7 @@ public class GedcomEncodingSniffer extends BufferedInputStream {
   static final byte[] BOM_UTF8 = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF }, BOM_UTF16BE = { (byte) 0xFE, (byte) 0xFF }, BOM_UTF16LE = { (byte) 0xFF, (byte) 0xFE };
 
   private boolean deterministic = true;
+  private int bom = 0;
   private String encoding;
   private Charset charset;
 
@@ -152,10 +153,18 @@ public class GedcomEncodingSniffer extends BufferedInputStream {
     }
     // skip match
     super.skip(prefix.length);
+    bom = prefix.length;
     // matched!
     return true;
   }
 
+  /**
+   * result - number of bytes of a byte order mark that was skipped
+   */
+  /* result */int getBOMLength() {
+    return bom;
+  }
+
   /**
    * result - charset
    */
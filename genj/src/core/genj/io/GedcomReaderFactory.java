@@ -25,21 +25,38 @@ import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
 import genj.gedcom.GedcomException;
 import genj.gedcom.Grammar;
+import genj.gedcom.MetaProperty;
+import genj.gedcom.MultiLineProperty;
 import genj.gedcom.Property;
 import genj.gedcom.PropertyDate;
 import genj.gedcom.PropertyXRef;
 import genj.gedcom.Submitter;
+import genj.gedcom.TagPath;
 import genj.util.EnvironmentChecker;
 import genj.util.MeteredInputStream;
 import genj.util.Origin;
 import genj.util.Resources;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -57,18 +74,56 @@ public class GedcomReaderFactory {
   /** estimated average byte size of one entity */
   private final static int ENTITY_AVG_SIZE = 150;
   
+  /** number of records handed to a worker at a time during a parallel read */
+  private final static int RECORDS_PER_BATCH = 256;
+  
   /**
    * factory method
    */
   public static GedcomReader createReader(Origin origin, GedcomReaderContext context) throws IOException {
     LOG.info("Initializing reader for "+origin);
-    return new Impl(new Gedcom(origin), origin.open(), context!=null?context:new DefaultContext());
+    if (context==null)
+      context = new DefaultContext();
+    
+    // a local file we can map into memory?
+    ByteBuffer mapped = map(origin.getFile());
+    if (mapped!=null)
+      return new Impl(new Gedcom(origin), mapped, context);
+    
+    return new Impl(new Gedcom(origin), origin.open(), context);
   }
 
   public static GedcomReader createReader(InputStream in, GedcomReaderContext context) throws IOException {
     return new Impl(new Gedcom(), in, context!=null?context:new DefaultContext());
   }
   
+  /**
+   * Map a file read-only into memory - mapping is off by default on Windows where
+   * a mapped file can't be replaced (by a save) until the mapping is collected
+   * @return mapped buffer or null if file can't or shouldn't be mapped
+   */
+  private static ByteBuffer map(File file) {
+    
+    if (file==null||!file.isFile()||file.length()>Integer.MAX_VALUE)
+      return null;
+    
+    if (!Boolean.parseBoolean(EnvironmentChecker.getProperty("genj.gedcom.mmap", Boolean.toString(!EnvironmentChecker.isWindows()), "checking for memory mapped read of "+file)))
+      return null;
+    
+    FileInputStream in = null;
+    try {
+      in = new FileInputStream(file);
+      FileChannel channel = in.getChannel();
+      // the mapping stays valid after the channel is closed
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (Throwable t) {
+      LOG.log(Level.FINE, "Can't map "+file+" - falling back to stream", t);
+      return null;
+    } finally {
+      try { if (in!=null) in.close(); } catch (Throwable t) {}
+    }
+  }
+  
   /**
    * reader implementation
    */
@@ -85,17 +140,42 @@ public class GedcomReaderFactory {
     private int length;
     private ArrayList<LazyLink> lazyLinks = new ArrayList<LazyLink>();
     private String tempSubmitter;
-    private boolean cancel=false;
+    private volatile boolean cancel=false;
     private Object lock = new Object();
     private EntityReader reader;
     private MeteredInputStream meter;
+    private ByteBufferReader mapped;
     private Enigma enigma;
     private GedcomReaderContext context;
+    private int threads;
   
     /**
      * Constructor
      */
     private Impl(Gedcom ged, InputStream in, GedcomReaderContext context) throws IOException {
+      this(ged, in, null, context);
+    }
+  
+    /**
+     * Constructor for memory mapped input
+     */
+    private Impl(Gedcom ged, ByteBuffer buffer, GedcomReaderContext context) throws IOException {
+      this(ged, new ByteArrayInputStream(head(buffer)), buffer, context);
+    }
+  
+    /** the first bytes of a buffer for sniffing the encoding */
+    private static byte[] head(ByteBuffer buffer) {
+      byte[] head = new byte[Math.min(4096, buffer.remaining())];
+      buffer.duplicate().get(head);
+      return head;
+    }
+  
+    /**
+     * Constructor
+     * @param in input to sniff encoding in and read from
+     * @param buffer input to read from instead of in (optional)
+     */
+    private Impl(Gedcom ged, InputStream in, ByteBuffer buffer, GedcomReaderContext context) throws IOException {
       
       GedcomEncodingSniffer sniffer = new GedcomEncodingSniffer(in);
       Charset charset = sniffer.getCharset();
@@ -114,13 +194,27 @@ public class GedcomReaderFactory {
         }
       }
   
+      // parallel read?
+      try {
+        threads = Integer.parseInt(EnvironmentChecker.getProperty("genj.gedcom.threads", "1", "checking for number of threads for read of "+ged.getName()));
+      } catch (NumberFormatException e) {
+        threads = 1;
+      }
+      
       // init some data
-      this.length = sniffer.available();
       this.gedcom = ged;
       this.gedcom.setEncoding(encoding);
       this.context = context;
-      this.meter = new MeteredInputStream(sniffer);
-      this.reader = new EntityReader(new InputStreamReader(meter, charset));
+      if (buffer==null) {
+        this.length = sniffer.available();
+        this.meter = new MeteredInputStream(sniffer);
+        this.reader = new EntityReader(new InputStreamReader(meter, charset));
+      } else {
+        buffer.position(buffer.position()+sniffer.getBOMLength());
+        this.length = buffer.remaining();
+        this.mapped = new ByteBufferReader(buffer, charset);
+        this.reader = new EntityReader(mapped);
+      }
   
       // Done
     }
@@ -140,7 +234,7 @@ public class GedcomReaderFactory {
       
       // reading right now?
       if (state==READENTITIES&&length>0)
-          progress = (int)Math.min(100, meter.getCount()*100/length);
+          progress = (int)Math.min(100, (mapped!=null ? mapped.getCount() : meter.getCount())*100/length);
   
       // done
       return progress;
@@ -214,9 +308,13 @@ public class GedcomReaderFactory {
       long header =System.currentTimeMillis();
   
       // Read records after the other
-      while (reader.readEntity()!=null) {
-        if (cancel)
-          throw new GedcomIOException("Cancelled", getLines());
+      if (threads>1) {
+        readEntitiesParallel();
+      } else {
+        while (reader.readEntity()!=null) {
+          if (cancel)
+            throw new GedcomIOException("Cancelled", getLines());
+        }
       }
         
       long records = System.currentTimeMillis();
@@ -266,6 +364,188 @@ public class GedcomReaderFactory {
       // done
     }
   
+    /**
+     * Read records in parallel - one thread splits the input into level 0 records, a pool of 
+     * workers instantiates the records' properties and the merge on this thread creates
+     * entities and adds properties in the original order
+     */
+    private void readEntitiesParallel() throws IOException {
+      
+      final ForkJoinPool pool = new ForkJoinPool(threads);
+      final BlockingQueue<Future<Batch>> batches = new ArrayBlockingQueue<Future<Batch>>(threads*2);
+      final Grammar grammar = gedcom.getGrammar();
+      final AtomicBoolean merging = new AtomicBoolean(true);
+      
+      // split records off in the background
+      Thread splitter = new Thread(new Runnable() {
+        public void run() {
+          Batch batch = new Batch();
+          try {
+            while (merging.get()) {
+              Record record = reader.readRecord();
+              if (record==null) {
+                batch.isLast = true;
+                break;
+              }
+              batch.records.add(record);
+              if (batch.records.size()==RECORDS_PER_BATCH) {
+                batches.put(pool.submit(batch.prepare(grammar)));
+                batch = new Batch();
+              }
+            }
+          } catch (InterruptedException e) {
+            return;
+          } catch (RejectedExecutionException e) {
+            // merge is over and the pool shut down
+            return;
+          } catch (IOException e) {
+            batch.error = e;
+          } catch (Throwable t) {
+            batch.error = new GedcomIOException(t.toString(), reader.getLines());
+          }
+          // nobody's waiting for the last batch anymore if the merge bailed
+          if (!merging.get())
+            return;
+          try {
+            batches.put(pool.submit(batch.prepare(grammar)));
+          } catch (InterruptedException e) {
+          } catch (RejectedExecutionException e) {
+          }
+        }
+      }, "GedcomReader.Splitter");
+      splitter.setDaemon(true);
+      splitter.start();
+      
+      // merge batches in order
+      try {
+        while (true) {
+          
+          Batch batch;
+          try {
+            batch = batches.take().get();
+          } catch (InterruptedException e) {
+            throw new GedcomIOException("Interrupted", getLines());
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error)
+              throw (Error)e.getCause();
+            throw new GedcomIOException(e.getCause().toString(), getLines());
+          }
+          
+          for (Record record : batch.records) {
+            if (cancel)
+              throw new GedcomIOException("Cancelled", getLines());
+            merge(record);
+          }
+          
+          if (batch.error!=null)
+            throw batch.error;
+          if (batch.isLast)
+            break;
+        }
+      } finally {
+        merging.set(false);
+        splitter.interrupt();
+        pool.shutdownNow();
+      }
+      
+      // done
+    }
+    
+    /**
+     * Merge a prepared record - this creates the entity and adds its properties exactly
+     * the way EntityReader would have for the same lines
+     */
+    private void merge(Record record) throws IOException {
+      
+      Entity result;
+      try {
+        result = gedcom.createEntity(record.tag, record.xref);
+      } catch (GedcomException ex) {
+        throw new GedcomIOException(ex.getMessage(), record.line);
+      }
+      
+      // warn about missing xref if it's a well known type
+      if (result.getClass()!=Entity.class&&record.xref.length()==0)
+        context.handleWarning(record.line, RESOURCES.getString("read.warn.recordnoid", Gedcom.getName(record.tag)), new Context(result));
+      
+      // preserve value for those who care
+      result.setValue(record.value);
+      
+      // continue into properties
+      mergeProperties(record, result, Record.ENTITY, 0, 0);
+      
+      entity++;
+    }
+    
+    /**
+     * Merge a record's lines below given property
+     * @see PropertyReader#readProperties(Property, int, int)
+     */
+    private void mergeProperties(Record record, Property prop, int self, int currentLevel, int pos) throws IOException {
+      
+      // try to collect some multilines first?
+      if (prop instanceof MultiLineProperty) {
+        MultiLineProperty.Collector collector = ((MultiLineProperty)prop).getLineCollector();
+        while (true) {
+          int i = record.next(this);
+          if (i<0 || record.levels[i]<currentLevel+1 || !collector.append(record.levels[i]-currentLevel, record.tags[i], record.values[i]))
+            break;
+          record.cursor++;
+        } 
+        prop.setValue(collector.getValue());
+      }
+      
+      // loop over subs
+      while (true) {
+        
+        int i = record.next(this);
+        if (i<0)
+          break;
+        
+        int level = record.levels[i];
+        if (level<currentLevel+1) 
+          break;
+        
+        record.cursor++;
+        
+        // wrong level value - fill in and continue (without what workers prepared)
+        if (level>currentLevel+1) {
+          context.handleWarning(record.lines[i], RESOURCES.getString("read.warn.badlevel", ""+level), new Context(prop));
+          for (int l=currentLevel;l<level-1;l++) 
+            prop = prop.addProperty("_TAG", "");
+          self = Record.UNPREPARED;
+        }
+        
+        // add sub property - the one prepared by a worker if it was prepared for this parent
+        Property child;
+        Property prepared = record.props[i];
+        if (prepared!=null && record.parents[i]==self) {
+          child = prop.addProperty(prepared, pos);
+        } else {
+          prepared = null;
+          try {
+            child = prop.addProperty(record.tags[i], record.values[i], pos);
+          } catch (GedcomException e) {
+            child = prop.addSimpleProperty(record.tags[i], record.values[i], pos);
+            context.handleWarning(record.lines[i], e.getMessage(), new Context(child));
+          }
+        }
+        
+        // recurse into children
+        mergeProperties(record, child, prepared!=null ? i : Record.UNPREPARED, level, 0);
+        
+        // link after children are setup
+        if (child instanceof PropertyXRef)
+          lazyLinks.add(new LazyLink((PropertyXRef)child, record.lines[i]));
+        
+        // next 
+        if (pos>=0) pos++;
+      }
+      
+      // decrypt lazy
+      decryptLazy(prop, record.cursor<record.size ? record.lines[record.cursor] : record.line);
+    }
+  
     /**
      * Read Header
      * @exception GedcomIOException reading from <code>BufferedReader</code> failed
@@ -366,10 +646,61 @@ public class GedcomReaderFactory {
       return true;
     }
   
+    /**
+     * Decrypt a value if necessary
+     */
+    private void decryptLazy(Property prop, int line) throws GedcomIOException {
+
+      // 20060128 an xref is never crypted and getValue() is expensive so we try to avoid this
+      if (prop instanceof PropertyXRef)
+        return;
+      // 20060128 a valid date can't need decryption and getValue() is expensive so we try to avoid this
+      if ((prop instanceof PropertyDate)&&prop.isValid())
+        return;
+
+      // no need to do anything if not encrypted value
+      String value = prop.getValue();
+      if (!Enigma.isEncrypted(value))
+        return;
+
+      // absolutely try to decrypt until we have a good password or bailed
+      while (enigma==null) {
+
+        // ask for it
+        String pwd = context.getPassword();
+        
+        // bail if not provided
+        if (pwd==null) 
+          throw new GedcomIOException(RESOURCES.getString("crypt.password.required"), line);
+        
+        // try it
+        try {
+          enigma = Enigma.getInstance(pwd);
+          enigma.decrypt(value);
+        } catch (IOException e) {
+          enigma = null;
+        }
+
+        // try again if needed
+      }
+
+      // have enigma - has to work now
+      try {
+        prop.setValue(enigma.decrypt(value));
+      } catch (IOException e) {
+        throw new GedcomIOException(RESOURCES.getString("crypt.password.mismatch"), line);
+      }
+
+      // done
+    }
+
     /**
      * our entity reader
      */
     private class EntityReader extends PropertyReader {
+      
+      /** record we're splitting off */
+      private Record splitting;
   
       /** constructor */
       EntityReader(Reader in) {
@@ -421,60 +752,41 @@ public class GedcomReaderFactory {
         return result;
       }
   
+      /** split off the next record and its lines (null for trailer) */
+      Record readRecord() throws IOException {
+        
+        if (!readLine(true))
+          throw new GedcomFormatException(RESOURCES.getString("read.error.norecord"),lines);
+  
+        if (level!=0)
+          throw new GedcomFormatException(RESOURCES.getString("read.error.nonumber"), lines);
+  
+        // Trailer? we're done
+        if (tag.equals("TRLR")) {
+          // consume any trailing blanks
+          if (readLine(true))
+            throw new GedcomFormatException(RESOURCES.getString("read.error.aftertrlr"), lines);
+          return null;
+        }
+        
+        // collect lines up to next record
+        splitting = new Record(tag, xref, value, lines);
+        while (readLine(false) && level>0) {
+          splitting.add(level, tag, value, lines);
+          pending = false;
+        }
+        Record result = splitting;
+        splitting = null;
+        
+        return result;
+      }
+      
       /** override read to get a chance to decrypt values */
       protected void readProperties(Property prop, int currentLevel, int pos) throws IOException {
         // let super do its thing
         super.readProperties(prop, currentLevel, pos);
         // decrypt lazy
-        decryptLazy(prop);
-      }
-  
-      /**
-       * Decrypt a value if necessary
-       */
-      private void decryptLazy(Property prop) throws GedcomIOException {
-  
-        // 20060128 an xref is never crypted and getValue() is expensive so we try to avoid this
-        if (prop instanceof PropertyXRef)
-          return;
-        // 20060128 a valid date can't need decryption and getValue() is expensive so we try to avoid this
-        if ((prop instanceof PropertyDate)&&prop.isValid())
-          return;
-  
-        // no need to do anything if not encrypted value
-        String value = prop.getValue();
-        if (!Enigma.isEncrypted(value))
-          return;
-  
-        // absolutely try to decrypt until we have a good password or bailed
-        while (enigma==null) {
-
-          // ask for it
-          String pwd = context.getPassword();
-          
-          // bail if not provided
-          if (pwd==null) 
-            throw new GedcomIOException(RESOURCES.getString("crypt.password.required"), this.lines);
-          
-          // try it
-          try {
-            enigma = Enigma.getInstance(pwd);
-            enigma.decrypt(value);
-          } catch (IOException e) {
-            enigma = null;
-          }
-
-          // try again if needed
-        }
-  
-        // have enigma - has to work now
-        try {
-          prop.setValue(enigma.decrypt(value));
-        } catch (IOException e) {
-          throw new GedcomIOException(RESOURCES.getString("crypt.password.mismatch"), lines);
-        }
-  
-        // done
+        decryptLazy(prop, lines);
       }
   
       /** keep track of xrefs - we're going to link them lazily afterwards */
@@ -486,7 +798,12 @@ public class GedcomReaderFactory {
       /** keep track of empty lines */
       protected void trackEmptyLine() {
         // care about empty lines before TRLR
-        if (!"TRLR".equals(tag))
+        if ("TRLR".equals(tag))
+          return;
+        // keep it with the record we're splitting off or warn right away
+        if (splitting!=null)
+          splitting.add(Record.EMPTY, null, null, getLines());
+        else
           context.handleWarning(getLines(), RESOURCES.getString("read.error.emptyline"), new Context(gedcom));
       }
   
@@ -502,6 +819,152 @@ public class GedcomReaderFactory {
   
     } //EntityReader
   
+    /**
+     * A level 0 record split off the input 
+     */
+    private static class Record {
+      
+      /** marker for an empty line and for parents that weren't prepared */
+      private final static int EMPTY = -1, ENTITY = -1, UNPREPARED = -2;
+      
+      private String tag, xref, value;
+      private int line, size, cursor;
+      private int[] levels = new int[8], lines = new int[8], parents;
+      private String[] tags = new String[8], values = new String[8];
+      private Property[] props;
+      
+      Record(String tag, String xref, String value, int line) {
+        this.tag = tag;
+        this.xref = xref;
+        this.value = value;
+        this.line = line;
+      }
+      
+      /** add a line */
+      void add(int level, String tag, String value, int line) {
+        if (size==levels.length) {
+          int grow = size*2;
+          levels = copyOf(levels, grow);
+          lines = copyOf(lines, grow);
+          String[] t = new String[grow], v = new String[grow];
+          System.arraycopy(tags, 0, t, 0, size);
+          System.arraycopy(values, 0, v, 0, size);
+          tags = t;
+          values = v;
+        }
+        levels[size] = level;
+        tags[size] = tag;
+        values[size] = value;
+        lines[size] = line;
+        size++;
+      }
+      
+      private static int[] copyOf(int[] array, int length) {
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+      }
+      
+      /** position of next non-empty line (or -1) - warns about empty lines passed */
+      int next(Impl impl) {
+        while (cursor<size) {
+          if (levels[cursor]!=EMPTY)
+            return cursor;
+          impl.context.handleWarning(lines[cursor], RESOURCES.getString("read.error.emptyline"), new Context(impl.gedcom));
+          cursor++;
+        }
+        return -1;
+      }
+      
+      /** 
+       * instantiate properties for lines in advance - this follows the structure a regular read would 
+       * see except for lines that follow a bad level (or that a multiline property collects) which are
+       * left for the merge to sort out 
+       */
+      void prepare(Grammar grammar) {
+        
+        props = new Property[size];
+        parents = new int[size];
+        
+        MetaProperty[] metas = new MetaProperty[8];
+        int[] owners = new int[8];
+        boolean[] collecting = new boolean[8];
+        metas[0] = grammar.getMeta(new TagPath(new String[]{ tag }, null));
+        owners[0] = ENTITY;
+        try {
+          collecting[0] = MultiLineProperty.class.isAssignableFrom(Gedcom.getEntityType(tag));
+        } catch (IllegalArgumentException e) {
+          collecting[0] = false;
+        }
+        
+        int depth = 0, skip = Integer.MAX_VALUE;
+        for (int i=0;i<size;i++) {
+          
+          int level = levels[i];
+          if (level==EMPTY)
+            continue;
+          
+          // still below a bad level?
+          if (level>skip)
+            continue;
+          skip = Integer.MAX_VALUE;
+          
+          // bad level?
+          if (level>depth+1) {
+            skip = depth;
+            continue;
+          }
+          
+          // instantiate unless the parent might collect this line
+          depth = level-1;
+          MetaProperty meta = metas[depth].getNested(tags[i], true);
+          parents[i] = owners[depth];
+          if (!collecting[depth]) try {
+            props[i] = meta.create(values[i]);
+          } catch (Throwable t) {
+            // let the merge run into this again
+          }
+          
+          depth = level;
+          if (depth==metas.length) {
+            MetaProperty[] m = new MetaProperty[depth*2];
+            System.arraycopy(metas, 0, m, 0, depth);
+            metas = m;
+            owners = copyOf(owners, depth*2);
+            boolean[] c = new boolean[depth*2];
+            System.arraycopy(collecting, 0, c, 0, depth);
+            collecting = c;
+          }
+          metas[depth] = meta;
+          owners[depth] = i;
+          collecting[depth] = props[i] instanceof MultiLineProperty;
+        }
+        
+        // done
+      }
+    }
+    
+    /**
+     * A batch of records 
+     */
+    private static class Batch {
+      
+      private List<Record> records = new ArrayList<Record>(RECORDS_PER_BATCH);
+      private IOException error;
+      private boolean isLast = false;
+      
+      /** a task for preparing all records in this batch */
+      Callable<Batch> prepare(final Grammar grammar) {
+        return new Callable<Batch>() {
+          public Batch call() {
+            for (Record record : records)
+              record.prepare(grammar);
+            return Batch.this;
+          }
+        };
+      }
+    }
+    
     /**
      * A lazy link
      */
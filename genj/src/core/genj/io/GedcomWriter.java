@@ -24,20 +24,33 @@ import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
 import genj.gedcom.Property;
 import genj.gedcom.PropertyChange;
+import genj.util.EnvironmentChecker;
 import genj.util.Trackable;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.UnmappableCharacterException;
 import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 /**
@@ -50,9 +63,14 @@ public class GedcomWriter implements Trackable {
 
   private static Logger LOG = Logger.getLogger("genj.io");
   
+  private final static int ENTITIES_PER_BATCH = 256;
+  
   /** lots of state */
   private Gedcom gedcom;
+  private OutputStream stream;
+  private Charset charset;
   private BufferedWriter out;
+  private int threads;
   private String file;
   private String date;
   private String time;
@@ -80,9 +98,16 @@ public class GedcomWriter implements Trackable {
     time = now.getTimeValue();
     filter = new Filter.Union(gedcom, Collections.<Filter>emptyList());
 
-    CharsetEncoder encoder = getCharset(false, stream, ged.getEncoding()).newEncoder();
-    encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
-    out = new BufferedWriter(new OutputStreamWriter(stream, encoder));
+    this.stream = stream;
+    charset = getCharset(false, stream, ged.getEncoding());
+    out = new BufferedWriter(new OutputStreamWriter(stream, getEncoder()));
+    
+    // parallel write?
+    try {
+      threads = Integer.parseInt(EnvironmentChecker.getProperty("genj.gedcom.threads", "1", "checking for number of threads for write of "+ged.getName()));
+    } catch (NumberFormatException e) {
+      threads = 1;
+    }
     
     // Done
   }
@@ -133,6 +158,15 @@ public class GedcomWriter implements Trackable {
 
   }
 
+  /**
+   * Create an encoder that reports unmappable characters
+   */
+  private CharsetEncoder getEncoder() {
+    CharsetEncoder encoder = charset.newEncoder();
+    encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+    return encoder;
+  }
+
   /**
    * Thread-safe cancel of writeGedcom()
    */
@@ -252,6 +286,12 @@ public class GedcomWriter implements Trackable {
    */
   private void writeEntities(List<Entity> entities) throws IOException {
 
+    // more than one thread?
+    if (threads>1&&entities.size()>ENTITIES_PER_BATCH) {
+      writeEntitiesParallel(entities);
+      return;
+    }
+    
     // Loop through entities
     es: for (Entity e : entities) {
       // .. check op
@@ -274,6 +314,63 @@ public class GedcomWriter implements Trackable {
     // Done
   }
 
+  /**
+   * Write entities in parallel - a pool of workers formats and encodes batches of 
+   * entities into bytes and this thread streams them to out in the original order
+   */
+  private void writeEntitiesParallel(List<Entity> entities) throws IOException {
+    
+    // everything so far goes first
+    out.flush();
+    WritableByteChannel channel = stream instanceof FileOutputStream ? ((FileOutputStream)stream).getChannel() : Channels.newChannel(stream);
+    
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    Deque<Future<Batch>> batches = new ArrayDeque<Future<Batch>>();
+    try {
+      int next = 0;
+      while (next<entities.size()||!batches.isEmpty()) {
+        
+        // keep workers busy with a limited number of batches ahead
+        while (next<entities.size()&&batches.size()<threads*2) {
+          int end = Math.min(entities.size(), next+ENTITIES_PER_BATCH);
+          batches.add(pool.submit(new Batch(entities.subList(next, end))));
+          next = end;
+        }
+        
+        // .. check op
+        if (cancel) 
+          throw new GedcomIOException("Operation cancelled", line);
+        
+        // .. wait for next batch in order
+        Batch batch;
+        try {
+          batch = batches.removeFirst().get();
+        } catch (InterruptedException e) {
+          throw new GedcomIOException("Interrupted", line);
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof IOException)
+            throw (IOException)e.getCause();
+          throw new GedcomIOException(e.getCause().toString(), line);
+        }
+        if (batch.unmappable!=null)
+          throw new GedcomEncodingException(batch.unmappable, gedcom.getEncoding());
+        
+        // .. write it
+        ByteBuffer bytes = ByteBuffer.wrap(batch.getBytes(), 0, batch.size());
+        while (bytes.hasRemaining())
+          channel.write(bytes);
+
+        // .. track it
+        line += batch.lines;
+        entity += batch.entities;
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    
+    // Done
+  }
+
   /**
    * Write Tail information
    * @exception IOException
@@ -290,6 +387,11 @@ public class GedcomWriter implements Trackable {
     
     /** constructor */
     EntityWriter() {
+      this(out);
+    }
+
+    /** constructor */
+    EntityWriter(Writer out) {
       super(out, false);
     }
 
@@ -307,4 +409,44 @@ public class GedcomWriter implements Trackable {
      
   } //EntityDecoder
   
+  /**
+   * A batch of entities written into encoded bytes 
+   */
+  private class Batch extends ByteArrayOutputStream implements Callable<Batch> {
+    
+    private List<Entity> todo;
+    private int lines, entities;
+    private Entity unmappable;
+    
+    Batch(List<Entity> todo) {
+      super(todo.size()*256);
+      this.todo = todo;
+    }
+    
+    public Batch call() throws IOException {
+      Writer writer = new OutputStreamWriter(this, getEncoder());
+      for (Entity e : todo) {
+        if (cancel)
+          break;
+        if (filter.veto(e))
+          continue;
+        try {
+          lines += new EntityWriter(writer).write(0, e);
+        } catch (UnmappableCharacterException unme) {
+          unmappable = e;
+          break;
+        }
+        entities++;
+      }
+      if (unmappable==null)
+        writer.flush();
+      return this;
+    }
+    
+    byte[] getBytes() {
+      return buf;
+    }
+    
+  } //Batch
+  
 } //GedcomWriter
@@ -0,0 +1,181 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A line scanner working on a reusable character buffer. Lines are
+ * not turned into strings - instead the current line is available
+ * as an offset range into the buffer (terminated by \n, \r or \r\n
+ * like BufferedReader.readLine())
+ */
+class LineScanner {
+
+  private final static int DEFAULT_SIZE = 8192;
+
+  private Reader in;
+  private char[] buffer;
+  private int pos = 0, limit = 0;
+  private int start = 0, end = 0;
+  private boolean eof = false, skipLF = false;
+
+  /**
+   * Constructor
+   */
+  LineScanner(Reader in) {
+    this(in, DEFAULT_SIZE);
+  }
+
+  /**
+   * Constructor
+   */
+  LineScanner(Reader in, int size) {
+    this.in = in;
+    this.buffer = new char[Math.max(16, size)];
+  }
+
+  /**
+   * the buffer the current line is in
+   */
+  char[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * start offset of current line in buffer
+   */
+  int getStart() {
+    return start;
+  }
+
+  /**
+   * end offset (exclusive) of current line in buffer
+   */
+  int getEnd() {
+    return end;
+  }
+
+  /**
+   * whether the current line is empty or consists of whitespace only (same as trim().length()==0)
+   */
+  boolean isBlank() {
+    for (int i=start;i<end;i++) {
+      if (buffer[i]>' ')
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * the current line as a string
+   */
+  public String toString() {
+    return new String(buffer, start, end-start);
+  }
+
+  /**
+   * Advance to the next line
+   * @return false if there's no more line
+   */
+  boolean next() throws IOException {
+
+    int scan = pos;
+    while (true) {
+
+      // skip a \n following a \r we've seen last time
+      if (skipLF && pos<limit) {
+        skipLF = false;
+        if (buffer[pos]=='\n')
+          pos++;
+        scan = pos;
+      }
+
+      // look for end of line
+      for (;scan<limit;scan++) {
+        char c = buffer[scan];
+        if (c=='\n'||c=='\r') {
+          start = pos;
+          end = scan;
+          pos = scan+1;
+          skipLF = c=='\r';
+          return true;
+        }
+      }
+
+      // no more data?
+      if (eof) {
+        if (pos>=limit)
+          return false;
+        start = pos;
+        end = limit;
+        pos = limit;
+        return true;
+      }
+
+      // grab more
+      scan = fill(scan);
+    }
+  }
+
+  /**
+   * fill the buffer keeping unconsumed characters
+   */
+  private int fill(int scan) throws IOException {
+
+    // compact or grow
+    int keep = limit-pos;
+    if (pos==0 && limit==buffer.length) {
+      char[] grown = new char[buffer.length*2];
+      System.arraycopy(buffer, 0, grown, 0, keep);
+      buffer = grown;
+    } else if (keep>0) {
+      System.arraycopy(buffer, pos, buffer, 0, keep);
+    }
+    scan -= pos;
+    pos = 0;
+    limit = keep;
+
+    // read until we have something or hit the end
+    while (true) {
+      int read = in.read(buffer, limit, buffer.length-limit);
+      if (read<0) {
+        eof = true;
+        break;
+      }
+      if (read>0) {
+        limit += read;
+        break;
+      }
+    }
+
+    return scan;
+  }
+
+  /**
+   * close underlying reader
+   */
+  void close() throws IOException {
+    if (in!=null)
+      in.close();
+  }
+
+} //LineScanner
@@ -29,8 +29,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.Collection;
-import java.util.NoSuchElementException;
-import java.util.StringTokenizer;
 
 /**
  * Reads gedcom lines into properties
@@ -41,7 +39,7 @@ public class PropertyReader {
 
   protected boolean useIndents = false;
   protected int lines = 0;
-  protected String line = null;
+  protected boolean pending = false;
   protected Collection collectXRefs;
   protected boolean isMerge = false;
   
@@ -52,7 +50,9 @@ public class PropertyReader {
   protected String value;
   
   /** input */
-  protected BufferedReader in;
+  protected Reader in;
+  private LineScanner scanner;
+  private TagTable tags = new TagTable();
   
   /** 
    * Constructor 
@@ -61,7 +61,10 @@ public class PropertyReader {
    * @param useIndents whether to use spaces as indent declarations
    */
   public PropertyReader(Reader in, Collection collectXRefs, boolean useIndents) {
-    this(new BufferedReader(in), collectXRefs, useIndents);
+    this.in = in;
+    this.scanner = new LineScanner(in);
+    this.useIndents = useIndents;
+    this.collectXRefs = collectXRefs;
   }
   
   /** 
@@ -69,9 +72,7 @@ public class PropertyReader {
    * @see PropertyReader#PropertyReader(Reader, Collection, boolean)
    */
   public PropertyReader(BufferedReader in, Collection collectXRefs, boolean useIndents) {
-    this.in = in;
-    this.useIndents = useIndents;
-    this.collectXRefs = collectXRefs;
+    this((Reader)in, collectXRefs, useIndents);
   }
   
   /** lines read */
@@ -90,13 +91,8 @@ public class PropertyReader {
    * read into property
    */
   public void read(Property prop, int index) throws IOException {
-    // do the recursive read
+    // do the recursive read - a pending line stays with us for the next read
     readProperties(prop, 0, index);
-    // put back a pending line? this works only if the constructor received a buffered reader
-    if (line!=null) {
-      line = null;
-      in.reset();
-    }
     // done
   }
   
@@ -124,7 +120,7 @@ public class PropertyReader {
         if (level<currentLevel+1 || !collector.append(level-currentLevel, tag, value))
           break;
         // consume it
-        line = null;
+        pending = false;
         // next line
       } 
       // commit collected value
@@ -143,7 +139,7 @@ public class PropertyReader {
         return;
       
       // consume it
-      line = null;
+      pending = false;
       
       // check for wrong level value
       //  0 INDI
@@ -204,102 +200,140 @@ public class PropertyReader {
   protected boolean readLine(boolean consume) throws IOException {
     
     // need a line?
-    if (line==null) {
-      
-      // mark current position in reader
-      in.mark(256);
+    if (!pending) {
       
       // grab it ignoring empty lines
-      while (line==null) {
-        line = in.readLine();
-        if (line==null) 
+      while (true) {
+        if (!scanner.next()) 
           return false;
         lines ++;
-        if (line.trim().length()==0) {
-          trackEmptyLine();
-          line = null;
-        }
-      }
-      
-      // 20040322 use space and also \t for delim in case someone used tabs in file
-      StringTokenizer tokens = new StringTokenizer(line," \t");
-  
-      try {
-        
-        // .. caclulate level by looking at spaces or parsing a number
-        try {
-          if (useIndents) {
-            level = 0;
-            while (line.charAt(level)==' ') level++;
-            level++;
-          } else {
-            level = Integer.parseInt(tokens.nextToken(),10);
-          }
-        } catch (StringIndexOutOfBoundsException sioobe) {
-          throw new GedcomFormatException(RESOURCES.getString("read.error.emptyline"), lines);
-        } catch (NumberFormatException nfe) {
-          throw new GedcomFormatException(RESOURCES.getString("read.error.nonumber"), lines);
-        }
-  
-        // .. tag (?)
-        if (tokens.hasMoreTokens()) 
-          tag = tokens.nextToken();
-        else {
-          tag = "_TAG";
-        }
-          
-        // .. xref ?
-        if (level==0&&tag.startsWith("@")) {
-  
-          // .. valid ?
-          if (!tag.endsWith("@")||tag.length()<=2)
-            throw new GedcomFormatException(RESOURCES.getString("read.error.invalidid"), lines);
-   
-          // .. indeed, xref !
-          xref = tag.substring(1,tag.length()-1);
-          
-          // .. tag is the next token
-          tag = tokens.nextToken();
-  
-        } else {
-  
-          // .. no reference in line !
-          xref = "";
-        }
-  
-        // .. value
-        if (tokens.hasMoreElements()) {
-          // 20030530 o.k. gotta switch to delim "\n" because we want everything 
-          // to end of line including contained spaces 
-          value = tokens.nextToken("\n");
-          // 20030609 strip leading space that forms delimiter to tag/xref
-          // (this was trim() once but identified as too greedy)
-          if (value.startsWith(" "))
-            value = value.substring(1);
-        } else {
-          value = "";
-        }
-  
-      } catch (NoSuchElementException ex) {
-        // .. not enough tokens
-        throw new GedcomFormatException(RESOURCES.getString("read.error.cantparse"), lines);
+        if (!scanner.isBlank())
+          break;
+        trackEmptyLine();
       }
       
-      // TUNING: for tags we expect a lot of repeating strings (limited numbe of tags) so
-      // we build the intern representation of tag here - this makes us share string 
-      // instances for an upfront cost
-      tag = tag.intern();
-          
+      // parse it
+      parseLine(scanner.getBuffer(), scanner.getStart(), scanner.getEnd());
+      pending = true;
     }
     
     // consume it already?
     if (consume)
-      line = null;
+      pending = false;
       
     // we're ready
     return true;
   }
   
+  /**
+   * parse level, xref, tag and value from a line by looking at offsets into
+   * the line's characters (we used to use a StringTokenizer here but that's
+   * a lot of garbage for a lot of lines)
+   */
+  private void parseLine(char[] line, int start, int end) throws GedcomFormatException {
+    
+    int i = start, from;
+    
+    // .. calculate level by looking at spaces or parsing a number
+    if (useIndents) {
+      while (line[i]==' ') i++;
+      level = i-start+1;
+    } else {
+      i = skipDelimiters(line, i, end);
+      from = i;
+      i = skipToken(line, i, end);
+      level = parseLevel(line, from, i);
+    }
+    
+    // .. tag (?) - 20040322 use space and also \t for delim in case someone used tabs in file
+    i = skipDelimiters(line, i, end);
+    if (i==end) {
+      tag = "_TAG";
+      xref = "";
+      value = "";
+      return;
+    }
+    from = i;
+    i = skipToken(line, i, end);
+    
+    // .. xref ?
+    if (level==0&&line[from]=='@') {
+      
+      // .. valid ?
+      if (line[i-1]!='@'||i-from<=2)
+        throw new GedcomFormatException(RESOURCES.getString("read.error.invalidid"), lines);
+      
+      // .. indeed, xref !
+      xref = new String(line, from+1, i-from-2);
+      
+      // .. tag is the next token
+      i = skipDelimiters(line, i, end);
+      if (i==end)
+        throw new GedcomFormatException(RESOURCES.getString("read.error.cantparse"), lines);
+      from = i;
+      i = skipToken(line, i, end);
+      
+    } else {
+      
+      // .. no reference in line !
+      xref = "";
+    }
+    
+    // TUNING: for tags we expect a lot of repeating strings (limited number of tags) so
+    // we share canonical instances from our table instead of creating new ones
+    tag = tags.get(line, from, i-from);
+    
+    // .. value - everything to end of line including contained spaces but only 
+    // if there's something other than delimiters
+    if (skipDelimiters(line, i, end)==end) {
+      value = "";
+    } else {
+      // 20030609 strip leading space that forms delimiter to tag/xref
+      // (this was trim() once but identified as too greedy)
+      if (line[i]==' ')
+        i++;
+      value = new String(line, i, end-i);
+    }
+    
+    // done
+  }
+  
+  /** skip spaces and tabs */
+  private static int skipDelimiters(char[] line, int i, int end) {
+    while (i<end && (line[i]==' '||line[i]=='\t')) i++;
+    return i;
+  }
+  
+  /** skip everything but spaces and tabs */
+  private static int skipToken(char[] line, int i, int end) {
+    while (i<end && line[i]!=' ' && line[i]!='\t') i++;
+    return i;
+  }
+  
+  /** parse a level number with the same leniency Integer.parseInt() has */
+  private int parseLevel(char[] line, int from, int to) throws GedcomFormatException {
+    
+    boolean negative = false;
+    if (from<to && (line[from]=='-'||line[from]=='+')) {
+      negative = line[from]=='-';
+      from++;
+    }
+    if (from==to)
+      throw new GedcomFormatException(RESOURCES.getString("read.error.nonumber"), lines);
+    
+    long result = 0;
+    for (int i=from;i<to;i++) {
+      int digit = Character.digit(line[i], 10);
+      if (digit<0)
+        throw new GedcomFormatException(RESOURCES.getString("read.error.nonumber"), lines);
+      result = result*10 + digit;
+      if (result>Integer.MAX_VALUE)
+        throw new GedcomFormatException(RESOURCES.getString("read.error.nonumber"), lines);
+    }
+    
+    return (int)(negative ? -result : result);
+  }
+  
   /** link a reference - keep in lazyXRefs is available otherwise link and ignore errors */
   protected void link(PropertyXRef xref, int line) {
     if (collectXRefs!=null)
@@ -0,0 +1,115 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.io;
+
+/**
+ * A table of canonical tag strings looked up by character range. It's
+ * pre-seeded with the well known Gedcom tags so that reading a line
+ * doesn't have to create and intern() a string for its tag. Tags
+ * not known yet are interned once on first sight. Not thread-safe.
+ */
+class TagTable {
+
+  /** well known tags */
+  private final static String[] SEED = {
+    "ABBR", "ADDR", "ADR1", "ADR2", "ADOP", "AFN", "AGE", "AGNC", "ALIA", "ANCE", "ANCI", "ANUL", "ASSO", "AUTH",
+    "BAPL", "BAPM", "BARM", "BASM", "BIRT", "BLES", "BLOB", "BURI", "CALN", "CAST", "CAUS", "CENS", "CHAN", "CHAR",
+    "CHIL", "CHR", "CHRA", "CITY", "CONC", "CONF", "CONL", "CONT", "COPR", "CORP", "CREM", "CTRY", "DATA", "DATE",
+    "DEAT", "DESC", "DESI", "DEST", "DIV", "DIVF", "DSCR", "EDUC", "EMAIL", "EMIG", "ENDL", "ENGA", "EVEN", "FACT",
+    "FAM", "FAMC", "FAMF", "FAMS", "FAX", "FCOM", "FILE", "FONE", "FORM", "GEDC", "GIVN", "GRAD", "HEAD", "HUSB",
+    "IDNO", "IMMI", "INDI", "LANG", "LATI", "LEGA", "LONG", "MAP", "MARB", "MARC", "MARL", "MARR", "MARS", "MEDI",
+    "NAME", "NATI", "NATU", "NCHI", "NICK", "NMR", "NOTE", "NPFX", "NSFX", "OBJE", "OCCU", "ORDI", "ORDN", "PAGE",
+    "PEDI", "PHON", "PLAC", "POST", "PROB", "PROP", "PUBL", "QUAY", "REFN", "RELA", "RELI", "REPO", "RESI", "RESN",
+    "RETI", "RFN", "RIN", "ROLE", "ROMN", "SEX", "SLGC", "SLGS", "SOUR", "SPFX", "SSN", "STAE", "STAT", "SUBM",
+    "SUBN", "SURN", "TEMP", "TEXT", "TIME", "TITL", "TRLR", "TYPE", "VERS", "WIFE", "WILL", "WWW", "_TAG"
+  };
+
+  private String[] table;
+  private int size;
+
+  /**
+   * Constructor
+   */
+  TagTable() {
+    table = new String[512];
+    for (int i=0;i<SEED.length;i++)
+      add(SEED[i]);
+  }
+
+  /**
+   * Resolve the canonical string for given characters
+   */
+  String get(char[] chars, int offset, int length) {
+
+    // compute hash the same way String does
+    int hash = 0;
+    for (int i=0;i<length;i++)
+      hash = 31*hash + chars[offset+i];
+
+    // look it up
+    int mask = table.length-1;
+    for (int i=hash&mask;;i=(i+1)&mask) {
+      String tag = table[i];
+      if (tag==null)
+        break;
+      if (tag.hashCode()==hash&&equals(tag, chars, offset, length))
+        return tag;
+    }
+
+    // new one
+    String tag = new String(chars, offset, length).intern();
+    add(tag);
+    return tag;
+  }
+
+  /** compare tag and chars */
+  private static boolean equals(String tag, char[] chars, int offset, int length) {
+    if (tag.length()!=length)
+      return false;
+    for (int i=0;i<length;i++) {
+      if (tag.charAt(i)!=chars[offset+i])
+        return false;
+    }
+    return true;
+  }
+
+  /** add a tag to the table */
+  private void add(String tag) {
+
+    // grow at 50% load
+    if (size*2>=table.length) {
+      String[] old = table;
+      table = new String[old.length*2];
+      size = 0;
+      for (int i=0;i<old.length;i++) {
+        if (old[i]!=null)
+          add(old[i]);
+      }
+    }
+
+    int mask = table.length-1;
+    int i = tag.hashCode()&mask;
+    while (table[i]!=null)
+      i = (i+1)&mask;
+    table[i] = tag;
+    size++;
+  }
+
+} //TagTable
@@ -40,16 +40,22 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.Stroke;
+import java.awt.Transparency;
 import java.awt.font.FontRenderContext;
 import java.awt.font.LineMetrics;
 import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
@@ -90,6 +96,9 @@ public class BlueprintRenderer {
   
   private final static int IMAGE_GAP = 4;
   
+  /** bitmaps of rendered entities - using up to 1/16th of the heap */
+  private final static RenderCache CACHE = new RenderCache(Runtime.getRuntime().maxMemory()/16);
+  
   private final static Stroke DEBUG_STROKE = new BasicStroke(1.0f, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 10.0f, new float[]{ 1,2 }, 0.0f);
   
   // this will initialize and load the html32 dtd
@@ -122,6 +131,15 @@ public class BlueprintRenderer {
   /** whether we have a debug mode */
   private boolean isDebug = false;
   
+  /** whether we're caching bitmaps of rendered entities */
+  private boolean isCached = false;
+  
+  /** the html we're rendering */
+  private String html;
+  
+  /** whether we're looking at the entity's properties only (not following references) */
+  private boolean isLocal;
+  
   /** current graphics context */
   private Graphics2D graphics;
   
@@ -137,6 +155,10 @@ public class BlueprintRenderer {
     html.append("<html<body>");
     html.append(bp.getHTML());
     html.append("</body></html>");
+    this.html = html.toString();
+    
+    // paths following references (e.g. INDI:FAMS:*:..:HUSB) show more than the entity
+    isLocal = bp.getHTML().indexOf('*')<0;
 
     // read and parse the html
     try {
@@ -170,10 +192,89 @@ public class BlueprintRenderer {
     // done    
   }
   
+  /**
+   * Forget cached bitmaps of entities of a gedcom that's being closed
+   */
+  public static void close(Gedcom gedcom) {
+    CACHE.close(gedcom);
+  }
+  
   /**
    * Render the entity on given context
    */
   public void render(Graphics g, Entity e, Rectangle r) {
+    
+    // try a cached bitmap first
+    if (isCached && !isDebug && e!=null && e.getGedcom()!=null && renderCached((Graphics2D)g, e, r))
+      return;
+    
+    renderViews(g, e, r);
+  }
+  
+  /**
+   * Render the entity from a cached bitmap (on screen for scaled and translated graphics only)
+   * @return false if not applicable
+   */
+  private boolean renderCached(Graphics2D g, Entity e, Rectangle r) {
+    
+    // not for printing or images
+    if (g.getDeviceConfiguration().getDevice().getType()!=GraphicsDevice.TYPE_RASTER_SCREEN)
+      return false;
+    
+    // no rotation or shearing
+    AffineTransform at = g.getTransform();
+    if ((at.getType() & ~(AffineTransform.TYPE_TRANSLATION|AffineTransform.TYPE_UNIFORM_SCALE|AffineTransform.TYPE_GENERAL_SCALE))!=0)
+      return false;
+    
+    // size in device space
+    double sx = at.getScaleX(), sy = at.getScaleY();
+    int w = (int)Math.ceil(r.width*sx), h = (int)Math.ceil(r.height*sy);
+    if (w<=0||h<=0||!CACHE.fits(w, h))
+      return false;
+    
+    // known?
+    DPI dpi = DPI.get(g);
+    RenderCache.Key key = new RenderCache.Key(html, isLocal, e, w, h, sx, sy, dpi, g.getFont(), g.getColor(), Arrays.asList(
+        g.getRenderingHint(RenderingHints.KEY_ANTIALIASING),
+        g.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING),
+        g.getRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS)
+      ));
+    BufferedImage image = CACHE.get(key);
+    if (image==null) {
+      image = g.getDeviceConfiguration().createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+      Graphics2D ig = image.createGraphics();
+      try {
+        ig.setRenderingHints(g.getRenderingHints());
+        ig.setRenderingHint(DPI.KEY, dpi);
+        ig.setFont(g.getFont());
+        ig.setColor(g.getColor());
+        ig.scale(sx, sy);
+        ig.translate(-r.x, -r.y);
+        ig.setClip(r.x, r.y, r.width, r.height);
+        renderViews(ig, e, r);
+      } finally {
+        ig.dispose();
+      }
+      CACHE.put(key, image);
+    }
+    
+    // draw it pixel aligned
+    Point2D pos = at.transform(new Point2D.Double(r.x, r.y), null);
+    g.setTransform(AffineTransform.getTranslateInstance(Math.round(pos.getX()), Math.round(pos.getY())));
+    try {
+      g.drawImage(image, 0, 0, null);
+    } finally {
+      g.setTransform(at);
+    }
+    
+    // done
+    return true;
+  }
+  
+  /**
+   * Render the entity through our views
+   */
+  private void renderViews(Graphics g, Entity e, Rectangle r) {
 
     // keep the entity and graphics
     entity = e;
@@ -227,6 +328,15 @@ public class BlueprintRenderer {
     isDebug = set;
   }
   
+  /**
+   * Sets caching of rendered entities' bitmaps for rendering on screen. Not
+   * for sub-classes overriding getProperty() since entities are considered
+   * rendered the same for the same blueprint.
+   */
+  public void setCached(boolean set) {
+    isCached = set;
+  }
+  
   /**
    * Default implementation to lookup property from entity
    */
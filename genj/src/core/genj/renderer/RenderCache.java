@@ -0,0 +1,289 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.renderer;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomListenerAdapter;
+import genj.gedcom.Options;
+import genj.gedcom.Property;
+import genj.gedcom.PropertyXRef;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of rendered entities - bitmaps in device space least recently
+ * used first out when exceeding a memory budget. We're listening to all
+ * gedcoms of cached entities and drop what's affected by changes (an entity
+ * and the ones linked to it, all entities for renderers following references).
+ * Keys include the options that change rendered text and a closed gedcom's 
+ * bitmaps are dropped when it's closed.
+ */
+/*package*/ class RenderCache extends GedcomListenerAdapter {
+
+  /** bytes we're allowed to use */
+  private long budget, used = 0;
+
+  /** bitmaps by key - access ordered */
+  private LinkedHashMap<Key, BufferedImage> key2image = new LinkedHashMap<Key, BufferedImage>(256, 0.75F, true);
+
+  /** gedcoms we're listening to */
+  private Set<Gedcom> gedcoms = new HashSet<Gedcom>();
+
+  /** entities changed and not dropped yet */
+  private Set<Entity> changed = new HashSet<Entity>();
+  private Set<Gedcom> changedAll = new HashSet<Gedcom>();
+
+  /**
+   * Constructor
+   */
+  /*package*/ RenderCache(long budget) {
+    this.budget = budget;
+  }
+
+  /**
+   * Whether a bitmap of given size would fit in at all
+   */
+  /*package*/ boolean fits(int width, int height) {
+    return size(width, height) <= budget/8;
+  }
+
+  private static long size(int width, int height) {
+    return width*(long)height*4;
+  }
+
+  /**
+   * Lookup a bitmap
+   */
+  /*package*/ synchronized BufferedImage get(Key key) {
+    flush();
+    return key2image.get(key);
+  }
+
+  /**
+   * Keep a bitmap
+   */
+  /*package*/ synchronized void put(Key key, BufferedImage image) {
+
+    flush();
+
+    // listen to gedcom
+    if (gedcoms.add(key.gedcom))
+      key.gedcom.addGedcomListener(this);
+
+    // keep it
+    BufferedImage old = key2image.put(key, image);
+    if (old!=null)
+      used -= size(old.getWidth(), old.getHeight());
+    used += size(image.getWidth(), image.getHeight());
+
+    // drop least recently used
+    for (Iterator<BufferedImage> it = key2image.values().iterator(); used>budget && it.hasNext(); ) {
+      BufferedImage drop = it.next();
+      used -= size(drop.getWidth(), drop.getHeight());
+      it.remove();
+    }
+  }
+
+  /**
+   * Drop all bitmaps of a gedcom and stop listening to it
+   */
+  /*package*/ synchronized void close(Gedcom gedcom) {
+
+    if (!gedcoms.remove(gedcom))
+      return;
+    gedcom.removeGedcomListener(this);
+
+    for (Iterator<Map.Entry<Key, BufferedImage>> it = key2image.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry<Key, BufferedImage> entry = it.next();
+      if (entry.getKey().gedcom==gedcom) {
+        used -= size(entry.getValue().getWidth(), entry.getValue().getHeight());
+        it.remove();
+      }
+    }
+    for (Iterator<Entity> it = changed.iterator(); it.hasNext(); ) {
+      if (it.next().getGedcom()==gedcom)
+        it.remove();
+    }
+    changedAll.remove(gedcom);
+  }
+
+  /**
+   * Drop bitmaps affected by changes
+   */
+  private void flush() {
+
+    if (changed.isEmpty()&&changedAll.isEmpty())
+      return;
+
+    // changed entities and the ones they're linked to
+    Set<Entity> affected = new HashSet<Entity>();
+    Set<Gedcom> all = new HashSet<Gedcom>(changedAll);
+    Set<Gedcom> dirty = new HashSet<Gedcom>();
+    for (Entity entity : changed) {
+      affected.add(entity);
+      for (PropertyXRef xref : entity.getProperties(PropertyXRef.class)) {
+        if (xref.isValid())
+          affected.add(xref.getTargetEntity());
+      }
+      dirty.add(entity.getGedcom());
+    }
+    changed.clear();
+    changedAll.clear();
+
+    for (Iterator<Map.Entry<Key, BufferedImage>> it = key2image.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry<Key, BufferedImage> entry = it.next();
+      Key key = entry.getKey();
+      if (affected.contains(key.entity) || all.contains(key.gedcom) || (!key.local && dirty.contains(key.gedcom))) {
+        used -= size(entry.getValue().getWidth(), entry.getValue().getHeight());
+        it.remove();
+      }
+    }
+  }
+
+  private synchronized void changed(Property property) {
+    Entity entity = property.getEntity();
+    if (entity!=null)
+      changed.add(entity);
+  }
+
+  @Override
+  public void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  @Override
+  public void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  @Override
+  public void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
+    changed(property);
+  }
+
+  @Override
+  public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
+    changed(property);
+  }
+
+  @Override
+  public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property removed) {
+    changed(property);
+  }
+
+  @Override
+  public synchronized void gedcomHeaderChanged(Gedcom gedcom) {
+    changedAll.add(gedcom);
+  }
+
+  /**
+   * A key for a rendered entity
+   */
+  /*package*/ static class Key {
+
+    private String html;
+    private Entity entity;
+    private Gedcom gedcom;
+    private boolean local;
+    private int width, height;
+    private double scaleX, scaleY;
+    private DPI dpi;
+    private Font font;
+    private Color color;
+    private Object hints;
+    private List<Object> options = getOptions();
+    private int hash;
+
+    /**
+     * Constructor
+     * @param html the blueprint's html
+     * @param local whether the blueprint looks at the entity and its direct references only
+     * @param hints rendering hints affecting the outcome
+     */
+    /*package*/ Key(String html, boolean local, Entity entity, int width, int height, double scaleX, double scaleY, DPI dpi, Font font, Color color, Object hints) {
+      this.html = html;
+      this.local = local;
+      this.entity = entity;
+      this.gedcom = entity.getGedcom();
+      this.width = width;
+      this.height = height;
+      this.scaleX = scaleX;
+      this.scaleY = scaleY;
+      this.dpi = dpi;
+      this.font = font;
+      this.color = color;
+      this.hints = hints;
+
+      long bits = Double.doubleToLongBits(scaleX) ^ 31*Double.doubleToLongBits(scaleY);
+      hash = ((((html.hashCode()*31 + System.identityHashCode(entity))*31 + width)*31 + height)*31 + (int)(bits^(bits>>>32)))*31 + font.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key))
+        return false;
+      Key that = (Key)obj;
+      return hash==that.hash
+        && entity==that.entity
+        && width==that.width
+        && height==that.height
+        && scaleX==that.scaleX
+        && scaleY==that.scaleY
+        && dpi.horizontal()==that.dpi.horizontal()
+        && dpi.vertical()==that.dpi.vertical()
+        && html.equals(that.html)
+        && font.equals(that.font)
+        && color.equals(that.color)
+        && hints.equals(that.hints)
+        && options.equals(that.options);
+    }
+  }
+
+  /**
+   * The current options that change the text or images of rendered entities
+   */
+  private static List<Object> getOptions() {
+    Options options = Options.getInstance();
+    return Arrays.<Object>asList(
+      options.nameFormat,
+      options.isUpperCaseNames,
+      options.dateFormat,
+      options.getTxtMarriageSymbol(),
+      options.isAddGivenSurname,
+      options.isAddAge,
+      options.getMaxImageFileSizeKB()
+    );
+  }
+}
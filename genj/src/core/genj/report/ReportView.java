@@ -437,6 +437,7 @@ public class ReportView extends View {
       Format formatter = options.getFormat();
       File file = options.getFile();
       if (rc!=0 || formatter.getFileExtension() == null || file == null) {
+        doc.dispose();
         showResult(null);
         return;
       }
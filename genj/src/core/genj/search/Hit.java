@@ -45,6 +45,11 @@ import javax.swing.text.StyledDocument;
   /** the property */
   private Property property;
   
+  /** what matched */
+  private String value;
+  private Matcher.Match[] matches;
+  private boolean isID;
+  
   /** a document (cached) */
   private StyledDocument doc;
   
@@ -59,11 +64,24 @@ import javax.swing.text.StyledDocument;
     property = setProp;
     // keep sequence
     entity = setEntity;
+    // keep value and matches - there might be lots of hits so the document is prepared when needed
+    this.value = value;
+    this.matches = matches;
+    this.isID = isID;
+    // done
+  }
+  
+  /**
+   * Document
+   */
+  /*package*/ StyledDocument getDocument() {
+    if (doc!=null)
+      return doc;
     // prepare document
     doc = new DefaultStyledDocument();
     try {
       int offset = 0;
-      String tag = setProp.getPropertyName();
+      String tag = property.getPropertyName();
       // indent
       doc.insertString(offset++, " ", null);
       // tag first for values and not IDs
@@ -86,17 +104,14 @@ import javax.swing.text.StyledDocument;
       }
       // keep image
       SimpleAttributeSet img = new SimpleAttributeSet();
-      StyleConstants.setIcon(img, setProp.getImage(false));
+      StyleConstants.setIcon(img, property.getImage(false));
       doc.insertString(0, " ", img);
     } catch (Throwable t) {
     }
+    // forget what we don't need anymore
+    value = null;
+    matches = null;
     // done
-  }
-  
-  /**
-   * Document
-   */
-  /*package*/ StyledDocument getDocument() {
     return doc;
   }
   
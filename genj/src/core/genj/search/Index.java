@@ -0,0 +1,276 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.search;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomListener;
+import genj.gedcom.Property;
+import genj.gedcom.PropertyXRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+
+/**
+ * An inverted index of the words in entities' ids and display values. A plain
+ * search only has to look at entities that contain all words instead of walking
+ * all of them. Tokens are kept sorted so the ones starting with a word are a
+ * range - a word inside a token is found by scanning the remaining tokens once for 
+ * the first word, every further word only has to be checked against the tokens of
+ * the entities still in question. Changes reported by gedcom are collected and 
+ * the affected entities are re-indexed on the next lookup.
+ */
+/*package*/ class Index implements GedcomListener {
+  
+  /** how far references are followed for changes - a family shows its spouses' names, a child its family */
+  private final static int HOPS = 2;
+  
+  /** the gedcom we're indexing */
+  private Gedcom gedcom;
+  private boolean built = false;
+  
+  /** lower case token to entities and back */
+  private TreeMap<String, Posting> token2posting = new TreeMap<String, Posting>();
+  private Map<Entity, Posting[]> entity2postings = new HashMap<Entity, Posting[]>();
+  
+  /** changed entities (sync on itself) */
+  private Set<Entity> changed = new HashSet<Entity>();
+  
+  /**
+   * Constructor
+   */
+  /*package*/ Index(Gedcom gedcom) {
+    this.gedcom = gedcom;
+    gedcom.addGedcomListener(this);
+  }
+  
+  /**
+   * Accessor - gedcom
+   */
+  /*package*/ Gedcom getGedcom() {
+    return gedcom;
+  }
+  
+  /**
+   * Stop keeping track of changes
+   */
+  /*package*/ void close() {
+    gedcom.removeGedcomListener(this);
+  }
+  
+  /**
+   * Lookup entities that contain all given lower case words in their id or a display value. 
+   * This is a superset of what a SimpleMatcher will match with those words.
+   */
+  /*package*/ synchronized Set<Entity> lookup(String[] words) {
+    
+    // build or catch up
+    if (!built) {
+      for (Entity entity : new ArrayList<Entity>(gedcom.getEntities()))
+        index(entity);
+      built = true;
+    }
+    update();
+    
+    // words are whitespace free so a word in a value is part of one of its tokens
+    Set<Entity> result = null;
+    for (String word : words) {
+      
+      // first word goes through the dictionary - tokens starting with it and then those containing it
+      if (result==null) {
+        result = new HashSet<Entity>();
+        SortedMap<String, Posting> prefixed = token2posting.subMap(word, word+'\uffff');
+        for (Posting posting : prefixed.values())
+          result.addAll(posting.entities);
+        for (Posting posting : token2posting.values()) {
+          if (posting.token.length()>word.length() && posting.token.indexOf(word, 1)>0)
+            result.addAll(posting.entities);
+        }
+      } else {
+        // others only need to be looked for in what's left
+        for (Iterator<Entity> entities = result.iterator(); entities.hasNext(); ) {
+          if (!contains(entity2postings.get(entities.next()), word))
+            entities.remove();
+        }
+      }
+      
+      if (result.isEmpty())
+        break;
+    }
+    
+    // done
+    return result!=null ? result : Collections.<Entity>emptySet();
+  }
+  
+  /**
+   * Check whether one of given postings' tokens contains a word
+   */
+  private boolean contains(Posting[] postings, String word) {
+    for (Posting posting : postings) {
+      if (posting.token.indexOf(word)>=0)
+        return true;
+    }
+    return false;
+  }
+  
+  /**
+   * Re-index changed entities and the ones referencing them
+   */
+  private void update() {
+    
+    Collection<Entity> frontier;
+    synchronized (changed) {
+      if (changed.isEmpty())
+        return;
+      frontier = new ArrayList<Entity>(changed);
+      changed.clear();
+    }
+    
+    Set<Entity> affected = new HashSet<Entity>(frontier);
+    for (int hop=0; hop<HOPS; hop++) {
+      List<Entity> next = new ArrayList<Entity>();
+      for (Entity entity : frontier) {
+        if (entity.getGedcom()!=gedcom)
+          continue;
+        for (PropertyXRef xref : entity.getProperties(PropertyXRef.class)) {
+          Entity target = xref.getTargetEntity();
+          if (target!=null && affected.add(target))
+            next.add(target);
+        }
+      }
+      frontier = next;
+    }
+    
+    for (Entity entity : affected)
+      index(entity);
+    
+  }
+  
+  /**
+   * (Re-)index an entity
+   */
+  private void index(Entity entity) {
+    
+    // forget what we had
+    Posting[] old = entity2postings.remove(entity);
+    if (old!=null) {
+      for (Posting posting : old) {
+        posting.entities.remove(entity);
+        if (posting.entities.isEmpty())
+          token2posting.remove(posting.token);
+      }
+    }
+    
+    // gone?
+    if (entity.getGedcom()!=gedcom)
+      return;
+    
+    // collect tokens
+    Set<String> tokens = new HashSet<String>();
+    tokenize(entity.getId(), tokens);
+    tokenize(entity, tokens);
+    
+    // keep them
+    Posting[] postings = new Posting[tokens.size()];
+    int i = 0;
+    for (String token : tokens) {
+      Posting posting = token2posting.get(token);
+      if (posting==null) {
+        posting = new Posting(token);
+        token2posting.put(token, posting);
+      }
+      posting.entities.add(entity);
+      postings[i++] = posting;
+    }
+    entity2postings.put(entity, postings);
+    
+    // done
+  }
+  
+  /**
+   * Tokenize what a search would look at
+   */
+  private void tokenize(Property prop, Set<String> tokens) {
+    if (!prop.isTransient())
+      tokenize(prop.getDisplayValue(), tokens);
+    for (int i=0, j=prop.getNoOfProperties(); i<j; i++)
+      tokenize(prop.getProperty(i), tokens);
+  }
+  
+  /**
+   * Tokenize a value the same way a simple matcher splits words
+   */
+  private void tokenize(String value, Set<String> tokens) {
+    StringTokenizer tokenizer = new StringTokenizer(value.toLowerCase());
+    while (tokenizer.hasMoreTokens())
+      tokens.add(tokenizer.nextToken());
+  }
+  
+  private void changed(Property prop) {
+    Entity entity = prop.getEntity();
+    if (entity!=null) {
+      synchronized (changed) {
+        changed.add(entity);
+      }
+    }
+  }
+  
+  public void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
+    changed(property);
+  }
+
+  public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
+    changed(property);
+  }
+
+  public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
+    changed(property);
+  }
+  
+  /**
+   * Entities for one token
+   */
+  private static class Posting {
+    private String token;
+    private Set<Entity> entities = new HashSet<Entity>(4);
+    private Posting(String token) {
+      this.token = token;
+    }
+  }
+
+} //Index
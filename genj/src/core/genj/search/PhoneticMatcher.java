@@ -0,0 +1,87 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.search;
+
+import genj.gedcom.PhoneticIndex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A matcher based on words that sound alike
+ */
+public class PhoneticMatcher extends Matcher {
+  
+  /** the pattern and the phonetic keys we're looking for */
+  private String pattern;
+  private Set<String> keys = new HashSet<String>();
+  
+  /**
+   * @see genj.search.Matcher#init(java.lang.String)
+   */
+  public void init(String pattern) {
+    this.pattern = pattern;
+    keys.clear();
+    for (String word : PhoneticIndex.getWords(pattern))
+      keys.add(PhoneticIndex.encode(word));
+  }
+  
+  /**
+   * Accessor - the pattern
+   */
+  /*package*/ String getPattern() {
+    return pattern;
+  }
+  
+  /**
+   * @see genj.search.Matcher#match(java.lang.String, java.util.List)
+   */
+  protected void match(String input, List<Match> result) {
+    
+    if (keys.isEmpty())
+      return;
+    
+    ArrayList<Match> matches = new ArrayList<Match>();
+    Set<String> found = new HashSet<String>();
+    
+    // look at all runs of letters
+    int start = -1;
+    for (int i=0, j=input.length(); i<=j; i++) {
+      boolean letter = i<j && Character.isLetter(input.charAt(i));
+      if (letter && start<0)
+        start = i;
+      if (!letter && start>=0) {
+        String key = PhoneticIndex.encode(input.substring(start, i));
+        if (keys.contains(key)) {
+          matches.add(new Match(start, i-start));
+          found.add(key);
+        }
+        start = -1;
+      }
+    }
+    
+    // all found?
+    if (found.size()==keys.size())
+      result.addAll(matches);
+  }
+
+} //PhoneticMatcher
@@ -98,7 +98,7 @@ public class SearchView extends View {
 
   /** criterias */
   private ChoiceWidget choiceTag, choiceValue;
-  private JCheckBox checkRegExp;
+  private JCheckBox checkRegExp, checkPhonetic;
   private JLabel labelCount;
   
   private Action2 actionStart = new ActionStart(), actionStop = new ActionStop();
@@ -143,6 +143,7 @@ public class SearchView extends View {
     oldTags = new LinkedList<String>(Arrays.asList(REGISTRY.get("old.tags" , DEFAULT_TAGS)));
     oldValues= new LinkedList<String>(Arrays.asList(REGISTRY.get("old.values", DEFAULT_VALUES)));
     boolean useRegEx = REGISTRY.get("regexp", false);
+    boolean usePhonetic = REGISTRY.get("phonetic", false);
 
     // prepare an action listener connecting to click
     ActionListener aclick = new ActionListener() {
@@ -158,6 +159,7 @@ public class SearchView extends View {
     // prepare search criteria
     JLabel labelValue = new JLabel(RESOURCES.getString("label.value"));
     checkRegExp = new JCheckBox(RESOURCES.getString("label.regexp"), useRegEx);
+    checkPhonetic = new JCheckBox(RESOURCES.getString("label.phonetic"), usePhonetic);
 
     choiceValue = new ChoiceWidget(oldValues);
     choiceValue.addActionListener(aclick);
@@ -186,15 +188,16 @@ public class SearchView extends View {
     // .. line 0
     gh.add(labelValue    ,0,0,2,1,0, new Insets(0,0,0,8));
     gh.add(checkRegExp   ,2,0,1,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL);
-    gh.add(labelCount    ,3,0,1,1);
+    gh.add(checkPhonetic ,3,0,1,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL);
+    gh.add(labelCount    ,4,0,1,1);
     // .. line 1
     gh.add(popupPatterns ,0,1,1,1);
-    gh.add(choiceValue   ,1,1,3,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL, new Insets(3,3,3,3));
+    gh.add(choiceValue   ,1,1,4,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL, new Insets(3,3,3,3));
     // .. line 2
-    gh.add(labelTag     ,0,2,4,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL);
+    gh.add(labelTag     ,0,2,5,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL);
     // .. line 3
     gh.add(popupTags    ,0,3,1,1);
-    gh.add(choiceTag    ,1,3,3,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL, new Insets(0,3,3,3));
+    gh.add(choiceTag    ,1,3,4,1, GridBagHelper.GROW_HORIZONTAL|GridBagHelper.FILL_HORIZONTAL, new Insets(0,3,3,3));
     
     // prepare layout
     setLayout(new BorderLayout());
@@ -221,7 +224,7 @@ public class SearchView extends View {
     remember(choiceTag , oldTags , tags );
     
     // start anew
-    worker.start(context.getGedcom(), tags, value, checkRegExp.isSelected());
+    worker.start(context.getGedcom(), tags, value, checkRegExp.isSelected(), checkPhonetic.isSelected());
     
     // done
   }
@@ -238,6 +241,7 @@ public class SearchView extends View {
   public void removeNotify() {
     // keep old
     REGISTRY.put("regexp"    , checkRegExp.isSelected());
+    REGISTRY.put("phonetic"  , checkPhonetic.isSelected());
     REGISTRY.put("old.values", oldValues);
     REGISTRY.put("old.tags" , oldTags );
     // continue
@@ -250,7 +254,7 @@ public class SearchView extends View {
     // disconnect old
     if (context.getGedcom()!=null && context.getGedcom()!=newContext.getGedcom()) {
       
-      stop();
+      worker.close();
       results.clear();
       labelCount.setText("");
       actionStart.setEnabled(false);
@@ -419,6 +423,7 @@ public class SearchView extends View {
         
         // make sure regular expressions are enabled now
         checkRegExp.setSelected(true);
+        checkPhonetic.setSelected(false);
       }});
       
       // done
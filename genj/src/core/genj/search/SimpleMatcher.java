@@ -42,6 +42,13 @@ public class SimpleMatcher extends Matcher {
       words[i] = tokens.nextToken();
   }
   
+  /**
+   * Accessor - the (lower case) words we're looking for
+   */
+  /*package*/ String[] getWords() {
+    return words;
+  }
+  
   /**
    * @see genj.search.Matcher#match(java.lang.String, java.util.List)
    */
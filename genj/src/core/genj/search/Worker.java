@@ -27,8 +27,13 @@ import genj.gedcom.TagPath;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -41,6 +46,12 @@ import java.util.logging.Logger;
   /** max # hits */
   private final static int MAX_HITS = 255;
   
+  /** # of entities searched by one task */
+  private final static int ENTITIES_PER_TASK = 64;
+  
+  /** pool for searching in parallel */
+  private final static ForkJoinPool POOL = new ForkJoinPool();
+  
   /** one listener */
   private WorkerListener listener;
   
@@ -48,10 +59,14 @@ import java.util.logging.Logger;
   private Gedcom gedcom;
   private List<String> tags;
   private Matcher matcher;
+  private Set<Property> properties;
   private Set<Entity> entities = new HashSet<Entity>();
   private List<Hit> hits = new ArrayList<Hit>(MAX_HITS);
   private int hitCount = 0;
   
+  /** index of current gedcom */
+  private Index index;
+  
   /** thread */
   private Thread thread;
   private AtomicBoolean lock = new AtomicBoolean(false);
@@ -75,8 +90,21 @@ import java.util.logging.Logger;
     // done
   }
 
+  /** forget about current gedcom */
+  /*package*/ void close() {
+    
+    stop();
+    
+    synchronized (lock) {
+      if (index!=null) {
+        index.close();
+        index = null;
+      }
+    }
+  }
+  
   /** start search */
-  /*package*/ void start(Gedcom gedcom, String tags, String value, boolean regexp) {
+  /*package*/ void start(Gedcom gedcom, String tags, String value, boolean regexp, boolean phonetic) {
     
     // sync up
     synchronized (lock) {
@@ -86,13 +114,23 @@ import java.util.logging.Logger;
         throw new IllegalStateException("can't start while running");
 
       
+      // switching gedcoms?
+      if (index!=null && index.getGedcom()!=gedcom) {
+        index.close();
+        index = null;
+      }
+      if (index==null)
+        index = new Index(gedcom);
+      final Index current = index;
+      
       // prepare matcher & path
       this.gedcom = gedcom;
-      this.matcher = getMatcher(value, regexp);
+      this.matcher = getMatcher(value, regexp, phonetic);
       this.tags = split(tags);
       this.hits.clear();
       this.entities.clear();
       this.hitCount = 0;
+      this.lastFlush = System.currentTimeMillis();
       
       lock.set(true);
 
@@ -100,7 +138,7 @@ import java.util.logging.Logger;
         public void run() {
           try {
             Worker.this.listener.started();
-            search(Worker.this.gedcom);
+            search(Worker.this.gedcom, current);
             flush();
           } catch (Throwable t) {
             Logger.getLogger("genj.search").log(Level.FINE, "worker bailed", t);
@@ -139,18 +177,71 @@ import java.util.logging.Logger;
   }
   
   /** search in gedcom (not on EDT) */
-  private void search(Gedcom gedcom) {
-    for (int t=0; t<Gedcom.ENTITIES.length && hitCount<MAX_HITS; t++) {
+  private void search(Gedcom gedcom, Index index) throws InterruptedException, ExecutionException {
+    
+    // plain words let us look at candidates from the index only - everything else needs a full scan
+    Set<Entity> candidates = null;
+    properties = null;
+    if (matcher instanceof SimpleMatcher)
+      candidates = index.lookup(((SimpleMatcher)matcher).getWords());
+    
+    // sounds like only looks at names and places from the phonetic index
+    if (matcher instanceof PhoneticMatcher) {
+      properties = gedcom.getPhoneticIndex().lookup(((PhoneticMatcher)matcher).getPattern());
+      candidates = new HashSet<Entity>();
+      for (Property prop : properties)
+        candidates.add(prop.getEntity());
+    }
+    
+    // entities to look at in order
+    List<Entity> todo = new ArrayList<Entity>();
+    for (int t=0; t<Gedcom.ENTITIES.length; t++) {
       for (Entity entity : gedcom.getEntities(Gedcom.ENTITIES[t])) {
+        if (candidates==null || candidates.contains(entity))
+          todo.add(entity);
+      }
+    }
+    
+    // search slices in parallel - a few ahead of the one we're merging in order
+    LinkedList<Future<List<Result>>> pending = new LinkedList<Future<List<Result>>>();
+    int next = 0, window = POOL.getParallelism()*2;
+    try {
+      while (lock.get() && hitCount<MAX_HITS) {
         
-        // next
-        search(entity, entity);
-
-        // still going?
-        if (!lock.get())
-          return;
+        while (pending.size()<window && next<todo.size()) {
+          pending.add(POOL.submit(slice(todo.subList(next, Math.min(next+ENTITIES_PER_TASK, todo.size())))));
+          next += ENTITIES_PER_TASK;
+        }
+        if (pending.isEmpty())
+          break;
+        
+        for (Result result : pending.removeFirst().get()) {
+          if (!lock.get() || hitCount>=MAX_HITS)
+            break;
+          keep(result);
+        }
       }
+    } finally {
+      for (Future<List<Result>> future : pending)
+        future.cancel(true);
     }
+    
+  }
+  
+  /** a task for searching a slice of entities (not on EDT) */
+  private Callable<List<Result>> slice(final List<Entity> slice) {
+    return new Callable<List<Result>>() {
+      public List<Result> call() {
+        List<Result> results = new ArrayList<Result>();
+        for (Entity entity : slice) {
+          // still going?
+          if (!lock.get())
+            break;
+          search(entity, entity, results);
+        }
+        return results;
+      }
+    };
   }
 
   private void flush() {
@@ -159,6 +250,7 @@ import java.util.logging.Logger;
       listener.more(Collections.unmodifiableList(hits));
       hits.clear();
     }
+    lastFlush = System.currentTimeMillis();
   }
   
   private boolean checkPath(Entity entity, Property prop) {
@@ -175,52 +267,59 @@ import java.util.logging.Logger;
   }
   
   /** search property (not on EDT) */
-  private void search(Entity entity, Property prop) {
+  private void search(Entity entity, Property prop, List<Result> results) {
     // parse all where path ok and not transient
     if (checkPath(entity,prop)&&!prop.isTransient()) {
       // check entity's id
       if (entity==prop)
-        search(entity, entity, entity.getId(), true);
+        search(entity, entity, entity.getId(), true, results);
       // check prop's value
-      search(entity, prop, prop.getDisplayValue(), false);
+      if (properties==null || properties.contains(prop))
+        search(entity, prop, prop.getDisplayValue(), false, results);
     }
     // check subs
     int n = prop.getNoOfProperties();
     for (int i=0;i<n;i++) 
-      search(entity, prop.getProperty(i));
+      search(entity, prop.getProperty(i), results);
     // done
   }
 
   /** search property's value */
-  private void search(Entity entity, Property prop, String value, boolean isID) {
+  private void search(Entity entity, Property prop, String value, boolean isID, List<Result> results) {
     // look for matches
     Matcher.Match[] matches = matcher.match(value);
     if (matches.length==0)
       return;
-    // too many?
-    if (hitCount>=MAX_HITS)
-      return;
+    // keep it
+    results.add(new Result(entity, prop, value, matches, isID));
+    // done
+  }
+  
+  /** keep a result as hit (in order) */
+  private void keep(Result result) {
     // keep entity
-    entities.add(entity);
+    entities.add(result.entity);
     // create a hit
-    Hit hit = new Hit(prop, value, matches, entities.size(), isID);
+    Hit hit = new Hit(result.prop, result.value, result.matches, entities.size(), result.isID);
     // keep it
     hits.add(hit);
     hitCount++;
     // sync every 500ms
-    long now = System.currentTimeMillis();
-    if (now-lastFlush>500) 
+    if (System.currentTimeMillis()-lastFlush>500) 
       flush();
-    lastFlush = now;
     // done
   }
 
   /**
-   * Returns a matcher for given pattern and regex flag
+   * Returns a matcher for given pattern and regex/phonetic flag
    */
-  private Matcher getMatcher(String pattern, boolean regex) {
+  private Matcher getMatcher(String pattern, boolean regex, boolean phonetic) {
 
-    Matcher result = regex ? (Matcher)new RegExMatcher() : (Matcher)new SimpleMatcher();
+    Matcher result;
+    if (phonetic)
+      result = new PhoneticMatcher();
+    else
+      result = regex ? (Matcher)new RegExMatcher() : (Matcher)new SimpleMatcher();
     
     // init
     result.init(pattern);
@@ -229,4 +328,22 @@ import java.util.logging.Logger;
     return result;
   }
 
+  /**
+   * A match found by one of the tasks
+   */
+  private static class Result {
+    private Entity entity;
+    private Property prop;
+    private String value;
+    private Matcher.Match[] matches;
+    private boolean isID;
+    private Result(Entity entity, Property prop, String value, Matcher.Match[] matches, boolean isID) {
+      this.entity = entity;
+      this.prop = prop;
+      this.value = value;
+      this.matches = matches;
+      this.isID = isID;
+    }
+  }
+
 }
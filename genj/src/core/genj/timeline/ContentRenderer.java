@@ -32,7 +32,6 @@ import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -132,12 +131,13 @@ public class ContentRenderer {
   private final void renderLayers(UnitGraphics g, Model model) {
     // check clip as we go
     Rectangle2D clip = g.getClip();
-    // loop
-    List layers = model.layers;
-    for (int l=0; l<layers.size(); l++) {
-      if (l<Math.floor(clip.getMinY())||l>Math.ceil(clip.getMaxY())) continue;
-      List layer = (List)layers.get(l);
-      renderEvents(g, model, layer, l);
+    // loop through visible layers
+    List<List<Model.Event>> layers = model.layers;
+    int
+      from = Math.max(0, (int)Math.floor(clip.getMinY())),
+      to = Math.min(layers.size()-1, (int)Math.ceil(clip.getMaxY()));
+    for (int l=from; l<=to; l++) {
+      renderEvents(g, model, layers.get(l), l);
     }
     // done
   }
@@ -145,23 +145,16 @@ public class ContentRenderer {
   /** 
    * Renders a layer
    */
-  private final void renderEvents(UnitGraphics g, Model model, List layer, int level) {
+  private final void renderEvents(UnitGraphics g, Model model, List<Model.Event> layer, int level) {
     // check clip as we go
     Rectangle2D clip = g.getClip();
-    // loop through events
-    Iterator events = layer.iterator();
-    Model.Event event = (Model.Event)events.next();
-    while (true) {
-      // already grabbing next because we paint as much as we can
-      Model.Event next = events.hasNext() ? (Model.Event)events.next() : null;
-      // check clipping and draw
-      if ((next==null||next.from>clip.getMinX())&&(event.from<clip.getMaxX())) {
-        renderEvent(g, model, event, next, level);
-      }
-      // no more?
-      if (next==null) break;
-      // one more!
-      event = next;
+    // start with the last event starting before clip since we paint as much as we can
+    int i = Math.max(0, model.getIndex(layer, clip.getMinX())-1);
+    // loop through visible events
+    for (;i<layer.size();i++) {
+      Model.Event event = layer.get(i);
+      if (event.from>=clip.getMaxX()) break;
+      renderEvent(g, model, event, i+1<layer.size() ? layer.get(i+1) : null, level);
     } 
     // done
   }
@@ -234,7 +227,8 @@ public class ContentRenderer {
   }
   
   /**
-   * inits painting   */
+   * inits painting
+   */
   protected void init(UnitGraphics graphics) {
     
     // calculate dot-size
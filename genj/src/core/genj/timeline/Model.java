@@ -19,11 +19,12 @@
  */
 package genj.timeline;
 
+import genj.gedcom.ChangeSet;
 import genj.gedcom.Context;
 import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomChangeSetListener;
 import genj.gedcom.GedcomException;
-import genj.gedcom.GedcomListener;
 import genj.gedcom.Property;
 import genj.gedcom.PropertyDate;
 import genj.gedcom.PropertyEvent;
@@ -36,18 +37,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A model that wraps the Gedcom information in a timeline fashion
  */
-/*package*/ class Model implements GedcomListener {
+/*package*/ class Model implements GedcomChangeSetListener {
 
   /** the gedcom we're looking at */
   private Gedcom gedcom;
@@ -66,7 +67,10 @@ import java.util.concurrent.CopyOnWriteArrayList;
     "INDI:BIRT", "FAM:MARR", "INDI:EMIG" 
   };
     
-  /** our levels */
+  /** all events sorted by start */
+  private List<Event> events = new ArrayList<Event>();
+  
+  /** our levels - events in each are sorted by start */
   /*package*/List<List<Event>> layers;
   
   /** time per event */
@@ -102,14 +106,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
     
     // old?
     if (gedcom!=null)
-      gedcom.removeGedcomListener(this);
+      gedcom.removeChangeSetListener(this);
     
     // keep
     gedcom = newGedcom;
     
     // new?
     if (gedcom!=null)
-      gedcom.addGedcomListener(this);
+      gedcom.addChangeSetListener(this);
     
     // create events
     createEvents();
@@ -186,17 +190,34 @@ import java.util.concurrent.CopyOnWriteArrayList;
    * Returns an event by year/layer
    */
   protected Event getEvent(double year, int layer) {
-    // look for events in appropriate layer
-    Iterator events = ((List)layers.get(layer)).iterator();
-    while (events.hasNext()) {
-      Event event = (Event)events.next();
-      if (event.from-timeBeforeEvent<year&&year<event.to+timeAfterEvent)
-        return event;
-    }
+    // only the last event starting before year can cover it in its layer
+    List<Event> events = layers.get(layer);
+    int i = getIndex(events, year+timeBeforeEvent)-1;
+    if (i<0)
+      return null;
+    Event event = events.get(i);
+    if (event.from-timeBeforeEvent<year&&year<event.to+timeAfterEvent)
+      return event;
     // done
     return null;
   }
   
+  /**
+   * Returns the index of the first event in a layer starting at or after year 
+   * (binary search)
+   */
+  /*package*/ int getIndex(List<Event> layer, double year) {
+    int lo = 0, hi = layer.size();
+    while (lo<hi) {
+      int mid = (lo+hi)>>>1;
+      if (layer.get(mid).from<year)
+        lo = mid+1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+  
   /**
    * Returns the events that cover the given context
    */
@@ -208,18 +229,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
     List<? extends Property> props = context.getProperties();
     List<? extends Entity> ents = context.getEntities();
     
-    for (int l=0; l<layers.size(); l++) {
-      Iterator events = ((List)layers.get(l)).iterator();
-      while (events.hasNext()) {
-        Event event = (Event)events.next();
-        for (int j = 0; j < ents.size(); j++) {
-          if (ents.get(j)==event.getEntity())
-            entityHits.add(event);
-        }
-        for (int i = 0; i < props.size(); i++) {
-          if (event.getProperty()==props.get(i)||event.getProperty().contains(props.get(i)))
-            propertyHits.add(event);
-        }
+    for (Event event : events) {
+      for (int j = 0; j < ents.size(); j++) {
+        if (ents.get(j)==event.getEntity())
+          entityHits.add(event);
+      }
+      for (int i = 0; i < props.size(); i++) {
+        if (event.getProperty()==props.get(i)||event.getProperty().contains(props.get(i)))
+          propertyHits.add(event);
       }
     }
 
@@ -272,40 +289,49 @@ import java.util.concurrent.CopyOnWriteArrayList;
   }
   
   /**
-   * Retags events for given entity
+   * Retags events for given entities
    */
-  private final void contentEvents(Entity entity) {
-    // loop through layers
-    for (int l=0; l<layers.size(); l++) {
-      List layer = (List)layers.get(l);
-      Iterator events = layer.iterator();
-      while (events.hasNext()) {
-        Event event = (Event)events.next();
-        if (event.pe.getEntity()==entity) event.content();
-      }
+  private final void contentEvents(Collection<Entity> entities) {
+    // one pass over all events
+    for (Event event : events) {
+      if (entities.contains(event.pe.getEntity())) event.content();
     }
     // done
   }
 
   /**
    * Layout events by using the existing set of events
-   * and re-stacking them in layers
+   * and re-stacking them in layers - a sweep over events
+   * sorted by start, reusing the lowest layer that has 
+   * become free
    */
   private final void layoutEvents() {
     // reset
     min = Double.MAX_VALUE;
     max = -Double.MAX_VALUE;
-    // keep old and create some new space
-    List old = layers;
-    layers = new ArrayList(10);
-    // loop through old
-    for (int l=0; l<old.size(); l++) {
-      List layer = (List)old.get(l);
-      Iterator events = layer.iterator();
-      while (events.hasNext()) {
-        Event event = (Event)events.next();
-        insertEvent(event);
+    layers = new ArrayList<List<Event>>(10);
+    // layers in use ordered by the time they become free, free layers by index
+    PriorityQueue<Busy> busy = new PriorityQueue<Busy>();
+    PriorityQueue<Integer> free = new PriorityQueue<Integer>();
+    // sweep
+    for (Event event : events) {
+      // remember min and max
+      min = Math.min(Math.floor(event.from), min);
+      max = Math.max(Math.ceil (event.to  ), max);
+      // release layers that are done before event
+      double start = event.from-timeBeforeEvent;
+      while (!busy.isEmpty()&&busy.peek().end<=start)
+        free.add(busy.poll().layer);
+      // lowest free or a new layer
+      int layer;
+      if (free.isEmpty()) {
+        layer = layers.size();
+        layers.add(new ArrayList<Event>());
+      } else {
+        layer = free.poll();
       }
+      layers.get(layer).add(event);
+      busy.add(new Busy(layer, event.to+timeAfterEvent));
     }
     // extend time by before/after
     max += timeAfterEvent;
@@ -319,21 +345,22 @@ import java.util.concurrent.CopyOnWriteArrayList;
    * Gather Events
    */
   private final void createEvents() {
-    // reset
-    min = Double.MAX_VALUE;
-    max = -Double.MAX_VALUE;
     // prepare some space
-    layers = new ArrayList<List<Event>>(10);
+    events = new ArrayList<Event>();
     // look for events in INDIs and FAMs
     if (gedcom!=null) {
       createEventsFrom(gedcom.getEntities(Gedcom.INDI).iterator());
       createEventsFrom(gedcom.getEntities(Gedcom.FAM ).iterator());
     }
-    // extend time by before/after
-    max += timeAfterEvent;
-    min -= timeBeforeEvent;
-    // trigger
-    fireStructureChanged();
+    // sort by start (and end)
+    Collections.sort(events, new Comparator<Event>() {
+      public int compare(Event e1, Event e2) {
+        int result = Double.compare(e1.from, e2.from);
+        return result!=0 ? result : Double.compare(e1.to, e2.to);
+      }
+    });
+    // layout
+    layoutEvents();
     // done
   }
   
@@ -366,61 +393,27 @@ import java.util.concurrent.CopyOnWriteArrayList;
     
     // get it 
     try { 
-      insertEvent(new Event(pe, pd));
+      events.add(new Event(pe, pd));
     } catch (GedcomException e) {
     }
     // done
   }
   
   /**
-   * Insert the Event into one of our layers
+   * A layer in use until end
    */
-  private final void insertEvent(Event e) {
-    
-    // remember min and max
-    min = Math.min(Math.floor(e.from), min);
-    max = Math.max(Math.ceil (e.to  ), max);
-    
-    // find a level that suits us
-    for (int l=0;l<layers.size();l++) {
-      // try to insert in level
-      List layer = (List)layers.get(l);
-      if (insertEvent(e, layer)) return;
-      // continue
+  private static class Busy implements Comparable<Busy> {
+    private int layer;
+    private double end;
+    private Busy(int layer, double end) {
+      this.layer = layer;
+      this.end = end;
     }
-    
-    // create a new layer
-    List layer = new LinkedList();
-    layers.add(layer);
-    layer.add(e);
-    
-    // done
-  }
-  
-  /**
-   * Insert the Event into a layer
-   * @return whether that was successfull
-   */
-  private final boolean insertEvent(Event candidate, List layer) {
-    // loop through layer
-    ListIterator events = layer.listIterator();
-    do {
-      Event event = (Event)events.next();
-      // before?
-      if (candidate.to+timeAfterEvent<event.from-timeBeforeEvent) {
-        events.previous();
-        events.add(candidate);
-        return true;
-      }
-      // overlap?
-      if (candidate.from-timeBeforeEvent<event.to+timeAfterEvent) 
-        return false;
-      // after?
-    } while (events.hasNext());
-    // after!
-    events.add(candidate);
-    return true;
-  }
+    public int compareTo(Busy that) {
+      int result = Double.compare(this.end, that.end);
+      return result!=0 ? result : this.layer-that.layer;
+    }
+  } //Busy
   
   /**
    * An event in our model
@@ -490,29 +483,32 @@ import java.util.concurrent.CopyOnWriteArrayList;
     public void structureChanged();
   } //ModelListener
 
-  public void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
-    createEvents();
-  }
-
-  public void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
-    createEvents();
-  }
-
-  public void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
-    gedcomPropertyDeleted(gedcom, added, -1, added);
-  }
-
-  public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
-    gedcomPropertyDeleted(gedcom, property, -1, property);
-  }
-
-  public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
-    if (deleted instanceof PropertyDate) {
+  public void gedcomChanged(Gedcom gedcom, ChangeSet changes) {
+    
+    // new or removed entities and dates mean new events
+    if (!changes.getAddedEntities().isEmpty()||!changes.getDeletedEntities().isEmpty()
+      ||contains(changes.getAddedProperties(), PropertyDate.class)
+      ||contains(changes.getDeletedProperties(), PropertyDate.class)
+      ||contains(changes.getChangedProperties(), PropertyDate.class)) {
       createEvents();
-    } else if (deleted instanceof PropertyName) {
-      contentEvents(property.getEntity());
+      return;
+    }
+    
+    // changed names mean new content for changed entities' events
+    if (contains(changes.getAddedProperties(), PropertyName.class)
+      ||contains(changes.getDeletedProperties(), PropertyName.class)
+      ||contains(changes.getChangedProperties(), PropertyName.class)) {
+      contentEvents(changes.getChangedEntities());
       fireDataChanged();
     }
   }
   
+  private boolean contains(Collection<Property> props, Class<? extends Property> type) {
+    for (Property prop : props) {
+      if (type.isInstance(prop))
+        return true;
+    }
+    return false;
+  }
+  
 } //TimelineModel 
@@ -22,13 +22,14 @@ package genj.tree;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * GridCache - caching information in a 2d grid */
-public class GridCache {
+public class GridCache<T> implements SpatialIndex<T> {
   
   /** the grids */
   private Object[][] grid;
@@ -58,7 +59,7 @@ public class GridCache {
   /**
    * Adds an Object to the grid
    */
-  public void put(Object object, Rectangle2D range, Point2D pos) {
+  public void put(T object, Rectangle2D range, Point2D pos) {
     // Clip
     int
       scol = (int)Math.floor((range.getMinX()+pos.getX() - system.getMinX())/resolution),
@@ -81,10 +82,17 @@ public class GridCache {
     // done
   }
   
+  /**
+   * @see SpatialIndex#put(Object, Rectangle2D)
+   */
+  public void put(T object, Rectangle2D bounds) {
+    put(object, bounds, new Point2D.Double());
+  }
+  
   /**
    * Adds an Object to the grid
    */
-  public void put(Object object, int row, int col) {
+  public void put(T object, int row, int col) {
     // what's there right now?
     Object old = grid[row][col]; 
     if (old==null) {
@@ -93,11 +101,11 @@ public class GridCache {
     } else {
       // add to existing list or create new list
       if (old instanceof EntryList) {
-        ((EntryList)old).add(object);
+        ((EntryList)old).entries.add(object);
       } else {
-        List l = new EntryList();
-        l.add(old);
-        l.add(object);
+        EntryList l = new EntryList();
+        l.entries.add(old);
+        l.entries.add(object);
         grid[row][col] = l;
       }
     }
@@ -107,9 +115,16 @@ public class GridCache {
   /**
    * Gets objects by coordinate
    */
-  public Set get(Rectangle2D range) {
-    
-    Set result = new HashSet();
+  public Set<T> get(Rectangle2D range) {
+    Set<T> result = new HashSet<T>();
+    get(range, result);
+    return result;
+  }
+  
+  /**
+   * @see SpatialIndex#get(Rectangle2D, Collection)
+   */
+  public void get(Rectangle2D range, Collection<? super T> result) {
 
     // Clip
     int
@@ -118,7 +133,7 @@ public class GridCache {
       ecol = (int)Math.ceil ((range.getMaxX() - system.getMinX())/resolution),
       erow = (int)Math.ceil ((range.getMaxY() - system.getMinY())/resolution);
       
-    if (scol>grid[0].length||srow>grid.length||ecol<0||erow<0) return result;
+    if (scol>grid[0].length||srow>grid.length||ecol<0||erow<0) return;
     if (srow<0) srow = 0;
     if (erow>grid.length) erow = grid.length;
     if (scol<0) scol = 0;
@@ -132,28 +147,26 @@ public class GridCache {
     }
     
     // done
-    return result;
   }
 
   /**
    * Get the content of a grid cell   */
-  public void get(Set set, int row, int col) {
+  @SuppressWarnings("unchecked")
+  public void get(Collection<? super T> set, int row, int col) {
     // what's in the grid?
     Object o = grid[row][col];
     if (o==null) return;
-    if (o instanceof EntryList) set.addAll((EntryList)o);
-    else set.add(o);
+    if (o instanceof EntryList) {
+      for (Object e : ((EntryList)o).entries)
+        set.add((T)e);
+    } else set.add((T)o);
     // done
   }
 
   /**
    * Our own list used in the grid
    */
-  private class EntryList extends ArrayList {
-    /**
-     * Constructor     */
-    private EntryList() {
-      super(8);
-    }
+  private static class EntryList {
+    private List<Object> entries = new ArrayList<Object>(8);
   } //EntryList       
 } //GridCache
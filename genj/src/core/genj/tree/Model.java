@@ -27,18 +27,18 @@ import genj.gedcom.GedcomMetaListener;
 import genj.gedcom.Indi;
 import genj.gedcom.Property;
 import genj.gedcom.PropertyXRef;
+import genj.util.EnvironmentChecker;
 import gj.layout.LayoutException;
 import gj.layout.tree.TreeLayout;
-import gj.model.Node;
 
 import java.awt.Rectangle;
 import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -67,8 +67,10 @@ import java.util.concurrent.CopyOnWriteArrayList;
   /** bounds */
   private Rectangle bounds = new Rectangle();
   
-  /** caching */
-  private GridCache cache = null;
+  /** spatial indexes of nodes and arcs */
+  private final static boolean USE_GRID = "grid".equals(EnvironmentChecker.getProperty("genj.tree.index", "rtree", "spatial index of tree"));
+  private SpatialIndex<TreeNode> nodeIndex = null;
+  private SpatialIndex<TreeArc> arcIndex = null;
   
   /** whether we're vertical or not */
   private boolean isVertical = true;
@@ -259,19 +261,24 @@ import java.util.concurrent.CopyOnWriteArrayList;
    * Nodes by range
    */
   public Collection<? extends TreeNode> getNodesIn(Rectangle range) {
-    if (cache==null) 
-      return new HashSet<TreeNode>();
-    return cache.get(range);
+    Set<TreeNode> result = new HashSet<TreeNode>();
+    if (nodeIndex!=null) 
+      nodeIndex.get(range, result);
+    return result;
   }
 
   /**
    * Arcs by range
    */
   public Collection<TreeArc> getArcsIn(Rectangle range) {
-    List<TreeArc> result = new ArrayList<TreeArc>(arcs.size());
-    for (TreeArc arc : arcs) {
-      if (arc.getPath()!=null && arc.getPath().intersects(range))
-        result.add(arc);
+    List<TreeArc> result = new ArrayList<TreeArc>();
+    if (arcIndex==null)
+      return result;
+    // candidates by bounds then check path
+    arcIndex.get(range, result);
+    for (ListIterator<TreeArc> it = result.listIterator(); it.hasNext(); ) {
+      if (!it.next().getPath().intersects(range))
+        it.remove();
     }
     return result;
   }
@@ -280,17 +287,15 @@ import java.util.concurrent.CopyOnWriteArrayList;
    * An node by position
    */
   public TreeNode getNodeAt(int x, int y) {
-    // do we have a cache?
-    if (cache==null) return null;
+    // do we have an index?
+    if (nodeIndex==null) return null;
     // get nodes in possible range
     int
       w = Math.max(metrics.wIndis, metrics.wFams),
       h = Math.max(metrics.hIndis, metrics.hFams);
     Rectangle range = new Rectangle(x-w/2, y-h/2, w, h);
     // loop nodes
-    Iterator it = cache.get(range).iterator();
-    while (it.hasNext()) {
-      TreeNode node = (TreeNode)it.next();
+    for (TreeNode node : getNodesIn(range)) {
       Shape shape = node.getShape();
       if (shape!=null&&shape.getBounds2D().contains(x-node.pos.x,y-node.pos.y))
         return node;
@@ -436,6 +441,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
     nodes.clear();
     entities2nodes.clear();
     bounds.setFrame(0,0,0,0);
+    nodeIndex = null;
+    arcIndex = null;
     
     // nothing to do if no root set
     if (root==null) {
@@ -459,14 +466,17 @@ import java.util.concurrent.CopyOnWriteArrayList;
       return;
     }
     
-    // create gridcache
-    cache = new GridCache(
-      bounds, 3*metrics.calcMax()
-    );
-    Iterator it = nodes.iterator();
-    while (it.hasNext()) {
-      TreeNode n = (TreeNode)it.next();
-      if (n.shape!=null) cache.put(n, n.shape.getBounds(), n.pos);
+    // index nodes and arcs
+    nodeIndex = createIndex();
+    for (TreeNode n : nodes) {
+      if (n.shape!=null) {
+        Rectangle2D b = n.shape.getBounds2D();
+        nodeIndex.put(n, new Rectangle2D.Double(b.getX()+n.pos.getX(), b.getY()+n.pos.getY(), b.getWidth(), b.getHeight()));
+      }
+    }
+    arcIndex = createIndex();
+    for (TreeArc arc : arcs) {
+      if (arc.getPath()!=null) arcIndex.put(arc, arc.getPath().getBounds2D());
     }
     
     // notify
@@ -474,6 +484,15 @@ import java.util.concurrent.CopyOnWriteArrayList;
     // done
   }
 
+  /**
+   * Creates a spatial index for current bounds
+   */
+  private <T> SpatialIndex<T> createIndex() {
+    if (USE_GRID)
+      return new GridCache<T>(bounds, 3*metrics.calcMax());
+    return new PackedRTree<T>();
+  }
+
   /**
    * Helper that runs a TreeLayout
    */
@@ -569,16 +588,19 @@ import java.util.concurrent.CopyOnWriteArrayList;
   } //FoldUnfold
 
   /**
-   * Our gedcom Callbacks 
+   * Our gedcom Callbacks - node sizes don't depend on content so only changed 
+   * references between entities we show require a new layout, everything else
+   * is a repaint of the nodes affected
    */
   private class Callback extends GedcomListenerAdapter implements GedcomMetaListener {
     
-    private Set repaint = new HashSet();
+    private Set<TreeNode> repaint = new HashSet<TreeNode>();
     private boolean update = false;
     private Entity added;
     
     public void gedcomWriteLockAcquired(Gedcom gedcom) {
       added = null;
+      update = false;
       repaint.clear();
     }
     
@@ -601,7 +623,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
       // signal repaint 
       if (!repaint.isEmpty()) 
-        fireNodesChanged(repaint);
+        fireNodesChanged(new ArrayList<TreeNode>(repaint));
    
     }
     
@@ -636,25 +658,47 @@ import java.util.concurrent.CopyOnWriteArrayList;
     public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
       // a reference update?
       if (property instanceof PropertyXRef) {
-        update = true;
+        if (isShown(property.getEntity()) || isShown(((PropertyXRef)property).getTargetEntity()))
+          update = true;
       }
       // a pedigree update?
       if ("PEDI".equals(property.getTag())) {
-    	  update = true;
+        if (isShown(property.getEntity()))
+          update = true;
       }
       // something visible?
-      Node node = getNode(property.getEntity());
+      TreeNode node = getNode(property.getEntity());
       if (node!=null) 
-        fireNodesChanged(Collections.singletonList(node));
+        repaint.add(node);
     }
   
     public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
       // a reference update?
-      if (deleted instanceof PropertyXRef)
+      if (deleted instanceof PropertyXRef && isShown(property.getEntity()))
         update = true;
       // repaint still makes sense?
-      if (root!=null)
-        repaint.add(getNode(property.getEntity()));
+      TreeNode node = getNode(property.getEntity());
+      if (node!=null) 
+        repaint.add(node);
     }
+    
+    /** whether an entity or one of a family's members is shown */
+    private boolean isShown(Entity entity) {
+      if (entity==null)
+        return false;
+      if (entities2nodes.containsKey(entity))
+        return true;
+      if (entity instanceof Fam) {
+        Fam fam = (Fam)entity;
+        if (entities2nodes.containsKey(fam.getHusband()) || entities2nodes.containsKey(fam.getWife()))
+          return true;
+        for (Indi child : fam.getChildren(false)) {
+          if (entities2nodes.containsKey(child))
+            return true;
+        }
+      }
+      return false;
+    }
+    
   } // Callback
 } //Model
@@ -0,0 +1,168 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.tree;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A packed R-tree - objects are collected and the tree is bulk loaded on first 
+ * query by sorting them into tiles (sort-tile-recursive). Each node covers up to 
+ * FANOUT nodes of the level below so memory is proportional to the number of 
+ * objects no matter how they're spread out.
+ */
+/*package*/ class PackedRTree<T> implements SpatialIndex<T> {
+  
+  /** number of children per node */
+  private final static int FANOUT = 16;
+  
+  /** objects and bounds before the tree is built */
+  private List<T> objects = new ArrayList<T>();
+  private List<Rectangle2D> bounds = new ArrayList<Rectangle2D>();
+  
+  /** the tree - objects in tile order and boxes (minx,miny,maxx,maxy) per level with level 0 for objects */
+  private Object[] items;
+  private double[][] levels;
+
+  /**
+   * @see SpatialIndex#put(Object, Rectangle2D)
+   */
+  public void put(T object, Rectangle2D bounds) {
+    this.objects.add(object);
+    this.bounds.add(bounds);
+    levels = null;
+  }
+  
+  /**
+   * @see SpatialIndex#get(Rectangle2D, Collection)
+   */
+  @SuppressWarnings("unchecked")
+  public void get(Rectangle2D range, Collection<? super T> result) {
+    
+    if (levels==null)
+      build();
+    if (items.length==0)
+      return;
+    
+    double 
+      minx = range.getMinX(), miny = range.getMinY(),
+      maxx = range.getMaxX(), maxy = range.getMaxY();
+    
+    // walk down from root
+    int[] stack = new int[levels.length*FANOUT];
+    int[] stackLevel = new int[stack.length];
+    int top = 0;
+    stack[top] = 0;
+    stackLevel[top++] = levels.length-1;
+    while (top>0) {
+      int index = stack[--top], level = stackLevel[top];
+      double[] boxes = levels[level];
+      int i = index*4;
+      if (boxes[i]>maxx || boxes[i+2]<minx || boxes[i+1]>maxy || boxes[i+3]<miny)
+        continue;
+      if (level==0) {
+        result.add((T)items[index]);
+        continue;
+      }
+      int from = index*FANOUT, to = Math.min(from+FANOUT, levels[level-1].length/4);
+      for (int child=to-1; child>=from; child--) {
+        stack[top] = child;
+        stackLevel[top++] = level-1;
+      }
+    }
+    
+    // done
+  }
+
+  /**
+   * Bulk load the tree
+   */
+  private void build() {
+    
+    int n = objects.size();
+    
+    // sort into vertical slices by x and within slices by y
+    final double[] centers = new double[n*2];
+    Integer[] order = new Integer[n];
+    for (int i=0;i<n;i++) {
+      Rectangle2D b = bounds.get(i);
+      centers[i*2  ] = b.getCenterX();
+      centers[i*2+1] = b.getCenterY();
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return Double.compare(centers[a*2], centers[b*2]);
+      }
+    });
+    int leaves = (n+FANOUT-1)/FANOUT;
+    int slice = FANOUT * (int)Math.ceil(Math.sqrt(leaves));
+    for (int from=0; from<n; from+=slice) {
+      Arrays.sort(order, from, Math.min(from+slice, n), new Comparator<Integer>() {
+        public int compare(Integer a, Integer b) {
+          return Double.compare(centers[a*2+1], centers[b*2+1]);
+        }
+      });
+    }
+    
+    // level 0 are the objects
+    items = new Object[n];
+    double[] boxes = new double[n*4];
+    for (int i=0;i<n;i++) {
+      Rectangle2D b = bounds.get(order[i]);
+      items[i] = objects.get(order[i]);
+      boxes[i*4  ] = b.getMinX();
+      boxes[i*4+1] = b.getMinY();
+      boxes[i*4+2] = b.getMaxX();
+      boxes[i*4+3] = b.getMaxY();
+    }
+    
+    // pack upper levels until there's one root
+    List<double[]> result = new ArrayList<double[]>();
+    result.add(boxes);
+    while (boxes.length>4) {
+      int count = boxes.length/4, nodes = (count+FANOUT-1)/FANOUT;
+      double[] parents = new double[nodes*4];
+      for (int p=0;p<nodes;p++) {
+        int from = p*FANOUT, to = Math.min(from+FANOUT, count);
+        parents[p*4  ] = Double.POSITIVE_INFINITY;
+        parents[p*4+1] = Double.POSITIVE_INFINITY;
+        parents[p*4+2] = Double.NEGATIVE_INFINITY;
+        parents[p*4+3] = Double.NEGATIVE_INFINITY;
+        for (int c=from;c<to;c++) {
+          parents[p*4  ] = Math.min(parents[p*4  ], boxes[c*4  ]);
+          parents[p*4+1] = Math.min(parents[p*4+1], boxes[c*4+1]);
+          parents[p*4+2] = Math.max(parents[p*4+2], boxes[c*4+2]);
+          parents[p*4+3] = Math.max(parents[p*4+3], boxes[c*4+3]);
+        }
+      }
+      result.add(parents);
+      boxes = parents;
+    }
+    levels = result.toArray(new double[result.size()][]);
+    
+    // done
+  }
+  
+} //PackedRTree
@@ -578,6 +578,7 @@ public class TreeView extends View implements ContextProvider, ActionProvider {
     BlueprintRenderer result = tag2renderer.get(tag);
     if (result==null) { 
       result = new BlueprintRenderer(getBlueprint(tag));
+      result.setCached(true);
       tag2renderer.put(tag,result);
     }
     return result;
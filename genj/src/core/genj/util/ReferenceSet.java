@@ -1,6 +1,9 @@
 package genj.util;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -8,6 +11,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * A hashmap that keeps track of keys and their references
@@ -20,13 +24,25 @@ public class ReferenceSet<KEY,REF> {
   /** total number of references we know about */
   private int size = 0;
   
+  /** an optional index of keys sorted by collator */
+  private Collator collator;
+  private TreeMap<CollationKey, List<KEY>> index;
+  
   /**
-   * Constructor - uses a TreeMap that keeps
-   * keys sorted by their natural order
+   * Constructor
    */
   public ReferenceSet() {
   }
   
+  /**
+   * Constructor - keeps an index of keys sorted by given 
+   * collator that is updated as keys are added and removed
+   */
+  public ReferenceSet(Collator collator) {
+    this.collator = collator;
+    index = new TreeMap<CollationKey, List<KEY>>();
+  }
+  
   /**
    * Returns the references for a given key
    */
@@ -84,6 +100,16 @@ public class ReferenceSet<KEY,REF> {
     if (references==null) {
       references = new HashSet<REF>();
       key2references.put(key, references);
+      // index it
+      if (index!=null) {
+        CollationKey ckey = collator.getCollationKey(key.toString());
+        List<KEY> keys = index.get(ckey);
+        if (keys==null) {
+          keys = new ArrayList<KEY>(1);
+          index.put(ckey, keys);
+        }
+        keys.add(key);
+      }
     }
     // safety check for reference==null - might be
     // and still was necessary to keep key    
@@ -115,8 +141,16 @@ public class ReferenceSet<KEY,REF> {
     // decrease total
     size--;
     // remove value
-    if (references.isEmpty())
+    if (references.isEmpty()) {
       key2references.remove(key);
+      // and from index
+      if (index!=null) {
+        CollationKey ckey = collator.getCollationKey(key.toString());
+        List<KEY> keys = index.get(ckey);
+        if (keys!=null&&keys.remove(key)&&keys.isEmpty())
+          index.remove(ckey);
+      }
+    }
     // done
     return true; 
   }
@@ -133,6 +167,10 @@ public class ReferenceSet<KEY,REF> {
    * @param comparator a comparator for sorting the keys or to sort by reference count
    */
   public List<KEY> getKeys(Comparator<Object> comparator) {
+    // sorted by index already?
+    if (index!=null&&comparator==collator) 
+      return flatten(index.values());
+    // sort
     ArrayList<KEY> result = new ArrayList<KEY>(key2references.keySet()); 
     if (comparator!=null) 
       Collections.sort(result, comparator);
@@ -145,5 +183,42 @@ public class ReferenceSet<KEY,REF> {
       
     return result;
   }
+  
+  /**
+   * Return keys starting with given prefix sorted by collator - uses the index 
+   * if available
+   */
+  public List<KEY> getKeys(String prefix, Collator collator) {
+    
+    // no index to search?
+    if (index==null||collator!=this.collator) {
+      List<KEY> result = new ArrayList<KEY>();
+      for (KEY key : getKeys(collator)) {
+        if (startsWith(collator, key.toString(), prefix))
+          result.add(key);
+      }
+      return result;
+    }
+    
+    // keys with prefix follow it in index 
+    List<KEY> result = new ArrayList<KEY>();
+    for (List<KEY> keys : index.tailMap(collator.getCollationKey(prefix)).values()) {
+      if (!startsWith(collator, keys.get(0).toString(), prefix))
+        break;
+      result.addAll(keys);
+    }
+    return result;
+  }
+  
+  private static boolean startsWith(Collator collator, String string, String prefix) {
+    return string.length()>=prefix.length() && collator.compare(string.substring(0, prefix.length()), prefix)==0;
+  }
+  
+  private List<KEY> flatten(Collection<List<KEY>> values) {
+    List<KEY> result = new ArrayList<KEY>(key2references.size());
+    for (List<KEY> keys : values)
+      result.addAll(keys);
+    return result;
+  }
 
 } //ReferenceSet
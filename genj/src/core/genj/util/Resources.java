@@ -329,18 +329,20 @@ public class Resources {
    */
   public String getString(String key, Object... substitutes) {
 
-    // do we have a message format already?
-    MessageFormat format = (MessageFormat)msgFormats.get(key);
-    if (format==null) {
-      String string = getString(key, false);
-      if (string==null)
-        return key;
-      format = getMessageFormat(string);
-      msgFormats.put(key, format);
-    }
+    // do we have a message format already? (formats aren't thread-safe)
+    synchronized (msgFormats) {
+      MessageFormat format = (MessageFormat)msgFormats.get(key);
+      if (format==null) {
+        String string = getString(key, false);
+        if (string==null)
+          return key;
+        format = getMessageFormat(string);
+        msgFormats.put(key, format);
+      }
 
-    // fill with substitutes
-    return format.format(substitutes);
+      // fill with substitutes
+      return format.format(substitutes);
+    }
   }
   
   /**
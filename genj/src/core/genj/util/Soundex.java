@@ -0,0 +1,131 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2002 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.util;
+
+import java.util.Arrays;
+import java.util.StringTokenizer;
+
+/**
+ * The soundex implementation modified from the com.generationjava.util package
+ * to cope with accented characters better
+ * com.generationjava.util
+ * it was origionally Licensed under the BSD license
+ * see http://www.generationjava.com/licencing.shtml
+ */
+public class Soundex {
+
+  /** soundex substitutions (one character unicode followed by string of substitution) */
+  private final static String ACCENTS = "\u0160S \u017dZ \u0161s \u017ez \u0178Y \u00c0A \u00c1A \u00c2A \u00c3A \u00c4A \u00c5A \u00c7C \u00c8E \u00c9E \u00caE \u00cbE \u00ccI \u00cdI \u00ceI \u00cfI \u00d1N \u00d2O \u00d3O \u00d4O \u00d5O \u00d6O \u00d8O \u00d9U \u00daU \u00dbU \u00dcU \u00ddY \u00e0a \u00e1a \u00e2a \u00e3a \u00e4a \u00e5a \u00e7c \u00e8e \u00e9e \u00eae \u00ebe \u00eci \u00edi \u00eei \u00efi \u00f1n \u00f2o \u00f3o \u00f4o \u00f5o \u00f6o \u00f8o \u00f9u \u00fau \u00fbu \u00fcu \u00fdy \u00b5u \u00deTH \u00feth \u00d0DH \u00f0dh \u00dfss \u0152OE \u0153oe \u00c6AE \u00e6ae";
+  
+  public final static char[] US_ENGLISH_SOUNDEX_MAPPING = "01230120022455012623010202".toCharArray();
+
+  /** accent substitutions by character */
+  private final static String[] SUBSTITUTES;
+  
+  static {
+    String[] substitutes = new String[256];
+    StringTokenizer tokens = new StringTokenizer(ACCENTS);
+    while (tokens.hasMoreTokens()) {
+      String token = tokens.nextToken();
+      char c = token.charAt(0);
+      if (c>=substitutes.length)
+        substitutes = Arrays.copyOf(substitutes, c+1);
+      substitutes[c] = token.substring(1);
+    }
+    SUBSTITUTES = substitutes;
+  }
+
+  private char[] soundexMapping;
+
+  /** constructor */
+  public Soundex() {
+    this(US_ENGLISH_SOUNDEX_MAPPING);
+  }
+
+  /** constructor */
+  public Soundex(char[] mapping) {
+    this.soundexMapping = mapping;
+  }
+
+  /**
+   * Substitute an accent (if applicable) with a non-accented character
+   */
+  public String substituteAccents(String str) {
+    StringBuffer result = new StringBuffer(str.length() * 2);
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c<SUBSTITUTES.length&&SUBSTITUTES[c]!=null)
+        result.append(SUBSTITUTES[c]);
+      else
+        result.append(c);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Get the SoundEx value of a string.
+   * it will return the SoundEx code for the FIRST word in the string
+   */
+  public String encode(String s) {
+
+    // safety check
+    if (s == null || s.length() == 0)
+      return null;
+
+    // should get a true code for each acented character
+    String str = substituteAccents(s);
+
+    // check the first letter is a character
+    if (!Character.isLetter(str.charAt(0)))
+      return encode(str.substring(1));
+
+    char out[] = { '0', '0', '0', '0' };
+    char last, mapped;
+    int incount = 1, count = 1;
+    out[0] = Character.toUpperCase(str.charAt(0));
+    last = getMappingCode(str.charAt(0));
+    while ((incount < str.length()) && (mapped = getMappingCode(str.charAt(incount++))) != 0 && (count < 4)) {
+      if ((mapped != '0') && (mapped != last)) {
+        out[count++] = mapped;
+      }
+      last = mapped;
+    }
+    return new String(out);
+  }
+
+  /**
+   * Used internally by the SoundEx algorithm.
+   */
+  private char getMappingCode(char c) {
+    if (!Character.isLetter(c)) {
+      return '0';
+    } else {
+      int loc = Character.toUpperCase(c) - 'A';
+      if (loc < 0 || loc > (soundexMapping.length - 1))
+        return '0';
+      return soundexMapping[loc];
+    }
+  }
+
+  public String toString() {
+    return "Soundex";
+  }
+  
+} //Soundex
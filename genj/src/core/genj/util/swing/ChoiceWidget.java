@@ -256,6 +256,19 @@ public class ChoiceWidget extends JComboBox {
     isIgnoreCase = set;
   }
   
+  /**
+   * The first value starting with given prefix for editor autocomplete (null if none) - 
+   * override to look it up faster than by walking all values
+   */
+  protected Object getFirstValue(String prefix) {
+    for (int i=0; i<model.getSize(); i++) {
+      Object value = model.getElementAt(i);
+      if (value.toString().regionMatches(isIgnoreCase, 0, prefix, 0, prefix.length()))
+        return value;
+    }
+    return null;
+  }
+  
   /**
    * @see javax.swing.JComboBox#setPopupVisible(boolean)
    */
@@ -557,12 +570,11 @@ public class ChoiceWidget extends JComboBox {
     private String setSelectedPrefix(String prefix) {
       
       // try to find a match
-      for (int i=0;i<values.length;i++) {
-        String value = values[i].toString();
-        if (value.regionMatches(isIgnoreCase, 0, prefix, 0, prefix.length())) {
-          setSelectedItem(value);
-          return value;        
-        }
+      Object match = getFirstValue(prefix);
+      if (match!=null) {
+        String value = match.toString();
+        setSelectedItem(value);
+        return value;        
       }
       
       // no match
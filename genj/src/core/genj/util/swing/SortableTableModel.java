@@ -286,6 +286,15 @@ public class SortableTableModel extends AbstractTableModel {
             
             for (Directive directive : sortingColumns) {
                 int column = directive.column;
+                
+                // rows' keys compared by model?
+                if (tableModel instanceof RowIndexComparator) {
+                    int comparison = ((RowIndexComparator)tableModel).compareRows(row1, row2, column);
+                    if (comparison != 0) 
+                      return directive.direction == DESCENDING ? -comparison : comparison;
+                    continue;
+                }
+                
                 Object o1 = tableModel.getValueAt(row1, column);
                 Object o2 = tableModel.getValueAt(row2, column);
 
@@ -366,6 +375,23 @@ public class SortableTableModel extends AbstractTableModel {
                 return;
             }
 
+            // Rows that have been inserted or deleted or a single changed row can 
+            // be moved into place without resorting everything else 
+            if (viewToModel != null && column == TableModelEvent.ALL_COLUMNS) {
+                switch (e.getType()) {
+                    case TableModelEvent.INSERT:
+                        rowsInserted(e.getFirstRow(), e.getLastRow());
+                        return;
+                    case TableModelEvent.DELETE:
+                        rowsDeleted(e.getFirstRow(), e.getLastRow());
+                        return;
+                }
+            }
+            if (viewToModel != null && e.getFirstRow() == e.getLastRow() && e.getType() == TableModelEvent.UPDATE && e.getFirstRow()>=0) {
+                rowChanged(e.getFirstRow());
+                return;
+            }
+
             // Something has happened to the data that may have invalidated the row order. 
             clearSortingState();
             fireTableDataChanged();
@@ -373,6 +399,100 @@ public class SortableTableModel extends AbstractTableModel {
         }
     }
 
+    /**
+     * Model rows first..last have been inserted - shift and merge them into the sorted view
+     */
+    private void rowsInserted(int first, int last) {
+        int n = last-first+1;
+        Row[] rows = new Row[viewToModel.length+n];
+        for (int i = 0; i < viewToModel.length; i++) {
+            Row row = viewToModel[i];
+            if (row.modelIndex >= first)
+                row.modelIndex += n;
+            rows[i] = row;
+        }
+        int size = viewToModel.length;
+        int view = -1;
+        for (int r = first; r <= last; r++) {
+            Row row = new Row(r);
+            view = search(rows, size, row);
+            System.arraycopy(rows, view, rows, view+1, size-view);
+            rows[view] = row;
+            size++;
+        }
+        viewToModel = rows;
+        modelToView = null;
+        if (n == 1)
+            fireTableRowsInserted(view, view);
+        else
+            fireTableDataChanged();
+    }
+
+    /**
+     * Model rows first..last have been deleted - drop them from the sorted view
+     */
+    private void rowsDeleted(int first, int last) {
+        int n = last-first+1;
+        Row[] rows = new Row[Math.max(0, viewToModel.length-n)];
+        int view = -1, size = 0;
+        for (int i = 0; i < viewToModel.length; i++) {
+            Row row = viewToModel[i];
+            if (row.modelIndex >= first && row.modelIndex <= last) {
+                view = i;
+                continue;
+            }
+            if (row.modelIndex > last)
+                row.modelIndex -= n;
+            if (size == rows.length) {
+                // inconsistent event - start over
+                clearSortingState();
+                fireTableDataChanged();
+                return;
+            }
+            rows[size++] = row;
+        }
+        viewToModel = rows;
+        modelToView = null;
+        if (n == 1 && view >= 0)
+            fireTableRowsDeleted(view, view);
+        else
+            fireTableDataChanged();
+    }
+
+    /**
+     * Model row has changed - move it to its new place in the sorted view
+     */
+    private void rowChanged(int modelIndex) {
+        int from = getModelToView()[modelIndex];
+        Row row = viewToModel[from];
+        int size = viewToModel.length;
+        System.arraycopy(viewToModel, from+1, viewToModel, from, size-from-1);
+        int to = search(viewToModel, size-1, row);
+        System.arraycopy(viewToModel, to, viewToModel, to+1, size-1-to);
+        viewToModel[to] = row;
+        if (from == to) {
+            fireTableRowsUpdated(to, to);
+            return;
+        }
+        modelToView = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Binary search for the position of a row after its equals in a sorted view
+     */
+    private int search(Row[] rows, int size, Row row) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo+hi) >>> 1;
+            if (rows[mid].compareTo(row) <= 0)
+                lo = mid+1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
     private class MouseHandler extends MouseAdapter {
         public void mouseClicked(MouseEvent e) {
             JTableHeader h = (JTableHeader) e.getSource();
@@ -511,4 +631,11 @@ public class SortableTableModel extends AbstractTableModel {
     public static interface RowComparator {
       public int compare(Object valueA, Object valueB, int col);
     }
+    
+    /**
+     * A table model that compares rows' values by row index (e.g. from precomputed keys)
+     */
+    public static interface RowIndexComparator {
+      public int compareRows(int rowA, int rowB, int col);
+    }
 }
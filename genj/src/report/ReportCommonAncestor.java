@@ -58,8 +58,8 @@ public class ReportCommonAncestor extends Report {
     Indi indi = indis[0];
     Indi other = indis[1];
 
-    // Recurse into indi
-    Indi ancestor = getCommonAncestor(indi, other);
+    // closest common ancestor
+    Indi ancestor = indi.getGedcom().getKinship().getCommonAncestor(indi, other);
 
     // nothing to show?
     if (ancestor==null) {
@@ -75,26 +75,4 @@ public class ReportCommonAncestor extends Report {
     return result;
   }
 
-  private Indi getCommonAncestor(Indi indi, Indi other) {
-    // check father and mother of indi
-    Indi father = indi.getBiologicalFather();
-    if (father!=null) {
-      if (father.isAncestorOf(other))
-        return father;
-      Indi ancestor = getCommonAncestor(father, other);
-      if (ancestor!=null)
-        return ancestor;
-    }
-    Indi mother = indi.getBiologicalMother();
-    if (mother!=null) {
-      if (mother.isAncestorOf(other))
-        return mother;
-      Indi ancestor = getCommonAncestor(mother, other);
-      if (ancestor!=null)
-        return ancestor;
-    }
-    // none found
-    return null;
-  }
-
 }
@@ -128,7 +128,7 @@ public class ReportMultDesc extends Report {
     if (reportPlaceOfResi || reportDateOfResi)
       nbColumns++;
 
-    Document doc = new Document(title);
+    Document doc = new Document(title, true);
 
     // iterate into individuals and all its descendants
     for (int i = 0; i < indis.length; i++) {
@@ -213,7 +213,7 @@ public class ReportSosa extends Report {
 
     // start with a title in a document
     String title = recursion.getTitle(indi);
-    Document doc = new Document(title);
+    Document doc = new Document(title, true);
     doc.startSection(title);
 
     // iterate into individual and all its ascendants
@@ -3,10 +3,13 @@ package phonetics;
 import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
 import genj.gedcom.Indi;
+import genj.gedcom.PropertyComparator;
 import genj.report.Report;
 import genj.util.ReferenceSet;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Set;
 import java.util.TreeSet;
 
 /**
@@ -58,6 +61,7 @@ public class ReportPhonetics extends Report {
           if (phonetic== null)
               return;
           printPhonetic(indi, phonetic);
+          printDuplicates(indi);
     }
 
     private void printPhonetic(Gedcom gedcom, Entity[] indis, Phonetics phonetics) {
@@ -116,6 +120,21 @@ public class ReportPhonetics extends Report {
         }
     }
 
+    private void printDuplicates(Indi indi) {
+
+        // look for names sounding alike (the index uses soundex)
+        Set<Indi> duplicates = indi.getGedcom().getPhoneticIndex().getDuplicates(indi);
+        if (duplicates.isEmpty())
+            return;
+        Indi[] indis = duplicates.toArray(new Indi[duplicates.size()]);
+        Arrays.sort(indis, new PropertyComparator("INDI:NAME"));
+
+        println();
+        println(translate("duplicates")+":");
+        for (int i = 0; i < indis.length; i++)
+            println(getIndent(2)+indis[i].getName()+" ("+indis[i].getId()+")");
+    }
+
     private String encode(String input, Phonetics phonetics) {
       String result = phonetics.encode(input);
       return result==null ? "" : result;
@@ -10,10 +10,8 @@ package validate;
 import genj.gedcom.Entity;
 import genj.gedcom.Gedcom;
 import genj.gedcom.GedcomException;
-import genj.gedcom.MetaProperty;
 import genj.gedcom.Property;
 import genj.gedcom.Submitter;
-import genj.gedcom.TagPath;
 import genj.gedcom.UnitOfWork;
 import genj.report.Report;
 import genj.util.EnvironmentChecker;
@@ -21,7 +19,9 @@ import genj.util.swing.Action2;
 import genj.view.ViewContext;
 
 import java.awt.event.ActionEvent;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -85,21 +85,22 @@ public class ReportValidate extends Report {
     "INDI:RETI:DATE"
   };
 
+  /** 
+   * the validator of the last gedcom we validated - redoing changes only next time. It's
+   * referenced weakly so the listening validator goes away with its gedcom when that's closed 
+   */
+  private WeakReference<Validator> validator;
+
   /**
    * Start for argument properties
    */
   public List<ViewContext> start(Property[] props) {
 
-    List<ViewContext> issues = new ArrayList<ViewContext>();
-
     if (props.length>0) {
       Gedcom gedcom = props[0].getGedcom();
       List<Test> tests = createTests(gedcom);
 
-      for (int i=0;i<props.length;i++) {
-        TagPath path = props[i].getPath();
-        test(props[i], path, gedcom.getGrammar().getMeta(path), tests, issues);
-      }
+      List<ViewContext> issues = new Validator(this, gedcom, getTestOptions(), tests).validate(Arrays.asList(props), tests);
       
       // show results
       return results(gedcom, issues);
@@ -120,11 +121,7 @@ public class ReportValidate extends Report {
     Gedcom gedcom = entities[0].getGedcom();
     List<Test> tests = createTests(gedcom);
 
-    List<ViewContext> issues = new ArrayList<ViewContext>();
-    for (int i=0;i<entities.length;i++) {
-      TagPath path = new TagPath(entities[i].getTag());
-      test(entities[i], path, entities[i].getGedcom().getGrammar().getMeta(path), tests, issues);
-    }
+    List<ViewContext> issues = new Validator(this, gedcom, getTestOptions(), tests).validate(Arrays.asList(entities), tests);
 
     // show results
     return results(gedcom, issues);
@@ -157,12 +154,17 @@ public class ReportValidate extends Report {
       issues.add(ctx);
     }
 
-    // Loop through entities and test 'em
-    for (int t=0;t<Gedcom.ENTITIES.length;t++) {
-      for (Entity e : gedcom.getEntities(Gedcom.ENTITIES[t])) {
-        TagPath path = new TagPath(e.getTag());
-        test(e, path, gedcom.getGrammar().getMeta(path), tests, issues);
+    // test all entities (or what changed since last time)
+    String options = getTestOptions();
+    synchronized (this) {
+      Validator last = validator!=null ? validator.get() : null;
+      if (last==null || !last.isFor(gedcom, options)) {
+        if (last!=null)
+          last.close();
+        last = new Validator(this, gedcom, options, tests);
+        validator = new WeakReference<Validator>(last);
       }
+      issues.addAll(last.validate(tests));
     }
 
     // show results
@@ -188,44 +190,12 @@ public class ReportValidate extends Report {
   }
 
   /**
-   * Test a property (recursively)
+   * The options tests are created with
    */
-  private void test(Property prop, TagPath path, MetaProperty meta, List<Test> tests, List<ViewContext> issues) {
-    // test tests
-    for (int i=0, j=tests.size(); i<j; i++) {
-      Test tst = (Test)tests.get(i);
-      // applicable?
-      if (!tst.applies(prop, path))
-        continue;
-      // test it
-      tst.test(prop, path, issues, this);
-      // next
-    }
-    // don't recurse into custom underscore tags
-    if (isUnderscoreValid&&prop.getTag().startsWith("_"))
-      return;
-    // recurse into all its properties
-    for (int i=0,j=prop.getNoOfProperties();i<j;i++) {
-      // for non-system, non-transient children
-      Property child = prop.getProperty(i);
-      if (child.isTransient())
-        continue;
-      // get child tag
-      String ctag = child.getTag();
-      // check if it's a custom tag
-      if (isUnderscoreValid&&ctag.startsWith("_"))
-        continue;
-      // check if Gedcom grammar allows it
-      if (!meta.allows(ctag)) {
-        String msg = translate("err.notgedcom", ctag, prop.getGedcom().getGrammar().getVersion(), path.toString() );
-        issues.add(new ViewContext(child).setText(msg).setImage(MetaProperty.IMG_ERROR));
-        continue;
-      }
-      // dive into
-      test(child, new TagPath(path, ctag), meta.getNested(child.getTag(), false), tests, issues);
-      // next child
-    }
-    // done
+  private String getTestOptions() {
+    return isOrderDiscretionary+","+isEmptyValueValid+","+isFileNotFoundValid+","+isUnderscoreValid+","
+      +isExtramaritalValid+","+isRelaxedPlaceFormat+","+maxLife+","+minAgeMARR+","+maxAgeBAPM+","
+      +minAgeRETI+","+minAgeFather+","+minAgeMother+","+maxAgeMother;
   }
 
   /**
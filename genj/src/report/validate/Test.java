@@ -46,17 +46,40 @@ import java.util.List;
    * Test whether test applies or not
    */
   /*package*/ boolean applies(Property prop, TagPath path) {
+    return applies(path) && applies(prop);
+  }
+  
+  /**
+   * Test whether test applies to a path
+   */
+  /*package*/ boolean applies(TagPath path) {
     // gotta match a path
-    outer: while (pathTriggers!=null) {
-      for (int j=0;j<pathTriggers.length;j++) {
-        if (pathTriggers[j].equals(path)) break outer;
-      }
-      return false;
+    if (pathTriggers==null)
+      return true;
+    for (int j=0;j<pathTriggers.length;j++) {
+      if (pathTriggers[j].equals(path)) 
+        return true;
     }
-    // and type
+    return false;
+  }
+  
+  /**
+   * Test whether test applies to a property's type
+   */
+  /*package*/ boolean applies(Property prop) {
     return typeTrigger==null||typeTrigger.isAssignableFrom(prop.getClass());
   }
   
+  /**
+   * Whether the outcome of this test depends on the tested property's entity
+   * and its directly linked entities only - local tests are run in parallel
+   * and are redone for changed entities only. Tests keeping state across
+   * properties or looking further have to override this.
+   */
+  /*package*/ boolean isLocal() {
+    return true;
+  }
+  
   /**
    * Perform Test on prop&path - fill issues with instances of Issue 
    */
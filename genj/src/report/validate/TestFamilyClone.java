@@ -31,6 +31,14 @@ public class TestFamilyClone extends Test {
   public TestFamilyClone() {
     super("FAM", Property.class);
   }
+  
+  /**
+   * comparing against all other families
+   */
+  @Override
+  boolean isLocal() {
+    return false;
+  }
 
   /**
    * Do the test 
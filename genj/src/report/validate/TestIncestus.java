@@ -14,6 +14,14 @@ public class TestIncestus extends Test {
 		super((String[])null, Fam.class);
 	}
 	
+	/**
+	 * spouses' parents and siblings are beyond a family's direct links
+	 */
+	@Override
+	boolean isLocal() {
+		return false;
+	}
+	
 	@Override
 	void test(Property prop, TagPath path, List<ViewContext> issues, ReportValidate report) {
 
@@ -30,6 +30,14 @@ public class TestUniqueIDs extends Test {
   public TestUniqueIDs() {
     super(PATHS, Property.class);
   }
+  
+  /**
+   * comparing against all other IDs
+   */
+  @Override
+  boolean isLocal() {
+    return false;
+  }
 
   /**
    * Do the test 
@@ -0,0 +1,385 @@
+/**
+ * Reports are Freeware Code Snippets
+ *
+ * This report is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package validate;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomListener;
+import genj.gedcom.GedcomMetaListener;
+import genj.gedcom.MetaProperty;
+import genj.gedcom.Property;
+import genj.gedcom.PropertyXRef;
+import genj.gedcom.TagPath;
+import genj.view.ViewContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The engine behind ReportValidate. Applicable tests, grammar and allowed
+ * tags are compiled once per tag path, entities are validated in parallel
+ * and the results are merged in order. Tests that aren't local (see
+ * Test.isLocal()) are run while merging. Once a gedcom has been validated
+ * we keep listening for changes and next time around redo the entities
+ * changed (and the ones linked to them) only.
+ */
+/*package*/ class Validator implements GedcomListener, GedcomMetaListener {
+
+  /** # of entities validated by one task */
+  private final static int ENTITIES_PER_TASK = 64;
+
+  /** pool for validating in parallel */
+  private final static ForkJoinPool POOL = new ForkJoinPool();
+
+  private ReportValidate report;
+  private Gedcom gedcom;
+  private String options;
+
+  /** the tests the compiled paths refer to (by index) */
+  private List<Test> tests;
+
+  /** compiled paths by root path */
+  private ConcurrentHashMap<String, Node> roots = new ConcurrentHashMap<String, Node>();
+
+  /** results of last run by entity - issues and non-local tests to run */
+  private Map<Entity, List<Object>> entity2results = new HashMap<Entity, List<Object>>();
+
+  /** entities changed since last run (null for all) */
+  private Set<Entity> changed = null;
+  private boolean listening = false;
+
+  /**
+   * Constructor
+   * @param options the report's options the tests were created with
+   * @param tests the tests validation runs will be using (or equivalent ones)
+   */
+  /*package*/ Validator(ReportValidate report, Gedcom gedcom, String options, List<Test> tests) {
+    this.report = report;
+    this.gedcom = gedcom;
+    this.options = options;
+    this.tests = tests;
+  }
+
+  /**
+   * Whether this validator can be used for given gedcom and options
+   */
+  /*package*/ boolean isFor(Gedcom gedcom, String options) {
+    return this.gedcom==gedcom && this.options.equals(options);
+  }
+
+  /**
+   * Stop listening to changes
+   */
+  /*package*/ void close() {
+    if (listening) {
+      gedcom.removeGedcomListener(this);
+      listening = false;
+    }
+  }
+
+  /**
+   * Validate given properties
+   * @param tests fresh tests equivalent to the ones this validator was created with
+   */
+  /*package*/ List<ViewContext> validate(List<? extends Property> props, List<Test> tests) {
+
+    List<List<Object>> results = walk(props, tests);
+
+    List<ViewContext> issues = new ArrayList<ViewContext>();
+    for (List<Object> result : results)
+      merge(result, tests, issues);
+    return issues;
+  }
+
+  /**
+   * Validate all entities of gedcom - the ones changed since the last run only
+   * @param tests fresh tests equivalent to the ones this validator was created with
+   */
+  /*package*/ List<ViewContext> validate(List<Test> tests) {
+
+    // start listening before looking at anything
+    if (!listening) {
+      gedcom.addGedcomListener(this);
+      listening = true;
+    }
+
+    // what has changed since last time?
+    Set<Entity> todo;
+    synchronized (this) {
+      todo = changed;
+      changed = new LinkedHashSet<Entity>();
+    }
+
+    // all or changed entities and their neighbours
+    List<Entity> entities = new ArrayList<Entity>();
+    if (todo==null) {
+      entity2results.clear();
+      for (int t=0;t<Gedcom.ENTITIES.length;t++)
+        entities.addAll(gedcom.getEntities(Gedcom.ENTITIES[t]));
+    } else {
+      Set<Entity> neighbours = new LinkedHashSet<Entity>();
+      for (Entity entity : todo) {
+        entity2results.remove(entity);
+        if (gedcom.getEntity(entity.getId())!=entity)
+          continue;
+        neighbours.add(entity);
+        for (PropertyXRef xref : entity.getProperties(PropertyXRef.class)) {
+          if (xref.isValid())
+            neighbours.add(xref.getTargetEntity());
+        }
+      }
+      entities.addAll(neighbours);
+    }
+
+    // validate
+    List<List<Object>> results = walk(entities, tests);
+    for (int i=0;i<entities.size();i++)
+      entity2results.put(entities.get(i), results.get(i));
+
+    // merge in order
+    List<ViewContext> issues = new ArrayList<ViewContext>();
+    for (int t=0;t<Gedcom.ENTITIES.length;t++) {
+      for (Entity entity : gedcom.getEntities(Gedcom.ENTITIES[t])) {
+        List<Object> result = entity2results.get(entity);
+        if (result!=null)
+          merge(result, tests, issues);
+      }
+    }
+
+    return issues;
+  }
+
+  /**
+   * Merge issues of one property and run its non-local tests
+   */
+  private void merge(List<Object> result, List<Test> tests, List<ViewContext> issues) {
+    for (Object o : result) {
+      if (o instanceof Deferred) {
+        Deferred d = (Deferred)o;
+        tests.get(d.test).test(d.prop, d.path, issues, report);
+      } else {
+        issues.add((ViewContext)o);
+      }
+    }
+  }
+
+  /**
+   * Walk properties in parallel
+   * @return results in order of given properties
+   */
+  private List<List<Object>> walk(List<? extends Property> props, final List<Test> tests) {
+
+    // make sure the report's resources are loaded before going parallel
+    report.translate("err.notgedcom");
+
+    // submit slices
+    List<Future<List<List<Object>>>> futures = new ArrayList<Future<List<List<Object>>>>();
+    for (int i=0;i<props.size();i+=ENTITIES_PER_TASK) {
+      final List<? extends Property> slice = props.subList(i, Math.min(i+ENTITIES_PER_TASK, props.size()));
+      futures.add(POOL.submit(new Callable<List<List<Object>>>() {
+        public List<List<Object>> call() {
+          List<List<Object>> results = new ArrayList<List<Object>>(slice.size());
+          List<ViewContext> issues = new ArrayList<ViewContext>();
+          for (Property prop : slice) {
+            List<Object> result = new ArrayList<Object>();
+            walk(prop, getRoot(prop.getPath()), tests, issues, result);
+            results.add(result.isEmpty() ? Collections.<Object>emptyList() : result);
+          }
+          return results;
+        }
+      }));
+    }
+
+    // collect in order
+    List<List<Object>> results = new ArrayList<List<Object>>(props.size());
+    try {
+      for (Future<List<List<Object>>> future : futures)
+        results.addAll(future.get());
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException)e.getCause();
+      throw new RuntimeException(e.getCause());
+    } finally {
+      for (Future<List<List<Object>>> future : futures)
+        future.cancel(true);
+    }
+
+    return results;
+  }
+
+  /**
+   * Test a property (recursively)
+   */
+  private void walk(Property prop, Node node, List<Test> tests, List<ViewContext> issues, List<Object> result) {
+    // test tests
+    for (int i=0; i<node.tests.length; i++) {
+      Test tst = tests.get(node.tests[i]);
+      // applicable?
+      if (!tst.applies(prop))
+        continue;
+      // later or now?
+      if (!tst.isLocal()) {
+        result.add(new Deferred(node.tests[i], prop, node.path));
+        continue;
+      }
+      tst.test(prop, node.path, issues, report);
+      result.addAll(issues);
+      issues.clear();
+    }
+    // don't recurse into custom underscore tags
+    if (report.isUnderscoreValid&&prop.getTag().startsWith("_"))
+      return;
+    // recurse into all its properties
+    for (int i=0,j=prop.getNoOfProperties();i<j;i++) {
+      // for non-system, non-transient children
+      Property child = prop.getProperty(i);
+      if (child.isTransient())
+        continue;
+      // get child tag
+      String ctag = child.getTag();
+      // check if it's a custom tag
+      if (report.isUnderscoreValid&&ctag.startsWith("_"))
+        continue;
+      // check if Gedcom grammar allows it
+      Node next = node.getNested(ctag);
+      if (next==null) {
+        String msg = report.translate("err.notgedcom", ctag, prop.getGedcom().getGrammar().getVersion(), node.path.toString() );
+        result.add(new ViewContext(child).setText(msg).setImage(MetaProperty.IMG_ERROR));
+        continue;
+      }
+      // dive into
+      walk(child, next, tests, issues, result);
+      // next child
+    }
+    // done
+  }
+
+  /**
+   * Lookup compiled path for a property we start with
+   */
+  private Node getRoot(TagPath path) {
+    String key = path.toString();
+    Node result = roots.get(key);
+    if (result==null) {
+      result = new Node(path, gedcom.getGrammar().getMeta(path));
+      Node other = roots.putIfAbsent(key, result);
+      if (other!=null)
+        result = other;
+    }
+    return result;
+  }
+
+  /** remember changed entity */
+  private synchronized void changed(Property prop) {
+    if (changed!=null)
+      changed.add(prop.getEntity());
+  }
+
+  public void gedcomEntityAdded(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomEntityDeleted(Gedcom gedcom, Entity entity) {
+    changed(entity);
+  }
+
+  public void gedcomPropertyAdded(Gedcom gedcom, Property property, int pos, Property added) {
+    changed(property);
+  }
+
+  public void gedcomPropertyChanged(Gedcom gedcom, Property property) {
+    changed(property);
+  }
+
+  public void gedcomPropertyDeleted(Gedcom gedcom, Property property, int pos, Property deleted) {
+    changed(property);
+  }
+
+  public synchronized void gedcomHeaderChanged(Gedcom gedcom) {
+    // place format and the likes - start over
+    changed = null;
+  }
+
+  public void gedcomWriteLockAcquired(Gedcom gedcom) {
+  }
+
+  public void gedcomBeforeUnitOfWork(Gedcom gedcom) {
+  }
+
+  public void gedcomAfterUnitOfWork(Gedcom gedcom) {
+  }
+
+  public void gedcomWriteLockReleased(Gedcom gedcom) {
+  }
+
+  /**
+   * A compiled path - its grammar, tests and nested paths
+   */
+  private class Node {
+
+    private TagPath path;
+    private MetaProperty meta;
+    private int[] tests;
+    private ConcurrentHashMap<String, Node> nested = new ConcurrentHashMap<String, Node>();
+
+    private Node(TagPath path, MetaProperty meta) {
+      this.path = path;
+      this.meta = meta;
+
+      List<Test> all = Validator.this.tests;
+      int[] applicable = new int[all.size()];
+      int n = 0;
+      for (int i=0;i<applicable.length;i++) {
+        if (all.get(i).applies(path))
+          applicable[n++] = i;
+      }
+      tests = new int[n];
+      System.arraycopy(applicable, 0, tests, 0, n);
+    }
+
+    /** nested path for tag - null if not allowed by grammar */
+    private Node getNested(String tag) {
+      Node result = nested.get(tag);
+      if (result==null) {
+        if (!meta.allows(tag))
+          return null;
+        result = new Node(new TagPath(path, tag), meta.getNested(tag, false));
+        Node other = nested.putIfAbsent(tag, result);
+        if (other!=null)
+          result = other;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * A non-local test to run while merging
+   */
+  private static class Deferred {
+    private int test;
+    private Property prop;
+    private TagPath path;
+    private Deferred(int test, Property prop, TagPath path) {
+      this.test = test;
+      this.prop = prop;
+      this.path = path;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package website;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -243,13 +244,24 @@ public class Html {
 
 	public void toFile(File file, boolean omitXmlDeclaration) {
 		// Save the doc into the file
+		transform(new StreamResult(file), omitXmlDeclaration);
+	}
+
+	public byte[] toBytes(boolean omitXmlDeclaration) {
+		// Save the doc into bytes (UTF-8)
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+		transform(new StreamResult(out), omitXmlDeclaration);
+		return out.toByteArray();
+	}
+
+	private void transform(StreamResult result, boolean omitXmlDeclaration) {
 		try {
 			Transformer transformer = TransformerFactory.newInstance().newTransformer();
 			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
 			transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC, "-//W3C//DTD XHTML 1.0 Strict//EN");
 			transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, "http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd");
+			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
 			if (omitXmlDeclaration) transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-			StreamResult result = new StreamResult(file);
 			DOMSource source = new DOMSource(doc);
 			transformer.transform(source, result);
 		} catch (Exception e) {
@@ -47,13 +47,21 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.channels.FileChannel;
 import java.text.Collator;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -80,6 +88,7 @@ public class ReportWebsite extends Report {
 	public String placeDisplayFormat = "all";
 	public String secondaryLanguage = "en";
     public boolean removeAllFiles;
+    public int threads = Runtime.getRuntime().availableProcessors();
 
 	/** Base source file of the css */
 	protected static final String cssBaseFile = "html/style.css";
@@ -125,6 +134,16 @@ public class ReportWebsite extends Report {
     /** The output directory */
     protected File destDir = null;
     
+    /** Content hashes of pages in output directory */
+    protected Manifest manifest = null;
+    
+    /** Marker for the time of page creation - replaced when a page is written */
+    protected static final String PAGE_CREATED = "{pageCreated}";
+    protected String pageCreated = null;
+    
+    /** Log of a page rendered by a worker - null for the report's own log */
+    protected PrintWriter pageOut = null;
+    
     /**
 	 * Main for argument Gedcom
 	 */
@@ -171,6 +190,8 @@ public class ReportWebsite extends Report {
 		
 		// Start modifying things
 		if (removeAllFiles) deleteDirContent(destDir, false);
+		manifest = new Manifest(destDir);
+		pageCreated = new PropertyChange().getDisplayValue();
 		
 		// Make a css file with current settings
 		makeCss(destDir, translator);
@@ -195,6 +216,10 @@ public class ReportWebsite extends Report {
 			currentLocale = null;
 
 		}
+		
+		// Remember what we've written
+		manifest.save();
+		println("Pages written: " + manifest.getWritten() + " of " + manifest.getSize());
 	}
 
 	  /**
@@ -225,51 +250,27 @@ public class ReportWebsite extends Report {
 	protected void generateFiles(Gedcom gedcom, Indi rootIndi) throws Exception {
 	    // Iterate over all media objects, must be before individuals
 		Entity[] objects = gedcom.getEntities(Gedcom.OBJE, "");
-		for(Entity object : objects) {
-			println("Exporting object " + object.getId());
-			File objeFile = makeDirFor(object.getId());
-			createMultimediaDoc((Media)object).toFile(objeFile, omitXmlDeclaration);
-		}
+		generatePages(objects, "Exporting object ");
 
 	    // Iterate over all individuals
 		Entity[] indis = gedcom.getEntities(Gedcom.INDI, "");
-		for(Entity indi : indis) {
-			println("Exporting person " + indi.getId() + " " + getName((Indi)indi));
-			File indiFile = makeDirFor(indi.getId());
-			createIndiDoc((Indi)indi).toFile(indiFile, omitXmlDeclaration);
-		}
+		generatePages(indis, "Exporting person ");
 		
 	    // Iterate over all sources
 		Entity[] sources = gedcom.getEntities(Gedcom.SOUR, "");
-		for(Entity source : sources) {
-			println("Exporting source " + source.getId());
-			File sourFile = makeDirFor(source.getId());
-			createSourceDoc((Source)source).toFile(sourFile, omitXmlDeclaration);
-		}
+		generatePages(sources, "Exporting source ");
 
 	    // Iterate over all sources
 		Entity[] repos = gedcom.getEntities(Gedcom.REPO, "");
-		for(Entity repo : repos) {
-			println("Exporting repository " + repo.getId());
-			File repoFile = makeDirFor(repo.getId());
-			createRepoDoc((Repository)repo).toFile(repoFile, omitXmlDeclaration);
-		}
+		generatePages(repos, "Exporting repository ");
 
 	    // Iterate over all notes
 		Entity[] notes = gedcom.getEntities(Gedcom.NOTE, "");
-		for(Entity note : notes) {
-			println("Exporting note " + note.getId());
-			File noteFile = makeDirFor(note.getId());
-			createNoteDoc((Note)note).toFile(noteFile, omitXmlDeclaration);
-		}
+		generatePages(notes, "Exporting note ");
 
 	    // Iterate over all submitters
 		Entity[] submitters = gedcom.getEntities(Gedcom.SUBM, "");
-		for(Entity submitter : submitters) {
-			println("Exporting submitter " + submitter.getId());
-			File submFile = makeDirFor(submitter.getId());
-			createSubmitterDoc((Submitter)submitter).toFile(submFile, omitXmlDeclaration);
-		}
+		generatePages(submitters, "Exporting submitter ");
 
 		// Make a start page and indexes
 		Collator collator = gedcom.getCollator();
@@ -287,6 +288,102 @@ public class ReportWebsite extends Report {
 	}
 	
 	
+	/**
+	 * Render the pages of entities in parallel - pages are written in order 
+	 * with a limited number of pages rendered ahead
+	 */
+	protected void generatePages(Entity[] entities, String message) throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+		Deque<Future<Page>> pages = new ArrayDeque<Future<Page>>();
+		try {
+			int next = 0;
+			while (next < entities.length || !pages.isEmpty()) {
+				// keep workers busy
+				while (next < entities.length && pages.size() < Math.max(1, threads) * 2) 
+					pages.add(pool.submit(new Page(entities[next++])));
+				// wait for next page in order
+				Page page;
+				try {
+					page = pages.removeFirst().get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Exception) throw (Exception)e.getCause();
+					throw e;
+				}
+				Entity entity = page.entity;
+				println(message + entity.getId() + (entity instanceof Indi ? " " + getName((Indi)entity) : ""));
+				getOut().print(page.log);
+				personsWithImage.addAll(page.personsWithImage);
+				writePage(page.file, page.content);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Create the page for an entity
+	 */
+	protected Html createDoc(Entity entity) {
+		if (entity instanceof Media) return createMultimediaDoc((Media)entity);
+		if (entity instanceof Indi) return createIndiDoc((Indi)entity);
+		if (entity instanceof Source) return createSourceDoc((Source)entity);
+		if (entity instanceof Repository) return createRepoDoc((Repository)entity);
+		if (entity instanceof Note) return createNoteDoc((Note)entity);
+		if (entity instanceof Submitter) return createSubmitterDoc((Submitter)entity);
+		throw new IllegalArgumentException("no page for " + entity.getTag());
+	}
+
+	/**
+	 * Write a page unless it's unchanged since the last run
+	 */
+	protected void writePage(File file, byte[] content) throws IOException {
+		if (!manifest.update(file, content)) return;
+		String html = new String(content, "UTF-8").replace(PAGE_CREATED, pageCreated);
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(html.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Log output goes to the current page's log while rendering on a worker
+	 */
+	@Override
+	public PrintWriter getOut() {
+		return pageOut != null ? pageOut : super.getOut();
+	}
+
+	/**
+	 * A page rendered by a shallow copy of this report. The copy gets its own 
+	 * per-page state (source and note divs, map locations, persons with image) 
+	 * and its own log. Everything else it shares with the report and the other 
+	 * workers is only read while pages are rendered: the gedcom, options, 
+	 * translations, sosa numbers and the output directory. Files are written 
+	 * into the directory of the page's entity only.
+	 */
+	protected class Page implements Callable<Page> {
+		protected Entity entity;
+		protected File file;
+		protected byte[] content;
+		protected List<Indi> personsWithImage;
+		protected StringWriter log = new StringWriter();
+
+		protected Page(Entity entity) {
+			this.entity = entity;
+		}
+
+		public Page call() throws Exception {
+			ReportWebsite renderer = (ReportWebsite)ReportWebsite.this.clone();
+			renderer.personsWithImage = personsWithImage = new ArrayList<Indi>();
+			renderer.pageOut = new PrintWriter(log);
+			file = renderer.makeDirFor(entity.getId());
+			content = renderer.createDoc(entity).toBytes(omitXmlDeclaration);
+			return this;
+		}
+	}
+
 	protected void deleteDirContent(File dir, boolean deleteThisDir) {
 		for(String name : dir.list()) {
 			File curr = new File(dir, name);
@@ -358,7 +455,7 @@ public class ReportWebsite extends Report {
 		}
 	}
 	
-	protected void makeStartpage(Gedcom gedcom, File dir, Entity[] indis, Entity[] sources, Entity[] repos, Indi rootIndi) {
+	protected void makeStartpage(Gedcom gedcom, File dir, Entity[] indis, Entity[] sources, Entity[] repos, Indi rootIndi) throws IOException {
 		println("Making start-page");
 		Collator collator = gedcom.getCollator();
 		File startFile = new File(dir.getAbsolutePath() + File.separator + getLocalizedFilename(reportIndexFileName, currentLocale));
@@ -466,15 +563,15 @@ public class ReportWebsite extends Report {
 			processAddresses(p, subm, html, new ArrayList<String>(), false);
 		}
 		div2.appendChild(html.p(translateLocal("pageCreated") + 
-				" " + (new PropertyChange()).getDisplayValue())); 
+				" " + PAGE_CREATED)); 
 		
 		Element backlink = backlink(reportIndexFileName, null, "", html);
 		if (backlink.hasChildNodes()) bodyNode.appendChild(backlink);
 		makeFooter(bodyNode, html);
-		html.toFile(startFile, omitXmlDeclaration);
+		writePage(startFile, html.toBytes(omitXmlDeclaration));
 	}
 
-	protected void makeEntityIndex(File dir, Entity[] sources, String name, String fileName, Collator collator) {
+	protected void makeEntityIndex(File dir, Entity[] sources, String name, String fileName, Collator collator) throws IOException {
 		name = translateLocal(name);
 		println("Making "+ name);
 		File startFile = new File(dir.getAbsolutePath() + File.separator + getLocalizedFilename(fileName, currentLocale));
@@ -498,10 +595,10 @@ public class ReportWebsite extends Report {
 			div1.appendChild(html.br());
 		}
 		makeFooter(bodyNode, html);
-		html.toFile(startFile, omitXmlDeclaration);
+		writePage(startFile, html.toBytes(omitXmlDeclaration));
 	}
 
-	protected void makePersonIndex(File dir, Entity[] indis, Collator collator) {
+	protected void makePersonIndex(File dir, Entity[] indis, Collator collator) throws IOException {
 		println("Making person index");
 		File startFile = new File(dir.getAbsolutePath() + File.separator +
 				getLocalizedFilename(listPersonFileName, currentLocale));
@@ -537,7 +634,7 @@ public class ReportWebsite extends Report {
 			div1.appendChild(html.br());
 		}
 		makeFooter(bodyNode, html);
-		html.toFile(startFile, omitXmlDeclaration);
+		writePage(startFile, html.toBytes(omitXmlDeclaration));
 	}
 
 	/**
@@ -1548,13 +1645,13 @@ public class ReportWebsite extends Report {
 			if (showPageCreated) {
 				p.appendChild(html.br());
 				p.appendChild(html.text(translateLocal("pageCreated") +
-						" " + (new PropertyChange()).getDisplayValue()));
+						" " + PAGE_CREATED));
 			}
 		} else {
 			if (showPageCreated) {
 				appendTo.appendChild(html.h2(translateLocal("other")));
 				appendTo.appendChild(html.p(translateLocal("pageCreated") +
-						" " + (new PropertyChange()).getDisplayValue()));
+						" " + PAGE_CREATED));
 			}
 		}
 
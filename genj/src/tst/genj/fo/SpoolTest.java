@@ -0,0 +1,142 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.fo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Test spooled (streaming) documents against documents kept in memory
+ */
+public class SpoolTest extends TestCase {
+
+  /**
+   * a document with sections, lists, tables, index and toc
+   */
+  private Document create(boolean streaming) {
+
+    Document doc = new Document("Streaming & Co", streaming);
+    doc.addTOC();
+    doc.addText("An introduction with <markup> & \"quotes\"");
+
+    for (int s=0;s<5;s++) {
+      doc.startSection("Section "+s, "s"+s);
+      for (int p=0;p<10;p++) {
+        doc.nextParagraph(p%2==0 ? "start-indent=10pt" : "");
+        doc.addText("Paragraph "+p+" of section "+s+" ");
+        doc.addText("bold", "font-weight=bold");
+        doc.addIndexTerm("People", "Person "+(p%3), p%2==0 ? "" : "Child "+s);
+      }
+
+      doc.startList();
+      for (int i=0;i<12;i++) {
+        doc.nextListItem(i%3==0 ? "genj:label="+i+")" : "");
+        doc.addText("Item "+i);
+        if (i==5) {
+          doc.startList();
+          for (int j=0;j<5;j++) {
+            doc.nextListItem();
+            doc.addText("Nested "+j);
+          }
+          doc.endList();
+        }
+      }
+      doc.endList();
+
+      doc.startTable("width=100%,genj:csv=true,genj:csvprefix=T"+s);
+      doc.addTableColumn("column-width=20%");
+      doc.addTableColumn("column-width=80%");
+      for (int r=0;r<20;r++) {
+        doc.nextTableCell();
+        doc.addText("R"+r);
+        doc.nextTableCell();
+        doc.addText("Value;"+r);
+        if (r==7) {
+          doc.startTable("width=100%");
+          doc.nextTableCell();
+          doc.addText("inner");
+          doc.endTable();
+        }
+      }
+      doc.endTable();
+      doc.addLink("back to start", "s0");
+    }
+
+    doc.nextPage();
+    doc.addTOCEntry("Appendix");
+    doc.addText("The end");
+
+    return doc;
+  }
+
+  private String format(Format format, Document doc) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    format.format(doc, out);
+    return out.toString("UTF-8");
+  }
+
+  /**
+   * text and csv of spooled documents
+   */
+  public void testTextAndCSV() throws IOException {
+    for (Format format : new Format[]{ new TXTFormat(), new CSVFormat() }) {
+      String expected = format(format, create(false));
+      assertTrue(expected.length()>1000);
+      assertEquals(format.getFormat(), expected, format(format, create(true)));
+    }
+  }
+
+  /**
+   * xsl fo of spooled documents
+   */
+  public void testXSLFO() throws IOException {
+    Format format = new XSLFOFormat();
+    assertEquals(normalize(format(format, create(false))), normalize(format(format, create(true))));
+  }
+
+  /**
+   * html of spooled documents
+   */
+  public void testHTML() throws IOException {
+    Format format = new HTMLFormat();
+    assertEquals(normalize(format(format, create(false))), normalize(format(format, create(true))));
+  }
+
+  /**
+   * temporary files of spooled documents are deleted after formatting
+   */
+  public void testTemporaryFiles() throws IOException {
+    Set<String> before = getSpoolFiles();
+    Document doc = create(true);
+    assertTrue(getSpoolFiles().size()>before.size());
+    format(new TXTFormat(), doc);
+    assertEquals(before, getSpoolFiles());
+    
+    doc = create(true);
+    doc.dispose();
+    assertEquals(before, getSpoolFiles());
+  }
+  
+  private Set<String> getSpoolFiles() {
+    File dir = new File(System.getProperty("java.io.tmpdir"));
+    String[] names = dir.list(new FilenameFilter() {
+      public boolean accept(File dir, String name) {
+        return name.startsWith("genj") && name.endsWith(".fo");
+      }
+    });
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+  private String normalize(String xml) {
+    return xml.replaceAll("<\\?xml[^>]*>", "").replaceAll(" xmlns(:genj)?=\"[^\"]*\"", "").replaceAll(">\\s+", ">").replaceAll("\\s+<", "<");
+  }
+
+}
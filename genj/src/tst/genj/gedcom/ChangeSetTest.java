@@ -0,0 +1,133 @@
+/*
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ * ChangeSetTest.java
+ */
+
+package genj.gedcom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test coalesced change sets per unit of work
+ */
+public class ChangeSetTest extends TestCase implements GedcomChangeSetListener {
+
+  private Gedcom gedcom;
+  private List<ChangeSet> sets = new ArrayList<ChangeSet>();
+
+  @Override
+  protected void setUp() throws Exception {
+    gedcom = new Gedcom();
+    gedcom.addChangeSetListener(this);
+  }
+
+  public void gedcomChanged(Gedcom gedcom, ChangeSet changes) {
+    assertSame(this.gedcom, gedcom);
+    sets.add(changes);
+  }
+
+  /**
+   * one change set with added entities only
+   */
+  public void testAdded() throws GedcomException {
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+        indi.setName("Nils", "Meier");
+        Fam fam = (Fam)gedcom.createEntity(Gedcom.FAM, "F1");
+        fam.setHusband(indi);
+      }
+    });
+
+    assertEquals(1, sets.size());
+    ChangeSet changes = sets.get(0);
+    assertEquals(2, changes.getAddedEntities().size());
+    assertTrue(changes.getChangedEntities().isEmpty());
+    assertTrue(changes.getDeletedEntities().isEmpty());
+  }
+
+  /**
+   * changes are deduplicated, add+delete cancels out
+   */
+  public void testCoalesced() throws GedcomException {
+
+    final Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+    final Property note = indi.addProperty("NOTE", "");
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        for (int i=0;i<100;i++)
+          note.setValue("note "+i);
+        Property temp = indi.addProperty("OCCU", "foo");
+        temp.setValue("bar");
+        indi.delProperty(temp);
+      }
+    });
+
+    assertEquals(1, sets.size());
+    ChangeSet changes = sets.get(0);
+    assertTrue(changes.getAddedEntities().isEmpty());
+    assertEquals(1, changes.getChangedEntities().size());
+    assertTrue(changes.getChangedEntities().contains(indi));
+    assertTrue(changes.getChangedProperties().contains(note));
+    for (Property prop : changes.getAddedProperties())
+      assertFalse("OCCU".equals(prop.getTag()));
+    for (Property prop : changes.getChangedProperties())
+      assertFalse("OCCU".equals(prop.getTag()));
+    assertTrue(changes.getDeletedProperties().isEmpty());
+  }
+
+  /**
+   * entity added and deleted in the same unit of work
+   */
+  public void testAddedAndDeleted() throws GedcomException {
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+        indi.setName("Nils", "Meier");
+        gedcom.deleteEntity(indi);
+      }
+    });
+
+    assertTrue(sets.isEmpty());
+  }
+
+  /**
+   * undo gets its own change set
+   */
+  public void testUndo() throws GedcomException {
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        gedcom.createEntity(Gedcom.INDI, "I1");
+      }
+    });
+    Entity indi = gedcom.getEntity("I1");
+
+    gedcom.undoUnitOfWork();
+
+    assertEquals(2, sets.size());
+    assertTrue(sets.get(1).getDeletedEntities().contains(indi));
+    assertTrue(sets.get(1).getAddedEntities().isEmpty());
+  }
+
+  /**
+   * removed listeners don't get change sets
+   */
+  public void testRemoved() throws GedcomException {
+
+    gedcom.removeChangeSetListener(this);
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        gedcom.createEntity(Gedcom.INDI, "I1");
+      }
+    });
+
+    assertTrue(sets.isEmpty());
+  }
+}
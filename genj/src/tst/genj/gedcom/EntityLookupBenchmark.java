@@ -0,0 +1,95 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.gedcom;
+
+import genj.io.GedcomReaderFactory;
+import genj.util.Origin;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Microbenchmark for entity lookup by ID and entities sorted by ID - compares the 
+ * indexed lookups in Gedcom with a loop over entity types and a sort on every call 
+ * (the way it used to be done). Run with a gedcom file as argument, e.g.
+ * <pre>
+ *   java genj.gedcom.EntityLookupBenchmark gedcom/royal92.ged
+ * </pre>
+ */
+public class EntityLookupBenchmark {
+  
+  private final static int ROUNDS = 10;
+
+  public static void main(String[] args) throws Exception {
+    
+    File file = new File(args.length>0 ? args[0] : "gedcom/royal92.ged");
+    Gedcom gedcom = GedcomReaderFactory.createReader(Origin.create(file.toURI().toURL()), null).read();
+    
+    List<Entity> entities = gedcom.getEntities();
+    String[] ids = new String[entities.size()];
+    for (int i=0;i<ids.length;i++)
+      ids[i] = entities.get(i).getId();
+    
+    // the way it was - a map per type 
+    Map<String, Map<String,Entity>> tag2id2entity = new HashMap<String, Map<String,Entity>>();
+    for (Entity e : entities) {
+      Map<String,Entity> id2entity = tag2id2entity.get(e.getTag());
+      if (id2entity==null) {
+        id2entity = new HashMap<String,Entity>();
+        tag2id2entity.put(e.getTag(), id2entity);
+      }
+      id2entity.put(e.getId(), e);
+    }
+    
+    System.out.println(file+": "+ids.length+" entities");
+    for (int round=0;round<ROUNDS;round++) {
+      
+      long start = System.nanoTime();
+      int found = 0;
+      for (String id : ids) {
+        for (Map<String,Entity> id2entity : tag2id2entity.values()) {
+          if (id2entity.get(id)!=null) {
+            found++;
+            break;
+          }
+        }
+      }
+      long before = System.nanoTime()-start;
+      
+      start = System.nanoTime();
+      for (String id : ids) {
+        if (gedcom.getEntity(id)!=null)
+          found--;
+      }
+      long after = System.nanoTime()-start;
+      
+      System.out.println("lookup by ID: "+ms(before)+" before, "+ms(after)+" after ("+found+")");
+      
+      start = System.nanoTime();
+      for (int i=0;i<ROUNDS;i++) {
+        Collection<Entity> ents = tag2id2entity.get(Gedcom.INDI).values();
+        Entity[] result = ents.toArray(new Entity[ents.size()]);
+        Arrays.sort(result);
+      }
+      before = System.nanoTime()-start;
+      
+      start = System.nanoTime();
+      for (int i=0;i<ROUNDS;i++)
+        gedcom.getEntities(Gedcom.INDI, "");
+      after = System.nanoTime()-start;
+      
+      System.out.println(ROUNDS+"x sorted individuals: "+ms(before)+" before, "+ms(after)+" after");
+    }
+    
+  }
+  
+  private static String ms(long nanos) {
+    return (nanos/100000)/10D+"ms";
+  }
+  
+}
@@ -3,6 +3,8 @@
  */
 package genj.gedcom;
 
+import java.util.Arrays;
+
 import junit.framework.TestCase;
 
 /**
@@ -49,6 +51,51 @@ public class GedcomIDTest extends TestCase {
     // done
   }
   
+  /**
+   * Test lookup by ID and sorted entities
+   */
+  public void testLookup() throws GedcomException {
+    
+    Gedcom gedcom = new Gedcom();
+    Entity i1 = gedcom.createEntity(Gedcom.INDI, "I1");
+    Entity i3 = gedcom.createEntity(Gedcom.INDI, "I3");
+    Entity i2 = gedcom.createEntity(Gedcom.INDI, "I2");
+    Entity f1 = gedcom.createEntity(Gedcom.FAM, "F1");
+    
+    assertSame(i2, gedcom.getEntity("I2"));
+    assertSame(f1, gedcom.getEntity("F1"));
+    assertNull(gedcom.getEntity("F2"));
+    assertOrder(new Entity[]{ i1, i2, i3 }, gedcom.getEntities(Gedcom.INDI, (String)null));
+    
+    // changing an ID
+    i2.setId("I4");
+    assertNull(gedcom.getEntity("I2"));
+    assertSame(i2, gedcom.getEntity("I4"));
+    assertOrder(new Entity[]{ i1, i3, i2 }, gedcom.getEntities(Gedcom.INDI, (String)null));
+    
+    // same ID for different types
+    Entity n1 = gedcom.createEntity(Gedcom.NOTE, "I1");
+    assertSame(i1, gedcom.getEntity("I1"));
+    gedcom.deleteEntity(i1);
+    assertSame(n1, gedcom.getEntity("I1"));
+    assertOrder(new Entity[]{ i3, i2 }, gedcom.getEntities(Gedcom.INDI, (String)null));
+    
+    // sorting by a value
+    i3.addProperty("NAME", "B");
+    i2.addProperty("NAME", "A");
+    assertOrder(new Entity[]{ i2, i3 }, gedcom.getEntities(Gedcom.INDI, "INDI:NAME"));
+    i2.getProperty("NAME").setValue("C");
+    assertOrder(new Entity[]{ i3, i2 }, gedcom.getEntities(Gedcom.INDI, "INDI:NAME"));
+    
+    // results are copies
+    gedcom.getEntities(Gedcom.INDI, "INDI:NAME")[0] = null;
+    assertOrder(new Entity[]{ i3, i2 }, gedcom.getEntities(Gedcom.INDI, "INDI:NAME"));
+  }
+  
+  private void assertOrder(Entity[] expected, Entity[] actual) {
+    assertEquals(Arrays.asList(expected), Arrays.asList(actual));
+  }
+  
   private void assertID(String id, Entity e) {
     assertEquals(id, e.getId());
   }
@@ -0,0 +1,172 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.gedcom;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test kinship index staying up to date with changes
+ */
+public class KinshipTest extends TestCase {
+  
+  private Gedcom gedcom;
+  private Indi grandpa, grandma, father, mother, uncle, child, cousin;
+  private Fam grandparents, parents, uncles;
+
+  /**
+   * two generations of children (child and cousin) below grandparents 
+   */
+  protected void setUp() throws Exception {
+    
+    gedcom = new Gedcom();
+
+    grandpa = indi("grandpa");
+    grandma = indi("grandma");
+    father = indi("father");
+    mother = indi("mother");
+    uncle = indi("uncle");
+    child = indi("child");
+    cousin = indi("cousin");
+    
+    grandparents = fam(grandpa, grandma, father, uncle);
+    parents = fam(father, mother, child);
+    uncles = fam(uncle, null, cousin);
+  }
+  
+  private Indi indi(String id) throws GedcomException {
+    return (Indi)gedcom.createEntity(Gedcom.INDI, id);
+  }
+  
+  private Fam fam(Indi husband, Indi wife, Indi... children) throws GedcomException {
+    Fam fam = (Fam)gedcom.createEntity(Gedcom.FAM);
+    if (husband!=null) fam.setHusband(husband);
+    if (wife!=null) fam.setWife(wife);
+    for (Indi child : children)
+      fam.addChild(child);
+    return fam;
+  }
+  
+  /**
+   * ancestor checks
+   */
+  public void testAncestors() throws GedcomException {
+    
+    assertTrue(grandpa.isAncestorOf(child));
+    assertTrue(grandma.isAncestorOf(cousin));
+    assertTrue(father.isAncestorOf(child));
+    assertTrue(child.isDescendantOf(grandparents));
+    assertFalse(child.isAncestorOf(grandpa));
+    assertFalse(uncle.isAncestorOf(child));
+    assertFalse(mother.isAncestorOf(cousin));
+    assertFalse(child.isAncestorOf(child));
+    
+    // asking the same again and again
+    for (int i=0;i<3;i++) {
+      assertTrue(grandpa.isAncestorOf(child));
+      assertFalse(uncle.isAncestorOf(child));
+    }
+    
+    // no circles
+    try {
+      parents.addChild(grandpa);
+      fail("grandpa can't be child of his grandson");
+    } catch (GedcomException e) {
+    }
+  }
+  
+  /**
+   * changes to relationships 
+   */
+  public void testChanges() throws GedcomException {
+    
+    assertTrue(grandpa.isAncestorOf(child));
+    
+    // adopted
+    PropertyFamilyChild famc = (PropertyFamilyChild)father.getProperty("FAMC");
+    Property pedi = famc.addProperty("PEDI", "adopted");
+    assertFalse(grandpa.isAncestorOf(child));
+    assertTrue(father.isAncestorOf(child));
+    pedi.setValue("birth");
+    assertTrue(grandpa.isAncestorOf(child));
+    famc.delProperty(pedi);
+    assertTrue(grandpa.isAncestorOf(child));
+    
+    // no father 
+    gedcom.deleteEntity(father);
+    assertFalse(grandpa.isAncestorOf(child));
+    assertTrue(mother.isAncestorOf(child));
+    
+    // a new one
+    Indi other = indi("other");
+    parents.setHusband(other);
+    grandparents.addChild(other);
+    assertTrue(grandpa.isAncestorOf(child));
+  }
+  
+  /**
+   * deleted individuals free their ids for new ones
+   */
+  public void testDeleted() throws GedcomException {
+    
+    Kinship kinship = gedcom.getKinship();
+    assertTrue(grandpa.isAncestorOf(cousin));
+    int id = uncle.kinship;
+    assertTrue(id>=0);
+    
+    for (int i=0;i<100;i++) {
+      gedcom.deleteEntity(uncle);
+      assertEquals(-1, uncle.kinship);
+      assertFalse(grandpa.isAncestorOf(cousin));
+      uncle = indi("uncle");
+      grandparents.addChild(uncle);
+      uncles.setHusband(uncle);
+      assertEquals(id, uncle.kinship);
+      assertTrue(grandpa.isAncestorOf(cousin));
+    }
+    
+    assertNotNull(kinship.getCommonAncestor(child, cousin));
+  }
+  
+  /**
+   * the closest common ancestor wins over the first one found walking up the fathers' side
+   */
+  public void testClosestCommonAncestor() throws GedcomException {
+    
+    // a great-grandfather on the fathers' side and a grandfather on the mothers' side
+    Indi great = indi("great"), paternal = indi("paternal"), other = indi("other"), maternal = indi("maternal");
+    Indi husband = indi("husband"), wife = indi("wife"), aunt = indi("aunt"), uncle = indi("uncle2");
+    Indi first = indi("first"), second = indi("second");
+    fam(great, null, paternal, other);
+    fam(paternal, null, husband);
+    fam(other, null, uncle);
+    fam(maternal, null, wife, aunt);
+    fam(husband, wife, first);
+    fam(uncle, aunt, second);
+    
+    assertTrue(great.isAncestorOf(second));
+    assertSame(maternal, gedcom.getKinship().getCommonAncestor(first, second));
+    assertEquals(Arrays.asList(first, wife, maternal, aunt, second), gedcom.getKinship().getPath(first, second));
+  }
+  
+  /**
+   * common ancestor and relationship path 
+   */
+  public void testPath() {
+    
+    Kinship kinship = gedcom.getKinship();
+    
+    Indi ancestor = kinship.getCommonAncestor(child, cousin);
+    assertTrue(ancestor==grandpa||ancestor==grandma);
+    assertNull(kinship.getCommonAncestor(child, mother));
+    assertEquals(ancestor, kinship.getCommonAncestor(child, father));
+    
+    assertEquals(Arrays.asList(child, father, ancestor, uncle, cousin), kinship.getPath(child, cousin));
+    assertEquals(Arrays.asList(father, child), kinship.getPath(father, child));
+    assertEquals(Arrays.asList(child, mother), kinship.getPath(child, mother));
+    assertTrue(kinship.getPath(mother, uncle).isEmpty());
+  }
+  
+}
@@ -0,0 +1,73 @@
+/*
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ * PhoneticIndexTest.java
+ */
+
+package genj.gedcom;
+
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Test phonetic lookups of names and places
+ */
+public class PhoneticIndexTest extends TestCase {
+
+  private Gedcom gedcom;
+  private PhoneticIndex index;
+
+  @Override
+  protected void setUp() throws Exception {
+    gedcom = new Gedcom();
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi nils = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+        nils.setName("Nils", "Meier");
+        nils.addProperty("BIRT", "").addProperty("PLAC", "Rendsburg, Schleswig-Holstein");
+        Indi anna = (Indi)gedcom.createEntity(Gedcom.INDI, "I2");
+        anna.setName("Anna", "Meyer");
+        Indi other = (Indi)gedcom.createEntity(Gedcom.INDI, "I3");
+        other.setName("Nilz", "Mayer");
+      }
+    });
+    index = gedcom.getPhoneticIndex();
+  }
+
+  /**
+   * names and places sound alike
+   */
+  public void testLookup() {
+    assertEquals(3, index.getNames("Maier").size());
+    assertEquals(1, index.getPlaces("Rentsburg").size());
+    assertEquals(1, index.getPlaces("Holstein").size());
+    assertEquals(2, index.lookup("Nils Meir").size());
+    assertTrue(index.lookup("Smith").isEmpty());
+  }
+
+  /**
+   * individuals with similar last and first names
+   */
+  public void testDuplicates() {
+    Indi nils = (Indi)gedcom.getEntity("I1");
+    Set<Indi> duplicates = index.getDuplicates(nils);
+    assertEquals(1, duplicates.size());
+    assertTrue(duplicates.contains(gedcom.getEntity("I3")));
+    assertTrue(index.getDuplicates((Indi)gedcom.getEntity("I2")).isEmpty());
+  }
+
+  /**
+   * changes are picked up on the next lookup
+   */
+  public void testChanges() throws GedcomException {
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        ((Indi)gedcom.getEntity("I3")).setName("Nils", "Schmidt");
+        gedcom.deleteEntity(gedcom.getEntity("I2"));
+      }
+    });
+    assertEquals(1, index.getNames("Maier").size());
+    assertEquals(1, index.getNames("Schmitt").size());
+    assertTrue(index.getDuplicates((Indi)gedcom.getEntity("I1")).isEmpty());
+  }
+}
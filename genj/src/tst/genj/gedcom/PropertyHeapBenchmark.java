@@ -0,0 +1,55 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.gedcom;
+
+import genj.io.GedcomReaderFactory;
+import genj.util.Origin;
+
+import java.io.File;
+
+/**
+ * Heap footprint benchmark - loads a gedcom file and reports the heap used 
+ * per property. Run with a (large) gedcom file as argument, e.g.
+ * <pre>
+ *   java -Xmx1g genj.gedcom.PropertyHeapBenchmark gedcom/royal92.ged
+ * </pre>
+ */
+public class PropertyHeapBenchmark {
+  
+  public static void main(String[] args) throws Exception {
+    
+    File file = new File(args.length>0 ? args[0] : "gedcom/royal92.ged");
+    
+    // warm up so that classes and grammar are loaded before we measure
+    GedcomReaderFactory.createReader(Origin.create(file.toURI().toURL()), null).read();
+    
+    long before = used();
+    Gedcom gedcom = GedcomReaderFactory.createReader(Origin.create(file.toURI().toURL()), null).read();
+    long after = used();
+    
+    int props = 0;
+    for (Entity entity : gedcom.getEntities())
+      props += count(entity);
+    
+    System.out.println(file+": "+gedcom.getEntities().size()+" entities, "+props+" properties");
+    System.out.println("heap "+(after-before)/1024+"kb, "+(after-before)/props+" bytes per property");
+  }
+  
+  private static int count(Property prop) {
+    int result = 1;
+    for (int i=0;i<prop.getNoOfProperties();i++)
+      result += count(prop.getProperty(i));
+    return result;
+  }
+  
+  private static long used() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i=0;i<5;i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return runtime.totalMemory()-runtime.freeMemory();
+  }
+  
+}
@@ -3,6 +3,10 @@
  */
 package genj.gedcom;
 
+import genj.util.Origin;
+
+import java.util.Arrays;
+
 import junit.framework.TestCase;
 
 /**
@@ -42,6 +46,22 @@ public class PropertyNameTest extends TestCase {
     // done
   }
   
+  /**
+   * Test looking up names by prefix
+   */
+  public void testPrefix() throws Exception {
+    
+    Gedcom gedcom = new Gedcom(Origin.create("file://foo.ged"));
+    ((Indi)gedcom.createEntity(Gedcom.INDI)).setName("Nils", "Meier");
+    ((Indi)gedcom.createEntity(Gedcom.INDI)).setName("Anna", "Meyer");
+    ((Indi)gedcom.createEntity(Gedcom.INDI)).setName("Nilz", "Mayer");
+    
+    assertEquals(Arrays.asList("Meier", "Meyer"), PropertyName.getLastNames(gedcom, "me"));
+    assertEquals(Arrays.asList("Mayer", "Meier", "Meyer"), PropertyName.getLastNames(gedcom, "M"));
+    assertEquals(Arrays.asList("Nils", "Nilz"), PropertyName.getFirstNames(gedcom, "NIL"));
+    assertTrue(PropertyName.getLastNames(gedcom, "x").isEmpty());
+  }
+  
   private void testName(PropertyName name, String first, String last, String suffix, String value) {
     assertEquals("expected first "+first, first, name.getFirstName());
     assertEquals("expected last "+last, last, name.getLastName());
@@ -0,0 +1,159 @@
+/*
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ * UndoJournalTest.java
+ */
+
+package genj.gedcom;
+
+import junit.framework.TestCase;
+
+/**
+ * Test undo and redo through journals
+ */
+public class UndoJournalTest extends TestCase {
+
+  private Gedcom gedcom;
+
+  @Override
+  protected void setUp() throws Exception {
+    gedcom = new Gedcom();
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi husband = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+        husband.setName("Nils", "Meier");
+        Indi wife = (Indi)gedcom.createEntity(Gedcom.INDI, "I2");
+        wife.setName("Anna", "Meier");
+        Fam fam = (Fam)gedcom.createEntity(Gedcom.FAM, "F1");
+        fam.setHusband(husband);
+        fam.setWife(wife);
+        husband.addProperty("BIRT", "").addProperty("DATE", "1 JAN 1970");
+        husband.addProperty("OCCU", "Programmer");
+      }
+    });
+  }
+
+  /**
+   * undo and redo of all kinds of changes restores the same content
+   */
+  public void testUndoRedo() throws GedcomException {
+
+    String before = dump(gedcom);
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi husband = (Indi)gedcom.getEntity("I1");
+        // changes
+        for (int i=0;i<10;i++)
+          husband.getProperty("OCCU").setValue("Job "+i);
+        // move
+        husband.moveProperty(husband.getProperty("OCCU"), 0);
+        // id
+        husband.setId("I10");
+        // add and link
+        Fam fam = (Fam)gedcom.getEntity("F1");
+        Indi child = (Indi)gedcom.createEntity(Gedcom.INDI);
+        child.setName("Kid", "Meier");
+        fam.addChild(child);
+        // delete with references
+        gedcom.deleteEntity(gedcom.getEntity("I2"));
+        husband.getProperty("BIRT").delProperty(0);
+      }
+    });
+
+    String after = dump(gedcom);
+    assertFalse(before.equals(after));
+
+    gedcom.undoUnitOfWork();
+    assertEquals(before, dump(gedcom));
+    assertTrue(gedcom.canRedo());
+
+    gedcom.redoUnitOfWork();
+    assertEquals(after, dump(gedcom));
+
+    gedcom.undoUnitOfWork();
+    assertEquals(before, dump(gedcom));
+  }
+
+  /**
+   * undos beyond the memory budget are spilled to a temporary file
+   */
+  public void testSpilled() throws GedcomException {
+    assertEquals(5, undoBigChanges(true));
+  }
+
+  /**
+   * undos beyond the memory budget are forgotten without spilling
+   */
+  public void testForgotten() throws GedcomException {
+    int undos = undoBigChanges(false);
+    assertTrue(undos>0&&undos<5);
+  }
+
+  private int undoBigChanges(boolean spill) throws GedcomException {
+
+    Options options = Options.getInstance();
+    int memory = options.getUndoMemoryKB();
+    boolean spilling = options.isSpillUndos;
+    try {
+      options.setUndoMemoryKB(256);
+      options.isSpillUndos = spill;
+
+      final StringBuffer value = new StringBuffer();
+      while (value.length()<100*1024)
+        value.append("a long note ");
+
+      String before = dump(gedcom);
+      gedcom.setUnchanged();
+
+      for (int i=0;i<5;i++) {
+        gedcom.doUnitOfWork(new UnitOfWork() {
+          public void perform(Gedcom gedcom) throws GedcomException {
+            Property note = gedcom.getEntity("I1").addProperty("NOTE", "");
+            note.setValue(value.toString());
+            note.setValue("");
+          }
+        });
+      }
+      String after = dump(gedcom);
+
+      int undos = 0;
+      while (gedcom.canUndo()) {
+        gedcom.undoUnitOfWork();
+        undos++;
+      }
+      if (undos==5)
+        assertEquals(before, dump(gedcom));
+      
+      while (gedcom.canRedo())
+        gedcom.redoUnitOfWork();
+      assertEquals(after, dump(gedcom));
+      
+      return undos;
+
+    } finally {
+      options.setUndoMemoryKB(memory);
+      options.isSpillUndos = spilling;
+    }
+  }
+
+  private String dump(Gedcom gedcom) {
+    StringBuffer result = new StringBuffer();
+    for (String tag : Gedcom.ENTITIES) {
+      for (Entity entity : gedcom.getEntities(tag))
+        dump(entity, result, "");
+    }
+    return result.toString();
+  }
+
+  private void dump(Property prop, StringBuffer result, String indent) {
+    result.append(indent).append(prop.getTag()).append(" ").append(prop.getValue());
+    if (prop instanceof PropertyXRef)
+      result.append(((PropertyXRef)prop).isValid() ? " valid" : " invalid");
+    result.append("\n");
+    for (int i=0;i<prop.getNoOfProperties();i++) {
+      if ("CHAN".equals(prop.getProperty(i).getTag()))
+        continue;
+      dump(prop.getProperty(i), result, indent+"  ");
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import junit.framework.TestCase;
+
+/**
+ * Test decoding from byte buffers
+ */
+public class ByteBufferReaderTest extends TestCase {
+
+  /**
+   * Test against what a stream reader decodes
+   */
+  public void testDecode() throws IOException {
+
+    byte[] utf8 = "0 @N1@ NOTE J\u00fcrgen \ud83d\ude00\n0 TRLR".getBytes("UTF-8");
+    assertDecode(utf8, Charset.forName("UTF-8"));
+
+    // cut off in the middle of a sequence
+    byte[] broken = new byte[utf8.length-7];
+    System.arraycopy(utf8, 0, broken, 0, broken.length);
+    assertDecode(broken, Charset.forName("UTF-8"));
+
+    // ansel decodes pairs of bytes
+    assertDecode("0 HEAD\n1 CHAR ANSEL\n".getBytes("ASCII"), new AnselCharset());
+    assertDecode(new byte[]{ 'A', (byte)0xe2, 'e', '\n' }, new AnselCharset());
+  }
+
+  private void assertDecode(byte[] bytes, Charset charset) throws IOException {
+    String expected = read(new InputStreamReader(new ByteArrayInputStream(bytes), charset), 64);
+    assertEquals(expected, read(new ByteBufferReader(ByteBuffer.wrap(bytes), charset), 64));
+    assertEquals(expected, read(new ByteBufferReader(ByteBuffer.wrap(bytes), charset), 1));
+  }
+
+  private String read(Reader in, int chunk) throws IOException {
+    StringBuffer result = new StringBuffer();
+    char[] buf = new char[chunk];
+    while (true) {
+      int read = in.read(buf, 0, chunk);
+      if (read<0)
+        break;
+      result.append(buf, 0, read);
+    }
+    in.close();
+    return result.toString();
+  }
+
+}
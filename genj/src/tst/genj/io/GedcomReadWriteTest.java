@@ -83,6 +83,63 @@ public class GedcomReadWriteTest extends TestCase {
     
   }
   
+  /**
+   * Read a file in parallel / write it / compare
+   */
+  @SuppressWarnings("deprecation")
+  public void testParallelReadWrite() throws IOException, GedcomException {
+    
+    File original = new File("./gedcom/royal92.ged");
+    File temp = File.createTempFile("test", ".ged");
+    
+    // read it with a couple of threads
+    Gedcom ged;
+    System.setProperty("genj.gedcom.threads", "4");
+    try {
+      ged = GedcomReaderFactory.createReader(Origin.create(original.toURL()), null).read();
+    } finally {
+      System.clearProperty("genj.gedcom.threads");
+    }
+    
+    // write it
+    FileOutputStream out = new FileOutputStream(temp);
+    new GedcomWriter(ged, out).write();
+    out.close();
+    
+    // diff files and there should be no difference
+    assertEquals(original + " <> " + temp, Collections.EMPTY_LIST, diff(original, temp));
+    
+  }
+  
+  /**
+   * Read a file / write it in parallel / compare
+   */
+  @SuppressWarnings("deprecation")
+  public void testParallelWrite() throws IOException, GedcomException {
+    
+    File original = new File("./gedcom/royal92.ged");
+    File temp = File.createTempFile("test", ".ged");
+    
+    // read it
+    Gedcom ged = GedcomReaderFactory.createReader(Origin.create(original.toURL()), null).read();
+    
+    // write it with a couple of threads
+    FileOutputStream out = new FileOutputStream(temp);
+    System.setProperty("genj.gedcom.threads", "4");
+    try {
+      GedcomWriter writer = new GedcomWriter(ged, out);
+      writer.write();
+      assertEquals(100, writer.getProgress());
+    } finally {
+      System.clearProperty("genj.gedcom.threads");
+    }
+    out.close();
+    
+    // diff files and there should be no difference
+    assertEquals(original + " <> " + temp, Collections.EMPTY_LIST, diff(original, temp));
+    
+  }
+  
   private List<String> diff(File file1, File file2) throws IOException {
     return diff(file1, new FileInputStream(file2));
   }
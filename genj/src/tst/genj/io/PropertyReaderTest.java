@@ -0,0 +1,112 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+/**
+ * Test line parsing of property reader
+ */
+public class PropertyReaderTest extends TestCase {
+
+  /** a reader we can look into */
+  private static class Reader extends PropertyReader {
+    Reader(String lines, boolean useIndents) {
+      super(new StringReader(lines), null, useIndents);
+    }
+    String next() throws IOException {
+      if (!readLine(true))
+        return null;
+      return level+"|"+xref+"|"+tag+"|"+value;
+    }
+  }
+
+  /**
+   * Test level, xref, tag and value
+   */
+  public void testLines() throws IOException {
+
+    Reader reader = new Reader(
+        "0 @I1@ INDI\r\n" +
+        "1\tNAME John /Doe/\r\n" +
+        "1  SEX   M  \r" +
+        "\n" +
+        "  \t \n" +
+        "2 NOTE  two  spaces\n" +
+        "1 EVEN \t \n" +
+        "1\n" +
+        "0 TRLR", false);
+
+    assertEquals("0|I1|INDI|", reader.next());
+    assertEquals("1||NAME|John /Doe/", reader.next());
+    assertEquals("1||SEX|  M  ", reader.next());
+    assertEquals("2||NOTE| two  spaces", reader.next());
+    assertEquals("1||EVEN|", reader.next());
+    assertEquals("1||_TAG|", reader.next());
+    assertEquals("0||TRLR|", reader.next());
+    assertNull(reader.next());
+    assertEquals(8, reader.getLines());
+  }
+
+  /**
+   * Test lines with indents instead of levels
+   */
+  public void testIndents() throws IOException {
+
+    Reader reader = new Reader(
+        "NAME Nils /Meier/\n" +
+        " GIVN Nils\n" +
+        "  _CUSTOM\n", true);
+
+    assertEquals("1||NAME|Nils /Meier/", reader.next());
+    assertEquals("2||GIVN|Nils", reader.next());
+    assertEquals("3||_CUSTOM|", reader.next());
+    assertNull(reader.next());
+  }
+
+  /**
+   * Test tags are shared instances
+   */
+  public void testTags() throws IOException {
+
+    Reader reader = new Reader("1 _FOO\n1 _FOO\n1 NAME\n", false);
+
+    reader.next();
+    String foo = reader.tag;
+    reader.next();
+    assertSame(foo, reader.tag);
+    assertSame("_FOO", reader.tag);
+    reader.next();
+    assertSame("NAME", reader.tag);
+  }
+
+  /**
+   * Test format errors
+   */
+  public void testErrors() throws IOException {
+
+    try {
+      new Reader("x NAME foo", false).next();
+      fail("expected invalid level");
+    } catch (GedcomFormatException e) {
+    }
+
+    try {
+      new Reader("0 @I1 INDI", false).next();
+      fail("expected invalid id");
+    } catch (GedcomFormatException e) {
+    }
+
+    try {
+      new Reader("0 @I1@", false).next();
+      fail("expected missing tag");
+    } catch (GedcomFormatException e) {
+    }
+
+  }
+
+}
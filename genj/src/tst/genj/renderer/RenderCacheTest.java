@@ -0,0 +1,129 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.renderer;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Fam;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomException;
+import genj.gedcom.Indi;
+import genj.gedcom.UnitOfWork;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+
+import junit.framework.TestCase;
+
+/**
+ * Test bitmap cache for rendered entities
+ */
+public class RenderCacheTest extends TestCase {
+
+  private final static DPI DPI = new DPI(96, 96);
+  private final static Font FONT = new Font("SansSerif", Font.PLAIN, 12);
+
+  private Gedcom gedcom;
+  private Indi husband, wife, single;
+  private Fam fam;
+
+  protected void setUp() throws Exception {
+    gedcom = new Gedcom();
+    husband = (Indi)gedcom.createEntity(Gedcom.INDI);
+    wife = (Indi)gedcom.createEntity(Gedcom.INDI);
+    single = (Indi)gedcom.createEntity(Gedcom.INDI);
+    fam = (Fam)gedcom.createEntity(Gedcom.FAM);
+    fam.setHusband(husband);
+    fam.setWife(wife);
+  }
+
+  private RenderCache.Key key(String html, Entity entity, double scale) {
+    return new RenderCache.Key(html, html.indexOf('*')<0, entity, 10, 10, scale, scale, DPI, FONT, Color.black, "");
+  }
+
+  private BufferedImage image() {
+    return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * least recently used bitmaps go first
+   */
+  public void testBudget() {
+
+    RenderCache cache = new RenderCache(3*10*10*4);
+    cache.put(key("a", husband, 1), image());
+    cache.put(key("a", wife, 1), image());
+    cache.put(key("a", single, 1), image());
+    assertNotNull(cache.get(key("a", husband, 1)));
+
+    cache.put(key("a", fam, 1), image());
+    assertNull(cache.get(key("a", wife, 1)));
+    assertNotNull(cache.get(key("a", husband, 1)));
+    assertNotNull(cache.get(key("a", single, 1)));
+    assertNotNull(cache.get(key("a", fam, 1)));
+
+    // different zoom, different bitmap
+    assertNull(cache.get(key("a", fam, 0.5)));
+  }
+
+  /**
+   * changes drop bitmaps of entities and the ones linked to them
+   */
+  public void testChanges() throws GedcomException {
+
+    RenderCache cache = new RenderCache(Long.MAX_VALUE);
+    for (Entity entity : new Entity[]{ husband, wife, single, fam }) {
+      cache.put(key("local", entity, 1), image());
+      cache.put(key("INDI:FAMS:*:..", entity, 1), image());
+    }
+
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        fam.addProperty("NOTE", "changed");
+      }
+    });
+
+    assertNull(cache.get(key("local", fam, 1)));
+    assertNull(cache.get(key("local", husband, 1)));
+    assertNull(cache.get(key("local", wife, 1)));
+    assertNotNull(cache.get(key("local", single, 1)));
+    assertNull(cache.get(key("INDI:FAMS:*:..", single, 1)));
+  }
+
+  /**
+   * options that change rendered text are part of the key
+   */
+  public void testOptions() {
+
+    RenderCache cache = new RenderCache(Long.MAX_VALUE);
+    cache.put(key("a", husband, 1), image());
+    assertNotNull(cache.get(key("a", husband, 1)));
+
+    genj.gedcom.Options options = genj.gedcom.Options.getInstance();
+    boolean upper = options.isUpperCaseNames;
+    try {
+      options.isUpperCaseNames = !upper;
+      assertNull(cache.get(key("a", husband, 1)));
+    } finally {
+      options.isUpperCaseNames = upper;
+    }
+    assertNotNull(cache.get(key("a", husband, 1)));
+  }
+
+  /**
+   * closing a gedcom drops its bitmaps
+   */
+  public void testClose() throws GedcomException {
+
+    RenderCache cache = new RenderCache(Long.MAX_VALUE);
+    Entity other = new Gedcom().createEntity(Gedcom.INDI);
+    cache.put(key("a", husband, 1), image());
+    cache.put(key("a", other, 1), image());
+
+    cache.close(gedcom);
+    assertNull(cache.get(key("a", husband, 1)));
+    assertNotNull(cache.get(key("a", other, 1)));
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.search;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Fam;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomException;
+import genj.gedcom.Indi;
+import genj.gedcom.UnitOfWork;
+import genj.util.Origin;
+
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Test search index
+ */
+public class IndexTest extends TestCase {
+  
+  private Gedcom gedcom;
+  private Indi husband, child;
+  private Fam fam;
+  private Index index;
+  
+  /**
+   * Prepare a family
+   */
+  protected void setUp() throws Exception {
+    
+    gedcom = new Gedcom(Origin.create("file://foo.ged"));
+    husband = (Indi)gedcom.createEntity(Gedcom.INDI, "I1");
+    husband.setName("John", "Doe");
+    child = (Indi)gedcom.createEntity(Gedcom.INDI, "I2");
+    child.setName("Jim", "Doe");
+    fam = (Fam)gedcom.createEntity(Gedcom.FAM, "F1");
+    fam.setHusband(husband);
+    fam.addChild(child);
+    
+    index = new Index(gedcom);
+  }
+  
+  /**
+   * Test looking up words
+   */
+  public void testLookup() {
+    
+    assertLookup("doe", husband, child, fam);
+    assertLookup("jo oe", husband, child, fam);
+    assertLookup("i2", child, fam);
+    assertLookup("john xyz");
+    assertLookup("");
+  }
+
+  /**
+   * Test changes being picked up 
+   */
+  public void testChanges() throws GedcomException {
+    
+    assertLookup("doe", husband, child, fam);
+    
+    // renaming the husband changes what's shown for the family and the child's family 
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        husband.setName("John", "Smith");
+      }
+    });
+    assertLookup("smith", husband, child, fam);
+    assertLookup("john", husband, child, fam);
+    assertLookup("doe", child, fam);
+    assertLookup("mit", husband, child, fam);
+    assertLookup("oe", child, fam);
+    
+    // deleting 
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        gedcom.deleteEntity(husband);
+      }
+    });
+    assertLookup("john");
+    
+    // adding 
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI, "I3");
+        indi.setName("Jane", "Doe");
+      }
+    });
+    assertLookup("jane", gedcom.getEntity("I3"));
+    
+    // ids 
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        child.setId("I4");
+      }
+    });
+    assertLookup("i2");
+    assertLookup("i4", child, fam);
+  }
+  
+  private void assertLookup(String words, Entity... expected) {
+    SimpleMatcher matcher = new SimpleMatcher();
+    matcher.init(words);
+    Set<Entity> result = index.lookup(matcher.getWords());
+    assertEquals(words+" found "+result, expected.length, result.size());
+    for (Entity entity : expected)
+      assertTrue(words+" should find "+entity, result.contains(entity));
+  }
+  
+}
@@ -0,0 +1,101 @@
+/*
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ * ModelTest.java
+ */
+
+package genj.timeline;
+
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomException;
+import genj.gedcom.Indi;
+import genj.gedcom.UnitOfWork;
+
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test timeline layout of events in layers
+ */
+public class ModelTest extends TestCase {
+
+  private Gedcom gedcom;
+  private Model model;
+
+  @Override
+  protected void setUp() throws Exception {
+    gedcom = new Gedcom();
+    final Random random = new Random(1970);
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        for (int i=0;i<1000;i++) {
+          Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI);
+          indi.setName("Nils"+i, "Meier");
+          indi.addProperty("BIRT", "").addProperty("DATE", (1+random.nextInt(28))+" JAN "+(1700+random.nextInt(300)));
+        }
+      }
+    });
+    model = new Model();
+    model.setGedcom(gedcom);
+  }
+
+  /**
+   * events in a layer are sorted and don't overlap, no more layers than needed
+   */
+  public void testLayout() {
+
+    int events = 0;
+    for (List<Model.Event> layer : model.layers) {
+      for (int i=1;i<layer.size();i++)
+        assertTrue(layer.get(i-1).to+model.timeAfterEvent<=layer.get(i).from-model.timeBeforeEvent);
+      events += layer.size();
+    }
+    assertEquals(1000, events);
+
+    // as many layers as there are overlapping events at any one time
+    int overlap = 0;
+    for (double year=1690;year<2010;year+=0.01) {
+      int count = 0;
+      for (List<Model.Event> layer : model.layers) {
+        if (model.getEvent(year, model.layers.indexOf(layer))!=null)
+          count++;
+      }
+      overlap = Math.max(overlap, count);
+    }
+    assertEquals(overlap, model.layers.size());
+  }
+
+  /**
+   * events are found by year and layer
+   */
+  public void testGetEvent() {
+
+    for (int l=0;l<model.layers.size();l++) {
+      for (Model.Event event : model.layers.get(l)) {
+        assertSame(event, model.getEvent(event.from, l));
+        assertSame(event, model.getEvent(event.to+model.timeAfterEvent-0.01, l));
+        assertNotSame(event, model.getEvent(event.from-model.timeBeforeEvent, l));
+      }
+    }
+  }
+
+  /**
+   * new dates are laid out
+   */
+  public void testChanged() throws GedcomException {
+
+    final int layers = model.layers.size();
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        for (int i=0;i<layers;i++) {
+          Indi indi = (Indi)gedcom.createEntity(Gedcom.INDI);
+          indi.addProperty("BIRT", "").addProperty("DATE", "1 JAN 2100");
+        }
+      }
+    });
+    assertEquals(layers, model.layers.size());
+    for (List<Model.Event> layer : model.layers)
+      assertEquals(2100D, layer.get(layer.size()-1).from, 0.01);
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.tree;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Test grid cache as a spatial index against brute force
+ */
+public class GridCacheTest extends TestCase {
+
+  /**
+   * Test random boxes and ranges - the grid may find more but never less
+   */
+  public void testRandom() {
+    
+    Random random = new Random(42);
+    Rectangle2D system = new Rectangle2D.Double(0, 0, 10200, 10200);
+    
+    List<Rectangle2D> boxes = new ArrayList<Rectangle2D>();
+    SpatialIndex<Rectangle2D> index = new GridCache<Rectangle2D>(system, 300);
+    for (int i=0;i<5000;i++) {
+      Rectangle2D box = new Rectangle2D.Double(random.nextInt(10000), random.nextInt(10000), random.nextInt(200), random.nextInt(200));
+      boxes.add(box);
+      index.put(box, box);
+    }
+    
+    for (int q=0;q<100;q++) {
+      Rectangle2D range = new Rectangle2D.Double(random.nextInt(10000), random.nextInt(10000), random.nextInt(2000), random.nextInt(2000));
+      Set<Rectangle2D> found = new HashSet<Rectangle2D>();
+      index.get(range, found);
+      for (Rectangle2D box : boxes) {
+        if (box.intersects(range))
+          assertTrue(found.contains(box));
+      }
+    }
+    
+  }
+  
+}
@@ -0,0 +1,67 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.tree;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Test packed r-tree against brute force
+ */
+public class PackedRTreeTest extends TestCase {
+
+  /**
+   * Test random boxes and ranges
+   */
+  public void testRandom() {
+    
+    Random random = new Random(42);
+    for (int n : new int[]{ 0, 1, 15, 16, 17, 257, 5000 }) {
+      
+      List<Rectangle2D> boxes = new ArrayList<Rectangle2D>();
+      PackedRTree<Rectangle2D> tree = new PackedRTree<Rectangle2D>();
+      for (int i=0;i<n;i++) {
+        Rectangle2D box = new Rectangle2D.Double(random.nextInt(10000), random.nextInt(10000), random.nextInt(200), random.nextInt(200));
+        boxes.add(box);
+        tree.put(box, box);
+      }
+      
+      for (int q=0;q<100;q++) {
+        Rectangle2D range = new Rectangle2D.Double(random.nextInt(10000), random.nextInt(10000), random.nextInt(2000), random.nextInt(2000));
+        Set<Rectangle2D> expected = new HashSet<Rectangle2D>();
+        for (Rectangle2D box : boxes) {
+          if (box.getMinX()<=range.getMaxX() && box.getMaxX()>=range.getMinX() && box.getMinY()<=range.getMaxY() && box.getMaxY()>=range.getMinY())
+            expected.add(box);
+        }
+        List<Rectangle2D> found = new ArrayList<Rectangle2D>();
+        tree.get(range, found);
+        assertEquals(expected.size(), found.size());
+        assertEquals(expected, new HashSet<Rectangle2D>(found));
+      }
+    }
+    
+  }
+  
+  /**
+   * Test adding after querying
+   */
+  public void testRebuild() {
+    PackedRTree<String> tree = new PackedRTree<String>();
+    tree.put("a", new Rectangle2D.Double(0,0,10,10));
+    List<String> found = new ArrayList<String>();
+    tree.get(new Rectangle2D.Double(0,0,100,100), found);
+    assertEquals(1, found.size());
+    tree.put("b", new Rectangle2D.Double(50,50,10,10));
+    found.clear();
+    tree.get(new Rectangle2D.Double(0,0,100,100), found);
+    assertEquals(2, found.size());
+  }
+  
+}
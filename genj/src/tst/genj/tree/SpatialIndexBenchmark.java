@@ -0,0 +1,139 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.tree;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Microbenchmark for panning a viewport across a tree of 50k nodes - compares 
+ * the grid cache with the packed r-tree for nodes and a scan over all arcs with 
+ * the r-tree for arcs. Nodes are laid out as a balanced binary tree with one
+ * generation per row, e.g.
+ * <pre>
+ *   java genj.tree.SpatialIndexBenchmark 50000
+ * </pre>
+ */
+public class SpatialIndexBenchmark {
+  
+  private final static int 
+    W = 100, H = 40, PAD = 20,
+    VIEW_W = 1024, VIEW_H = 768, STEP = 64, PANS = 500;
+
+  public static void main(String[] args) {
+    
+    int n = args.length>0 ? Integer.parseInt(args[0]) : 50000;
+    
+    // a binary tree with node i's children at 2i+1 and 2i+2 - leafs side by side and parents centered above
+    double[] xs = new double[n];
+    layout(0, n, xs, new double[1]);
+    List<Rectangle2D> nodes = new ArrayList<Rectangle2D>(n);
+    List<Line2D> arcs = new ArrayList<Line2D>(n);
+    for (int i=0;i<n;i++) {
+      int generation = 31-Integer.numberOfLeadingZeros(i+1);
+      Rectangle2D node = new Rectangle2D.Double(xs[i]-W/2, generation*(H+PAD*4), W, H);
+      nodes.add(node);
+      if (i>0) {
+        Rectangle2D parent = nodes.get((i-1)/2);
+        arcs.add(new Line2D.Double(parent.getCenterX(), parent.getMaxY(), node.getCenterX(), node.getMinY()));
+      }
+    }
+    Rectangle2D bounds = new Rectangle2D.Double();
+    for (Rectangle2D node : nodes)
+      bounds.add(node);
+    System.out.println(nodes.size()+" nodes, "+arcs.size()+" arcs in "+(int)bounds.getWidth()+"x"+(int)bounds.getHeight());
+    
+    // the viewports - panning left to right in rows from top to bottom
+    List<Rectangle2D> views = new ArrayList<Rectangle2D>();
+    double step = Math.max(STEP, bounds.getWidth()/PANS);
+    for (double y=bounds.getMinY(); y<bounds.getMaxY(); y+=VIEW_H/2) {
+      for (double x=bounds.getMinX(); x<bounds.getMaxX(); x+=step)
+        views.add(new Rectangle2D.Double(x, y, VIEW_W, VIEW_H));
+    }
+    
+    for (int round=0;round<3;round++) {
+      
+      // grid
+      long start = System.nanoTime();
+      GridCache<Rectangle2D> grid = new GridCache<Rectangle2D>(bounds, 3*Math.max(W, H));
+      for (Rectangle2D node : nodes)
+        grid.put(node, node);
+      long built = System.nanoTime();
+      long found = 0;
+      for (Rectangle2D view : views)
+        found += grid.get(view).size();
+      long done = System.nanoTime();
+      report("grid nodes", built-start, done-built, views.size(), found);
+      
+      // r-tree
+      start = System.nanoTime();
+      PackedRTree<Rectangle2D> tree = new PackedRTree<Rectangle2D>();
+      for (Rectangle2D node : nodes)
+        tree.put(node, node);
+      tree.get(new Rectangle2D.Double(), new ArrayList<Rectangle2D>());
+      built = System.nanoTime();
+      found = 0;
+      for (Rectangle2D view : views) {
+        Set<Rectangle2D> result = new HashSet<Rectangle2D>();
+        tree.get(view, result);
+        found += result.size();
+      }
+      done = System.nanoTime();
+      report("r-tree nodes", built-start, done-built, views.size(), found);
+      
+      // scan arcs
+      start = System.nanoTime();
+      found = 0;
+      for (Rectangle2D view : views) {
+        for (Line2D arc : arcs) {
+          if (arc.intersects(view))
+            found++;
+        }
+      }
+      done = System.nanoTime();
+      report("scan arcs", 0, done-start, views.size(), found);
+      
+      // r-tree arcs
+      start = System.nanoTime();
+      PackedRTree<Line2D> arcTree = new PackedRTree<Line2D>();
+      for (Line2D arc : arcs)
+        arcTree.put(arc, arc.getBounds2D());
+      arcTree.get(new Rectangle2D.Double(), new ArrayList<Line2D>());
+      built = System.nanoTime();
+      found = 0;
+      for (Rectangle2D view : views) {
+        List<Line2D> result = new ArrayList<Line2D>();
+        arcTree.get(view, result);
+        for (Line2D arc : result) {
+          if (arc.intersects(view))
+            found++;
+        }
+      }
+      done = System.nanoTime();
+      report("r-tree arcs", built-start, done-built, views.size(), found);
+    }
+    
+  }
+  
+  private static double layout(int i, int n, double[] xs, double[] next) {
+    int left = 2*i+1, right = 2*i+2;
+    if (left>=n) {
+      xs[i] = next[0];
+      next[0] += W+PAD;
+    } else if (right>=n) {
+      xs[i] = layout(left, n, xs, next);
+    } else {
+      xs[i] = (layout(left, n, xs, next) + layout(right, n, xs, next))/2;
+    }
+    return xs[i];
+  }
+  
+  private static void report(String what, long build, long query, int views, long found) {
+    System.out.println(String.format("%-14s build %7.2fms  %8.1fus/view  (%d found)", what, build/1E6, query/1E3/views, found));
+  }
+}
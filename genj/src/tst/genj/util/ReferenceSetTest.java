@@ -0,0 +1,79 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.util;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+/**
+ * Test reference sets and their sorted index
+ */
+public class ReferenceSetTest extends TestCase {
+
+  private Collator collator;
+  private ReferenceSet<String, Integer> refs;
+
+  @Override
+  protected void setUp() throws Exception {
+    collator = Collator.getInstance(Locale.GERMAN);
+    collator.setStrength(Collator.PRIMARY);
+    refs = new ReferenceSet<String, Integer>(collator);
+    String[] keys = { "Meier", "meier", "M\u00fcller", "Mueller", "Maier", "Abel", "Zoller", "Mei" };
+    for (int i=0;i<keys.length;i++) {
+      refs.add(keys[i], i);
+      refs.add(keys[i], i+100);
+    }
+  }
+
+  /**
+   * keys come sorted from the index
+   */
+  public void testSorted() {
+    List<String> keys = refs.getKeys(collator);
+    List<String> sorted = new ArrayList<String>(keys);
+    Collections.sort(sorted, collator);
+    assertEquals(8, keys.size());
+    for (int i=0;i<keys.size();i++)
+      assertEquals(0, collator.compare(sorted.get(i), keys.get(i)));
+  }
+
+  /**
+   * index follows removed references
+   */
+  public void testRemoved() {
+    refs.remove("Meier", 0);
+    assertTrue(refs.getKeys(collator).contains("Meier"));
+    refs.remove("Meier", 100);
+    assertFalse(refs.getKeys(collator).contains("Meier"));
+    assertTrue(refs.getKeys(collator).contains("meier"));
+    assertEquals(7, refs.getKeys(collator).size());
+    assertEquals(7, refs.getKeys().size());
+  }
+
+  /**
+   * keys by prefix
+   */
+  public void testPrefix() {
+    List<String> keys = refs.getKeys("mei", collator);
+    Collections.sort(keys);
+    assertEquals(Arrays.asList("Mei", "Meier", "meier"), keys);
+    // accents don't matter at primary strength
+    assertEquals(2, refs.getKeys("m\u00fc", collator).size());
+    assertTrue(refs.getKeys("x", collator).isEmpty());
+    assertEquals(8, refs.getKeys("", collator).size());
+    // without index
+    ReferenceSet<String, Integer> plain = new ReferenceSet<String, Integer>();
+    for (String key : refs.getKeys())
+      plain.add(key, 1);
+    keys = plain.getKeys("mei", collator);
+    Collections.sort(keys);
+    assertEquals(Arrays.asList("Mei", "Meier", "meier"), keys);
+  }
+}
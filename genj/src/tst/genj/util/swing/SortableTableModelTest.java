@@ -0,0 +1,94 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package genj.util.swing;
+
+import java.util.Random;
+
+import javax.swing.table.DefaultTableModel;
+
+import junit.framework.TestCase;
+
+/**
+ * Test sorted views kept up to date incrementally
+ */
+public class SortableTableModelTest extends TestCase {
+
+  private Random random = new Random(2009);
+  private Keyed model;
+  private SortableTableModel sorted;
+
+  @Override
+  protected void setUp() throws Exception {
+    model = new Keyed();
+    for (int i=0;i<500;i++)
+      model.addRow(new Object[]{ random.nextInt(100), random.nextInt(100) });
+    sorted = new SortableTableModel(model);
+    sorted.setSortingStatus(0, SortableTableModel.ASCENDING);
+    sorted.setSortingStatus(1, SortableTableModel.DESCENDING);
+  }
+
+  /**
+   * inserted, deleted and changed rows keep the view sorted
+   */
+  public void testIncremental() {
+
+    assertSorted();
+
+    for (int i=0;i<100;i++) {
+      switch (random.nextInt(3)) {
+        case 0:
+          model.insertRow(random.nextInt(model.getRowCount()+1), new Object[]{ random.nextInt(100), random.nextInt(100) });
+          break;
+        case 1:
+          model.removeRow(random.nextInt(model.getRowCount()));
+          break;
+        case 2:
+          model.setValueAt(random.nextInt(100), random.nextInt(model.getRowCount()), random.nextInt(2));
+          break;
+      }
+      assertSorted();
+    }
+  }
+
+  /**
+   * rows compared by index
+   */
+  public void testRowIndexComparator() {
+    sorted.modelIndex(0);
+    model.compared = 0;
+    model.insertRow(0, new Object[]{ 50, 50 });
+    assertTrue(model.compared>0);
+    assertTrue(model.compared<100);
+    assertSorted();
+  }
+
+  private void assertSorted() {
+    assertEquals(model.getRowCount(), sorted.getRowCount());
+    boolean[] seen = new boolean[model.getRowCount()];
+    for (int i=0;i<sorted.getRowCount();i++) {
+      int row = sorted.modelIndex(i);
+      assertFalse(seen[row]);
+      seen[row] = true;
+      assertEquals(i, sorted.viewIndex(row));
+      if (i>0) {
+        int prev = sorted.modelIndex(i-1);
+        int a = (Integer)model.getValueAt(prev, 0), b = (Integer)model.getValueAt(row, 0);
+        assertTrue(a<=b);
+        if (a==b)
+          assertTrue((Integer)model.getValueAt(prev, 1)>=(Integer)model.getValueAt(row, 1));
+      }
+    }
+  }
+
+  private static class Keyed extends DefaultTableModel implements SortableTableModel.RowIndexComparator {
+    private int compared;
+    Keyed() {
+      super(new Object[]{ "a", "b" }, 0);
+    }
+    public int compareRows(int rowA, int rowB, int col) {
+      compared++;
+      return (Integer)getValueAt(rowA, col) - (Integer)getValueAt(rowB, col);
+    }
+  }
+}
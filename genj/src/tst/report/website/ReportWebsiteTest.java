@@ -0,0 +1,208 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package report.website;
+
+import genj.gedcom.Entity;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomException;
+import genj.gedcom.Indi;
+import genj.gedcom.UnitOfWork;
+import genj.io.GedcomReaderFactory;
+import genj.util.Origin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import junit.framework.TestCase;
+import website.Manifest;
+import website.ReportWebsite;
+
+/**
+ * Test website pages rendered by several workers against a single one
+ */
+public class ReportWebsiteTest extends TestCase {
+
+  private Gedcom gedcom;
+
+  public void setUp() throws Exception {
+    gedcom = GedcomReaderFactory.createReader(Origin.create(new File("gedcom/royal92.ged").toURI().toURL()), null).read();
+    
+    // unhandled tags make workers log while rendering pages
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        for (Entity indi : gedcom.getEntities(Gedcom.INDI))
+          indi.getProperty("NAME").addProperty("_UNHANDLED", indi.getId());
+      }
+    });
+  }
+
+  /**
+   * workers only read what they share - pages and log are the same for any number of threads
+   */
+  public void testThreads() throws Exception {
+
+    Website one = new Website(1);
+    Website four = new Website(4);
+    try {
+      one.generateFiles(gedcom, null);
+      four.generateFiles(gedcom, null);
+
+      Map<String, byte[]> expected = one.getFiles();
+      Map<String, byte[]> actual = four.getFiles();
+      assertTrue(expected.size()>gedcom.getEntities(Gedcom.INDI).size());
+      assertEquals(expected.keySet(), actual.keySet());
+      for (String file : expected.keySet())
+        assertTrue(file, Arrays.equals(expected.get(file), actual.get(file)));
+
+      assertTrue(one.log.toString().contains("Unhandled tag:NAME:_UNHANDLED"));
+      assertEquals(one.log.toString(), four.log.toString());
+    } finally {
+      one.delete();
+      four.delete();
+    }
+  }
+
+  /**
+   * pages with the same content aren't written again - unchanged pages keep their creation date
+   */
+  public void testManifest() throws Exception {
+    
+    Website first = new Website(4, Files.createTempDirectory("genj").toFile(), "first");
+    try {
+      first.generateAll(gedcom);
+      Map<String, byte[]> before = first.getFiles();
+      assertEquals(first.getSize(), first.getWritten());
+      
+      // nothing changed
+      Website second = new Website(4, first.getDir(), "second");
+      second.generateAll(gedcom);
+      assertEquals(0, second.getWritten());
+      Map<String, byte[]> after = second.getFiles();
+      for (String file : before.keySet()) {
+        if (!file.equals("manifest.txt"))
+          assertTrue(file, Arrays.equals(before.get(file), after.get(file)));
+      }
+      assertTrue(new String(after.get(first.getPage(gedcom.getEntity("I1"))), "UTF-8").contains("first"));
+      
+      // one person changed
+      final Indi indi = (Indi)gedcom.getEntity("I1");
+      gedcom.doUnitOfWork(new UnitOfWork() {
+        public void perform(Gedcom gedcom) throws GedcomException {
+          indi.addProperty("OCCU", "Test");
+        }
+      });
+      Set<String> linked = new HashSet<String>();
+      first.getPages(linked, indi, indi.getBiologicalFather(), indi.getBiologicalMother());
+      first.getPages(linked, indi.getPartners());
+      first.getPages(linked, indi.getChildren());
+      first.getPages(linked, indi.getSiblings(false));
+      
+      Website third = new Website(4, first.getDir(), "third");
+      third.generateAll(gedcom);
+      assertTrue(third.getWritten()>0);
+      
+      Set<String> rewritten = new HashSet<String>();
+      for (Map.Entry<String, byte[]> file : third.getFiles().entrySet()) {
+        if (!file.getKey().equals("manifest.txt") && !Arrays.equals(file.getValue(), after.get(file.getKey())))
+          rewritten.add(file.getKey());
+      }
+      assertEquals(third.getWritten(), rewritten.size());
+      assertTrue(rewritten.contains(first.getPage(indi)));
+      assertTrue(rewritten+" not in "+linked, linked.containsAll(rewritten));
+      
+    } finally {
+      first.delete();
+    }
+  }
+  
+  /**
+   * A website report writing into a temporary directory
+   */
+  private static class Website extends ReportWebsite {
+
+    private StringWriter log = new StringWriter();
+    private PrintWriter out = new PrintWriter(log);
+
+    private Website(int threads) throws IOException {
+      this(threads, Files.createTempDirectory("genj").toFile(), "now");
+    }
+
+    private Website(int threads, File destDir, String pageCreated) throws IOException {
+      this.threads = threads;
+      this.destDir = destDir;
+      this.pageCreated = pageCreated;
+      manifest = new Manifest(destDir);
+      sosaStradonitzNumber = new HashMap<String, String>();
+      personsWithImage = new ArrayList<Indi>();
+    }
+
+    @Override
+    public PrintWriter getOut() {
+      return pageOut!=null ? pageOut : out;
+    }
+
+    @Override
+    protected void generateFiles(Gedcom gedcom, Indi rootIndi) throws Exception {
+      super.generateFiles(gedcom, rootIndi);
+    }
+
+    private void generateAll(Gedcom gedcom) throws Exception {
+      generateFiles(gedcom, null);
+      manifest.save();
+    }
+    
+    private File getDir() {
+      return destDir;
+    }
+    
+    private int getWritten() {
+      return manifest.getWritten();
+    }
+    
+    private int getSize() {
+      return manifest.getSize();
+    }
+    
+    private String getPage(Entity entity) throws Exception {
+      return makeDirFor(entity.getId()).getAbsolutePath().substring(destDir.getAbsolutePath().length()+1).replace(File.separatorChar, '/');
+    }
+
+    private void getPages(Set<String> result, Indi... indis) throws Exception {
+      for (Indi indi : indis) {
+        if (indi!=null)
+          result.add(getPage(indi));
+      }
+    }
+
+    private Map<String, byte[]> getFiles() throws IOException {
+      Map<String, byte[]> result = new TreeMap<String, byte[]>();
+      getFiles(destDir, "", result);
+      return result;
+    }
+
+    private void getFiles(File dir, String prefix, Map<String, byte[]> result) throws IOException {
+      for (File file : dir.listFiles()) {
+        if (file.isDirectory())
+          getFiles(file, prefix+file.getName()+"/", result);
+        else
+          result.put(prefix+file.getName(), Files.readAllBytes(file.toPath()));
+      }
+    }
+
+    private void delete() {
+      deleteDirContent(destDir, true);
+    }
+  }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * JUNIT TESTCASE - DONT PACKAGE FOR DISTRIBUTION
+ */
+package validate;
+
+import genj.gedcom.Fam;
+import genj.gedcom.Gedcom;
+import genj.gedcom.GedcomException;
+import genj.gedcom.Indi;
+import genj.gedcom.TagPath;
+import genj.gedcom.UnitOfWork;
+import genj.view.ViewContext;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test validation redoing changes only
+ */
+public class ValidatorTest extends TestCase {
+
+  private Gedcom gedcom;
+  private Indi husband, wife, child, other;
+  private Fam fam;
+
+  /**
+   * a family and a single
+   */
+  protected void setUp() throws Exception {
+
+    gedcom = new Gedcom();
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        husband = (Indi)gedcom.createEntity(Gedcom.INDI);
+        wife = (Indi)gedcom.createEntity(Gedcom.INDI);
+        child = (Indi)gedcom.createEntity(Gedcom.INDI);
+        other = (Indi)gedcom.createEntity(Gedcom.INDI);
+        husband.setValue(new TagPath("INDI:BIRT:DATE"), "1870");
+        wife.setValue(new TagPath("INDI:BIRT:DATE"), "1875");
+        child.setValue(new TagPath("INDI:BIRT:DATE"), "1900");
+        fam = (Fam)gedcom.createEntity(Gedcom.FAM);
+        fam.setHusband(husband);
+        fam.setWife(wife);
+        fam.addChild(child);
+        fam.setValue(new TagPath("FAM:MARR:DATE"), "1895");
+      }
+    });
+  }
+
+  private String validate(ReportValidate report) {
+    List<ViewContext> issues = report.start(gedcom);
+    StringBuilder result = new StringBuilder();
+    if (issues!=null) for (ViewContext issue : issues)
+      result.append(issue).append(" - ").append(issue.getText()).append('\n');
+    return result.toString();
+  }
+
+  /**
+   * validating changes only has to yield the same issues as validating all
+   */
+  public void testChanges() throws GedcomException {
+
+    ReportValidate report = new ReportValidate();
+    String before = validate(report);
+    assertEquals(before, validate(new ReportValidate()));
+
+    // child born before marriage is an issue of the family
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        child.setValue(new TagPath("INDI:BIRT:DATE"), "1880");
+        other.addProperty("XXXX", "not gedcom");
+      }
+    });
+    String after = validate(report);
+    assertFalse(before.equals(after));
+    assertTrue(after.indexOf("FAM:CHIL")>=0);
+    assertTrue(after.indexOf("XXXX")>=0);
+    assertEquals(validate(new ReportValidate()), after);
+
+    // and back
+    gedcom.doUnitOfWork(new UnitOfWork() {
+      public void perform(Gedcom gedcom) throws GedcomException {
+        child.setValue(new TagPath("INDI:BIRT:DATE"), "1900");
+        gedcom.deleteEntity(other);
+      }
+    });
+    assertEquals(before, validate(report));
+    assertEquals(validate(new ReportValidate()), validate(report));
+  }
+
+}
@@ -0,0 +1,365 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.geo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local gazetteer of places - the same information the GEO webservice keeps in its
+ * database (populated places and names of top level jurisdictions from USGS and GNS
+ * files) kept in memory sorted by normalized city name. It's written to and read 
+ * from a compact (gzipped) index file which GeoImport creates.
+ */
+public class Gazetteer {
+  
+  /** suffix of gazetteer files */
+  public final static String SUFFIX = ".gaz";
+  
+  /** file header */
+  private final static String MAGIC = "GENJ-GAZ-1";
+  
+  private final static Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+  
+  /** jurisdictions by normalized name - each as {country, code} */
+  private Map<String, List<String[]>> name2jurisdictions = new HashMap<String, List<String[]>>();
+  
+  /** preferred names of jurisdictions by country and code */
+  private Map<String, String> code2name = new HashMap<String, String>();
+  
+  /** places - parallel arrays sorted by key after sort() */
+  private int size = 0;
+  private String[] keys = new String[0], cities = keys, jurisdictions = keys, countries = keys;
+  private float[] lats = new float[0], lons = lats;
+  private boolean sorted = true;
+  
+  /** interned codes */
+  private Map<String, String> codes = new HashMap<String, String>();
+  
+  /**
+   * Add a top level jurisdiction's name
+   * @param country iso country code
+   * @param code jurisdiction code (fips adm1)
+   * @param name the name
+   * @param preferred whether this is the preferred name of the jurisdiction
+   */
+  public void addJurisdiction(String country, String code, String name, boolean preferred) {
+    
+    country = code(country);
+    code = code(code);
+    
+    String key = normalize(name);
+    List<String[]> js = name2jurisdictions.get(key);
+    if (js==null) {
+      js = new ArrayList<String[]>(1);
+      name2jurisdictions.put(key, js);
+    }
+    for (String[] j : js) {
+      if (j[0].equals(country)&&j[1].equals(code))
+        return;
+    }
+    js.add(new String[]{ country, code });
+    
+    if (preferred || !code2name.containsKey(country+"."+code))
+      code2name.put(country+"."+code, name);
+  }
+  
+  /**
+   * Add a place
+   * @param city name of the place
+   * @param jurisdiction jurisdiction code (fips adm1)
+   * @param country iso country code
+   */
+  public void addPlace(String city, String jurisdiction, String country, float lat, float lon) {
+    
+    if (size==keys.length) {
+      int grow = Math.max(1024, size*2);
+      keys = Arrays.copyOf(keys, grow);
+      cities = Arrays.copyOf(cities, grow);
+      jurisdictions = Arrays.copyOf(jurisdictions, grow);
+      countries = Arrays.copyOf(countries, grow);
+      lats = Arrays.copyOf(lats, grow);
+      lons = Arrays.copyOf(lons, grow);
+    }
+    
+    String key = normalize(city);
+    keys[size] = key.equals(city) ? city : key;
+    cities[size] = city;
+    jurisdictions[size] = code(jurisdiction);
+    countries[size] = code(country);
+    lats[size] = lat;
+    lons[size] = lon;
+    
+    if (size>0 && sorted && keys[size-1].compareTo(key)>0)
+      sorted = false;
+    size++;
+  }
+  
+  /**
+   * Number of places
+   */
+  public int getSize() {
+    return size;
+  }
+  
+  /**
+   * Find all places matching given location - this follows what the webservice does:
+   * <il>
+   *  <li>the city has to match (case and diacritics don't matter) - a trailing '*' matches a prefix of at least 3 characters
+   *  <li>the first of the location's jurisdictions with a unique name narrows the search down to that jurisdiction (and its country)
+   *  <li>if nothing is found in the jurisdiction (or country) that restriction is dropped
+   * </il>
+   * @return list of locations ordered by country, jurisdiction and city
+   */
+  public synchronized List<GeoLocation> query(GeoLocation location) {
+    
+    sort();
+    
+    // prefix or exact match?
+    String city = location.getCity().trim();
+    boolean prefix = city.endsWith("*");
+    while (city.endsWith("*"))
+      city = city.substring(0, city.length()-1);
+    if (city.length()<3)
+      return new ArrayList<GeoLocation>();
+    city = normalize(city);
+    
+    // country and jurisdiction
+    Country c = location.getCountry();
+    String country = c!=null ? c.getCode() : "";
+    String jurisdiction = "";
+    for (String name : location.getJurisdictions()) {
+      if (name.trim().length()==0)
+        break;
+      String[] match = null;
+      List<String[]> js = name2jurisdictions.get(normalize(name));
+      if (js!=null) for (String[] j : js) {
+        if (country.length()>0 && !j[0].equals(country))
+          continue;
+        if (match!=null) {
+          match = null;
+          break;
+        }
+        match = j;
+      }
+      if (match!=null) {
+        country = match[0];
+        jurisdiction = match[1];
+        break;
+      }
+    }
+    
+    // candidates by city
+    int from = lowerBound(city), to = from;
+    while (to<size && (prefix ? keys[to].startsWith(city) : keys[to].equals(city)))
+      to++;
+    
+    // look in jurisdiction and country first then widen
+    List<GeoLocation> result = new ArrayList<GeoLocation>();
+    for (int pass=0;pass<3&&result.isEmpty();pass++) {
+      
+      if (pass==1) {
+        if (jurisdiction.length()==0) continue;
+        jurisdiction = "";
+      }
+      if (pass==2) {
+        if (country.length()==0) continue;
+        country = "";
+      }
+      
+      for (int i=from;i<to;i++) {
+        if (jurisdiction.length()>0 && !jurisdiction.equals(jurisdictions[i]))
+          continue;
+        if (country.length()>0 && !country.equals(countries[i]))
+          continue;
+        GeoLocation hit = new GeoLocation(cities[i], code2name.get(countries[i]+"."+jurisdictions[i]), Country.get(countries[i]));
+        hit.setCoordinate(lats[i], lons[i]);
+        result.add(hit);
+      }
+    }
+    
+    // order like the webservice does
+    Collections.sort(result, new Comparator<GeoLocation>() {
+      public int compare(GeoLocation a, GeoLocation b) {
+        int r = a.getCountry().getCode().compareTo(b.getCountry().getCode());
+        if (r!=0) return r;
+        String ja = a.getJurisdictions().isEmpty() ? "" : a.getJurisdictions().get(0);
+        String jb = b.getJurisdictions().isEmpty() ? "" : b.getJurisdictions().get(0);
+        r = ja.compareTo(jb);
+        if (r!=0) return r;
+        return a.getCity().compareTo(b.getCity());
+      }
+    });
+    
+    // done
+    return result;
+  }
+  
+  /**
+   * first index of key not less than given one
+   */
+  private int lowerBound(String key) {
+    int lo = 0, hi = size;
+    while (lo<hi) {
+      int mid = (lo+hi)>>>1;
+      if (keys[mid].compareTo(key)<0)
+        lo = mid+1;
+      else
+        hi = mid;
+    }
+    return lo;
+  }
+  
+  /**
+   * sort places by key
+   */
+  private void sort() {
+    
+    if (sorted)
+      return;
+    
+    Integer[] order = new Integer[size];
+    for (int i=0;i<size;i++)
+      order[i] = i;
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return keys[a].compareTo(keys[b]);
+      }
+    });
+    
+    String[] k = new String[size], c = new String[size], j = new String[size], n = new String[size];
+    float[] la = new float[size], lo = new float[size];
+    for (int i=0;i<size;i++) {
+      int o = order[i];
+      k[i] = keys[o];
+      c[i] = cities[o];
+      j[i] = jurisdictions[o];
+      n[i] = countries[o];
+      la[i] = lats[o];
+      lo[i] = lons[o];
+    }
+    keys = k; cities = c; jurisdictions = j; countries = n; lats = la; lons = lo;
+    
+    sorted = true;
+  }
+  
+  /**
+   * Write gazetteer 
+   */
+  public synchronized void write(OutputStream out) throws IOException {
+    
+    sort();
+    
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)));
+    data.writeUTF(MAGIC);
+    
+    // jurisdictions
+    int count = 0;
+    for (List<String[]> js : name2jurisdictions.values())
+      count += js.size();
+    data.writeInt(count);
+    for (Map.Entry<String, List<String[]>> entry : name2jurisdictions.entrySet()) {
+      for (String[] j : entry.getValue()) {
+        data.writeUTF(j[0]);
+        data.writeUTF(j[1]);
+        data.writeUTF(entry.getKey());
+        data.writeUTF(code2name.get(j[0]+"."+j[1]));
+      }
+    }
+    
+    // places
+    data.writeInt(size);
+    for (int i=0;i<size;i++) {
+      data.writeUTF(cities[i]);
+      data.writeUTF(jurisdictions[i]);
+      data.writeUTF(countries[i]);
+      data.writeFloat(lats[i]);
+      data.writeFloat(lons[i]);
+    }
+    
+    data.close();
+  }
+  
+  /**
+   * Read gazetteer - additional reads add to the places and jurisdictions known
+   */
+  public synchronized void read(InputStream in) throws IOException {
+    
+    DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+    if (!MAGIC.equals(data.readUTF()))
+      throw new IOException("not a gazetteer");
+    
+    // jurisdictions
+    for (int i=0, n=data.readInt(); i<n; i++) {
+      String country = data.readUTF(), code = data.readUTF(), name = data.readUTF(), preferred = data.readUTF();
+      addJurisdiction(country, code, name, false);
+      addJurisdiction(country, code, preferred, true);
+    }
+    
+    // places
+    for (int i=0, n=data.readInt(); i<n; i++) 
+      addPlace(data.readUTF(), data.readUTF(), data.readUTF(), data.readFloat(), data.readFloat());
+    
+    data.close();
+  }
+  
+  /**
+   * shared instance of code
+   */
+  private String code(String code) {
+    code = code.toLowerCase();
+    String result = codes.get(code);
+    if (result==null) {
+      result = code;
+      codes.put(result, result);
+    }
+    return result;
+  }
+  
+  /**
+   * normalize a name for comparison - lower case and without diacritics 
+   */
+  /*package*/ static String normalize(String name) {
+    name = name.trim().toLowerCase(Locale.ENGLISH);
+    for (int i=0;i<name.length();i++) {
+      if (name.charAt(i)>127)
+        return DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+    }
+    return name;
+  }
+
+} //Gazetteer
@@ -27,6 +27,7 @@ import genj.util.Registry;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -67,6 +68,10 @@ public class GeoService {
   /** maps */
   private List maps;
   
+  /** local gazetteer */
+  private Gazetteer gazetteer;
+  private boolean gazetteerLoaded = false;
+  
   /** our query url */
   private static URL createQueryURL() {
     try {
@@ -280,6 +285,10 @@ public class GeoService {
    * @return list of matching locations
    */
   public List query(GeoLocation location) throws GeoServiceException {
+    // local gazetteer?
+    Gazetteer local = getGazetteer();
+    if (local!=null)
+      return local.query(location);
     // run query and grab first result list
     List rows = webservice(URL, Collections.singletonList(location ), true);
     return rows.isEmpty() ?  new ArrayList() : (List)rows.get(0);
@@ -318,8 +327,23 @@ public class GeoService {
         todos.add(location);
     }
     
-    // no more todos?
-    if (todos.isEmpty() || (todos.size()!=locations.size()&&!matchAll) )
+    // nothing more to do?
+    if (todos.isEmpty())
+      return matched;
+    
+    // a local gazetteer resolves all todos without the webservice
+    Gazetteer local = getGazetteer();
+    if (local!=null) {
+      for (int i=0; i<todos.size(); i++) {
+        GeoLocation todo  = (GeoLocation)todos.get(i);
+        if (match(todo, local.query(todo)))
+          matched.add(todo);
+      }
+      return matched;
+    }
+    
+    // don't bother webservice?
+    if (todos.size()!=locations.size()&&!matchAll)
       return matched;
     
     // do a webservice call for all the todos
@@ -328,27 +352,7 @@ public class GeoService {
     // recheck todos for results
     for (int i=0; i<todos.size(); i++) {
       GeoLocation todo  = (GeoLocation)todos.get(i);
-      List hits = (List)rows.get(i);
-      // no hits no fun
-      if (!hits.isEmpty()) {
-        // calculate match by score
-        GeoLocation match = null;
-        int matchScore = -1;
-        for (int h=0;h<hits.size();h++) {
-          GeoLocation hit = (GeoLocation)hits.get(h);
-          int hitScore = 0;
-          if (todo.getCity().equals(hit.getCity())) hitScore+=8;
-          if (todo.getJurisdictions().containsAll(hit.getJurisdictions())) hitScore+=4;
-          if (todo.getCountry()!=null&&todo.getCountry().equals(hit.getCountry())) hitScore+=2;
-          if (Country.HERE.equals(hit.getCountry())) hitScore+=1;
-          if (hitScore>matchScore) {
-            match = hit;
-            matchScore = hitScore;
-          }
-        }
-        // keep it
-        todo.setCoordinate(match.getCoordinate());
-        todo.setMatches(hits.size());
+      if (match(todo, (List)rows.get(i))) {
         remember(gedcom, todo);
         matched.add(todo);
       }
@@ -357,6 +361,38 @@ public class GeoService {
     // done
     return matched;
   }
+  
+  /**
+   * Pick best hit for a location 
+   * @return whether there was a match
+   */
+  private boolean match(GeoLocation todo, List hits) {
+    
+    // no hits no fun
+    if (hits.isEmpty())
+      return false;
+    
+    // calculate match by score
+    GeoLocation match = null;
+    int matchScore = -1;
+    for (int h=0;h<hits.size();h++) {
+      GeoLocation hit = (GeoLocation)hits.get(h);
+      int hitScore = 0;
+      if (todo.getCity().equals(hit.getCity())) hitScore+=8;
+      if (todo.getJurisdictions().containsAll(hit.getJurisdictions())) hitScore+=4;
+      if (todo.getCountry()!=null&&todo.getCountry().equals(hit.getCountry())) hitScore+=2;
+      if (Country.HERE.equals(hit.getCountry())) hitScore+=1;
+      if (hitScore>matchScore) {
+        match = hit;
+        matchScore = hitScore;
+      }
+    }
+    
+    // keep it
+    todo.setCoordinate(match.getCoordinate());
+    todo.setMatches(hits.size());
+    return true;
+  }
 
   /**
    * Remember a specific location's lat and lon
@@ -368,6 +404,38 @@ public class GeoService {
     getRegistry(gedcom).put(location.getJurisdictionsAsString(), coord.y + "," + coord.x + "," + location.getMatches());
   }
   
+  /**
+   * The local gazetteer from all gazetteer files in geo directories
+   * @return gazetteer or null if there are no such files
+   */
+  public synchronized Gazetteer getGazetteer() {
+    
+    if (!gazetteerLoaded) {
+      gazetteerLoaded = true;
+      
+      File[] files = getGeoFiles();
+      for (int i=0;i<files.length;i++) {
+        if (!files[i].isFile()||!files[i].getName().endsWith(Gazetteer.SUFFIX))
+          continue;
+        try {
+          Gazetteer g = gazetteer!=null ? gazetteer : new Gazetteer();
+          FileInputStream in = new FileInputStream(files[i]);
+          try {
+            g.read(in);
+          } finally {
+            in.close();
+          }
+          gazetteer = g;
+          LOG.fine("read gazetteer "+files[i]+" ("+g.getSize()+" places)");
+        } catch (Throwable t) {
+          LOG.log(Level.WARNING, "problem reading gazetteer from "+files[i], t);
+        }
+      }
+    }
+    
+    return gazetteer;
+  }
+  
   /**
    * Available Maps
    */
@@ -37,6 +37,7 @@ import java.util.StringTokenizer;
 
 /**
  * This type knows how to convert geo data file into cvs for genj's geo service 
+ * or into a gazetteer file for local lookups (without the service).
  * Sources supported are USGS (Gazetteer)
  *  http://geonames.usgs.gov/geonames/stategaz/index.html
  * and GNS (GEOnet Name Server)
@@ -48,14 +49,21 @@ public class GeoImport {
   private static Parser USGS = new USGSParser(), GNS = new GNSParser(); 
   
   private Writer sqlOut;
+  private File gazetteerOut;
+  private Gazetteer gazetteer;
   private int nLocations,nJurisdictions;
   
   /**
    * Constructor
    */
-  private GeoImport(File out) throws IOException {
-    this.sqlOut = new OutputStreamWriter(new FileOutputStream(out), UTF8);
-    sqlOut.write("SET NAMES utf8; SET CHARACTER SET utf8;");
+  private GeoImport(File out, boolean gazetteer) throws IOException {
+    if (gazetteer) {
+      this.gazetteerOut = out;
+      this.gazetteer = new Gazetteer();
+    } else {
+      this.sqlOut = new OutputStreamWriter(new FileOutputStream(out), UTF8);
+      sqlOut.write("SET NAMES utf8; SET CHARACTER SET utf8;");
+    }
   }
   
   /**
@@ -72,7 +80,7 @@ public class GeoImport {
     
     // check argument
     if (args.length<2) {
-      log("Use : GeoImport [-j create jurisdictions] [path to folder with geodata files from USGS or GNS] [output filename]");
+      log("Use : GeoImport [-j create jurisdictions] [-g create gazetteer"+Gazetteer.SUFFIX+" file instead of sql] [path to folder with geodata files from USGS or GNS] [output filename]");
       return;
     }
     
@@ -81,16 +89,20 @@ public class GeoImport {
       
       int files = 0;
       
-      // jurisdiction option?
-      boolean jurisdictions = false;
-      if (args[0].equals("-j")) {
-        jurisdictions = true;
-        files++;
+      // jurisdiction or gazetteer option?
+      boolean jurisdictions = false, gazetteer = false;
+      for (;files<args.length-2;files++) {
+        if (args[files].equals("-j"))
+          jurisdictions = true;
+        else if (args[files].equals("-g"))
+          gazetteer = true;
+        else 
+          break;
       }
       
-      // do the import
-      GeoImport gi = new GeoImport(new File(args[files+1]));
-      if (jurisdictions) gi.parseJurisdictions();
+      // do the import - a gazetteer always needs the jurisdictions
+      GeoImport gi = new GeoImport(new File(args[files+1]), gazetteer);
+      if (jurisdictions||gazetteer) gi.parseJurisdictions();
       gi.parseFolder(new File(args[files]));
       gi.close();
       
@@ -128,6 +140,11 @@ public class GeoImport {
         for (int n=0; names.hasMoreTokens(); n++) {
           nJurisdictions++;
           
+          if (gazetteer!=null) {
+            gazetteer.addJurisdiction(country, adm1, names.nextToken().trim(), n==0);
+            continue;
+          }
+          
           sqlOut.write("INSERT INTO jurisdictions VALUES (\"");
           sqlOut.write(country.toLowerCase());
           sqlOut.write("\",\"");
@@ -194,7 +211,10 @@ public class GeoImport {
       // parse it
       if (parser.parse(line, filename))  {
         nLocations++;
-        parser.write(sqlOut);
+        if (gazetteer!=null)
+          parser.write(gazetteer);
+        else
+          parser.write(sqlOut);
       }
       // next
     }
@@ -212,6 +232,10 @@ public class GeoImport {
       sqlOut.close();
       sqlOut = null;
     }      
+    if (gazetteer!=null) {
+      gazetteer.write(new FileOutputStream(gazetteerOut));
+      gazetteer = null;
+    }
   }
 
   /**
@@ -243,6 +267,13 @@ public class GeoImport {
     abstract String getName();
     abstract boolean parse(String line, String filename);
     
+    /**
+     * add parsed value to gazetteer
+     */
+    void write(Gazetteer out) {
+      out.addPlace(city, state.toLowerCase(), country.toLowerCase(), lat, lon);
+    }
+    
     /**
      * write parsed value
      */
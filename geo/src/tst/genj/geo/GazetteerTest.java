@@ -0,0 +1,97 @@
+/**
+ * GenJ - GenealogyJ
+ *
+ * Copyright (C) 1997 - 2010 Nils Meier <nils@meiers.net>
+ *
+ * This piece of code is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package genj.geo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Test local gazetteer lookups
+ */
+public class GazetteerTest extends TestCase {
+
+  private Gazetteer gazetteer;
+  
+  /**
+   * Prepare a gazetteer (written and read back)
+   */
+  protected void setUp() throws IOException {
+
+    Gazetteer g = new Gazetteer();
+    g.addJurisdiction("us", "IL", "Illinois", true);
+    g.addJurisdiction("us", "il", "IL", false);
+    g.addJurisdiction("us", "mo", "Missouri", true);
+    g.addJurisdiction("us", "mo", "MO", false);
+    g.addJurisdiction("de", "07", "Nordrhein-Westfalen", true);
+    g.addJurisdiction("de", "07", "NRW", false);
+    g.addPlace("Springfield", "il", "us", 39.8f, -89.6f);
+    g.addPlace("Springfield", "mo", "us", 37.2f, -93.3f);
+    g.addPlace("K\u00F6ln", "07", "de", 50.9f, 6.9f);
+    g.addPlace("Siegburg", "07", "de", 50.8f, 7.2f);
+    g.addPlace("Sieglar", "07", "de", 50.8f, 7.1f);
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    g.write(out);
+    
+    gazetteer = new Gazetteer();
+    gazetteer.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+  
+  /**
+   * lookups by city and jurisdiction
+   */
+  public void testQuery() {
+    
+    assertEquals(5, gazetteer.getSize());
+    
+    // both springfields ordered by jurisdiction name
+    List<GeoLocation> hits = gazetteer.query(new GeoLocation("Springfield", null, null));
+    assertEquals(2, hits.size());
+    assertEquals("Illinois", hits.get(0).getJurisdictions().get(0));
+    assertEquals("Missouri", hits.get(1).getJurisdictions().get(0));
+    assertEquals(39.8f, (float)hits.get(0).getCoordinate().y);
+    assertEquals(-89.6f, (float)hits.get(0).getCoordinate().x);
+    
+    // narrowed down by jurisdiction (any of its names)
+    hits = gazetteer.query(new GeoLocation("springfield", "MO", null));
+    assertEquals(1, hits.size());
+    assertEquals("Missouri", hits.get(0).getJurisdictions().get(0));
+    
+    // unknown jurisdiction and wrong country are dropped 
+    assertEquals(2, gazetteer.query(new GeoLocation("Springfield", "Nowhere", null)).size());
+    assertEquals(1, gazetteer.query(new GeoLocation("Siegburg", null, Country.get("us"))).size());
+    
+    // diacritics and case don't matter
+    hits = gazetteer.query(new GeoLocation("K\u00D6LN", null, null));
+    assertEquals(1, hits.size());
+    assertEquals("K\u00F6ln", hits.get(0).getCity());
+    assertEquals(1, gazetteer.query(new GeoLocation("koln", null, null)).size());
+    
+    // prefix 
+    assertEquals(2, gazetteer.query(new GeoLocation("Sieg*", "NRW", null)).size());
+    assertEquals(0, gazetteer.query(new GeoLocation("Si*", null, null)).size());
+    assertEquals(0, gazetteer.query(new GeoLocation("Sieg", null, null)).size());
+  }
+  
+}
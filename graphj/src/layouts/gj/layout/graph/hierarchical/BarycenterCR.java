@@ -0,0 +1,278 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.hierarchical;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * crossing reduction implementation sorting vertices by the barycenter of their
+ * neighbours in alternating sweeps from sinks to sources and back. Crossings
+ * between two layers are counted with an accumulator tree in O(E log V) (see
+ * Barth, Mutzel, Juenger - Simple and Efficient Bilayer Cross Counting)
+ */
+public class BarycenterCR implements CrossingReduction {
+
+  /** maximum number of down+up sweeps */
+  private final static int MAX_SWEEPS = 24;
+
+  /** number of sweeps without improvement before we give up */
+  private final static int MAX_FRUITLESS_SWEEPS = 4;
+
+  /** layers of vertex ids (ordered) */
+  private int[][] layers;
+
+  /** first vertex id by layer */
+  private int[] offsets;
+
+  /** position of vertex in its layer by id */
+  private int[] positions;
+
+  /** adjacent vertex ids in layer-1 (below) and layer+1 (above) by id */
+  private int[][] below, above;
+
+  /** sort keys by id */
+  private double[] keys;
+
+  /**
+   * algorithmic part of reducing crossings of layers via layout
+   */
+  public void reduceCrossings(LayerAssignment layerAssignment) {
+
+    // nothing to do?
+    int height = layerAssignment.getHeight();
+    if (height<2)
+      return;
+
+    // grab layers and adjacencies
+    init(layerAssignment);
+
+    long best = countCrossings();
+    int[][] bestLayers = copy(layers);
+
+    // alternate sweeps until crossings can't be reduced anymore
+    for (int sweep=0, fruitless=0; sweep<MAX_SWEEPS && best>0 && fruitless<MAX_FRUITLESS_SWEEPS; sweep++) {
+
+      // from sinks up with fixed layer below, then back down with fixed layer above
+      if (sweep%2==0) {
+        for (int i=1;i<height;i++)
+          sortLayer(i, below);
+      } else {
+        for (int i=height-2;i>=0;i--)
+          sortLayer(i, above);
+      }
+
+      long crossings = countCrossings();
+      if (crossings<best) {
+        best = crossings;
+        bestLayers = copy(layers);
+        fruitless = 0;
+      } else {
+        fruitless++;
+      }
+    }
+
+    // apply best ordering
+    apply(layerAssignment, bestLayers);
+
+    // done
+  }
+
+  /**
+   * position of a vertex derived from the positions of its adjacent vertices
+   * @param adjacent positions of adjacent vertices in ascending order (not empty)
+   */
+  protected double getPosition(int[] adjacent) {
+    double sum = 0;
+    for (int i=0;i<adjacent.length;i++)
+      sum += adjacent[i];
+    return sum/adjacent.length;
+  }
+
+  /**
+   * number of crossings in current ordering
+   */
+  /*package*/ long countCrossings() {
+    long result = 0;
+    for (int i=1;i<layers.length;i++)
+      result += countCrossings(i);
+    return result;
+  }
+
+  /**
+   * number of crossings between layer and layer-1
+   */
+  private long countCrossings(int layer) {
+
+    int[] upper = layers[layer];
+    int lowerWidth = layers[layer-1].length;
+    if (upper.length<2||lowerWidth<2)
+      return 0;
+
+    // accumulator tree with lowerWidth leaves
+    int firstIndex = 1;
+    while (firstIndex<lowerWidth)
+      firstIndex *= 2;
+    int[] tree = new int[2*firstIndex-1];
+    firstIndex -= 1;
+
+    // edges ordered by upper then lower positions - count the ones that were inserted to the right
+    long result = 0;
+    for (int u=0;u<upper.length;u++) {
+      int[] ends = getPositions(below[upper[u]]);
+      for (int e=0;e<ends.length;e++) {
+        int index = ends[e] + firstIndex;
+        tree[index]++;
+        while (index>0) {
+          if (index%2!=0)
+            result += tree[index+1];
+          index = (index-1)/2;
+          tree[index]++;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * reorder a layer by positions of vertices in adjacent layer
+   */
+  private void sortLayer(int layer, int[][] adjacency) {
+
+    int[] vertices = layers[layer];
+    Integer[] order = new Integer[vertices.length];
+    for (int u=0;u<vertices.length;u++) {
+      int v = vertices[u];
+      order[u] = v;
+      // vertices without neighbours keep their position
+      keys[v] = adjacency[v].length==0 ? u : getPosition(getPositions(adjacency[v]));
+    }
+
+    // stable sort keeps current order for equal keys
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer v1, Integer v2) {
+        return Double.compare(keys[v1], keys[v2]);
+      }
+    });
+
+    for (int u=0;u<vertices.length;u++) {
+      vertices[u] = order[u];
+      positions[order[u]] = u;
+    }
+  }
+
+  /**
+   * sorted positions for vertices
+   */
+  private int[] getPositions(int[] vertices) {
+    int[] result = new int[vertices.length];
+    for (int i=0;i<result.length;i++)
+      result[i] = positions[vertices[i]];
+    Arrays.sort(result);
+    return result;
+  }
+
+  /**
+   * Assign ids to vertices in layer assignment and collect adjacencies
+   */
+  private void init(LayerAssignment layerAssignment) {
+
+    int height = layerAssignment.getHeight();
+
+    // ids by layer and initial position
+    layers = new int[height][];
+    offsets = new int[height];
+    int n = 0;
+    for (int i=0;i<height;i++) {
+      offsets[i] = n;
+      layers[i] = new int[layerAssignment.getWidth(i)];
+      for (int u=0;u<layers[i].length;u++)
+        layers[i][u] = n++;
+    }
+
+    positions = new int[n];
+    keys = new double[n];
+    below = new int[n][];
+    above = new int[n][];
+    for (int i=0;i<height;i++) {
+      for (int u=0;u<layers[i].length;u++) {
+        int v = layers[i][u];
+        positions[v] = u;
+        below[v] = toIds(i>0 ? layerAssignment.getOutgoingIndices(i, u) : new int[0], i>0 ? offsets[i-1] : 0);
+        above[v] = toIds(i<height-1 ? layerAssignment.getIncomingIndices(i, u) : new int[0], i<height-1 ? offsets[i+1] : 0);
+      }
+    }
+
+  }
+
+  private int[] toIds(int[] indices, int offset) {
+    int[] result = new int[indices.length];
+    for (int i=0;i<result.length;i++)
+      result[i] = offset + indices[i];
+    return result;
+  }
+
+  /**
+   * apply ordering to layer assignment
+   */
+  private void apply(LayerAssignment layerAssignment, int[][] ordering) {
+
+    for (int i=0;i<ordering.length;i++) {
+
+      // vertex ids in layer are offset+initial position
+      int[] order = ordering[i];
+      int offset = offsets[i];
+      int[] at = new int[order.length];
+      int[] pos = new int[order.length];
+      for (int u=0;u<order.length;u++) {
+        at[u] = offset+u;
+        pos[u] = u;
+      }
+
+      // move the wanted vertex into place one position at a time
+      for (int u=0;u<order.length;u++) {
+        int p = pos[order[u]-offset];
+        if (p!=u) {
+          layerAssignment.swapVertices(i, u, p);
+          int w = at[u];
+          at[u] = at[p];
+          at[p] = w;
+          pos[at[u]-offset] = u;
+          pos[at[p]-offset] = p;
+        }
+      }
+
+      // keep our state in sync
+      System.arraycopy(order, 0, layers[i], 0, order.length);
+      for (int u=0;u<order.length;u++)
+        positions[order[u]] = u;
+    }
+
+  }
+
+  private static int[][] copy(int[][] layers) {
+    int[][] result = new int[layers.length][];
+    for (int i=0;i<layers.length;i++)
+      result[i] = layers[i].clone();
+    return result;
+  }
+
+}
@@ -52,6 +52,7 @@ public class HierarchicalLayout implements GraphLayout {
   private double alignmentOfLayers = 0.5;
   private Comparator<Vertex> orderOfVerticesInLayer = null;
   private VertexPositioning positioning = VertexPositioning.Simplex;
+  private CrossingReductionHeuristic crossingReduction = CrossingReductionHeuristic.Barycenter;
   
   /**
    * do the layout
@@ -72,7 +73,7 @@ public class HierarchicalLayout implements GraphLayout {
     context.getLogger().fine("Layer assignment with "+layerAssignment.getHeight()+" layers, maximum width "+layerAssignment.getWidth()+", "+layerAssignment.getNumDummyVertices()+" dummy vertices");
     
     // 2nd step - crossing reduction
-    new LayerByLayerSweepCR().reduceCrossings(layerAssignment);
+    getCrossingReduction().reduceCrossings(layerAssignment);
     
     // 3rd step - vertex positioning and edge routing
     return new CompactVertexPositioning().apply(graph2d, layerAssignment);
@@ -163,6 +164,34 @@ public class HierarchicalLayout implements GraphLayout {
     this.positioning = positioning;
   }
   
+  /**
+   * Accessor - crossing reduction
+   */
+  public CrossingReductionHeuristic getCrossingReductionHeuristic() {
+    return crossingReduction;
+  }
+  
+  /**
+   * Accessor - crossing reduction
+   */
+  public void setCrossingReductionHeuristic(CrossingReductionHeuristic crossingReduction) {
+    this.crossingReduction = crossingReduction;
+  }
+  
+  /**
+   * crossing reduction for current heuristic
+   */
+  private CrossingReduction getCrossingReduction() {
+    switch (crossingReduction) {
+      case LayerByLayerSweep:
+        return new LayerByLayerSweepCR();
+      case Median:
+        return new MedianCR();
+      default:
+        return new BarycenterCR();
+    }
+  }
+  
   /**
    * Accessor - whether to pick ports for edges
    */
@@ -187,6 +216,17 @@ public class HierarchicalLayout implements GraphLayout {
     
   } //VertexPositioning
   
+  /**
+   * our supported crossing reductions
+   */
+  public enum CrossingReductionHeuristic {
+    
+    LayerByLayerSweep,
+    Barycenter,
+    Median
+    
+  } //CrossingReductionHeuristic
+  
   /**
    * a class for handling the vertex positioning
    */
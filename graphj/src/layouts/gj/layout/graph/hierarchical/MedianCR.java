@@ -0,0 +1,45 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.hierarchical;
+
+/**
+ * crossing reduction implementation sorting vertices by the weighted median of
+ * their neighbours (see Gansner et al - A Technique for Drawing Directed Graphs)
+ */
+public class MedianCR extends BarycenterCR {
+
+  @Override
+  protected double getPosition(int[] adjacent) {
+
+    int m = adjacent.length/2;
+    if (adjacent.length%2==1)
+      return adjacent[m];
+    if (adjacent.length==2)
+      return (adjacent[0]+adjacent[1])/2D;
+
+    // weigh the two medians by how spread out the neighbours on either side are
+    double left = adjacent[m-1] - adjacent[0];
+    double right = adjacent[adjacent.length-1] - adjacent[m];
+    if (left+right==0)
+      return (adjacent[m-1]+adjacent[m])/2D;
+    return (adjacent[m-1]*right + adjacent[m]*left) / (left+right);
+  }
+
+}
@@ -69,7 +69,13 @@ import java.util.Set;
   private Point2D top;
   private GeneralPath shape;
   private double orientation;
-  
+
+  /** constructor for an already placed parent and its children (no shape) */
+  /*package*/ Branch(Vertex parent, List<Branch> branches) {
+    this.root = parent;
+    this.branches = branches;
+  }
+
   /** constructor for a parent and its children */
   /*package*/ Branch(Vertex backtrack, Vertex parent, Graph2D graph2d, Deque<Vertex> stack, Set<Vertex> visited, TreeLayout layout, LayoutContext context) throws LayoutException, GraphNotSupportedException{
     
@@ -127,12 +127,12 @@ public enum EdgeLayout {
       // an outgoing edge
       if (edge.getStart().equals(parent))
         apply(graph2d, branch, parent, edge, i++, j, layout, context);
-      
-      // recurse
-      for (Branch sub : branch.getBranches())
-        apply(graph2d, sub, layout, context);
     }
-    
+
+    // recurse
+    for (Branch sub : branch.getBranches())
+      apply(graph2d, sub, layout, context);
+
     // done
   }
 
@@ -0,0 +1,461 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.tree;
+
+import static gj.geom.Geometry.QUARTER_RADIAN;
+import static gj.geom.Geometry.getRadian;
+import static gj.geom.ShapeHelper.createShape;
+import static gj.geom.ShapeHelper.getCenter;
+import static gj.util.LayoutHelper.getChildren;
+import static gj.util.LayoutHelper.getNeighbours;
+import gj.layout.Graph2D;
+import gj.layout.GraphNotSupportedException;
+import gj.layout.LayoutContext;
+import gj.layout.LayoutException;
+import gj.model.Vertex;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vertex layout for Trees in linear time - an alternative to TreeLayout's contour
+ * merging with the same options. Subtrees are placed with Walker's algorithm as
+ * improved by Buchheim, Juenger and Leipert (threaded contours and lazy shifts)
+ * on primitive arrays. Generations are aligned in layers.
+ */
+public class WalkerTreeLayout extends TreeLayout {
+
+  /**
+   * Layout a layout capable graph
+   */
+  @Override
+  public Shape apply(Graph2D graph2d, LayoutContext context) throws LayoutException {
+
+    // ignore an empty tree
+    Collection<? extends Vertex> vertices = graph2d.getVertices();
+    if (vertices.isEmpty())
+      return new Rectangle2D.Double();
+
+    // check root
+    Vertex root = getRoot(graph2d);
+    if (root==null)
+      throw new GraphNotSupportedException("Graph is not a tree (no vertex with in-degree of zero)");
+
+    context.getLogger().fine("root is ["+root+"]");
+
+    // collect the tree
+    Tree tree = new Tree(graph2d, root, vertices.size(), context);
+
+    // check spanning tree in case we assumed DAG with single source
+    if (isSingleSourceDAG()&&tree.size!=vertices.size()) {
+      context.getLogger().fine("not a spanning tree (#visited="+tree.size+" #vertices="+vertices.size());
+      throw new GraphNotSupportedException("Graph is not a spanning tree ("+vertices.size()+"!="+tree.size+")");
+    }
+
+    // place vertices
+    Rectangle2D result = tree.layout();
+    if (context.isDebug())
+      context.addDebugShape(result);
+
+    // layout edges
+    getEdgeLayout().apply(graph2d, tree.getBranch(), this, context);
+
+    // done
+    return result;
+  }
+
+  /**
+   * The tree in preorder with state for Walker's algorithm
+   */
+  private class Tree {
+
+    private Graph2D graph2d;
+    private int size;
+
+    /** vertices in preorder */
+    private Vertex[] vertices;
+
+    /** structure - parent, number in siblings and children (range in kids) */
+    private int[] parent, number, firstKid, numKids, kids, level;
+
+    /** extents of vertex from its center along breadth (left/right) and depth (near/far) */
+    private double[] left, right, near, far;
+
+    /** walker's state */
+    private double[] prelim, mod, shift, change;
+    private int[] thread, ancestor, defaultAncestor;
+
+    /** layout axes */
+    private double depthX, depthY, breadthX, breadthY;
+
+    /** constructor */
+    private Tree(Graph2D graph2d, Vertex root, int capacity, LayoutContext context) throws GraphNotSupportedException {
+
+      this.graph2d = graph2d;
+
+      double layoutAxis = getRadian(getOrientation());
+      depthX = Math.sin(layoutAxis);
+      depthY = -Math.cos(layoutAxis);
+      breadthX = Math.sin(layoutAxis-QUARTER_RADIAN);
+      breadthY = -Math.cos(layoutAxis-QUARTER_RADIAN);
+
+      vertices = new Vertex[capacity];
+      parent = new int[capacity];
+      number = new int[capacity];
+      level = new int[capacity];
+      numKids = new int[capacity];
+
+      // walk depth first collecting vertices in preorder
+      Map<Vertex, Integer> visited = new HashMap<Vertex, Integer>(capacity*4/3+1);
+      boolean[] onStack = new boolean[capacity];
+      List<List<Vertex>> todo = new ArrayList<List<Vertex>>();
+      int[] stack = new int[capacity];
+      int depth = 0;
+
+      visited.put(root, 0);
+      vertices[0] = root;
+      parent[0] = -1;
+      size = 1;
+      stack[0] = 0;
+      onStack[0] = true;
+      todo.add(children(null, root));
+
+      while (depth>=0) {
+
+        int p = stack[depth];
+        List<Vertex> children = todo.get(depth);
+        if (children.isEmpty()) {
+          onStack[p] = false;
+          todo.remove(depth--);
+          continue;
+        }
+
+        Vertex child = children.remove(0);
+
+        // catch possible recurse step into already visited nodes
+        Integer seen = visited.get(child);
+        if (seen!=null) {
+
+          // we don't allow directed cycles
+          if (onStack[seen]) {
+            context.getLogger().info("cannot handle directed cycle at all");
+            throw new GraphNotSupportedException("Graph contains cycle involving ["+vertices[p]+">"+child+"]");
+          }
+
+          // allowing acyclic graphs
+          if (!isSingleSourceDAG()) {
+            context.getLogger().info("cannot handle undirected graph with cycle unless isConsiderDirection=true");
+            throw new GraphNotSupportedException("Non Digraph contains non-directed cycle involving ["+vertices[p]+">"+child+"]");
+          }
+
+          // don't re-recurse into child
+          continue;
+        }
+
+        // recurse
+        int c = size++;
+        visited.put(child, c);
+        vertices[c] = child;
+        parent[c] = p;
+        number[c] = numKids[p]++;
+        level[c] = level[p]+1;
+        stack[++depth] = c;
+        onStack[c] = true;
+        todo.add(children(vertices[p], child));
+      }
+
+      // children by parent
+      firstKid = new int[size];
+      kids = new int[Math.max(0, size-1)];
+      for (int i=1, k=0;i<size;i++) {
+        if (number[i]==0) {
+          firstKid[parent[i]] = k;
+          k += numKids[parent[i]];
+        }
+        kids[firstKid[parent[i]]+number[i]] = i;
+      }
+
+      // extents of vertices
+      left = new double[size];
+      right = new double[size];
+      near = new double[size];
+      far = new double[size];
+      double[] coords = new double[6];
+      for (int i=0;i<size;i++) {
+        Shape shape = graph2d.getShape(vertices[i]);
+        Point2D center = getCenter(shape);
+        for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+          int type = it.currentSegment(coords);
+          int points = type==PathIterator.SEG_CUBICTO ? 3 : type==PathIterator.SEG_QUADTO ? 2 : type==PathIterator.SEG_CLOSE ? 0 : 1;
+          for (int j=0;j<points;j++) {
+            double dx = coords[j*2]-center.getX(), dy = coords[j*2+1]-center.getY();
+            double b = dx*breadthX + dy*breadthY, d = dx*depthX + dy*depthY;
+            right[i] = Math.max(right[i], b);
+            left[i] = Math.max(left[i], -b);
+            far[i] = Math.max(far[i], d);
+            near[i] = Math.max(near[i], -d);
+          }
+        }
+      }
+
+      // done
+    }
+
+    /** calculate children of parent */
+    private List<Vertex> children(Vertex backtrack, Vertex parent) throws GraphNotSupportedException {
+
+      List<Vertex> result = new ArrayList<Vertex>(10);
+
+      // either all children as per directed edges or all neighbours w/o backtrack
+      if (isSingleSourceDAG()) {
+        result.addAll(getChildren(parent));
+        if (backtrack!=null && result.contains(backtrack))
+          throw new GraphNotSupportedException("Graph contains backtracking edge ["+parent+">"+backtrack+"]");
+      } else {
+        result.addAll(getNeighbours(parent));
+        result.remove(backtrack);
+      }
+
+      // order siblings by their position
+      if (isOrderSiblingsByPosition()&&result.size()>1) {
+        final double layoutAxis = getRadian(getOrientation());
+        Collections.sort(result, new Comparator<Vertex>() {
+          public int compare(Vertex v1, Vertex v2) {
+            Point2D p1 = getCenter(graph2d.getShape(v1));
+            Point2D p2 = getCenter(graph2d.getShape(v2));
+            return (int)(Math.cos(layoutAxis) * (p2.getX()-p1.getX()) + Math.sin(layoutAxis) * (p2.getY()-p1.getY()));
+          }
+        });
+      }
+
+      // done
+      return result;
+    }
+
+    /** place all vertices and return bounds */
+    private Rectangle2D layout() {
+
+      prelim = new double[size];
+      mod = new double[size];
+      shift = new double[size];
+      change = new double[size];
+      thread = new int[size];
+      ancestor = new int[size];
+      defaultAncestor = new int[size];
+      for (int i=0;i<size;i++) {
+        thread[i] = -1;
+        ancestor[i] = i;
+      }
+
+      // first walk in postorder
+      int[] stack = new int[size];
+      int[] next = new int[size];
+      int depth = 0;
+      stack[0] = 0;
+      while (depth>=0) {
+        int v = stack[depth];
+        if (next[v]<numKids[v]) {
+          stack[++depth] = kids[firstKid[v]+next[v]++];
+          continue;
+        }
+        firstWalk(v);
+        depth--;
+      }
+
+      // layers
+      int levels = 0;
+      for (int i=0;i<size;i++)
+        levels = Math.max(levels, level[i]+1);
+      double[] layer = new double[levels];
+      for (int i=0;i<size;i++)
+        layer[level[i]] = Math.max(layer[level[i]], near[i]+far[i]);
+      double[] top = new double[levels];
+      for (int i=1;i<levels;i++)
+        top[i] = top[i-1] + layer[i-1] + getDistanceBetweenGenerations();
+
+      // second walk in preorder (parents before children)
+      Rectangle2D result = null;
+      double[] modsum = new double[size];
+      for (int v=0;v<size;v++) {
+        if (v>0)
+          modsum[v] = modsum[parent[v]] + mod[parent[v]];
+        double b = prelim[v] + modsum[v];
+        double d = top[level[v]] + near[v];
+        Shape shape = createShape(graph2d.getShape(vertices[v]), new Point2D.Double(b*breadthX + d*depthX, b*breadthY + d*depthY));
+        graph2d.setShape(vertices[v], shape);
+        if (result==null)
+          result = shape.getBounds2D();
+        else
+          result.add(shape.getBounds2D());
+      }
+
+      // done
+      return result;
+    }
+
+    /** the branch structure for edge layouts */
+    private Branch getBranch() {
+      Branch[] branches = new Branch[size];
+      for (int v=size-1;v>=0;v--) {
+        List<Branch> children = new ArrayList<Branch>(numKids[v]);
+        for (int k=0;k<numKids[v];k++)
+          children.add(branches[kids[firstKid[v]+k]]);
+        branches[v] = new Branch(vertices[v], children);
+      }
+      return branches[0];
+    }
+
+    /** walker's first walk for a vertex with all children walked */
+    private void firstWalk(int v) {
+
+      int w = number[v]>0 ? kids[firstKid[parent[v]]+number[v]-1] : -1;
+
+      // a leaf next to its left sibling or an inner vertex placed over its children
+      if (numKids[v]==0) {
+        prelim[v] = w<0 ? 0 : prelim[w] + distance(w, v);
+      } else {
+        executeShifts(v);
+        double position = position(v);
+        if (w<0) {
+          prelim[v] = position;
+        } else {
+          prelim[v] = prelim[w] + distance(w, v);
+          mod[v] = prelim[v] - position;
+        }
+      }
+
+      // move away from left siblings before the next sibling is placed
+      if (parent[v]<0)
+        return;
+      if (w<0)
+        defaultAncestor[parent[v]] = v;
+      else
+        defaultAncestor[parent[v]] = apportion(v, defaultAncestor[parent[v]]);
+    }
+
+    /** preliminary position of a parent relative to its children */
+    private double position(int v) {
+      int first = kids[firstKid[v]], last = kids[firstKid[v]+numKids[v]-1];
+      double l = prelim[first]-left[first], r = prelim[last]+right[last];
+      switch (getAlignmentOfParents()) {
+        case Left:
+          return l + left[v];
+        case Right:
+          return r - right[v];
+        case LeftOffset:
+          return l - getDistanceInGeneration() - right[v];
+        case RightOffset:
+          return r + getDistanceInGeneration() + left[v];
+        default: case Center:
+          return (l+r)/2;
+      }
+    }
+
+    /** move subtree of v away from its left siblings' subtrees */
+    private int apportion(int v, int defaultAncestor) {
+
+      int w = kids[firstKid[parent[v]]+number[v]-1];
+
+      // inside and outside contours of left (m) and right (p) side
+      int vip = v, vop = v, vim = w, vom = kids[firstKid[parent[v]]];
+      double sip = mod[vip], sop = mod[vop], sim = mod[vim], som = mod[vom];
+
+      while (nextRight(vim)>=0 && nextLeft(vip)>=0) {
+        vim = nextRight(vim);
+        vip = nextLeft(vip);
+        vom = nextLeft(vom);
+        vop = nextRight(vop);
+        ancestor[vop] = v;
+        double s = (prelim[vim]+sim) - (prelim[vip]+sip) + distance(vim, vip);
+        if (s>0) {
+          moveSubtree(parent[ancestor[vim]]==parent[v] ? ancestor[vim] : defaultAncestor, v, s);
+          sip += s;
+          sop += s;
+        }
+        sim += mod[vim];
+        sip += mod[vip];
+        som += mod[vom];
+        sop += mod[vop];
+      }
+
+      // thread contours
+      if (nextRight(vim)>=0 && nextRight(vop)<0) {
+        thread[vop] = nextRight(vim);
+        mod[vop] += sim - sop;
+      }
+      if (nextLeft(vip)>=0 && nextLeft(vom)<0) {
+        thread[vom] = nextLeft(vip);
+        mod[vom] += sip - som;
+        defaultAncestor = v;
+      }
+
+      return defaultAncestor;
+    }
+
+    /** shift subtree wp and (if balanced) the ones between wm and wp */
+    private void moveSubtree(int wm, int wp, double s) {
+      if (getBalanceChildren()) {
+        int subtrees = number[wp] - number[wm];
+        change[wp] -= s/subtrees;
+        shift[wp] += s;
+        change[wm] += s/subtrees;
+      }
+      prelim[wp] += s;
+      mod[wp] += s;
+    }
+
+    /** apply accumulated shifts to children */
+    private void executeShifts(int v) {
+      double s = 0, c = 0;
+      for (int k=numKids[v]-1;k>=0;k--) {
+        int w = kids[firstKid[v]+k];
+        prelim[w] += s;
+        mod[w] += s;
+        c += change[w];
+        s += shift[w] + c;
+      }
+    }
+
+    private int nextLeft(int v) {
+      return numKids[v]>0 ? kids[firstKid[v]] : thread[v];
+    }
+
+    private int nextRight(int v) {
+      return numKids[v]>0 ? kids[firstKid[v]+numKids[v]-1] : thread[v];
+    }
+
+    /** required distance between centers of v (left) and w (right) */
+    private double distance(int v, int w) {
+      return right[v] + getDistanceInGeneration() + left[w];
+    }
+
+  } //Tree
+
+} //WalkerTreeLayout
@@ -0,0 +1,195 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.hierarchical;
+
+import gj.layout.Graph2D;
+import gj.model.Edge;
+import gj.model.Vertex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test barycenter/median crossing reduction
+ */
+public class BarycenterCRTest extends TestCase {
+
+  /**
+   * counting crossings with accumulator tree vs pairwise
+   */
+  public void testCountCrossings() {
+    for (int seed=0;seed<20;seed++) {
+      Layers layers = new Layers(new Random(seed), 5, 12);
+      BarycenterCR cr = new BarycenterCR() {
+        @Override
+        protected double getPosition(int[] adjacent) {
+          return 0;
+        }
+      };
+      cr.reduceCrossings(layers);
+      assertEquals(layers.countCrossings(), cr.countCrossings());
+    }
+  }
+
+  /**
+   * sweeps never make things worse
+   */
+  public void testReduceCrossings() {
+    for (CrossingReduction cr : new CrossingReduction[]{ new BarycenterCR(), new MedianCR() }) {
+      long before = 0, after = 0;
+      for (int seed=0;seed<20;seed++) {
+        Layers layers = new Layers(new Random(seed), 6, 15);
+        long crossings = layers.countCrossings();
+        cr.reduceCrossings(layers);
+        assertTrue(layers.countCrossings()<=crossings);
+        before += crossings;
+        after += layers.countCrossings();
+      }
+      assertTrue(after<before/2);
+    }
+  }
+
+  /**
+   * a crossing of two lines - K(2,2)
+   */
+  public void testSimpleCrossing() {
+    Layers layers = new Layers(2, 2);
+    layers.connect(1, 0, 0, 1);
+    layers.connect(1, 1, 0, 0);
+    assertEquals(1, layers.countCrossings());
+    new MedianCR().reduceCrossings(layers);
+    assertEquals(0, layers.countCrossings());
+  }
+
+  /**
+   * layers with random edges between adjacent layers (layer 0 at the bottom)
+   */
+  private static class Layers implements LayerAssignment {
+
+    /** vertex ids by layer and position */
+    private List<List<Integer>> layers = new ArrayList<List<Integer>>();
+
+    /** vertex ids below and above vertex */
+    private List<List<Integer>> below = new ArrayList<List<Integer>>(), above = new ArrayList<List<Integer>>();
+
+    private Layers(int height, int width) {
+      int id = 0;
+      for (int i=0;i<height;i++) {
+        List<Integer> layer = new ArrayList<Integer>();
+        for (int u=0;u<width;u++) {
+          layer.add(id++);
+          below.add(new ArrayList<Integer>());
+          above.add(new ArrayList<Integer>());
+        }
+        layers.add(layer);
+      }
+    }
+
+    private Layers(Random random, int height, int width) {
+      this(height, width);
+      for (int i=1;i<height;i++) {
+        for (int u=0;u<width;u++) {
+          for (int e=random.nextInt(3);e>0;e--)
+            connect(i, u, i-1, random.nextInt(width));
+        }
+      }
+    }
+
+    private void connect(int layer, int u, int lower, int v) {
+      int from = layers.get(layer).get(u), to = layers.get(lower).get(v);
+      if (!below.get(from).contains(to)) {
+        below.get(from).add(to);
+        above.get(to).add(from);
+      }
+    }
+
+    private long countCrossings() {
+      long result = 0;
+      for (int i=1;i<layers.size();i++) {
+        List<Integer> upper = layers.get(i), lower = layers.get(i-1);
+        for (int u1=0;u1<upper.size();u1++) {
+          for (int u2=u1+1;u2<upper.size();u2++) {
+            for (int v1 : below.get(upper.get(u1))) {
+              for (int v2 : below.get(upper.get(u2))) {
+                if (lower.indexOf(v1)>lower.indexOf(v2))
+                  result++;
+              }
+            }
+          }
+        }
+      }
+      return result;
+    }
+
+    private int[] indices(int layer, List<Integer> ids) {
+      int[] result = new int[ids.size()];
+      for (int i=0;i<result.length;i++)
+        result[i] = layers.get(layer).indexOf(ids.get(i));
+      return result;
+    }
+
+    public int[] getOutgoingIndices(int layer, int u) {
+      return indices(layer-1, below.get(layers.get(layer).get(u)));
+    }
+
+    public int[] getIncomingIndices(int layer, int u) {
+      return indices(layer+1, above.get(layers.get(layer).get(u)));
+    }
+
+    public void swapVertices(int layer, int u, int v) {
+      List<Integer> ids = layers.get(layer);
+      ids.set(u, ids.set(v, ids.get(u)));
+    }
+
+    public int getHeight() {
+      return layers.size();
+    }
+
+    public int getWidth(int layer) {
+      return layers.get(layer).size();
+    }
+
+    public int getWidth() {
+      return layers.get(0).size();
+    }
+
+    public void assignLayers(Graph2D graph, Comparator<Vertex> orderOfVerticesInLayer) {
+      throw new IllegalArgumentException("n/a");
+    }
+
+    public int getNumDummyVertices() {
+      return 0;
+    }
+
+    public Vertex getVertex(int layer, int u) {
+      throw new IllegalArgumentException("n/a");
+    }
+
+    public Routing getRouting(Edge edge) {
+      throw new IllegalArgumentException("n/a");
+    }
+
+  }
+
+}
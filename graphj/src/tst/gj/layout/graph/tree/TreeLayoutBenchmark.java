@@ -0,0 +1,61 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.tree;
+
+import gj.layout.Graph2D;
+import gj.layout.LayoutException;
+import gj.util.DefaultLayoutContext;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+/**
+ * Compare TreeLayout's contour merging with WalkerTreeLayout on large trees
+ * <pre>
+ *   java -cp ... gj.layout.graph.tree.TreeLayoutBenchmark 10000 50000 100000
+ * </pre>
+ */
+public class TreeLayoutBenchmark {
+
+  /** trees larger than this aren't handed to the recursive contour engine */
+  private final static int MAX_CONTOUR_SIZE = 20000;
+
+  public static void main(String[] args) throws LayoutException {
+
+    int[] sizes = args.length==0 ? new int[]{ 10000, 50000, 100000 } : new int[args.length];
+    for (int i=0;i<args.length;i++)
+      sizes[i] = Integer.parseInt(args[i]);
+
+    for (int round=0;round<3;round++) {
+      for (int size : sizes) {
+        System.out.println("round "+round+" #vertices "+size
+            +" walker "+run(new WalkerTreeLayout(), size)
+            +" contours "+(size>MAX_CONTOUR_SIZE ? "n/a" : run(new TreeLayout(), size)));
+      }
+    }
+  }
+
+  private static String run(TreeLayout layout, int size) throws LayoutException {
+    Graph2D graph = WalkerTreeLayoutTest.tree(new Random(size), size);
+    long start = System.currentTimeMillis();
+    Rectangle2D bounds = layout.apply(graph, new DefaultLayoutContext()).getBounds2D();
+    return (System.currentTimeMillis()-start)+"ms ("+(int)bounds.getWidth()+"x"+(int)bounds.getHeight()+")";
+  }
+}
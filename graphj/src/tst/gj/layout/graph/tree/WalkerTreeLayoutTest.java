@@ -0,0 +1,158 @@
+/**
+ * This file is part of GraphJ
+ *
+ * Copyright (C) 2009 Nils Meier
+ *
+ * GraphJ is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * GraphJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with GraphJ; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package gj.layout.graph.tree;
+
+import static gj.geom.ShapeHelper.getCenter;
+import gj.layout.Graph2D;
+import gj.layout.GraphNotSupportedException;
+import gj.layout.LayoutException;
+import gj.model.Edge;
+import gj.model.Graph;
+import gj.model.Vertex;
+import gj.util.DefaultEdge;
+import gj.util.DefaultGraph;
+import gj.util.DefaultLayoutContext;
+import gj.util.DefaultVertex;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test linear time tree layout
+ */
+public class WalkerTreeLayoutTest extends TestCase {
+
+  /**
+   * no two vertices overlap - in all orientations and alignments
+   */
+  public void testNoOverlaps() throws LayoutException {
+
+    for (int orientation=0;orientation<360;orientation+=90) {
+      for (Alignment alignment : Alignment.values()) {
+        Graph2D graph = tree(new Random(orientation), 200);
+        WalkerTreeLayout layout = new WalkerTreeLayout();
+        layout.setOrientation(orientation);
+        layout.setAlignmentOfParents(alignment);
+        layout.setBalanceChildren(orientation%180==0);
+        layout.apply(graph, new DefaultLayoutContext());
+
+        List<Rectangle2D> bounds = new ArrayList<Rectangle2D>();
+        for (Vertex vertex : graph.getVertices())
+          bounds.add(graph.getShape(vertex).getBounds2D());
+        for (int i=0;i<bounds.size();i++) {
+          for (int j=i+1;j<bounds.size();j++) {
+            Rectangle2D intersection = bounds.get(i).createIntersection(bounds.get(j));
+            assertFalse(alignment+"@"+orientation, intersection.getWidth()>0.001&&intersection.getHeight()>0.001);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * parents are centered over children and generations are top aligned layers
+   */
+  public void testCenter() throws LayoutException {
+
+    Graph2D graph = tree(new Random(0), 50);
+    new WalkerTreeLayout().apply(graph, new DefaultLayoutContext());
+
+    for (Vertex parent : graph.getVertices()) {
+      List<Vertex> children = new ArrayList<Vertex>();
+      for (Edge edge : ((DefaultVertex<?>)parent).getEdges()) {
+        if (edge.getStart().equals(parent))
+          children.add(edge.getEnd());
+      }
+      if (children.isEmpty())
+        continue;
+      double min = Double.MAX_VALUE, max = -Double.MAX_VALUE, y = Double.NaN;
+      for (Vertex child : children) {
+        Rectangle2D bounds = graph.getShape(child).getBounds2D();
+        min = Math.min(min, bounds.getMinX());
+        max = Math.max(max, bounds.getMaxX());
+        if (!Double.isNaN(y))
+          assertEquals(y, bounds.getMinY(), 0.001);
+        y = bounds.getMinY();
+      }
+      assertEquals((min+max)/2, getCenter(graph.getShape(parent)).getX(), 0.001);
+      assertTrue(graph.getShape(parent).getBounds2D().getMaxY()<y);
+    }
+  }
+
+  /**
+   * cycles are caught
+   */
+  public void testCycle() throws LayoutException {
+    DefaultVertex<Integer> a = new DefaultVertex<Integer>(0), b = new DefaultVertex<Integer>(1), c = new DefaultVertex<Integer>(2);
+    List<Vertex> vertices = new ArrayList<Vertex>();
+    List<Edge> edges = new ArrayList<Edge>();
+    vertices.add(a); vertices.add(b); vertices.add(c);
+    edges.add(new DefaultEdge<Integer>(a, b));
+    edges.add(new DefaultEdge<Integer>(b, c));
+    edges.add(new DefaultEdge<Integer>(c, b));
+    WalkerTreeLayout layout = new WalkerTreeLayout();
+    try {
+      layout.apply(graph(vertices, edges), new DefaultLayoutContext());
+      fail("cycle not detected");
+    } catch (GraphNotSupportedException e) {
+    }
+  }
+
+  /**
+   * a random tree of vertices with random sizes
+   */
+  /*package*/ static Graph2D tree(Random random, int size) {
+    List<Vertex> vertices = new ArrayList<Vertex>(size);
+    List<Edge> edges = new ArrayList<Edge>(size);
+    final List<Shape> shapes = new ArrayList<Shape>(size);
+    for (int i=0;i<size;i++) {
+      DefaultVertex<Integer> vertex = new DefaultVertex<Integer>(i);
+      vertices.add(vertex);
+      shapes.add(new Rectangle(0, 0, 10+random.nextInt(30), 10+random.nextInt(20)));
+      // attach to any earlier vertex - a random recursive tree of logarithmic depth
+      if (i>0) {
+        @SuppressWarnings("unchecked")
+        DefaultVertex<Integer> parent = (DefaultVertex<Integer>)vertices.get(random.nextInt(i));
+        edges.add(new DefaultEdge<Integer>(parent, vertex));
+      }
+    }
+    DefaultGraph result = graph(vertices, edges);
+    for (int i=0;i<size;i++)
+      result.setShape(vertices.get(i), shapes.get(i));
+    return result;
+  }
+
+  private static DefaultGraph graph(final List<Vertex> vertices, final List<Edge> edges) {
+    return new DefaultGraph(new Graph() {
+      public List<Vertex> getVertices() {
+        return vertices;
+      }
+      public List<Edge> getEdges() {
+        return edges;
+      }
+    });
+  }
+}